@@ -31,8 +31,21 @@ COMMENT ON COLUMN flight_summaries.generated_at IS 'Timestamp when summary was g
 COMMENT ON COLUMN flight_summaries.created_at IS 'Record creation timestamp';
 COMMENT ON COLUMN flight_summaries.updated_at IS 'Last update timestamp';
 
+-- Create summary_cache table (shared tier of the llm-summary-service summary cache)
+CREATE TABLE IF NOT EXISTS summary_cache (
+    cache_key VARCHAR(64) PRIMARY KEY,
+    summary_text TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_summary_cache_created_at ON summary_cache(created_at);
+
+COMMENT ON TABLE summary_cache IS 'Generated summaries by prompt hash, reused for identical prompt input';
+COMMENT ON COLUMN summary_cache.cache_key IS 'SHA-256 (hex) of model settings, prompts and flight data';
+
 -- Grant permissions
 GRANT ALL PRIVILEGES ON TABLE flight_summaries TO airline_tracker_user;
+GRANT ALL PRIVILEGES ON TABLE summary_cache TO airline_tracker_user;
 GRANT USAGE, SELECT ON SEQUENCE flight_summaries_id_seq TO airline_tracker_user;
 
 -- Log initialization
@@ -0,0 +1,96 @@
+package com.airlinetracker.flightdata.benchmark;
+
+import com.airlinetracker.flightdata.client.FlightAwareResponseParser;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FlightAware response parsing: throughput and allocation per response
+ *
+ * Payloads (src/jmh/resources/aeroapi) follow the AeroAPI /flights/{ident}
+ * schema: a single-flight page and a full 15-flight history page.
+ *
+ * - perCallMapper: previous client behaviour (new ObjectMapper per response,
+ *                  body decoded to String, whole wrapper bound)
+ * - sharedMapper:  shared ObjectReader, whole wrapper bound
+ * - streaming:     FlightAwareResponseParser, stops after flights[0]
+ *
+ * Run with -prof gc to see gc.alloc.rate.norm (bytes allocated per response).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightAwareParseBenchmark {
+
+    @Param({"flights-single.json", "flights-page.json"})
+    private String payload;
+
+    private byte[] body;
+
+    private final ObjectReader sharedWrapperReader = newMapper().readerFor(FlightAwareResponse.class);
+    private final FlightAwareResponseParser responseParser = new FlightAwareResponseParser();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        try (InputStream in = getClass().getResourceAsStream("/aeroapi/" + payload)) {
+            body = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public FlightData perCallMapper() throws IOException {
+        String text = new String(body, StandardCharsets.UTF_8);
+        FlightAwareResponse response = newMapper().readValue(text, FlightAwareResponse.class);
+        return response.flights.get(0);
+    }
+
+    @Benchmark
+    public FlightData sharedMapper() throws IOException {
+        FlightAwareResponse response = sharedWrapperReader.readValue(body);
+        return response.flights.get(0);
+    }
+
+    @Benchmark
+    public FlightData streaming() {
+        return responseParser.parseFirstFlight(body);
+    }
+
+    private static ObjectMapper newMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Shape of the wrapper the client used to bind in full.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FlightAwareResponse {
+        @JsonProperty("flights")
+        public List<FlightData> flights;
+
+        @JsonProperty("links")
+        public Object links;
+
+        @JsonProperty("num_pages")
+        public Integer numPages;
+    }
+}
@@ -0,0 +1,92 @@
+package com.airlinetracker.flightdata.benchmark;
+
+import com.airlinetracker.flightdata.cache.FlightDataBinarySerializer;
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "flights" cache value format: bytes per entry and encode/decode cost
+ *
+ * - json:   GenericJackson2JsonRedisSerializer with default typing (previous format)
+ * - binary: FlightDataBinarySerializer
+ *
+ * Entries: an en-route flight with every field set, and a scheduled
+ * flight without actual times or position.
+ *
+ * Bytes per entry are printed once per trial ("[bytes/entry] ...").
+ * Run with -prof gc to see gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightCacheSerializerBenchmark {
+
+    @Param({"json", "binary"})
+    private String format;
+
+    @Param({"enRoute", "scheduled"})
+    private String entry;
+
+    private RedisSerializer<Object> serializer;
+    private FlightData flightData;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisSerializer<Object> json = RedisConfig.jsonValueSerializer();
+        serializer = "json".equals(format) ? json : new FlightDataBinarySerializer(json);
+        flightData = "enRoute".equals(entry) ? enRoute() : scheduled();
+        encoded = serializer.serialize(flightData);
+        System.out.printf("%n[bytes/entry] %s %s: %d%n", format, entry, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(flightData);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static FlightData enRoute() {
+        return FlightData.builder()
+                .faFlightId("UAL123-1710489600-airline-0123")
+                .ident("UAL123")
+                .status("En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+                .actualIn(null)
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(39.8561)
+                .longitude(-104.6737)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+
+    private static FlightData scheduled() {
+        return FlightData.builder()
+                .faFlightId("DAL456-1710504000-airline-0456")
+                .ident("DAL456")
+                .status("Scheduled")
+                .scheduledOut(Instant.parse("2024-03-15T20:00:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T23:10:00Z"))
+                .origin("KATL")
+                .destination("KLAX")
+                .aircraftType("A321")
+                .build();
+    }
+}
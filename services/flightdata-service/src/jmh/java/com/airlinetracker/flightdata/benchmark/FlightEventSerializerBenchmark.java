@@ -0,0 +1,105 @@
+package com.airlinetracker.flightdata.benchmark;
+
+import com.airlinetracker.flightdata.config.FlightDataAvroSerializer;
+import com.airlinetracker.flightdata.config.FlightDataSchemas;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * flight-data-events value format: bytes per record and ser/de cost
+ *
+ * - json: JsonSerializer with null fields omitted (previous format) and the
+ *         JsonDeserializer llm-summary-service used
+ * - avro: FlightDataAvroSerializer / FlightDataSchemas (single-object encoding)
+ *
+ * Records: a full en-route snapshot, and a position delta (ids + 4 fields).
+ *
+ * Bytes per record are printed once per trial ("[bytes/record] ...").
+ * Run with -prof gc to see gc.alloc.rate.norm (bytes allocated per operation).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightEventSerializerBenchmark {
+
+    private static final String TOPIC = "flight-data-events";
+
+    @Param({"json", "avro"})
+    private String format;
+
+    @Param({"snapshot", "delta"})
+    private String entry;
+
+    private Serializer<FlightData> serializer;
+    private Function<byte[], FlightData> deserializer;
+    private FlightData flightData;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("json".equals(format)) {
+            serializer = new JsonSerializer<FlightData>(JacksonUtils.enhancedObjectMapper()
+                    .setSerializationInclusion(JsonInclude.Include.NON_NULL)).noTypeInfo();
+            JsonDeserializer<FlightData> json = new JsonDeserializer<>(FlightData.class, false);
+            deserializer = bytes -> json.deserialize(TOPIC, bytes);
+        } else {
+            FlightDataSchemas schemas = FlightDataSchemas.load();
+            serializer = new FlightDataAvroSerializer(schemas);
+            deserializer = schemas::decode;
+        }
+        flightData = "snapshot".equals(entry) ? snapshot() : delta();
+        encoded = serializer.serialize(TOPIC, flightData);
+        System.out.printf("%n[bytes/record] %s %s: %d%n", format, entry, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, flightData);
+    }
+
+    @Benchmark
+    public FlightData deserialize() {
+        return deserializer.apply(encoded);
+    }
+
+    private static FlightData snapshot() {
+        return FlightData.builder()
+                .faFlightId("UAL123-1710489600-airline-0123")
+                .ident("UAL123")
+                .status("En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(39.8561)
+                .longitude(-104.6737)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+
+    private static FlightData delta() {
+        return FlightData.builder()
+                .faFlightId("UAL123-1710489600-airline-0123")
+                .ident("UAL123")
+                .latitude(40.1172)
+                .longitude(-101.3548)
+                .altitude(36000)
+                .groundspeed(462)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.airlinetracker.flightdata.benchmark;
+
+import com.airlinetracker.flightdata.cache.LastKnownGoodStore;
+import com.airlinetracker.flightdata.cache.ReactiveFlightCache;
+import com.airlinetracker.flightdata.client.FlightAwareClient;
+import com.airlinetracker.flightdata.config.RateLimitConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.service.FlightDataService;
+import com.airlinetracker.flightdata.service.FlightDeltaEncoder;
+import com.airlinetracker.flightdata.service.FlightEventChangeDetector;
+import com.airlinetracker.flightdata.service.FlightEventOutbox;
+import com.airlinetracker.flightdata.service.FlightFetchCoalescer;
+import com.airlinetracker.flightdata.service.FlightLookupService;
+import com.airlinetracker.flightdata.service.FlightStatePublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Servlet vs reactive lookup under a burst of slow cache misses
+ *
+ * Every invocation fires {@code concurrentMisses} lookups for distinct idents
+ * against a FlightAware stand-in that answers after {@code upstreamLatencyMs}
+ * (timer-based, like a slow HTTP response). Reported time = wall clock until
+ * the whole burst has been answered.
+ *
+ * Both modes go through FlightLookupService, the path FlightController uses:
+ * - servlet:  blocking lookup (Cache + loadFlight) on a pool sized like
+ *             Tomcat's default max threads (server.tomcat.threads.max = 200)
+ * - reactive: reactive lookup (ReactiveFlightCache + loadFlightReactive),
+ *             no request threads
+ *
+ * Expected shape: servlet ≈ ceil(misses / threads) × latency,
+ *                 reactive ≈ latency, independent of the burst size.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FlightLookupModeBenchmark {
+
+    @Param({"servlet", "reactive"})
+    private String mode;
+
+    @Param({"2000"})
+    private int concurrentMisses;
+
+    @Param({"200"})
+    private int upstreamLatencyMs;
+
+    @Param({"200"})
+    private int servletThreads;
+
+    private final AtomicLong identSequence = new AtomicLong();
+    private FlightLookupService flightLookupService;
+    private ExecutorService servletPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Duration latency = Duration.ofMillis(upstreamLatencyMs);
+        FlightAwareClient slowFlightAware = new FlightAwareClient(
+                WebClient.create(), "benchmark",
+                new RateLimitConfig.RateLimiter(null, 0, 0, 0, false)) {
+            @Override
+            public Mono<FlightData> getFlightByIdent(String ident) {
+                return Mono.just(flight(ident)).delayElement(latency);
+            }
+        };
+
+        FlightEventOutbox flightEventOutbox = mock(FlightEventOutbox.class);
+        FlightStatePublisher flightStatePublisher = mock(FlightStatePublisher.class);
+
+        ReactiveFlightCache reactiveFlightCache = mock(ReactiveFlightCache.class);
+        when(reactiveFlightCache.get(anyString())).thenReturn(Mono.empty());
+        when(reactiveFlightCache.put(anyString(), any())).thenReturn(Mono.empty());
+
+        LastKnownGoodStore lastKnownGoodStore = mock(LastKnownGoodStore.class);
+        when(lastKnownGoodStore.save(anyString(), any())).thenReturn(Mono.empty());
+        when(lastKnownGoodStore.get(anyString())).thenReturn(Mono.empty());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FlightDataService flightDataService = new FlightDataService(
+                slowFlightAware,
+                flightEventOutbox,
+                new FlightEventChangeDetector(meterRegistry, true, 5.0, 100_000, 24),
+                new FlightDeltaEncoder(meterRegistry, true, 10, 600, 100_000),
+                flightStatePublisher,
+                new FlightFetchCoalescer(meterRegistry),
+                reactiveFlightCache,
+                lastKnownGoodStore,
+                meterRegistry);
+        flightLookupService = new FlightLookupService(
+                flightDataService,
+                reactiveFlightCache,
+                lastKnownGoodStore,
+                new ConcurrentMapCacheManager("flights"),
+                meterRegistry,
+                "reactive".equals(mode),
+                300);
+
+        servletPool = Executors.newFixedThreadPool(servletThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servletPool.shutdownNow();
+    }
+
+    @Benchmark
+    public long burstOfSlowMisses() throws Exception {
+        long base = identSequence.getAndAdd(concurrentMisses);
+
+        if ("reactive".equals(mode)) {
+            return Flux.range(0, concurrentMisses)
+                    .flatMap(i -> flightLookupService.lookup("BM" + (base + i)), concurrentMisses)
+                    .count()
+                    .block();
+        }
+
+        List<Future<FlightLookupService.Result>> responses = new ArrayList<>(concurrentMisses);
+        for (int i = 0; i < concurrentMisses; i++) {
+            String ident = "BM" + (base + i);
+            responses.add(servletPool.submit(() -> flightLookupService.lookup(ident).block()));
+        }
+        long answered = 0;
+        for (Future<FlightLookupService.Result> response : responses) {
+            if (response.get() != null) {
+                answered++;
+            }
+        }
+        return answered;
+    }
+
+    private static FlightData flight(String ident) {
+        return FlightData.builder()
+                .faFlightId(ident + "-1700000000-airline-0001")
+                .ident(ident)
+                .status("En-Route / In Flight")
+                .origin("KORD")
+                .destination("KLAX")
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Flight Data Service Application
@@ -11,6 +12,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  * Responsibility (from ARCHITECTURE.md):
  * - Fetch flight data from FlightAware AeroAPI
  * - Implement Cache-Aside pattern with Redis (5 minute TTL)
+ * - Refresh hot cache entries ahead of expiry (scheduled)
  * - Publish flight-data-updated events to Kafka
  * - Register with Eureka service registry
  * 
@@ -19,6 +21,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableCaching
+@EnableScheduling
 public class FlightDataServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,58 @@
+package com.airlinetracker.flightdata.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Publishes L1 invalidations to peer replicas over Redis pub/sub.
+ *
+ * Message format (newline separated):
+ *   {instanceId}\n{cacheName}\n{key}   → evict one key
+ *   {instanceId}\n{cacheName}          → clear whole cache
+ *
+ * The instanceId lets each replica ignore its own broadcasts.
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "cache:invalidation";
+    static final String SEPARATOR = "\n";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String instanceId;
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.instanceId = UUID.randomUUID().toString();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(evictMessage(cacheName, key));
+    }
+
+    /**
+     * Evict message body, for callers publishing through a reactive connection
+     */
+    public String evictMessage(String cacheName, String key) {
+        return instanceId + SEPARATOR + cacheName + SEPARATOR + key;
+    }
+
+    public void publishClear(String cacheName) {
+        publish(instanceId + SEPARATOR + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception e) {
+            // Peers fall back to their short L1 TTL, so never fail the write
+            log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Per-entry TTL for the "flights" cache, derived from the flight's phase
+ *
+ * A flight six hours from departure and one en route with moving
+ * latitude/longitude/altitude should not share one TTL: the first wastes
+ * AeroAPI calls, the second serves stale positions.
+ *
+ * Phases:
+ * - Cancelled / landed (actualIn set, "Arrived" or "Landed"): landed TTL (hours)
+ * - En route (actualOut set, not yet in):           en-route TTL (short)
+ * - Scheduled (before departure):                   a quarter of the time to
+ *   departure, between the en-route TTL and scheduled-max
+ * - Anything else (no times known):                 default TTL
+ *
+ * Used by the RedisCacheManager (as its TtlFunction), the reactive cache
+ * path and to cap L1 entries, so every tier agrees on an entry's lifetime.
+ */
+public class FlightCacheTtlPolicy implements RedisCacheWriter.TtlFunction {
+
+    private final Duration defaultTtl;
+    private final Duration enRouteTtl;
+    private final Duration scheduledMaxTtl;
+    private final Duration landedTtl;
+    private final Clock clock;
+
+    public FlightCacheTtlPolicy(Duration defaultTtl, Duration enRouteTtl,
+                                Duration scheduledMaxTtl, Duration landedTtl) {
+        this(defaultTtl, enRouteTtl, scheduledMaxTtl, landedTtl, Clock.systemUTC());
+    }
+
+    public FlightCacheTtlPolicy(Duration defaultTtl, Duration enRouteTtl,
+                                Duration scheduledMaxTtl, Duration landedTtl, Clock clock) {
+        this.defaultTtl = defaultTtl;
+        this.enRouteTtl = enRouteTtl;
+        this.scheduledMaxTtl = scheduledMaxTtl;
+        this.landedTtl = landedTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, @Nullable Object value) {
+        return value instanceof FlightData flightData ? ttlFor(flightData) : defaultTtl;
+    }
+
+    /**
+     * @return how long this snapshot of the flight may be cached
+     */
+    public Duration ttlFor(FlightData flight) {
+        String status = flight.getStatus() == null ? "" : flight.getStatus().toLowerCase(Locale.ROOT);
+
+        if (status.contains("cancel") || flight.getActualIn() != null
+                || status.startsWith("arrived") || status.startsWith("landed")) {
+            return landedTtl;
+        }
+        if (flight.getActualOut() != null) {
+            return enRouteTtl;
+        }
+        if (flight.getScheduledOut() != null) {
+            Duration untilDeparture = Duration.between(Instant.now(clock), flight.getScheduledOut());
+            Duration quarter = untilDeparture.dividedBy(4);
+            if (quarter.compareTo(enRouteTtl) < 0) {
+                return enRouteTtl; // departing soon, boarding or delayed
+            }
+            return quarter.compareTo(scheduledMaxTtl) > 0 ? scheduledMaxTtl : quarter;
+        }
+        return defaultTtl;
+    }
+}
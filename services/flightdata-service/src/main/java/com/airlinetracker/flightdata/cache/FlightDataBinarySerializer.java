@@ -0,0 +1,305 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary Redis value format for cached flights
+ *
+ * Replaces the JSON-with-class-names encoding for FlightData and
+ * LastKnownGoodFlight values; any other value goes through the delegate
+ * (JSON) serializer unchanged.
+ *
+ * Layout:
+ * - byte 0: MAGIC (0xFD, never the first byte of a JSON document)
+ * - byte 1: format version
+ * - byte 2: value type (FlightData / LastKnownGoodFlight)
+ * - fields: tag = (field number << 3 | wire type), then the value;
+ *   null fields are omitted, 0 ends the record
+ *
+ * Wire types: varint (zigzag; integers and epoch-millis instants),
+ * fixed64 (doubles), length-delimited (UTF-8 strings, nested records).
+ * Readers skip field numbers they do not know, so fields can be added
+ * without a version bump. Field numbers must never be reused.
+ *
+ * Migration: values not starting with MAGIC are read with the delegate,
+ * so JSON entries written before the switch stay readable until they expire.
+ */
+public class FlightDataBinarySerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xFD;
+    static final byte VERSION = 1;
+
+    static final byte TYPE_FLIGHT_DATA = 1;
+    static final byte TYPE_LAST_KNOWN_GOOD = 2;
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private static final int END = 0;
+
+    // FlightData field numbers
+    private static final int FA_FLIGHT_ID = 1;
+    private static final int IDENT = 2;
+    private static final int STATUS = 3;
+    private static final int SCHEDULED_OUT = 4;
+    private static final int ACTUAL_OUT = 5;
+    private static final int SCHEDULED_IN = 6;
+    private static final int ACTUAL_IN = 7;
+    private static final int ORIGIN = 8;
+    private static final int DESTINATION = 9;
+    private static final int AIRCRAFT_TYPE = 10;
+    private static final int LATITUDE = 11;
+    private static final int LONGITUDE = 12;
+    private static final int ALTITUDE = 13;
+    private static final int GROUNDSPEED = 14;
+
+    // LastKnownGoodFlight field numbers
+    private static final int LKG_FETCHED_AT = 1;
+    private static final int LKG_FLIGHT_DATA = 2;
+
+    private final RedisSerializer<Object> delegate;
+    private final boolean writeBinary;
+
+    /**
+     * @param delegate Serializer for other value types and for entries written before the switch
+     */
+    public FlightDataBinarySerializer(RedisSerializer<Object> delegate) {
+        this(delegate, true);
+    }
+
+    /**
+     * @param delegate    Serializer for other value types and for entries written before the switch
+     * @param writeBinary false to keep writing everything with the delegate (reads accept both)
+     */
+    public FlightDataBinarySerializer(RedisSerializer<Object> delegate, boolean writeBinary) {
+        this.delegate = delegate;
+        this.writeBinary = writeBinary;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!writeBinary) {
+            return delegate.serialize(value);
+        }
+        if (value instanceof FlightData flightData) {
+            Writer writer = header(TYPE_FLIGHT_DATA);
+            writeFlightData(writer, flightData);
+            return writer.toByteArray();
+        }
+        if (value instanceof LastKnownGoodFlight lastKnownGood) {
+            Writer writer = header(TYPE_LAST_KNOWN_GOOD);
+            writer.instant(LKG_FETCHED_AT, lastKnownGood.getFetchedAt());
+            if (lastKnownGood.getFlightData() != null) {
+                Writer nested = new Writer();
+                writeFlightData(nested, lastKnownGood.getFlightData());
+                writer.bytes(LKG_FLIGHT_DATA, nested.toByteArray());
+            }
+            writer.end();
+            return writer.toByteArray();
+        }
+        return delegate.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return delegate.deserialize(bytes);
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.get(); // MAGIC
+            byte version = buffer.get();
+            if (version > VERSION) {
+                throw new SerializationException("Unsupported flight cache format version " + version);
+            }
+            byte type = buffer.get();
+            return switch (type) {
+                case TYPE_FLIGHT_DATA -> readFlightData(buffer);
+                case TYPE_LAST_KNOWN_GOOD -> readLastKnownGood(buffer);
+                default -> throw new SerializationException("Unknown flight cache value type " + type);
+            };
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated or corrupt flight cache value", e);
+        }
+    }
+
+    private static Writer header(byte type) {
+        Writer writer = new Writer();
+        writer.out.write(MAGIC);
+        writer.out.write(VERSION);
+        writer.out.write(type);
+        return writer;
+    }
+
+    private static void writeFlightData(Writer writer, FlightData flightData) {
+        writer.string(FA_FLIGHT_ID, flightData.getFaFlightId());
+        writer.string(IDENT, flightData.getIdent());
+        writer.string(STATUS, flightData.getStatus());
+        writer.instant(SCHEDULED_OUT, flightData.getScheduledOut());
+        writer.instant(ACTUAL_OUT, flightData.getActualOut());
+        writer.instant(SCHEDULED_IN, flightData.getScheduledIn());
+        writer.instant(ACTUAL_IN, flightData.getActualIn());
+        writer.string(ORIGIN, flightData.getOrigin());
+        writer.string(DESTINATION, flightData.getDestination());
+        writer.string(AIRCRAFT_TYPE, flightData.getAircraftType());
+        writer.fixed64(LATITUDE, flightData.getLatitude());
+        writer.fixed64(LONGITUDE, flightData.getLongitude());
+        writer.varint(ALTITUDE, flightData.getAltitude());
+        writer.varint(GROUNDSPEED, flightData.getGroundspeed());
+        writer.end();
+    }
+
+    private static FlightData readFlightData(ByteBuffer buffer) {
+        FlightData flightData = new FlightData();
+        int tag;
+        while ((tag = (int) readRawVarint(buffer)) != END) {
+            switch (tag) {
+                case FA_FLIGHT_ID << 3 | WIRE_LENGTH_DELIMITED -> flightData.setFaFlightId(readString(buffer));
+                case IDENT << 3 | WIRE_LENGTH_DELIMITED -> flightData.setIdent(readString(buffer));
+                case STATUS << 3 | WIRE_LENGTH_DELIMITED -> flightData.setStatus(readString(buffer));
+                case SCHEDULED_OUT << 3 | WIRE_VARINT -> flightData.setScheduledOut(readInstant(buffer));
+                case ACTUAL_OUT << 3 | WIRE_VARINT -> flightData.setActualOut(readInstant(buffer));
+                case SCHEDULED_IN << 3 | WIRE_VARINT -> flightData.setScheduledIn(readInstant(buffer));
+                case ACTUAL_IN << 3 | WIRE_VARINT -> flightData.setActualIn(readInstant(buffer));
+                case ORIGIN << 3 | WIRE_LENGTH_DELIMITED -> flightData.setOrigin(readString(buffer));
+                case DESTINATION << 3 | WIRE_LENGTH_DELIMITED -> flightData.setDestination(readString(buffer));
+                case AIRCRAFT_TYPE << 3 | WIRE_LENGTH_DELIMITED -> flightData.setAircraftType(readString(buffer));
+                case LATITUDE << 3 | WIRE_FIXED64 -> flightData.setLatitude(buffer.getDouble());
+                case LONGITUDE << 3 | WIRE_FIXED64 -> flightData.setLongitude(buffer.getDouble());
+                case ALTITUDE << 3 | WIRE_VARINT -> flightData.setAltitude((int) readSignedVarint(buffer));
+                case GROUNDSPEED << 3 | WIRE_VARINT -> flightData.setGroundspeed((int) readSignedVarint(buffer));
+                default -> skip(buffer, tag);
+            }
+        }
+        return flightData;
+    }
+
+    private static LastKnownGoodFlight readLastKnownGood(ByteBuffer buffer) {
+        LastKnownGoodFlight lastKnownGood = new LastKnownGoodFlight();
+        int tag;
+        while ((tag = (int) readRawVarint(buffer)) != END) {
+            switch (tag) {
+                case LKG_FETCHED_AT << 3 | WIRE_VARINT -> lastKnownGood.setFetchedAt(readInstant(buffer));
+                case LKG_FLIGHT_DATA << 3 | WIRE_LENGTH_DELIMITED -> {
+                    int length = (int) readRawVarint(buffer);
+                    ByteBuffer nested = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+                    buffer.position(buffer.position() + length);
+                    lastKnownGood.setFlightData(readFlightData(nested));
+                }
+                default -> skip(buffer, tag);
+            }
+        }
+        return lastKnownGood;
+    }
+
+    private static void skip(ByteBuffer buffer, int tag) {
+        switch (tag & 0x7) {
+            case WIRE_VARINT -> readRawVarint(buffer);
+            case WIRE_FIXED64 -> buffer.position(buffer.position() + Long.BYTES);
+            case WIRE_LENGTH_DELIMITED -> buffer.position(buffer.position() + (int) readRawVarint(buffer));
+            default -> throw new SerializationException("Unknown wire type in tag " + tag);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = (int) readRawVarint(buffer);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static Instant readInstant(ByteBuffer buffer) {
+        return Instant.ofEpochMilli(readSignedVarint(buffer));
+    }
+
+    private static long readSignedVarint(ByteBuffer buffer) {
+        long zigzag = readRawVarint(buffer);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static long readRawVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in flight cache value");
+    }
+
+    /**
+     * Append-only field writer (nulls are skipped)
+     */
+    private static final class Writer {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+
+        void string(int field, String value) {
+            if (value != null) {
+                bytes(field, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        void bytes(int field, byte[] value) {
+            rawVarint(field << 3 | WIRE_LENGTH_DELIMITED);
+            rawVarint(value.length);
+            out.writeBytes(value);
+        }
+
+        void instant(int field, Instant value) {
+            if (value != null) {
+                signedVarint(field, value.toEpochMilli());
+            }
+        }
+
+        void varint(int field, Integer value) {
+            if (value != null) {
+                signedVarint(field, value);
+            }
+        }
+
+        void fixed64(int field, Double value) {
+            if (value != null) {
+                rawVarint(field << 3 | WIRE_FIXED64);
+                long bits = Double.doubleToRawLongBits(value);
+                for (int i = 0; i < Long.BYTES; i++) {
+                    out.write((int) (bits >>> (8 * i)));
+                }
+            }
+        }
+
+        void end() {
+            out.write(END);
+        }
+
+        byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private void signedVarint(int field, long value) {
+            rawVarint(field << 3 | WIRE_VARINT);
+            rawVarint((value << 1) ^ (value >> 63));
+        }
+
+        private void rawVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Last successfully fetched snapshot of a flight and when it was fetched
+ *
+ * Kept well beyond the freshness TTL (see LastKnownGoodStore) so it can be
+ * served stale while revalidating or when FlightAware is unavailable.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LastKnownGoodFlight implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private FlightData flightData;
+
+    private Instant fetchedAt;
+
+    /**
+     * @return time since the snapshot was fetched from FlightAware
+     */
+    public Duration ageAt(Instant now) {
+        return fetchedAt == null ? Duration.ZERO : Duration.between(fetchedAt, now);
+    }
+}
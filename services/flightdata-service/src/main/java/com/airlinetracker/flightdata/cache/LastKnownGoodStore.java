@@ -0,0 +1,68 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Long-lived "last known good" copy of every fetched flight
+ *
+ * The "flights" cache forgets an entry when its freshness TTL runs out;
+ * this store keeps the last successful FlightAware result per ident for
+ * much longer (default 24 hours) under "flights:lkg::{ident}".
+ *
+ * Written after every successful upstream fetch, read only when the
+ * fresh cache misses (stale-while-revalidate / stale-if-error).
+ * Redis errors never fail a request: writes are dropped, reads are misses.
+ */
+@Slf4j
+@Component
+public class LastKnownGoodStore {
+
+    static final String KEY_PREFIX = RedisConfig.FLIGHTS_CACHE + ":lkg::";
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+
+    public LastKnownGoodStore(ReactiveRedisTemplate<String, Object> reactiveFlightCacheTemplate,
+                              @Value("${cache.last-known-good.ttl-hours:24}") long ttlHours) {
+        this.redisTemplate = reactiveFlightCacheTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    /**
+     * Remember a freshly fetched flight
+     *
+     * @param ident      Requested ident (may differ from flightData.getIdent())
+     * @param flightData Snapshot just returned by FlightAware
+     */
+    public Mono<Void> save(String ident, FlightData flightData) {
+        return redisTemplate.opsForValue()
+                .set(KEY_PREFIX + ident, new LastKnownGoodFlight(flightData, Instant.now()), ttl)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to store last known good flight for {}: {}", ident, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * @return last known good snapshot, or empty if none (or Redis unavailable)
+     */
+    public Mono<LastKnownGoodFlight> get(String ident) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + ident)
+                .filter(LastKnownGoodFlight.class::isInstance)
+                .cast(LastKnownGoodFlight.class)
+                .onErrorResume(e -> {
+                    log.warn("Last known good read failed for {}, treating as miss: {}", ident, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
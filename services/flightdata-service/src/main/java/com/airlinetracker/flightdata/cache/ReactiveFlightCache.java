@@ -0,0 +1,103 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the "flights" cache
+ *
+ * Used by the reactive lookup path instead of @Cacheable, which only
+ * supports blocking Cache implementations. Reads and writes the same
+ * entries as the RedisCacheManager ("flights::{ident}", same serializer),
+ * so servlet and reactive replicas share one cache.
+ *
+ * Tiers:
+ * - L1: the TwoTierCache near-cache (if enabled), metrics recorded there
+ * - L2: Redis via ReactiveRedisTemplate (never blocks an event-loop thread)
+ *
+ * Redis errors are treated as cache misses, never as request failures.
+ */
+@Slf4j
+@Component
+public class ReactiveFlightCache {
+
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final ReactiveStringRedisTemplate pubSubTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final FlightCacheTtlPolicy ttlPolicy;
+    private final TwoTierCache nearCache;
+
+    public ReactiveFlightCache(ReactiveRedisTemplate<String, Object> reactiveFlightCacheTemplate,
+                               ReactiveStringRedisTemplate pubSubTemplate,
+                               CacheInvalidationPublisher invalidationPublisher,
+                               FlightCacheTtlPolicy ttlPolicy,
+                               CacheManager cacheManager) {
+        this.redisTemplate = reactiveFlightCacheTemplate;
+        this.pubSubTemplate = pubSubTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.ttlPolicy = ttlPolicy;
+        Cache cache = cacheManager.getCache(RedisConfig.FLIGHTS_CACHE);
+        this.nearCache = cache instanceof TwoTierCache twoTierCache ? twoTierCache : null;
+    }
+
+    /**
+     * Look up a cached flight
+     *
+     * @param ident Flight identifier
+     * @return cached FlightData, or empty on miss
+     */
+    public Mono<FlightData> get(String ident) {
+        if (nearCache != null && nearCache.getLocal(ident) instanceof FlightData local) {
+            return Mono.just(local);
+        }
+
+        return redisTemplate.opsForValue().get(RedisConfig.FLIGHTS_CACHE_KEY_PREFIX + ident)
+                .filter(FlightData.class::isInstance)
+                .cast(FlightData.class)
+                .doOnNext(flightData -> recordRemoteLookup(ident, flightData))
+                .switchIfEmpty(Mono.fromRunnable(() -> recordRemoteLookup(ident, null)))
+                .onErrorResume(e -> {
+                    log.warn("Reactive cache read failed for {}, treating as miss: {}", ident, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Store a flight in Redis (TTL by flight phase) and the local L1, then tell peers
+     *
+     * @param ident      Flight identifier
+     * @param flightData Value to cache
+     * @return completes when the write (and invalidation broadcast) is done
+     */
+    public Mono<Void> put(String ident, FlightData flightData) {
+        Mono<Void> write = redisTemplate.opsForValue()
+                .set(RedisConfig.FLIGHTS_CACHE_KEY_PREFIX + ident, flightData, ttlPolicy.ttlFor(flightData))
+                .then();
+
+        if (nearCache != null) {
+            write = write
+                    .then(Mono.fromRunnable(() -> nearCache.putLocal(ident, flightData)))
+                    .then(pubSubTemplate.convertAndSend(CacheInvalidationPublisher.CHANNEL,
+                            invalidationPublisher.evictMessage(RedisConfig.FLIGHTS_CACHE, ident)))
+                    .then();
+        }
+
+        return write.onErrorResume(e -> {
+            log.warn("Reactive cache write failed for {}: {}", ident, e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    private void recordRemoteLookup(String ident, FlightData flightData) {
+        if (nearCache != null) {
+            nearCache.recordRemoteLookup(ident, flightData);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.airlinetracker.flightdata.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Two-tier cache: in-process L1 (Caffeine) in front of the shared Redis L2.
+ *
+ * Read path:
+ * 1. L1 hit  → return immediately (no network, no deserialization)
+ * 2. L1 miss → read L2, populate L1 on hit
+ * 3. L2 miss → caller loads the value (@Cacheable method body)
+ *
+ * Write path:
+ * - Writes go to L2 first, then L1
+ * - Every write/evict is broadcast on Redis pub/sub so other replicas
+ *   drop their (now stale) L1 copy
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_cache_hits_total: Hits on either tier
+ * - flight_cache_tier_hits_total{tier=l1|l2}: Hits per tier
+ * - flight_cache_tier_misses_total{tier=l1|l2}: Misses per tier
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final Counter hitCounter;
+    private final Counter l1HitCounter;
+    private final Counter l1MissCounter;
+    private final Counter l2HitCounter;
+    private final Counter l2MissCounter;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                        Cache l2,
+                        CacheInvalidationPublisher invalidationPublisher,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.invalidationPublisher = invalidationPublisher;
+
+        this.hitCounter = Counter.builder("flight_cache_hits")
+                .description("Number of flight data cache hits")
+                .tag("service", "flightdata-service")
+                .baseUnit("hits")
+                .register(meterRegistry);
+        this.l1HitCounter = tierCounter(meterRegistry, "flight_cache_tier_hits", "l1", "hits");
+        this.l1MissCounter = tierCounter(meterRegistry, "flight_cache_tier_misses", "l1", "misses");
+        this.l2HitCounter = tierCounter(meterRegistry, "flight_cache_tier_hits", "l2", "hits");
+        this.l2MissCounter = tierCounter(meterRegistry, "flight_cache_tier_misses", "l2", "misses");
+    }
+
+    private Counter tierCounter(MeterRegistry meterRegistry, String metric, String tier, String unit) {
+        return Counter.builder(metric)
+                .description("Number of flight data cache " + unit + " per cache tier")
+                .tag("service", "flightdata-service")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .baseUnit(unit)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object local = l1.getIfPresent(l1Key(key));
+        if (local != null) {
+            l1HitCounter.increment();
+            hitCounter.increment();
+            return new SimpleValueWrapper(local);
+        }
+        l1MissCounter.increment();
+
+        ValueWrapper remote = l2.get(key);
+        if (remote != null && remote.get() != null) {
+            l2HitCounter.increment();
+            hitCounter.increment();
+            l1.put(l1Key(key), remote.get());
+            return remote;
+        }
+        l2MissCounter.increment();
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        if (value != null) {
+            l1.put(l1Key(key), value);
+        }
+        invalidationPublisher.publishEvict(name, l1Key(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        if (existing == null || existing.get() == null) {
+            if (value != null) {
+                l1.put(l1Key(key), value);
+            }
+            invalidationPublisher.publishEvict(name, l1Key(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        l1.invalidate(l1Key(key));
+        invalidationPublisher.publishEvict(name, l1Key(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = l2.evictIfPresent(key);
+        l1.invalidate(l1Key(key));
+        invalidationPublisher.publishEvict(name, l1Key(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = l2.invalidate();
+        l1.invalidateAll();
+        invalidationPublisher.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * L1-only lookup for callers that read L2 themselves (reactive path).
+     * Records L1 hit/miss metrics.
+     */
+    Object getLocal(Object key) {
+        Object local = l1.getIfPresent(l1Key(key));
+        if (local != null) {
+            l1HitCounter.increment();
+            hitCounter.increment();
+        } else {
+            l1MissCounter.increment();
+        }
+        return local;
+    }
+
+    /**
+     * Record the outcome of an L2 read done outside this cache,
+     * populating L1 on a hit.
+     */
+    void recordRemoteLookup(Object key, Object value) {
+        if (value != null) {
+            l2HitCounter.increment();
+            hitCounter.increment();
+            l1.put(l1Key(key), value);
+        } else {
+            l2MissCounter.increment();
+        }
+    }
+
+    /**
+     * Populate L1 after an L2 write done outside this cache.
+     * The caller is responsible for broadcasting the invalidation to peers.
+     */
+    void putLocal(Object key, Object value) {
+        l1.put(l1Key(key), value);
+    }
+
+    /**
+     * Drop a key from the local L1 only (remote invalidation from another replica).
+     */
+    void evictLocal(String key) {
+        l1.invalidate(key);
+        log.debug("L1 invalidated by peer: {}::{}", name, key);
+    }
+
+    /**
+     * Drop every local L1 entry (remote clear from another replica).
+     */
+    void clearLocal() {
+        l1.invalidateAll();
+        log.debug("L1 cleared by peer: {}", name);
+    }
+
+    /**
+     * L1 keys are normalized to strings so pub/sub invalidations
+     * (which travel as text) match local entries.
+     */
+    private static String l1Key(Object key) {
+        return String.valueOf(key);
+    }
+}
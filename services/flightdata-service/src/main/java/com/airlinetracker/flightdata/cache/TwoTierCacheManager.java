@@ -0,0 +1,132 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that decorates every L2 (Redis) cache with a bounded,
+ * short-TTL in-process L1 (capped by the entry's own L2 TTL, if given).
+ *
+ * Also listens on {@link CacheInvalidationPublisher#CHANNEL} and drops
+ * local L1 entries when a peer replica writes or evicts the same key.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager l2CacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final MeterRegistry meterRegistry;
+    private final long l1MaxSize;
+    private final Duration l1Ttl;
+    private final RedisCacheWriter.TtlFunction entryTtl;
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager l2CacheManager,
+                               CacheInvalidationPublisher invalidationPublisher,
+                               MeterRegistry meterRegistry,
+                               long l1MaxSize,
+                               Duration l1Ttl) {
+        this(l2CacheManager, invalidationPublisher, meterRegistry, l1MaxSize, l1Ttl, null);
+    }
+
+    /**
+     * @param entryTtl Per-entry L2 TTL; L1 entries never outlive it (null: fixed l1Ttl)
+     */
+    public TwoTierCacheManager(CacheManager l2CacheManager,
+                               CacheInvalidationPublisher invalidationPublisher,
+                               MeterRegistry meterRegistry,
+                               long l1MaxSize,
+                               Duration l1Ttl,
+                               RedisCacheWriter.TtlFunction entryTtl) {
+        this.l2CacheManager = l2CacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+        this.l1MaxSize = l1MaxSize;
+        this.l1Ttl = l1Ttl;
+        this.entryTtl = entryTtl;
+        log.info("Two-tier cache enabled: L1 maxSize={}, ttl={}", l1MaxSize, l1Ttl);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = l2CacheManager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoTierCache(
+                cacheName,
+                newL1(),
+                l2,
+                invalidationPublisher,
+                meterRegistry));
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> newL1() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(l1MaxSize);
+        if (entryTtl == null) {
+            return builder.expireAfterWrite(l1Ttl).build();
+        }
+        return builder.expireAfter(new Expiry<String, Object>() {
+            @Override
+            public long expireAfterCreate(String key, Object value, long currentTime) {
+                Duration ttl = entryTtl.getTimeToLive(key, value);
+                return (ttl.compareTo(l1Ttl) < 0 ? ttl : l1Ttl).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        }).build();
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return l2CacheManager.getCacheNames();
+    }
+
+    /**
+     * Handle an invalidation broadcast from a peer replica.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8)
+                .split(CacheInvalidationPublisher.SEPARATOR, 3);
+        if (parts.length < 2 || invalidationPublisher.getInstanceId().equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            cache.evictLocal(parts[2]);
+        } else {
+            cache.clearLocal();
+        }
+    }
+}
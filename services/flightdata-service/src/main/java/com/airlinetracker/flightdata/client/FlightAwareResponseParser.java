@@ -0,0 +1,205 @@
+package com.airlinetracker.flightdata.client;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming parser for FlightAware /flights/{ident} responses
+ *
+ * The endpoint returns {"flights": [ {...}, {...}, ... ], "links": ..., "num_pages": ...}
+ * but we only ever use the first flight. Instead of buffering the body as a
+ * String and binding the whole document, this parser:
+ * - feeds DataBuffers straight into Jackson's non-blocking JsonParser
+ * - copies only the tokens of flights[0] into a TokenBuffer
+ * - binds them with one shared, preconfigured ObjectReader
+ * - stops (and cancels the body) as soon as flights[0] is complete
+ *
+ * Thread safety: the ObjectMapper/ObjectReader are shared and immutable;
+ * each response gets its own {@link FirstFlightScanner}.
+ */
+public class FlightAwareResponseParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final ObjectReader FLIGHT_READER = MAPPER.readerFor(FlightData.class);
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
+    private static final String FLIGHTS_FIELD = "flights";
+
+    /**
+     * Parse the first flight from a streamed response body.
+     * Every DataBuffer is released, including those never read after cancellation.
+     *
+     * @param body Response body chunks
+     * @return first flight, or empty if "flights" is missing or empty
+     */
+    public Mono<FlightData> parseFirstFlight(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            FirstFlightScanner scanner = new FirstFlightScanner();
+            return body
+                    .<FlightData>handle((buffer, sink) -> {
+                        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                            while (chunks.hasNext()) {
+                                FlightData flight = scanner.feed(chunks.next());
+                                if (flight != null) {
+                                    sink.next(flight);
+                                    return;
+                                }
+                            }
+                        } catch (IOException e) {
+                            sink.error(e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .next()
+                    .doFinally(signal -> scanner.close());
+        });
+    }
+
+    /**
+     * Parse the first flight from a fully buffered payload.
+     *
+     * @param payload Complete response body
+     * @return first flight, or null if "flights" is missing or empty
+     */
+    public FlightData parseFirstFlight(byte[] payload) {
+        try (FirstFlightScanner scanner = new FirstFlightScanner()) {
+            return scanner.feed(ByteBuffer.wrap(payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Incremental scanner over one response document.
+     *
+     * Tracks nesting depth so it can find root-level "flights" without
+     * materializing any other part of the document.
+     */
+    private static final class FirstFlightScanner implements AutoCloseable {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+
+        private int depth;
+        private boolean expectFlightsArray;
+        private boolean inFlightsArray;
+        private TokenBuffer firstFlight;
+        private int flightDepth;
+        private boolean done;
+
+        FirstFlightScanner() {
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+                this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Feed the next chunk.
+         *
+         * @return the first flight once complete, otherwise null (need more input)
+         */
+        FlightData feed(ByteBuffer chunk) throws IOException {
+            if (done) {
+                return null;
+            }
+            feeder.feedInput(chunk);
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (firstFlight != null) {
+                    if (capture(token)) {
+                        done = true;
+                        return FLIGHT_READER.readValue(firstFlight.asParser(MAPPER));
+                    }
+                    continue;
+                }
+                if (scan(token)) {
+                    done = true;
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Copy one token of flights[0].
+         *
+         * @return true when the element's closing brace has been copied
+         */
+        private boolean capture(JsonToken token) throws IOException {
+            firstFlight.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                flightDepth++;
+            } else if (token.isStructEnd()) {
+                flightDepth--;
+            }
+            return flightDepth == 0;
+        }
+
+        /**
+         * Walk the document outside flights[0].
+         *
+         * @return true if "flights" turned out to be empty (nothing to return)
+         */
+        private boolean scan(JsonToken token) throws IOException {
+            if (inFlightsArray) {
+                if (token == JsonToken.START_OBJECT) {
+                    firstFlight = new TokenBuffer(parser, null);
+                    firstFlight.copyCurrentEvent(parser);
+                    flightDepth = 1;
+                    return false;
+                }
+                return token == JsonToken.END_ARRAY;
+            }
+
+            if (expectFlightsArray) {
+                expectFlightsArray = false;
+                if (token == JsonToken.START_ARRAY) {
+                    inFlightsArray = true;
+                    return false;
+                }
+            }
+
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (token == JsonToken.FIELD_NAME && depth == 1) {
+                expectFlightsArray = FLIGHTS_FIELD.equals(parser.currentName());
+            }
+            return false;
+        }
+
+        @Override
+        public void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing to release beyond parser buffers
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.airlinetracker.flightdata.config;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing FlightData as Avro single-object encoding
+ *
+ * Schema: latest version in FlightDataSchemas (/schemas/flight-data-events).
+ * Null fields cost one byte each, so deltas stay small.
+ */
+public class FlightDataAvroSerializer implements Serializer<FlightData> {
+
+    private final FlightDataSchemas schemas;
+
+    public FlightDataAvroSerializer(FlightDataSchemas schemas) {
+        this.schemas = schemas;
+    }
+
+    @Override
+    public byte[] serialize(String topic, FlightData flightData) {
+        return flightData != null ? schemas.encode(flightData) : null;
+    }
+}
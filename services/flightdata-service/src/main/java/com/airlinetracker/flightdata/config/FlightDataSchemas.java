@@ -0,0 +1,163 @@
+package com.airlinetracker.flightdata.config;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.message.SchemaStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File-based schema registry and Avro codec for FlightData events
+ *
+ * Schemas live in /schemas/flight-data-events/v{n}.avsc (shared with
+ * llm-summary-service, packaged on the classpath by the build). Records
+ * are written with the latest version using Avro single-object encoding:
+ * C3 01, the writer schema's CRC-64-AVRO fingerprint, then Avro binary.
+ * Readers look the fingerprint up here, so no registry server is needed.
+ *
+ * Loading fails unless every version can read data written by every other
+ * version (full transitive compatibility), so an incompatible schema change
+ * breaks the build (FlightDataSchemasTest) and never reaches a broker.
+ */
+public final class FlightDataSchemas {
+
+    static final String LOCATION = "schemas/flight-data-events/v%d.avsc";
+
+    private final List<Schema> versions;
+    private final BinaryMessageEncoder<GenericRecord> encoder;
+    private final BinaryMessageDecoder<GenericRecord> decoder;
+
+    private FlightDataSchemas(List<Schema> versions) {
+        this.versions = List.copyOf(versions);
+        SchemaStore.Cache store = new SchemaStore.Cache();
+        versions.forEach(store::addSchema);
+        this.encoder = new BinaryMessageEncoder<>(GenericData.get(), latest());
+        this.decoder = new BinaryMessageDecoder<>(GenericData.get(), latest(), store);
+    }
+
+    /**
+     * Load every schema version from the classpath and check their compatibility
+     *
+     * @throws IllegalStateException if no schema is found or two versions are incompatible
+     */
+    public static FlightDataSchemas load() {
+        List<Schema> versions = new ArrayList<>();
+        ClassLoader classLoader = FlightDataSchemas.class.getClassLoader();
+        for (int version = 1; ; version++) {
+            try (InputStream in = classLoader.getResourceAsStream(LOCATION.formatted(version))) {
+                if (in == null) {
+                    break;
+                }
+                versions.add(new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + LOCATION.formatted(version), e);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new IllegalStateException("No FlightData schema on the classpath (" + LOCATION.formatted(1) + ")");
+        }
+        checkCompatibility(versions);
+        return new FlightDataSchemas(versions);
+    }
+
+    static void checkCompatibility(List<Schema> versions) {
+        for (int reader = 0; reader < versions.size(); reader++) {
+            for (int writer = 0; writer < versions.size(); writer++) {
+                SchemaCompatibility.SchemaPairCompatibility result = SchemaCompatibility
+                        .checkReaderWriterCompatibility(versions.get(reader), versions.get(writer));
+                if (result.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+                    throw new IllegalStateException("FlightData schema v%d cannot read v%d: %s"
+                            .formatted(reader + 1, writer + 1, result.getDescription()));
+                }
+            }
+        }
+    }
+
+    public Schema latest() {
+        return versions.get(versions.size() - 1);
+    }
+
+    public List<Schema> versions() {
+        return versions;
+    }
+
+    /**
+     * @return true if the bytes start with the Avro single-object marker (C3 01)
+     */
+    public static boolean isAvro(byte[] data) {
+        return data != null && data.length >= 10 && data[0] == (byte) 0xC3 && data[1] == 0x01;
+    }
+
+    public byte[] encode(FlightData flightData) {
+        GenericData.Record record = new GenericData.Record(latest());
+        record.put("fa_flight_id", flightData.getFaFlightId());
+        record.put("ident", flightData.getIdent());
+        record.put("status", flightData.getStatus());
+        record.put("scheduled_out", millis(flightData.getScheduledOut()));
+        record.put("actual_out", millis(flightData.getActualOut()));
+        record.put("scheduled_in", millis(flightData.getScheduledIn()));
+        record.put("actual_in", millis(flightData.getActualIn()));
+        record.put("origin", flightData.getOrigin());
+        record.put("destination", flightData.getDestination());
+        record.put("aircraft_type", flightData.getAircraftType());
+        record.put("latitude", flightData.getLatitude());
+        record.put("longitude", flightData.getLongitude());
+        record.put("altitude", flightData.getAltitude());
+        record.put("groundspeed", flightData.getGroundspeed());
+        try {
+            return encoder.encode(record).array();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot encode FlightData " + flightData.getIdent(), e);
+        }
+    }
+
+    /**
+     * @throws org.apache.avro.message.MissingSchemaException if the writer schema is not in the registry
+     */
+    public FlightData decode(byte[] data) {
+        GenericRecord record;
+        try {
+            record = decoder.decode(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode FlightData", e);
+        }
+        return FlightData.builder()
+                .faFlightId(string(record.get("fa_flight_id")))
+                .ident(string(record.get("ident")))
+                .status(string(record.get("status")))
+                .scheduledOut(instant(record.get("scheduled_out")))
+                .actualOut(instant(record.get("actual_out")))
+                .scheduledIn(instant(record.get("scheduled_in")))
+                .actualIn(instant(record.get("actual_in")))
+                .origin(string(record.get("origin")))
+                .destination(string(record.get("destination")))
+                .aircraftType(string(record.get("aircraft_type")))
+                .latitude((Double) record.get("latitude"))
+                .longitude((Double) record.get("longitude"))
+                .altitude((Integer) record.get("altitude"))
+                .groundspeed((Integer) record.get("groundspeed"))
+                .build();
+    }
+
+    private static Long millis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : null;
+    }
+
+    private static Instant instant(Object millis) {
+        return millis != null ? Instant.ofEpochMilli((Long) millis) : null;
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -1,17 +1,24 @@
 package com.airlinetracker.flightdata.config;
 
 import com.airlinetracker.flightdata.dto.FlightData;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.JacksonUtils;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,8 +29,21 @@ import java.util.Map;
  * Configuration:
  * - Topic: flight-data-events
  * - Key: String (fa_flight_id)
- * - Value: FlightData (JSON)
- * - Serializer: JsonSerializer
+ * - Value: FlightData, Avro single-object encoding (schemas in /schemas, see
+ *   FlightDataSchemas); kafka.producer.value-format=json restores the previous
+ *   JSON format (null fields omitted: deltas carry only what changed)
+ * - Headers: event type and base snapshot version (see FlightDataEvent)
+ * 
+ * Throughput profile (kafka.producer.*):
+ * - Batching: linger.ms / batch.size let concurrent cache misses share a produce request
+ * - Compression: lz4 by default (zstd, gzip, snappy or none also accepted)
+ * - Idempotence: retries never duplicate or reorder events within a partition
+ *   (requires acks=all and max.in.flight.requests.per.connection <= 5)
+ * 
+ * Metrics (PRD NFR-4: Observability):
+ * - kafka_producer_* client metrics (batch size avg/max, compression rate,
+ *   records per request, request latency, queue time)
+ * - spring_kafka_template_seconds: per-send latency histogram (send to broker ack)
  */
 @Configuration
 public class KafkaProducerConfig {
@@ -31,28 +51,83 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${kafka.producer.retries:3}")
+    private int retries;
+
+    @Value("${kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    @Value("${kafka.producer.max-in-flight-requests:5}")
+    private int maxInFlightRequests;
+
+    @Value("${kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${kafka.producer.buffer-memory:33554432}")
+    private long bufferMemory;
+
+    @Value("${kafka.producer.delivery-timeout-ms:120000}")
+    private int deliveryTimeoutMs;
+
+    @Value("${kafka.producer.value-format:avro}")
+    private String valueFormat;
+
     /**
      * Producer factory for FlightData messages
      */
     @Bean
-    public ProducerFactory<String, FlightData> producerFactory() {
+    public ProducerFactory<String, FlightData> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
-        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
-        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.RETRIES_CONFIG, retries);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+
+        // Serializers are instances: the value format is chosen by valueSerializer()
+        DefaultKafkaProducerFactory<String, FlightData> producerFactory =
+                new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer());
+        // Export the Kafka client metrics (batch size, compression rate, request latency)
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(Tag.of("service", "flightdata-service"))));
+        return producerFactory;
+    }
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+    /**
+     * Value serializer for kafka.producer.value-format (avro | json)
+     */
+    private Serializer<FlightData> valueSerializer() {
+        if ("json".equalsIgnoreCase(valueFormat)) {
+            return new JsonSerializer<FlightData>(
+                    JacksonUtils.enhancedObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL))
+                    .noTypeInfo();
+        }
+        return new FlightDataAvroSerializer(FlightDataSchemas.load());
     }
 
     /**
      * Kafka template for sending FlightData messages
+     * 
+     * Send latency is timed per record (spring.kafka.template timer).
      */
     @Bean
-    public KafkaTemplate<String, FlightData> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, FlightData> kafkaTemplate(ProducerFactory<String, FlightData> producerFactory) {
+        KafkaTemplate<String, FlightData> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        kafkaTemplate.setMicrometerTags(Map.of("service", "flightdata-service"));
+        return kafkaTemplate;
     }
 }
-
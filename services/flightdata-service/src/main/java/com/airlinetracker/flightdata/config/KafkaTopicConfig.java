@@ -0,0 +1,56 @@
+package com.airlinetracker.flightdata.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+/**
+ * Kafka Topic Configuration
+ *
+ * flight-data-events relies on broker auto-creation. flight-state must not:
+ * an auto-created topic uses cleanup.policy=delete and would keep every
+ * update instead of the latest one per flight.
+ *
+ * flight-state (see FlightStatePublisher):
+ * - Key: fa_flight_id, Value: full FlightData (Avro or JSON per
+ *   kafka.producer.value-format, same as flight-data-events)
+ * - cleanup.policy=compact,delete: one record per flight, flights not
+ *   updated within retention-hours are removed
+ * - Created on startup by Spring's KafkaAdmin if missing (existing topics
+ *   are left untouched)
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.flight-state.enabled", havingValue = "true", matchIfMissing = true)
+public class KafkaTopicConfig {
+
+    @Value("${kafka.topic.flight-state:flight-state}")
+    private String flightStateTopic;
+
+    @Value("${kafka.flight-state.partitions:6}")
+    private int partitions;
+
+    @Value("${kafka.flight-state.replicas:1}")
+    private int replicas;
+
+    @Value("${kafka.flight-state.retention-hours:168}")
+    private long retentionHours;
+
+    @Bean
+    public NewTopic flightStateTopic() {
+        return TopicBuilder.name(flightStateTopic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.CLEANUP_POLICY_CONFIG,
+                        TopicConfig.CLEANUP_POLICY_COMPACT + "," + TopicConfig.CLEANUP_POLICY_DELETE)
+                .config(TopicConfig.RETENTION_MS_CONFIG, Long.toString(Duration.ofHours(retentionHours).toMillis()))
+                // Roll segments hourly so the active segment does not hold back compaction for long
+                .config(TopicConfig.SEGMENT_MS_CONFIG, Long.toString(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+}
@@ -6,8 +6,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Rate Limiting Configuration to protect FlightAware API free tier
@@ -29,6 +35,12 @@ public class RateLimitConfig {
     
     @Value("${flightaware.rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
+
+    @Value("${flightaware.rate-limit.lease.size:2}")
+    private int leaseSize;
+
+    @Value("${flightaware.rate-limit.lease.ttl-ms:5000}")
+    private long leaseTtlMs;
     
     @Bean
     public RateLimiter flightAwareRateLimiter(RedisTemplate<String, String> redisTemplate) {
@@ -37,37 +49,113 @@ public class RateLimitConfig {
         log.info("  - Calls/hour: {}", callsPerHour);
         log.info("  - Calls/day: {}", callsPerDay);
         log.info("  - Enabled: {}", rateLimitEnabled);
+        log.info("  - Lease: {} calls for {}ms", leaseSize, leaseTtlMs);
         
         return new RateLimiter(
             redisTemplate,
             callsPerMinute,
             callsPerHour,
             callsPerDay,
-            rateLimitEnabled
+            rateLimitEnabled,
+            leaseSize,
+            Duration.ofMillis(leaseTtlMs)
         );
     }
     
     /**
-     * Redis-backed distributed rate limiter
+     * Redis-backed distributed rate limiter with local quota leases
+     *
+     * Sliding-window log: every granted call is one member of a single sorted
+     * set (score = Redis server time in ms). One Lua script trims entries older
+     * than a day, counts the minute/hour/day windows and records up to
+     * lease-size calls at once, but only as many as all three windows have room
+     * for. No partial increments when a longer window rejects, no double bursts
+     * at window edges, and usage counts come back in the same reply.
+     *
+     * Leasing: each instance takes a small block of calls in one round trip and
+     * hands them out with a lock-free counter, so Redis is only consulted once
+     * per block. A lease is only valid for lease-ttl, and its calls are logged
+     * at lease time + lease-ttl, the latest moment one can actually be made:
+     * they count from the moment they are leased until a full window after
+     * their last possible use, so a late call never slips past the limits.
+     * Unused calls are given back when the lease expires and on shutdown.
+     *
+     * If Redis is unreachable no lease can be taken and calls are rejected
+     * (fail closed): the free-tier budget lives in Redis, not locally.
      */
-    public static class RateLimiter {
+    public static class RateLimiter implements AutoCloseable {
         private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
         private static final String RATE_LIMIT_KEY_PREFIX = "ratelimit:flightaware:";
-        
+        static final String CALL_LOG_KEY = RATE_LIMIT_KEY_PREFIX + "calls";
+
+        private static final String[] WINDOWS = {"minute", "hour", "day"};
+
+        // KEYS[1] = call log; ARGV[1] = lease id, ARGV[2..4] = minute/hour/day limits,
+        // ARGV[5] = calls to lease (0 = only read usage), ARGV[6] = lease ttl in ms.
+        // Leased calls are scored at their expiry; ZCOUNT up to +inf counts them from now on.
+        // Returns {granted, minuteUsed, hourUsed, dayUsed, rejectedWindow (0 = none, 1..3)}
+        @SuppressWarnings("rawtypes")
+        private static final RedisScript<List> LEASE_SCRIPT = new DefaultRedisScript<>("""
+                local t = redis.call('TIME')
+                local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+                redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - 86400000)
+                local used = {
+                    redis.call('ZCOUNT', KEYS[1], '(' .. (now - 60000), '+inf'),
+                    redis.call('ZCOUNT', KEYS[1], '(' .. (now - 3600000), '+inf'),
+                    redis.call('ZCARD', KEYS[1])
+                }
+                local granted = tonumber(ARGV[5])
+                if granted == 0 then
+                    return {0, used[1], used[2], used[3], 0}
+                end
+                for i = 1, 3 do
+                    local room = tonumber(ARGV[i + 1]) - used[i]
+                    if room <= 0 then
+                        return {0, used[1], used[2], used[3], i}
+                    end
+                    if room < granted then
+                        granted = room
+                    end
+                end
+                local usableUntil = now + tonumber(ARGV[6])
+                for i = 0, granted - 1 do
+                    redis.call('ZADD', KEYS[1], usableUntil, ARGV[1] .. ':' .. i)
+                end
+                redis.call('PEXPIRE', KEYS[1], 86400000 + tonumber(ARGV[6]))
+                return {granted, used[1] + granted, used[2] + granted, used[3] + granted, 0}
+                """, List.class);
+
         private final RedisTemplate<String, String> redisTemplate;
         private final int callsPerMinute;
         private final int callsPerHour;
         private final int callsPerDay;
         private final boolean enabled;
-        
+        private final int leaseSize;
+        private final long leaseTtlNanos;
+        private final long leaseTtlMs;
+
+        private final AtomicReference<Lease> currentLease = new AtomicReference<>();
+        private final Object leaseLock = new Object();
+        private volatile UsageStats lastUsage;
+
         public RateLimiter(RedisTemplate<String, String> redisTemplate,
                           int callsPerMinute, int callsPerHour, int callsPerDay,
                           boolean enabled) {
+            this(redisTemplate, callsPerMinute, callsPerHour, callsPerDay, enabled, 1, Duration.ZERO);
+        }
+
+        public RateLimiter(RedisTemplate<String, String> redisTemplate,
+                          int callsPerMinute, int callsPerHour, int callsPerDay,
+                          boolean enabled, int leaseSize, Duration leaseTtl) {
             this.redisTemplate = redisTemplate;
             this.callsPerMinute = callsPerMinute;
             this.callsPerHour = callsPerHour;
             this.callsPerDay = callsPerDay;
             this.enabled = enabled;
+            this.leaseSize = Math.max(1, leaseSize);
+            this.leaseTtlNanos = leaseTtl.toNanos();
+            this.leaseTtlMs = leaseTtl.toMillis();
+            this.lastUsage = emptyStats();
         }
         
         /**
@@ -75,92 +163,183 @@ public class RateLimitConfig {
          * @return true if allowed, false if rate limit exceeded
          */
         public boolean allowRequest() {
+            return tryAcquire().allowed;
+        }
+
+        /**
+         * Take one call from the local lease, leasing a new block from Redis when it runs out
+         * @return decision plus the usage reported by the latest lease
+         */
+        public Decision tryAcquire() {
             if (!enabled) {
-                return true;
-            }
-            
-            // Check minute limit
-            if (!checkLimit("minute", 60, callsPerMinute)) {
-                log.warn("⚠️ Rate limit exceeded: {} calls/minute", callsPerMinute);
-                return false;
+                return new Decision(true, null, emptyStats());
             }
-            
-            // Check hour limit
-            if (!checkLimit("hour", 3600, callsPerHour)) {
-                log.warn("⚠️ Rate limit exceeded: {} calls/hour", callsPerHour);
-                return false;
+
+            // Hot path: lock-free, no Redis
+            if (takeFromLease(currentLease.get())) {
+                return new Decision(true, null, lastUsage);
             }
-            
-            // Check day limit
-            if (!checkLimit("day", 86400, callsPerDay)) {
-                log.warn("⚠️ Rate limit exceeded: {} calls/day", callsPerDay);
-                return false;
+
+            synchronized (leaseLock) {
+                Lease lease = currentLease.get();
+                if (takeFromLease(lease)) {
+                    return new Decision(true, null, lastUsage);
+                }
+                returnUnused(lease);
+
+                String leaseId = UUID.randomUUID().toString();
+                List<?> reply;
+                try {
+                    reply = runScript(leaseId, leaseSize);
+                } catch (Exception e) {
+                    log.error("⚠️ Rate limit lease failed, rejecting request: {}", e.getMessage());
+                    return new Decision(false, null, lastUsage); // Fail closed
+                }
+
+                UsageStats stats = toStats(reply);
+                lastUsage = stats;
+                int granted = toInt(reply.get(0));
+                int rejectedWindow = toInt(reply.get(4));
+                if (granted == 0) {
+                    String window = rejectedWindow > 0 ? WINDOWS[rejectedWindow - 1] : null;
+                    log.warn("⚠️ Rate limit exceeded: {} calls/{}", limitFor(rejectedWindow), window);
+                    return new Decision(false, window, stats);
+                }
+
+                warnNearLimit("minute", stats.minuteUsed, callsPerMinute);
+                warnNearLimit("hour", stats.hourUsed, callsPerHour);
+                warnNearLimit("day", stats.dayUsed, callsPerDay);
+
+                Lease fresh = new Lease(leaseId, granted, System.nanoTime() + leaseTtlNanos);
+                fresh.next.set(1); // first call is ours
+                currentLease.set(fresh);
+                return new Decision(true, null, stats);
             }
-            
-            return true;
         }
         
         /**
-         * Check and increment rate limit counter
+         * Get current usage statistics (read-only, single round trip)
          */
-        private boolean checkLimit(String window, int windowSeconds, int maxCalls) {
-            String key = RATE_LIMIT_KEY_PREFIX + window;
-            
+        public UsageStats getUsageStats() {
             try {
-                Long currentCount = redisTemplate.opsForValue().increment(key);
-                
-                if (currentCount == null) {
-                    currentCount = 0L;
-                }
-                
-                // Set expiry on first increment
-                if (currentCount == 1) {
-                    redisTemplate.expire(key, windowSeconds, TimeUnit.SECONDS);
-                }
-                
-                if (currentCount > maxCalls) {
-                    log.warn("Rate limit check: {}/{} calls in {} window", 
-                            currentCount, maxCalls, window);
-                    return false;
-                }
-                
-                // Log usage at warning thresholds
-                if (currentCount >= maxCalls * 0.8) {
-                    log.warn("⚠️ API usage at {}%: {}/{} calls in {} window", 
-                            (int)((currentCount * 100.0) / maxCalls),
-                            currentCount, maxCalls, window);
-                }
-                
-                return true;
-                
+                return toStats(runScript(UUID.randomUUID().toString(), 0));
             } catch (Exception e) {
-                log.error("Rate limit check failed, allowing request: {}", e.getMessage());
-                return true; // Fail open
+                log.error("Failed to get usage stats: {}", e.getMessage());
+                return emptyStats();
             }
         }
-        
+
         /**
-         * Get current usage statistics
+         * Give unused leased calls back to the shared budget (called on shutdown)
          */
-        public UsageStats getUsageStats() {
+        @Override
+        public void close() {
+            synchronized (leaseLock) {
+                returnUnused(currentLease.getAndSet(null));
+            }
+        }
+
+        private boolean takeFromLease(Lease lease) {
+            if (lease == null || System.nanoTime() - lease.expiresAtNanos > 0) {
+                return false;
+            }
+            return lease.next.getAndIncrement() < lease.size;
+        }
+
+        private void returnUnused(Lease lease) {
+            if (lease == null) {
+                return;
+            }
+            // Claim every remaining slot so no racing caller can still take one
+            int used = Math.min(lease.next.getAndSet(lease.size), lease.size);
+            if (used >= lease.size) {
+                return;
+            }
+            Object[] unused = new Object[lease.size - used];
+            for (int i = used; i < lease.size; i++) {
+                unused[i - used] = lease.id + ":" + i;
+            }
             try {
-                String minuteCount = redisTemplate.opsForValue().get(RATE_LIMIT_KEY_PREFIX + "minute");
-                String hourCount = redisTemplate.opsForValue().get(RATE_LIMIT_KEY_PREFIX + "hour");
-                String dayCount = redisTemplate.opsForValue().get(RATE_LIMIT_KEY_PREFIX + "day");
-                
-                return new UsageStats(
-                    parseInt(minuteCount), callsPerMinute,
-                    parseInt(hourCount), callsPerHour,
-                    parseInt(dayCount), callsPerDay
-                );
+                redisTemplate.opsForZSet().remove(CALL_LOG_KEY, unused);
+                log.debug("Returned {} unused FlightAware calls from lease {}", unused.length, lease.id);
             } catch (Exception e) {
-                log.error("Failed to get usage stats: {}", e.getMessage());
-                return new UsageStats(0, callsPerMinute, 0, callsPerHour, 0, callsPerDay);
+                log.warn("Failed to return {} leased calls (they age out of the windows): {}",
+                        unused.length, e.getMessage());
             }
         }
-        
-        private int parseInt(String value) {
-            return value != null ? Integer.parseInt(value) : 0;
+
+        private List<?> runScript(String leaseId, int calls) {
+            List<?> reply = redisTemplate.execute(LEASE_SCRIPT, List.of(CALL_LOG_KEY),
+                    leaseId,
+                    String.valueOf(callsPerMinute), String.valueOf(callsPerHour), String.valueOf(callsPerDay),
+                    String.valueOf(calls), String.valueOf(leaseTtlMs));
+            if (reply == null || reply.size() < 5) {
+                throw new IllegalStateException("Unexpected rate limit script reply: " + reply);
+            }
+            return reply;
+        }
+        private UsageStats toStats(List<?> reply) {
+            return new UsageStats(
+                toInt(reply.get(1)), callsPerMinute,
+                toInt(reply.get(2)), callsPerHour,
+                toInt(reply.get(3)), callsPerDay
+            );
+        }
+
+        private UsageStats emptyStats() {
+            return new UsageStats(0, callsPerMinute, 0, callsPerHour, 0, callsPerDay);
+        }
+
+        private int limitFor(int window) {
+            return switch (window) {
+                case 1 -> callsPerMinute;
+                case 2 -> callsPerHour;
+                default -> callsPerDay;
+            };
+        }
+
+        private void warnNearLimit(String window, int used, int maxCalls) {
+            // Log usage at warning thresholds
+            if (used >= maxCalls * 0.8) {
+                log.warn("⚠️ API usage at {}%: {}/{} calls in {} window",
+                        (int) ((used * 100.0) / maxCalls), used, maxCalls, window);
+            }
+        }
+
+        private int toInt(Object value) {
+            return value instanceof Number number ? number.intValue() : Integer.parseInt(String.valueOf(value));
+        }
+
+        /**
+         * Block of calls recorded in Redis as members "{id}:0" .. "{id}:{size-1}"
+         */
+        private static final class Lease {
+            final String id;
+            final int size;
+            final long expiresAtNanos;
+            final AtomicInteger next = new AtomicInteger();
+
+            Lease(String id, int size, long expiresAtNanos) {
+                this.id = id;
+                this.size = size;
+                this.expiresAtNanos = expiresAtNanos;
+            }
+        }
+    }
+
+    /**
+     * Outcome of one rate limit check
+     */
+    public static class Decision {
+        public final boolean allowed;
+        /** Window that rejected the call ("minute", "hour", "day"), null if allowed */
+        public final String exceededWindow;
+        public final UsageStats usage;
+
+        public Decision(boolean allowed, String exceededWindow, UsageStats usage) {
+            this.allowed = allowed;
+            this.exceededWindow = exceededWindow;
+            this.usage = usage;
         }
     }
     
@@ -1,20 +1,31 @@
 package com.airlinetracker.flightdata.config;
 
-import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.cache.CacheInvalidationPublisher;
+import com.airlinetracker.flightdata.cache.FlightCacheTtlPolicy;
+import com.airlinetracker.flightdata.cache.FlightDataBinarySerializer;
+import com.airlinetracker.flightdata.cache.TwoTierCacheManager;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -26,21 +37,112 @@ import java.time.Duration;
  * 
  * Configuration:
  * - Cache name: "flights"
- * - TTL: 5 minutes (300 seconds)
+ * - TTL: per entry from the flight phase (FlightCacheTtlPolicy); 5 minutes when unknown
  * - Key pattern: "flights::{ident}"
- * - Serialization: JSON
+ * - Serialization: compact binary FlightData (FlightDataBinarySerializer),
+ *   JSON for anything else and for entries written before the switch
+ * 
+ * Two-tier near-cache (optional, enabled by default):
+ * - L1: in-process Caffeine cache, size-bounded with a short TTL
+ * - L2: Redis (shared across replicas)
+ * - L1 coherence: Redis pub/sub invalidation on channel "cache:invalidation"
  */
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    public static final String FLIGHTS_CACHE = "flights";
+    public static final String FLIGHTS_CACHE_KEY_PREFIX = FLIGHTS_CACHE + "::";
+    public static final Duration FLIGHTS_CACHE_TTL = Duration.ofMinutes(5);
+
+    @Value("${cache.l1.enabled:true}")
+    private boolean l1Enabled;
+
+    @Value("${cache.l1.max-size:10000}")
+    private long l1MaxSize;
+
+    @Value("${cache.l1.ttl-seconds:30}")
+    private long l1TtlSeconds;
+
+    @Value("${cache.ttl.en-route-seconds:120}")
+    private long enRouteTtlSeconds;
+
+    @Value("${cache.ttl.scheduled-max-seconds:3600}")
+    private long scheduledMaxTtlSeconds;
+
+    @Value("${cache.ttl.landed-seconds:21600}")
+    private long landedTtlSeconds;
+
+    @Value("${cache.serializer.format:binary}")
+    private String serializerFormat;
+
+    /**
+     * Flight-phase-aware TTL for "flights" entries (every tier and access path)
+     */
+    @Bean
+    public FlightCacheTtlPolicy flightCacheTtlPolicy() {
+        return new FlightCacheTtlPolicy(
+                FLIGHTS_CACHE_TTL,
+                Duration.ofSeconds(enRouteTtlSeconds),
+                Duration.ofSeconds(scheduledMaxTtlSeconds),
+                Duration.ofSeconds(landedTtlSeconds));
+    }
+
     /**
      * Configure Redis Cache Manager with TTL
      * 
-     * PRD requirement: Cache TTL = 5 minutes
+     * PRD requirement: Cache TTL = 5 minutes, refined per entry by flight phase
+     * 
+     * When the L1 near-cache is enabled, the Redis cache manager is wrapped
+     * in a {@link TwoTierCacheManager}.
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     RedisSerializer<Object> flightCacheValueSerializer,
+                                     CacheInvalidationPublisher cacheInvalidationPublisher,
+                                     FlightCacheTtlPolicy flightCacheTtlPolicy,
+                                     MeterRegistry meterRegistry) {
+        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(flightCacheTtlPolicy) // TTL: by flight phase, 5 minutes by default
+                .serializeKeysWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(flightCacheValueSerializer))
+                .disableCachingNullValues();
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfig)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        if (!l1Enabled) {
+            return redisCacheManager;
+        }
+        return new TwoTierCacheManager(
+                redisCacheManager,
+                cacheInvalidationPublisher,
+                meterRegistry,
+                l1MaxSize,
+                Duration.ofSeconds(l1TtlSeconds),
+                flightCacheTtlPolicy);
+    }
+
+    /**
+     * Value serializer for the "flights" cache (shared by every cache access path)
+     *
+     * cache.serializer.format=binary writes the compact binary format;
+     * "json" keeps writing JSON (e.g. while replicas without the binary
+     * reader are still running). Both settings read both formats.
+     */
+    @Bean
+    public RedisSerializer<Object> flightCacheValueSerializer() {
+        return new FlightDataBinarySerializer(jsonValueSerializer(), !"json".equalsIgnoreCase(serializerFormat));
+    }
+
+    /**
+     * JSON value format (pre-binary entries and non-flight values)
+     */
+    public static RedisSerializer<Object> jsonValueSerializer() {
         // Configure ObjectMapper with JSR310 module for Java 8 date/time types
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -52,26 +154,55 @@ public class RedisConfig {
                 .build();
         objectMapper.activateDefaultTyping(ptv, ObjectMapper.DefaultTyping.NON_FINAL);
         
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        
-        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(5)) // TTL: 5 minutes
-                .serializeKeysWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(jsonSerializer))
-                .disableCachingNullValues();
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(cacheConfig)
+    /**
+     * Reactive access to the "flights" cache entries (non-blocking lookup path)
+     * 
+     * Same key and value format as the RedisCacheManager, so both paths share entries.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveFlightCacheTemplate(
+            ReactiveRedisConnectionFactory connectionFactory,
+            RedisSerializer<Object> flightCacheValueSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(flightCacheValueSerializer)
                 .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    /**
+     * Publisher for L1 invalidations (Redis pub/sub)
+     */
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate) {
+        return new CacheInvalidationPublisher(stringRedisTemplate);
     }
 
     /**
-     * Configure RedisTemplate for manual cache operations (if needed)
+     * Subscribe to peer invalidations so every replica's L1 stays coherent
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, CacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (cacheManager instanceof TwoTierCacheManager twoTierCacheManager) {
+            container.addMessageListener(twoTierCacheManager,
+                    new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        }
+        return container;
+    }
+
+    /**
+     * Configure RedisTemplate for manual cache operations
+     * (e.g. reading "flights::{ident}" entries written by peer replicas)
+     */
+    @Bean
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       RedisSerializer<Object> flightCacheValueSerializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         
@@ -79,21 +210,9 @@ public class RedisConfig {
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
         
-        // Configure ObjectMapper with JSR310 module for Java 8 date/time types
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        
-        // Enable default typing for proper deserialization (fixes LinkedHashMap cast error)
-        BasicPolymorphicTypeValidator ptv = BasicPolymorphicTypeValidator.builder()
-                .allowIfBaseType(Object.class)
-                .build();
-        objectMapper.activateDefaultTyping(ptv, ObjectMapper.DefaultTyping.NON_FINAL);
-        
-        // JSON serializer for values
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        // Same value format as the "flights" cache, so cache entries can be read directly
+        template.setValueSerializer(flightCacheValueSerializer);
+        template.setHashValueSerializer(flightCacheValueSerializer);
         
         template.afterPropertiesSet();
         return template;
@@ -2,14 +2,16 @@ package com.airlinetracker.flightdata.controller;
 
 import com.airlinetracker.flightdata.dto.FlightData;
 import com.airlinetracker.flightdata.exception.FlightNotFoundException;
-import com.airlinetracker.flightdata.service.FlightDataService;
+import com.airlinetracker.flightdata.service.FlightLookupService;
+import com.airlinetracker.flightdata.service.RefreshAheadService;
 import jakarta.validation.constraints.NotBlank;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 /**
  * Flight Data REST Controller
@@ -21,35 +23,63 @@ import org.springframework.web.bind.annotation.*;
  * - Expose REST API for flight data retrieval
  * - Input validation
  * - Exception handling (404, 500)
+ * - Feed lookup frequency to refresh-ahead (hits never reach the service)
+ * 
+ * Lookup modes (flightdata.reactive.enabled, see FlightLookupService):
+ * - false (default): blocking service call, one request thread per in-flight miss
+ * - true: non-blocking Mono pipeline; with spring.main.web-application-type=reactive
+ *   the endpoint runs on the Netty event loop and slow misses hold no threads
+ * 
+ * Availability: rate limit rejections and upstream failures are answered
+ * with the last known good copy when there is one (stale-if-error).
  */
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/flight")
-@RequiredArgsConstructor
 @Validated
 public class FlightController {
 
-    private final FlightDataService flightDataService;
+    private final FlightLookupService flightLookupService;
+    private final RefreshAheadService refreshAheadService;
+
+    public FlightController(FlightLookupService flightLookupService,
+                            RefreshAheadService refreshAheadService) {
+        this.flightLookupService = flightLookupService;
+        this.refreshAheadService = refreshAheadService;
+    }
 
     /**
      * Get flight data by ident
      * 
      * API Spec: GET /api/v1/flight/{ident}
      * 
+     * Stale responses (last known good copy) carry Age and Warning headers.
+     * 
      * @param ident Flight identifier (e.g., "UAL123")
      * @return FlightData with 200 OK
      * @throws FlightNotFoundException if flight not found (404)
      */
     @GetMapping("/{ident}")
-    public ResponseEntity<FlightData> getFlightByIdent(
+    public Mono<ResponseEntity<FlightData>> getFlightByIdent(
             @PathVariable @NotBlank(message = "Flight ident cannot be blank") String ident) {
         
         log.info("Received request for flight: {}", ident);
 
-        FlightData flightData = flightDataService.getFlightByIdent(ident);
+        return flightLookupService.lookup(ident)
+                .doOnNext(result -> {
+                    log.info("Returning {} flight data for: {}", result.isStale() ? "stale" : "fresh", ident);
+                    refreshAheadService.recordAccess(ident, result.flightData());
+                })
+                .map(FlightController::toResponse);
+    }
 
-        log.info("Returning flight data for: {}", ident);
-        return ResponseEntity.ok(flightData);
+    private static ResponseEntity<FlightData> toResponse(FlightLookupService.Result result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.isStale()) {
+            response.header(HttpHeaders.AGE, String.valueOf(Math.max(0, result.age().toSeconds())));
+            response.header(HttpHeaders.WARNING, result.warning());
+        }
+        return response.body(result.flightData());
     }
 
     /**
@@ -26,7 +26,7 @@ import java.time.Instant;
  * - REST API response
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -0,0 +1,43 @@
+package com.airlinetracker.flightdata.dto;
+
+import java.util.List;
+
+/**
+ * flight-data-events record: a full snapshot or a delta against one
+ *
+ * Source: PRD.md Section 3.2 - Kafka Event Schema (key: fa_flight_id, value: FlightData)
+ *
+ * The record value is always a FlightData, in Avro single-object encoding
+ * (see FlightDataSchemas), or JSON with null fields omitted when
+ * kafka.producer.value-format=json. Unset fields are null in either format:
+ * - SNAPSHOT: the complete flight
+ * - DELTA:    fa_flight_id, ident and only the fields that differ from the
+ *             base snapshot; fields that became null are listed in
+ *             clearedFields (JSON names)
+ *
+ * Type and base snapshot version travel in record headers, so records
+ * without headers (older producers) read as snapshots.
+ *
+ * @param type            SNAPSHOT or DELTA
+ * @param snapshotVersion Version of this snapshot, or of the snapshot a delta applies to
+ * @param flightData      Full flight (snapshot) or changed fields only (delta)
+ * @param clearedFields   Fields set to null since the base snapshot (delta only)
+ */
+public record FlightDataEvent(Type type, long snapshotVersion, FlightData flightData, List<String> clearedFields) {
+
+    public static final String HEADER_TYPE = "flight-event-type";
+    public static final String HEADER_SNAPSHOT_VERSION = "flight-event-snapshot-version";
+    public static final String HEADER_CLEARED_FIELDS = "flight-event-cleared-fields";
+
+    public enum Type {
+        SNAPSHOT, DELTA
+    }
+
+    public static FlightDataEvent snapshot(FlightData flightData, long snapshotVersion) {
+        return new FlightDataEvent(Type.SNAPSHOT, snapshotVersion, flightData, List.of());
+    }
+
+    public static FlightDataEvent delta(FlightData changes, long snapshotVersion, List<String> clearedFields) {
+        return new FlightDataEvent(Type.DELTA, snapshotVersion, changes, List.copyOf(clearedFields));
+    }
+}
@@ -0,0 +1,20 @@
+package com.airlinetracker.flightdata.exception;
+
+/**
+ * Exception thrown when FlightAware API answers with a non-2xx status other than 404
+ * (5xx, 429, 401, ...). Unlike FlightNotFoundException this is an upstream failure,
+ * so callers may fall back to a last-known-good copy.
+ */
+public class FlightAwareApiException extends RuntimeException {
+
+    private final int statusCode;
+
+    public FlightAwareApiException(String ident, int statusCode) {
+        super("FlightAware API returned " + statusCode + " for " + ident);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
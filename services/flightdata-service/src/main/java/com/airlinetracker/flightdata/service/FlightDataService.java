@@ -1,15 +1,18 @@
 package com.airlinetracker.flightdata.service;
 
+import com.airlinetracker.flightdata.cache.LastKnownGoodStore;
+import com.airlinetracker.flightdata.cache.ReactiveFlightCache;
 import com.airlinetracker.flightdata.client.FlightAwareClient;
 import com.airlinetracker.flightdata.dto.FlightData;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
 
 /**
  * Flight Data Service
@@ -19,16 +22,27 @@ import org.springframework.stereotype.Service;
  * Orchestrates:
  * 1. FlightAware API client (external data fetch)
  * 2. Redis caching (Cache-Aside pattern, TTL: 5 minutes)
- * 3. Kafka event publishing (flight-data-events topic)
+ * 3. Kafka event publishing (flight-data-events topic, via FlightEventOutbox),
+ *    only when the flight changed since its last event (FlightEventChangeDetector),
+ *    as a delta against the flight's last snapshot where possible (FlightDeltaEncoder),
+ *    and every fetched state (changed or not) goes to the compacted flight-state topic (FlightStatePublisher)
  * 4. Custom metrics (Micrometer/Prometheus) - PRD NFR-4
+ * 5. Single-flight coalescing of concurrent misses (FlightFetchCoalescer)
+ * 6. Refresh-ahead of hot entries (driven by RefreshAheadService)
+ * 7. Last known good copy of every fetch (stale serving, see FlightLookupService)
+ * 
+ * Lookup modes (cache checks and stale fallback live in FlightLookupService):
+ * - Servlet (default): loadFlight blocks the calling thread on a cache miss
+ * - Reactive: loadFlightReactive never blocks (reactive Redis, outbox publish)
  * 
  * Cache Strategy (PRD FR-2):
  * - Cache key: "flights::{ident}"
  * - TTL: 5 minutes (300 seconds)
  * - Pattern: Cache-Aside (Lazy Loading)
+ * - Tiers: in-process L1 near-cache in front of Redis L2 (see TwoTierCache)
  * 
  * Custom Metrics (PRD NFR-4: Observability):
- * - flight_cache_hits_total: Counter for cache hits
+ * - flight_cache_hits_total: Counter for cache hits (recorded by TwoTierCache)
  * - flight_cache_misses_total: Counter for cache misses
  * - flightaware_api_duration_seconds: Timer for API call duration
  */
@@ -37,30 +51,54 @@ import org.springframework.stereotype.Service;
 public class FlightDataService {
 
     private final FlightAwareClient flightAwareClient;
-    private final KafkaTemplate<String, FlightData> kafkaTemplate;
+    private final FlightEventOutbox flightEventOutbox;
+    private final FlightEventChangeDetector changeDetector;
+    private final FlightDeltaEncoder deltaEncoder;
+    private final FlightStatePublisher flightStatePublisher;
+    private final FlightFetchCoalescer fetchCoalescer;
+    private final ReactiveFlightCache reactiveFlightCache;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final MeterRegistry meterRegistry;
     
     // Micrometer Metrics (PRD NFR-4)
     private final Counter cacheHitCounter;
     private final Counter cacheMissCounter;
     private final Timer apiDurationTimer;
 
-    @Value("${kafka.topic.flight-data-events:flight-data-events}")
-    private String flightDataTopic;
 
     /**
      * Constructor with dependency injection for metrics
      * 
      * @param flightAwareClient Client for FlightAware API
-     * @param kafkaTemplate Kafka producer template
+     * @param flightEventOutbox Non-blocking publisher of flight-data-events
+     * @param changeDetector Suppresses events for flights that have not changed
+     * @param deltaEncoder Encodes events as snapshots or deltas
+     * @param flightStatePublisher Publisher of the latest state per flight (flight-state)
+     * @param fetchCoalescer Single-flight deduplication of upstream fetches
+     * @param reactiveFlightCache Non-blocking cache access for the reactive path
+     * @param lastKnownGoodStore Long-lived copy of every successful fetch
      * @param meterRegistry Micrometer registry for custom metrics
      */
     public FlightDataService(
             FlightAwareClient flightAwareClient,
-            KafkaTemplate<String, FlightData> kafkaTemplate,
+            FlightEventOutbox flightEventOutbox,
+            FlightEventChangeDetector changeDetector,
+            FlightDeltaEncoder deltaEncoder,
+            FlightStatePublisher flightStatePublisher,
+            FlightFetchCoalescer fetchCoalescer,
+            ReactiveFlightCache reactiveFlightCache,
+            LastKnownGoodStore lastKnownGoodStore,
             MeterRegistry meterRegistry) {
         
         this.flightAwareClient = flightAwareClient;
-        this.kafkaTemplate = kafkaTemplate;
+        this.flightEventOutbox = flightEventOutbox;
+        this.changeDetector = changeDetector;
+        this.deltaEncoder = deltaEncoder;
+        this.flightStatePublisher = flightStatePublisher;
+        this.fetchCoalescer = fetchCoalescer;
+        this.reactiveFlightCache = reactiveFlightCache;
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.meterRegistry = meterRegistry;
         
         // Initialize custom metrics (PRD NFR-4)
         this.cacheHitCounter = Counter.builder("flight_cache_hits")
@@ -84,66 +122,107 @@ public class FlightDataService {
     }
 
     /**
-     * Get flight data by ident (with caching)
-     * 
-     * Flow (ARCHITECTURE.md Flow 1):
-     * 1. Check cache (via @Cacheable annotation)
-     * 2. If cache miss, call FlightAware API with metrics
-     * 3. Store in cache (Spring handles this automatically)
-     * 4. Publish event to Kafka
-     * 5. Return flight data
+     * Get flight data WITHOUT caching (for testing metrics)
      * 
-     * Note: Cache hits cannot be detected here due to @Cacheable proxy behavior.
-     * Cache hit metrics are recorded via AOP or manual tracking.
+     * This method is used by unit tests to verify metric recording
+     * without the complexity of cache behavior.
      * 
-     * @param ident Flight identifier (e.g., "UAL123")
+     * @param ident Flight identifier
      * @return FlightData object
      */
-    @Cacheable(value = "flights", key = "#ident")
-    public FlightData getFlightByIdent(String ident) {
-        log.info("Cache miss for ident: {}. Fetching from FlightAware API...", ident);
+    public FlightData getFlightByIdentUncached(String ident) {
+        log.debug("Fetching flight data without cache: {}", ident);
         
-        // Record cache miss (PRD NFR-4)
+        // Record cache miss
         cacheMissCounter.increment();
+        
+        // Fetch with timer, publish to Kafka
+        return fetchFromFlightAware(ident, this::publish).block();
+    }
 
-        // Fetch from FlightAware API with duration tracking (PRD NFR-4)
-        FlightData flightData = apiDurationTimer.record(() -> 
-            flightAwareClient.getFlightByIdent(ident).block()
-        );
-
-        // Publish event to Kafka (async)
-        publishFlightDataEvent(flightData);
+    /**
+     * Fetch a flight after a cache miss and store it (servlet mode)
+     * 
+     * Used by FlightLookupService, which has already checked the cache;
+     * @CachePut stores the result without a second lookup.
+     * 
+     * @param ident Flight identifier
+     * @return fresh FlightData, now cached
+     */
+    @CachePut(value = "flights", key = "#ident")
+    public FlightData loadFlight(String ident) {
+        log.info("Cache miss for ident: {}. Fetching from FlightAware API...", ident);
+        cacheMissCounter.increment();
+        return fetchFromFlightAware(ident, this::publish).block();
+    }
 
-        log.info("Flight data retrieved and cached: {} ({})", 
-                flightData.getIdent(), flightData.getStatus());
+    /**
+     * Re-fetch a cached flight before its entry expires (refresh-ahead)
+     * 
+     * Called by RefreshAheadService for hot idents; @CachePut overwrites the
+     * entry (Redis + L1, peers invalidated) so readers never see a miss.
+     * Not counted as a cache miss.
+     * 
+     * @param ident Flight identifier
+     * @return fresh FlightData, now cached
+     */
+    @CachePut(value = "flights", key = "#ident")
+    public FlightData refreshFlight(String ident) {
+        log.debug("Refreshing cached flight ahead of expiry: {}", ident);
+        return fetchFromFlightAware(ident, this::publish).block();
+    }
 
-        return flightData;
+    /**
+     * Fetch a flight after a cache miss and store it, without blocking (reactive mode)
+     * 
+     * @param ident Flight identifier
+     * @return Mono emitting the fresh FlightData once cached
+     */
+    public Mono<FlightData> loadFlightReactive(String ident) {
+        return Mono.defer(() -> {
+            log.info("Cache miss for ident: {}. Fetching from FlightAware API...", ident);
+            cacheMissCounter.increment();
+            return fetchFromFlightAware(ident, flightData -> publish(flightData)
+                    .then(reactiveFlightCache.put(ident, flightData))
+                    .thenReturn(flightData));
+        });
     }
 
     /**
-     * Get flight data WITHOUT caching (for testing metrics)
+     * Fetch from FlightAware through the single-flight coalescer
      * 
-     * This method is used by unit tests to verify metric recording
-     * without the complexity of cache behavior.
+     * Only the leading request for an ident calls the API: the duration
+     * timer and the Kafka publish happen once per upstream fetch, and
+     * every concurrent waiter receives the same FlightData.
+     * Every successful fetch also becomes the ident's last known good copy.
      * 
-     * @param ident Flight identifier
-     * @return FlightData object
+     * @param onFetched Post-fetch step (publish, cache write) run once by the leader
      */
-    public FlightData getFlightByIdentUncached(String ident) {
-        log.debug("Fetching flight data without cache: {}", ident);
-        
-        // Record cache miss
-        cacheMissCounter.increment();
-        
-        // Fetch with timer
-        FlightData flightData = apiDurationTimer.record(() -> 
-            flightAwareClient.getFlightByIdent(ident).block()
-        );
-        
-        // Publish event to Kafka
-        publishFlightDataEvent(flightData);
-        
-        return flightData;
+    private Mono<FlightData> fetchFromFlightAware(String ident,
+                                                  Function<FlightData, Mono<FlightData>> onFetched) {
+        return fetchCoalescer.fetch(ident, () -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return flightAwareClient.getFlightByIdent(ident)
+                    .doFinally(signal -> sample.stop(apiDurationTimer))
+                    .flatMap(flightData -> lastKnownGoodStore.save(ident, flightData).thenReturn(flightData))
+                    .flatMap(onFetched);
+        });
+    }
+
+    /**
+     * Hand every fetched state to flight-state, and queue a flight-data-events
+     * event only if the flight changed since its last event
+     * 
+     * flight-state updates are conflated per flight, so they are not gated:
+     * the compacted topic always carries the latest fetch, including fields
+     * the change detector ignores.
+     */
+    private Mono<FlightData> publish(FlightData flightData) {
+        flightStatePublisher.update(flightData);
+        if (changeDetector.shouldPublish(flightData)) {
+            flightEventOutbox.enqueue(deltaEncoder.encode(flightData));
+        }
+        return Mono.just(flightData);
     }
 
     /**
@@ -158,24 +237,4 @@ public class FlightDataService {
         cacheHitCounter.increment();
         log.debug("Cache hit recorded");
     }
-
-    /**
-     * Publish flight-data-events event to Kafka
-     * 
-     * Event Schema (PRD.md Section 3.2):
-     * - Topic: flight-data-events
-     * - Key: fa_flight_id
-     * - Value: FlightData JSON
-     */
-    private void publishFlightDataEvent(FlightData flightData) {
-        try {
-            kafkaTemplate.send(flightDataTopic, flightData.getFaFlightId(), flightData);
-            log.debug("Published flight-data-events event for: {}", flightData.getIdent());
-        } catch (Exception e) {
-            // Log error but don't fail the request (Kafka is async)
-            log.error("Failed to publish Kafka event for {}: {}", 
-                    flightData.getIdent(), e.getMessage());
-        }
-    }
 }
-
@@ -0,0 +1,173 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.dto.FlightDataEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Delta encoding for flight-data-events
+ *
+ * For an en-route flight usually only latitude, longitude, altitude and
+ * groundspeed change between events, yet every record used to carry the
+ * full FlightData. Per fa_flight_id this remembers the last full snapshot
+ * and encodes later events as a delta against it: only the fields that
+ * differ from that snapshot (FlightDataEvent.Type.DELTA).
+ *
+ * Deltas are relative to the snapshot, not to the previous delta, so a
+ * consumer only needs the latest snapshot to rebuild the full flight.
+ * A new snapshot is sent for the first event of a flight, whenever its
+ * status changes, and again after snapshot-every deltas or snapshot-interval,
+ * so consumers that join late (or lost their state) catch up quickly and
+ * never depend on a snapshot they may have missed for a status change.
+ *
+ * Snapshot versions are the snapshot's epoch millis, unique per flight
+ * across replicas as long as two replicas do not snapshot the same flight
+ * in the same millisecond (fetches are coalesced per ident).
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_events_encoded_total{type=snapshot|delta}
+ */
+@Component
+public class FlightDeltaEncoder {
+
+    /**
+     * FlightData field, by JSON name, with its accessors
+     */
+    private record Field(String name, Function<FlightData, Object> getter, BiConsumer<FlightData, Object> setter) {
+
+        @SuppressWarnings("unchecked")
+        static <T> Field of(String name, Function<FlightData, T> getter, BiConsumer<FlightData, T> setter) {
+            return new Field(name, (Function<FlightData, Object>) getter,
+                    (flightData, value) -> setter.accept(flightData, (T) value));
+        }
+    }
+
+    // fa_flight_id and ident are always sent; every other field only when it changed
+    private static final List<Field> DELTA_FIELDS = List.of(
+            Field.of("status", FlightData::getStatus, FlightData::setStatus),
+            Field.of("scheduled_out", FlightData::getScheduledOut, FlightData::setScheduledOut),
+            Field.of("actual_out", FlightData::getActualOut, FlightData::setActualOut),
+            Field.of("scheduled_in", FlightData::getScheduledIn, FlightData::setScheduledIn),
+            Field.of("actual_in", FlightData::getActualIn, FlightData::setActualIn),
+            Field.of("origin", FlightData::getOrigin, FlightData::setOrigin),
+            Field.of("destination", FlightData::getDestination, FlightData::setDestination),
+            Field.of("aircraft_type", FlightData::getAircraftType, FlightData::setAircraftType),
+            Field.of("latitude", FlightData::getLatitude, FlightData::setLatitude),
+            Field.of("longitude", FlightData::getLongitude, FlightData::setLongitude),
+            Field.of("altitude", FlightData::getAltitude, FlightData::setAltitude),
+            Field.of("groundspeed", FlightData::getGroundspeed, FlightData::setGroundspeed));
+
+    /**
+     * Last snapshot sent for a flight and how many deltas refer to it
+     */
+    private record Base(FlightData snapshot, long version, Instant sentAt, int deltas) {
+    }
+
+    private final boolean enabled;
+    private final int snapshotEvery;
+    private final Duration snapshotInterval;
+    private final Clock clock;
+    private final Cache<String, Base> bases;
+
+    private final Counter snapshotCounter;
+    private final Counter deltaCounter;
+
+    @Autowired
+    public FlightDeltaEncoder(MeterRegistry meterRegistry,
+                              @Value("${kafka.delta.enabled:true}") boolean enabled,
+                              @Value("${kafka.delta.snapshot-every:10}") int snapshotEvery,
+                              @Value("${kafka.delta.snapshot-interval-seconds:600}") long snapshotIntervalSeconds,
+                              @Value("${kafka.change-detection.max-flights:100000}") long maxFlights) {
+        this(meterRegistry, enabled, snapshotEvery, Duration.ofSeconds(snapshotIntervalSeconds), maxFlights,
+                Clock.systemUTC());
+    }
+
+    FlightDeltaEncoder(MeterRegistry meterRegistry, boolean enabled, int snapshotEvery,
+                       Duration snapshotInterval, long maxFlights, Clock clock) {
+        this.enabled = enabled;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotInterval = snapshotInterval;
+        this.clock = clock;
+        this.bases = Caffeine.newBuilder()
+                .maximumSize(maxFlights)
+                .expireAfterWrite(snapshotInterval)
+                .build();
+
+        this.snapshotCounter = typeCounter(meterRegistry, "snapshot");
+        this.deltaCounter = typeCounter(meterRegistry, "delta");
+    }
+
+    private static Counter typeCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("flight_events_encoded")
+                .description("flight-data-events records by encoding")
+                .tag("service", "flightdata-service")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encode the next event for a flight
+     *
+     * @param flightData Flight about to be published
+     * @return snapshot or delta against the flight's last snapshot
+     */
+    public FlightDataEvent encode(FlightData flightData) {
+        Instant now = Instant.now(clock);
+        if (!enabled || flightData.getFaFlightId() == null) {
+            snapshotCounter.increment();
+            return FlightDataEvent.snapshot(flightData, now.toEpochMilli());
+        }
+
+        FlightDataEvent[] event = new FlightDataEvent[1];
+        bases.asMap().compute(flightData.getFaFlightId(), (id, base) -> {
+            if (base == null || base.deltas() >= snapshotEvery
+                    || !now.isBefore(base.sentAt().plus(snapshotInterval))
+                    || !Objects.equals(base.snapshot().getStatus(), flightData.getStatus())) {
+                long version = base != null ? Math.max(now.toEpochMilli(), base.version() + 1) : now.toEpochMilli();
+                event[0] = FlightDataEvent.snapshot(flightData, version);
+                return new Base(flightData, version, now, 0);
+            }
+            event[0] = delta(base, flightData);
+            return new Base(base.snapshot(), base.version(), base.sentAt(), base.deltas() + 1);
+        });
+
+        (event[0].type() == FlightDataEvent.Type.SNAPSHOT ? snapshotCounter : deltaCounter).increment();
+        return event[0];
+    }
+
+    private static FlightDataEvent delta(Base base, FlightData current) {
+        FlightData changes = FlightData.builder()
+                .faFlightId(current.getFaFlightId())
+                .ident(current.getIdent())
+                .build();
+        List<String> cleared = new ArrayList<>();
+        for (Field field : DELTA_FIELDS) {
+            Object before = field.getter().apply(base.snapshot());
+            Object after = field.getter().apply(current);
+            if (Objects.equals(before, after)) {
+                continue;
+            }
+            if (after == null) {
+                cleared.add(field.name());
+            } else {
+                field.setter().accept(changes, after);
+            }
+        }
+        return FlightDataEvent.delta(changes, base.version(), cleared);
+    }
+}
@@ -0,0 +1,149 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Change detection for flight-data-events
+ *
+ * Every published event costs an OpenAI call and a DB upsert in
+ * llm-summary-service, but most cache misses re-fetch a flight that has not
+ * changed. This keeps a compact fingerprint of the last published state per
+ * fa_flight_id and only lets an event through when it is meaningfully
+ * different:
+ * - status changed
+ * - actual departure / arrival time set or changed
+ * - position appeared, disappeared or moved more than position-threshold-km
+ *
+ * Fingerprints are kept in-process (bounded, expire after ttl-hours); a
+ * flight seen for the first time on a replica is always published.
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_events_change_detection_total{decision=published|suppressed}
+ * - flight_events_change_detection_tracked: fingerprints held
+ */
+@Slf4j
+@Component
+public class FlightEventChangeDetector {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Last published state of a flight (fields relevant to change detection only)
+     */
+    private record Fingerprint(int statusHash, long actualOutMillis, long actualInMillis,
+                               float latitude, float longitude) {
+
+        static Fingerprint of(FlightData flightData) {
+            return new Fingerprint(
+                    Objects.hashCode(flightData.getStatus()),
+                    millis(flightData.getActualOut()),
+                    millis(flightData.getActualIn()),
+                    flightData.getLatitude() != null ? flightData.getLatitude().floatValue() : Float.NaN,
+                    flightData.getLongitude() != null ? flightData.getLongitude().floatValue() : Float.NaN);
+        }
+
+        boolean hasPosition() {
+            return !Float.isNaN(latitude) && !Float.isNaN(longitude);
+        }
+
+        private static long millis(Instant instant) {
+            return instant != null ? instant.toEpochMilli() : NONE;
+        }
+    }
+
+    private final boolean enabled;
+    private final double positionThresholdKm;
+    private final Cache<String, Fingerprint> lastPublished;
+
+    private final Counter publishedCounter;
+    private final Counter suppressedCounter;
+
+    public FlightEventChangeDetector(
+            MeterRegistry meterRegistry,
+            @Value("${kafka.change-detection.enabled:true}") boolean enabled,
+            @Value("${kafka.change-detection.position-threshold-km:5}") double positionThresholdKm,
+            @Value("${kafka.change-detection.max-flights:100000}") long maxFlights,
+            @Value("${kafka.change-detection.ttl-hours:24}") long ttlHours) {
+        this.enabled = enabled;
+        this.positionThresholdKm = positionThresholdKm;
+        this.lastPublished = Caffeine.newBuilder()
+                .maximumSize(maxFlights)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+
+        this.publishedCounter = decisionCounter(meterRegistry, "published");
+        this.suppressedCounter = decisionCounter(meterRegistry, "suppressed");
+        Gauge.builder("flight_events_change_detection_tracked", lastPublished, Cache::estimatedSize)
+                .description("Flights with a last published fingerprint")
+                .tag("service", "flightdata-service")
+                .register(meterRegistry);
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("flight_events_change_detection")
+                .description("Fetched flights by publish decision (suppressed = unchanged since last event)")
+                .tag("service", "flightdata-service")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decide whether a freshly fetched flight is worth an event, and remember it if so
+     *
+     * @param flightData Flight just fetched from FlightAware
+     * @return true to publish, false if nothing meaningful changed since the last event
+     */
+    public boolean shouldPublish(FlightData flightData) {
+        if (!enabled || flightData.getFaFlightId() == null) {
+            publishedCounter.increment();
+            return true;
+        }
+        Fingerprint current = Fingerprint.of(flightData);
+        boolean[] changed = new boolean[1];
+        lastPublished.asMap().compute(flightData.getFaFlightId(), (id, previous) -> {
+            changed[0] = previous == null || isMeaningfulChange(previous, current);
+            return changed[0] ? current : previous;
+        });
+
+        if (changed[0]) {
+            publishedCounter.increment();
+        } else {
+            suppressedCounter.increment();
+            log.debug("Suppressed unchanged flight-data-events event for {}", flightData.getIdent());
+        }
+        return changed[0];
+    }
+
+    private boolean isMeaningfulChange(Fingerprint previous, Fingerprint current) {
+        if (previous.statusHash() != current.statusHash()
+                || previous.actualOutMillis() != current.actualOutMillis()
+                || previous.actualInMillis() != current.actualInMillis()
+                || previous.hasPosition() != current.hasPosition()) {
+            return true;
+        }
+        return current.hasPosition() && distanceKm(previous, current) > positionThresholdKm;
+    }
+
+    private static double distanceKm(Fingerprint from, Fingerprint to) {
+        double lat1 = Math.toRadians(from.latitude());
+        double lat2 = Math.toRadians(to.latitude());
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(to.longitude() - from.longitude());
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
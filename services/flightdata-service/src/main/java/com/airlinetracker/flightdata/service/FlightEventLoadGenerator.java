@@ -0,0 +1,205 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Built-in load generator for the flight-data-events producer
+ *
+ * Publishes synthetic FlightData at a fixed rate through the application's
+ * own KafkaTemplate, so the effect of the producer profile
+ * (kafka.producer.*: linger, batch size, compression, idempotence) can be
+ * measured against a real broker without FlightAware traffic.
+ *
+ * Disabled by default. With kafka.load-generator.enabled=true it runs once
+ * after startup and logs a report. Events go to a separate topic
+ * (flight-data-events-loadtest) so llm-summary-service never sees them.
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_events_loadgen_send_latency_seconds: send to broker ack (histogram)
+ * - flight_events_loadgen_record_bytes: serialized value size (histogram)
+ */
+@Slf4j
+@Component
+public class FlightEventLoadGenerator {
+
+    private static final Set<String> REPORTED_PRODUCER_METRICS = Set.of(
+            "batch-size-avg", "batch-size-max", "compression-rate-avg", "records-per-request-avg",
+            "record-queue-time-avg", "request-latency-avg", "record-error-total");
+
+    /**
+     * Outcome of one run
+     *
+     * @param sent            Records acknowledged by the broker
+     * @param failed          Records that failed to send
+     * @param elapsed         Time from the first send to the last acknowledgement
+     * @param producerMetrics Selected Kafka producer metrics at the end of the run
+     */
+    public record Report(long sent, long failed, Duration elapsed, Map<String, Double> producerMetrics) {
+
+        public double eventsPerSecond() {
+            return elapsed.isZero() ? 0 : sent * 1_000.0 / elapsed.toMillis();
+        }
+    }
+
+    private final KafkaTemplate<String, FlightData> kafkaTemplate;
+    private final String topic;
+    private final boolean enabled;
+    private final int eventsPerSecond;
+    private final Duration duration;
+    private final int flights;
+
+    private final Timer sendLatencyTimer;
+    private final DistributionSummary recordBytes;
+
+    public FlightEventLoadGenerator(
+            KafkaTemplate<String, FlightData> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.load-generator.topic:flight-data-events-loadtest}") String topic,
+            @Value("${kafka.load-generator.enabled:false}") boolean enabled,
+            @Value("${kafka.load-generator.events-per-second:1000}") int eventsPerSecond,
+            @Value("${kafka.load-generator.duration-seconds:60}") long durationSeconds,
+            @Value("${kafka.load-generator.flights:500}") int flights) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.enabled = enabled;
+        this.eventsPerSecond = eventsPerSecond;
+        this.duration = Duration.ofSeconds(durationSeconds);
+        this.flights = flights;
+
+        this.sendLatencyTimer = Timer.builder("flight_events_loadgen_send_latency")
+                .description("Load generator: time from send to broker acknowledgement")
+                .tag("service", "flightdata-service")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.recordBytes = DistributionSummary.builder("flight_events_loadgen_record_bytes")
+                .description("Load generator: serialized FlightData value size")
+                .tag("service", "flightdata-service")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            Report report = run(eventsPerSecond, duration);
+            log.info("Load generator finished: {} sent, {} failed in {} ({} events/s), producer metrics: {}",
+                    report.sent(), report.failed(), report.elapsed(),
+                    String.format("%.0f", report.eventsPerSecond()), report.producerMetrics());
+        }, "flight-event-load-generator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Publish synthetic events at a fixed rate and wait for every acknowledgement
+     *
+     * @param eventsPerSecond Target send rate
+     * @param duration        How long to keep sending
+     * @return counts, elapsed time and producer metrics
+     */
+    public Report run(int eventsPerSecond, Duration duration) {
+        long total = eventsPerSecond * duration.toMillis() / 1_000;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / eventsPerSecond;
+        AtomicLong sent = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<SendResult<String, FlightData>>> pending = new ArrayList<>();
+
+        log.info("Load generator: {} events/s for {} ({} events over {} flights) to {}",
+                eventsPerSecond, duration, total, flights, topic);
+
+        Instant now = Instant.now();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long wait = start + i * intervalNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            FlightData flightData = syntheticFlight(i, now);
+            long sendStart = System.nanoTime();
+            try {
+                pending.add(kafkaTemplate.send(topic, flightData.getFaFlightId(), flightData)
+                        .whenComplete((result, e) -> {
+                            if (e != null) {
+                                failed.incrementAndGet();
+                                return;
+                            }
+                            sendLatencyTimer.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+                            if (result != null) {
+                                recordBytes.record(result.getRecordMetadata().serializedValueSize());
+                            }
+                            sent.incrementAndGet();
+                        }));
+            } catch (Exception e) {
+                // Buffer full for longer than max.block.ms
+                failed.incrementAndGet();
+            }
+        }
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null)
+                .join();
+
+        return new Report(sent.get(), failed.get(), Duration.ofNanos(System.nanoTime() - start), producerMetrics());
+    }
+
+    private FlightData syntheticFlight(long sequence, Instant now) {
+        int flight = (int) (sequence % flights);
+        String ident = "LGN" + flight;
+        Instant departed = now.minus(Duration.ofMinutes(30 + flight % 240));
+        return FlightData.builder()
+                .faFlightId(ident + "-" + now.getEpochSecond() + "-loadgen-" + flight)
+                .ident(ident)
+                .status("En Route / On Time")
+                .scheduledOut(departed.minus(Duration.ofMinutes(5)))
+                .actualOut(departed)
+                .scheduledIn(departed.plus(Duration.ofHours(5)))
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(37.6 + (sequence % 1_000) * 0.001)
+                .longitude(-122.4 + (sequence % 1_000) * 0.02)
+                .altitude(35_000)
+                .groundspeed(450 + (int) (sequence % 50))
+                .build();
+    }
+
+    private Map<String, Double> producerMetrics() {
+        Map<String, Double> metrics = new TreeMap<>();
+        for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if ("producer-metrics".equals(name.group()) && REPORTED_PRODUCER_METRICS.contains(name.name())
+                    && entry.getValue().metricValue() instanceof Double value) {
+                metrics.put(name.name(), value);
+            }
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,425 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.dto.FlightDataEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, non-blocking outbox for flight-data-events
+ *
+ * FlightDataService hands every fetched flight to enqueue(), which never
+ * waits on Kafka: it offers the event to a bounded in-memory queue and
+ * returns. A single dispatcher thread sends queued events (at most
+ * max-in-flight unacknowledged) and tracks every completion:
+ *
+ * - max-in-flight reached (broker stalled) → the dispatcher appends the
+ *   event to a local spill file (FlightEventSpillFile); while the spill file
+ *   has events, it spills queued events too, so they are not published
+ *   ahead of older ones
+ * - Queue full (dispatcher cannot even keep up spilling) → the caller
+ *   spills the event itself, the only case a request thread touches the file
+ * - Send failed after the synchronous part (e.g. delivery timeout) → spilled;
+ *   newer events of the flight may already be in flight by then, so on
+ *   replay an event is dropped (superseded) if a newer event for the same
+ *   fa_flight_id has been sent since
+ * - Spill file full or unwritable → dropped (counted)
+ * - Spilled line unreadable (e.g. torn by a crash) → quarantined on replay
+ *   (counted), the rest of the batch is replayed
+ *
+ * Spilled events are replayed once every send has completed and none has
+ * failed for replay-backoff; the first event of a batch is sent
+ * synchronously as a probe, so a still-down broker leaves the batch on disk.
+ * Events enqueued while the dispatcher is not running, and events still
+ * queued in memory on shutdown, are spilled and replayed on the next start.
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_events_outbox_depth{where=memory|spill}: events waiting
+ * - flight_events_outbox_in_flight: sent, not yet acknowledged
+ * - flight_events_outbox_publish_lag_seconds: enqueue to broker ack (histogram)
+ * - flight_events_outbox_total{outcome=published|spilled|send_failed|dropped|superseded|corrupt}
+ */
+@Slf4j
+@Component
+public class FlightEventOutbox implements SmartLifecycle {
+
+    private record Pending(FlightDataEvent event, Instant enqueuedAt) {
+    }
+
+    private static final long POLL_MS = 100;
+
+    private final KafkaTemplate<String, FlightData> kafkaTemplate;
+    private final String topic;
+    private final BlockingQueue<Pending> queue;
+    private final FlightEventSpillFile spillFile;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Duration replayBackoff;
+    private final Clock clock;
+    private final Cache<String, Instant> lastSent;
+
+    private final Timer publishLagTimer;
+    private final Counter publishedCounter;
+    private final Counter spilledCounter;
+    private final Counter sendFailedCounter;
+    private final Counter droppedCounter;
+    private final Counter supersededCounter;
+
+    private volatile boolean running;
+    private volatile long lastFailureNanos;
+    private Thread dispatcher;
+
+    @Autowired
+    public FlightEventOutbox(KafkaTemplate<String, FlightData> kafkaTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${kafka.topic.flight-data-events:flight-data-events}") String topic,
+                             @Value("${kafka.outbox.capacity:10000}") int capacity,
+                             @Value("${kafka.outbox.max-in-flight:10000}") int maxInFlight,
+                             @Value("${kafka.outbox.spill-dir:${java.io.tmpdir}/flightdata-outbox}") String spillDir,
+                             @Value("${kafka.outbox.spill-max-mb:100}") long spillMaxMb,
+                             @Value("${kafka.outbox.replay-backoff-ms:5000}") long replayBackoffMs,
+                             @Value("${kafka.change-detection.max-flights:100000}") long maxFlights) {
+        this(kafkaTemplate, meterRegistry, topic, capacity, maxInFlight,
+                openSpillFile(Path.of(spillDir), spillMaxMb * 1024 * 1024),
+                Duration.ofMillis(replayBackoffMs), maxFlights, Clock.systemUTC());
+    }
+
+    FlightEventOutbox(KafkaTemplate<String, FlightData> kafkaTemplate,
+                      MeterRegistry meterRegistry,
+                      String topic,
+                      int capacity,
+                      int maxInFlight,
+                      FlightEventSpillFile spillFile,
+                      Duration replayBackoff,
+                      long maxFlights,
+                      Clock clock) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.spillFile = spillFile;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.replayBackoff = replayBackoff;
+        this.clock = clock;
+        this.lastSent = Caffeine.newBuilder().maximumSize(maxFlights).build();
+        this.lastFailureNanos = System.nanoTime() - replayBackoff.toNanos();
+
+        Gauge.builder("flight_events_outbox_depth", queue, BlockingQueue::size)
+                .description("Flight events waiting to be published")
+                .tag("service", "flightdata-service")
+                .tag("where", "memory")
+                .register(meterRegistry);
+        Gauge.builder("flight_events_outbox_depth", spillFile, FlightEventSpillFile::pendingRecords)
+                .description("Flight events waiting to be published")
+                .tag("service", "flightdata-service")
+                .tag("where", "spill")
+                .register(meterRegistry);
+        Gauge.builder("flight_events_outbox_in_flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Flight events sent but not yet acknowledged by Kafka")
+                .tag("service", "flightdata-service")
+                .register(meterRegistry);
+        this.publishLagTimer = Timer.builder("flight_events_outbox_publish_lag")
+                .description("Time from enqueue to Kafka acknowledgement")
+                .tag("service", "flightdata-service")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.publishedCounter = outcomeCounter(meterRegistry, "published");
+        this.spilledCounter = outcomeCounter(meterRegistry, "spilled");
+        this.sendFailedCounter = outcomeCounter(meterRegistry, "send_failed");
+        this.droppedCounter = outcomeCounter(meterRegistry, "dropped");
+        this.supersededCounter = outcomeCounter(meterRegistry, "superseded");
+        FunctionCounter.builder("flight_events_outbox", spillFile, FlightEventSpillFile::quarantinedRecords)
+                .description("Flight events by outbox outcome")
+                .tag("service", "flightdata-service")
+                .tag("outcome", "corrupt")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flight_events_outbox")
+                .description("Flight events by outbox outcome")
+                .tag("service", "flightdata-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static FlightEventSpillFile openSpillFile(Path directory, long maxBytes) {
+        try {
+            return new FlightEventSpillFile(directory, maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open flight event spill directory " + directory, e);
+        }
+    }
+
+    /**
+     * Queue a flight-data-events event without blocking on Kafka
+     *
+     * Event Schema (PRD.md Section 3.2):
+     * - Topic: flight-data-events
+     * - Key: fa_flight_id
+     * - Value: FlightData, Avro by default (snapshot or delta, see FlightDataEvent)
+     */
+    public void enqueue(FlightDataEvent event) {
+        Pending pending = new Pending(event, Instant.now(clock));
+        if (running && queue.offer(pending)) {
+            return;
+        }
+        spill(pending);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "flight-event-outbox");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Flight event outbox started (capacity: {}, max in flight: {}, spilled: {})",
+                queue.remainingCapacity(), maxInFlight, spillFile.pendingRecords());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Keep unsent events for the next start
+        Pending pending;
+        int spilled = 0;
+        while ((pending = queue.poll()) != null) {
+            spill(pending);
+            spilled++;
+        }
+        try {
+            spillFile.close();
+        } catch (IOException e) {
+            log.warn("Failed to close flight event spill file: {}", e.getMessage());
+        }
+        log.info("Flight event outbox stopped ({} queued events spilled)", spilled);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server (no more enqueues) but before the Kafka producer is closed
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                if (!spillFile.isEmpty() && readyToReplay()) {
+                    replaySpilled();
+                }
+                Pending pending = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (pending != null) {
+                    dispatch(pending);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Flight event outbox dispatcher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * No recent failure and nothing in flight: a stalled send would make the probe time out and be sent twice,
+     * and an unresolved one may still fail and need to be spilled
+     */
+    private boolean readyToReplay() {
+        return System.nanoTime() - lastFailureNanos >= replayBackoff.toNanos()
+                && inFlight.availablePermits() == maxInFlight;
+    }
+
+    /**
+     * Send a queued event, or spill it (spill mode) if older events are spilled or max-in-flight is reached
+     */
+    private void dispatch(Pending pending) throws InterruptedException {
+        if (spillFile.isEmpty() && inFlight.tryAcquire(POLL_MS, TimeUnit.MILLISECONDS)) {
+            publish(pending);
+        } else {
+            spill(pending);
+        }
+    }
+
+    private void send(Pending pending) throws InterruptedException {
+        inFlight.acquire();
+        publish(pending);
+    }
+
+    /**
+     * Hand one event to Kafka (in-flight permit held); completion (ack or failure) is tracked asynchronously
+     */
+    private void publish(Pending pending) {
+        sent(pending.event(), pending.enqueuedAt());
+        try {
+            kafkaTemplate.send(toRecord(pending.event()))
+                    .whenComplete((result, e) -> {
+                        inFlight.release();
+                        if (e == null) {
+                            publishedCounter.increment();
+                            publishLagTimer.record(Duration.between(pending.enqueuedAt(), Instant.now(clock)));
+                        } else {
+                            onSendFailed(pending, e);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // Synchronous failure, e.g. buffer full for longer than max.block.ms
+            inFlight.release();
+            onSendFailed(pending, e);
+        }
+    }
+
+    private void onSendFailed(Pending pending, Throwable e) {
+        lastFailureNanos = System.nanoTime();
+        sendFailedCounter.increment();
+        log.warn("Failed to publish flight event for {}, spilling for replay: {}",
+                ident(pending), e.getMessage());
+        spill(pending);
+    }
+
+    private void spill(Pending pending) {
+        try {
+            if (spillFile.append(new FlightEventSpillFile.SpilledEvent(pending.enqueuedAt(), pending.event()))) {
+                spilledCounter.increment();
+                return;
+            }
+            log.error("Flight event spill file full, dropping event for {}", ident(pending));
+        } catch (IOException e) {
+            log.error("Failed to spill flight event for {}, dropping it: {}", ident(pending), e.getMessage());
+        }
+        droppedCounter.increment();
+    }
+
+    private void replaySpilled() throws InterruptedException {
+        List<FlightEventSpillFile.SpilledEvent> batch;
+        try {
+            batch = spillFile.claimBatch();
+        } catch (IOException e) {
+            log.error("Failed to read spilled flight events: {}", e.getMessage());
+            lastFailureNanos = System.nanoTime();
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Probe with the first live event: a broker that is still down leaves the batch on disk
+        int probe = 0;
+        while (probe < batch.size() && isSuperseded(batch.get(probe))) {
+            probe++;
+        }
+        if (probe < batch.size()) {
+            FlightEventSpillFile.SpilledEvent first = batch.get(probe);
+            try {
+                sent(first.event(), first.enqueuedAt());
+                kafkaTemplate.send(toRecord(first.event()))
+                        .get(replayBackoff.toMillis() * 2, TimeUnit.MILLISECONDS);
+                publishedCounter.increment();
+                publishLagTimer.record(Duration.between(first.enqueuedAt(), Instant.now(clock)));
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                lastFailureNanos = System.nanoTime();
+                log.info("Kafka still unavailable, {} spilled flight events kept for later: {}",
+                        spillFile.pendingRecords(), e.getMessage());
+                return;
+            }
+        }
+        supersededCounter.increment(probe);
+
+        log.info("Kafka available again, replaying {} spilled flight events", batch.size());
+        for (FlightEventSpillFile.SpilledEvent event : batch.subList(Math.min(probe + 1, batch.size()), batch.size())) {
+            if (isSuperseded(event)) {
+                supersededCounter.increment();
+            } else {
+                send(new Pending(event.event(), event.enqueuedAt()));
+            }
+        }
+        try {
+            spillFile.completeBatch(batch.size());
+        } catch (IOException e) {
+            log.error("Failed to remove replayed flight events, they may be published twice: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remember the newest event handed to Kafka per flight
+     */
+    private void sent(FlightDataEvent event, Instant enqueuedAt) {
+        String faFlightId = event.flightData().getFaFlightId();
+        if (faFlightId != null) {
+            lastSent.asMap().merge(faFlightId, enqueuedAt, (current, next) -> next.isAfter(current) ? next : current);
+        }
+    }
+
+    /**
+     * A spilled event is superseded once a newer event of its flight was sent: publishing it now would
+     * put an older state behind a newer one in the partition
+     */
+    private boolean isSuperseded(FlightEventSpillFile.SpilledEvent spilled) {
+        String faFlightId = spilled.event().flightData().getFaFlightId();
+        Instant newest = faFlightId != null ? lastSent.getIfPresent(faFlightId) : null;
+        return newest != null && newest.isAfter(spilled.enqueuedAt());
+    }
+
+    /**
+     * Key: fa_flight_id, so snapshots and deltas of a flight stay ordered in one partition
+     */
+    private ProducerRecord<String, FlightData> toRecord(FlightDataEvent event) {
+        FlightData flightData = event.flightData();
+        ProducerRecord<String, FlightData> record =
+                new ProducerRecord<>(topic, flightData.getFaFlightId(), flightData);
+        record.headers()
+                .add(FlightDataEvent.HEADER_TYPE, event.type().name().getBytes(StandardCharsets.UTF_8))
+                .add(FlightDataEvent.HEADER_SNAPSHOT_VERSION,
+                        Long.toString(event.snapshotVersion()).getBytes(StandardCharsets.UTF_8));
+        if (!event.clearedFields().isEmpty()) {
+            record.headers().add(FlightDataEvent.HEADER_CLEARED_FIELDS,
+                    String.join(",", event.clearedFields()).getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    private static String ident(Pending pending) {
+        return pending.event().flightData().getIdent();
+    }
+}
@@ -0,0 +1,204 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightDataEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local append-only overflow file for FlightEventOutbox
+ *
+ * One JSON line per event ({enqueuedAt, event}) in "{dir}/outbox.jsonl".
+ * Replay works on a claimed batch: the active file is renamed to
+ * "outbox.replay.jsonl" and appends continue in a fresh active file, so a
+ * batch that cannot be replayed yet simply stays claimed until the next attempt.
+ *
+ * Both files survive a restart and are picked up again on startup. A line
+ * that cannot be parsed (e.g. torn by a crash in the middle of append) is
+ * moved to "outbox.corrupt.jsonl" when its batch is claimed, so it never
+ * blocks the events behind it.
+ */
+@Slf4j
+class FlightEventSpillFile {
+
+    /**
+     * Event waiting in the spill file
+     *
+     * @param enqueuedAt When the event first entered the outbox (publish lag is measured from here)
+     * @param event      Event to publish (snapshot or delta)
+     */
+    record SpilledEvent(Instant enqueuedAt, FlightDataEvent event) {
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Path active;
+    private final Path replay;
+    private final Path corrupt;
+    private final long maxBytes;
+
+    private BufferedWriter writer;
+    private long bytes;
+    private long records;
+    private long quarantined;
+
+    FlightEventSpillFile(Path directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.active = directory.resolve("outbox.jsonl");
+        this.replay = directory.resolve("outbox.replay.jsonl");
+        this.corrupt = directory.resolve("outbox.corrupt.jsonl");
+        this.maxBytes = maxBytes;
+        for (Path path : List.of(active, replay)) {
+            if (Files.exists(path)) {
+                terminateLastLine(path);
+                bytes += Files.size(path);
+                try (var lines = Files.lines(path, StandardCharsets.UTF_8)) {
+                    records += lines.count();
+                }
+            }
+        }
+        if (records > 0) {
+            log.info("Found {} spilled flight events from a previous run in {}", records, directory);
+        }
+    }
+
+    /**
+     * @return false if the file is full (event not written)
+     */
+    synchronized boolean append(SpilledEvent event) throws IOException {
+        byte[] line = MAPPER.writeValueAsBytes(event);
+        if (bytes + line.length + 1 > maxBytes) {
+            return false;
+        }
+        if (writer == null) {
+            writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(new String(line, StandardCharsets.UTF_8));
+        writer.newLine();
+        writer.flush();
+        bytes += line.length + 1;
+        records++;
+        return true;
+    }
+
+    /**
+     * Claim the events to replay: the previously claimed batch if it was not
+     * completed, otherwise everything appended so far
+     *
+     * @return claimed events in append order (empty if nothing is spilled)
+     */
+    synchronized List<SpilledEvent> claimBatch() throws IOException {
+        if (!Files.exists(replay)) {
+            if (records == 0 || !Files.exists(active)) {
+                return List.of();
+            }
+            closeWriter();
+            Files.move(active, replay, StandardCopyOption.ATOMIC_MOVE);
+        }
+        List<String> lines = Files.readAllLines(replay, StandardCharsets.UTF_8);
+        List<SpilledEvent> events = new ArrayList<>(lines.size());
+        List<String> valid = new ArrayList<>(lines.size());
+        List<String> unreadable = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                events.add(MAPPER.readValue(line, SpilledEvent.class));
+                valid.add(line);
+            } catch (IOException e) {
+                unreadable.add(line);
+            }
+        }
+        if (valid.size() < lines.size()) {
+            quarantine(lines.size(), valid, unreadable);
+        }
+        return events;
+    }
+
+    /**
+     * Move unreadable lines out of the claimed batch, keeping records and bytes in step with the files
+     */
+    private void quarantine(int claimedLines, List<String> valid, List<String> unreadable) throws IOException {
+        if (!unreadable.isEmpty()) {
+            Files.write(corrupt, unreadable, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            quarantined += unreadable.size();
+            log.error("Moved {} unreadable spilled flight events to {}", unreadable.size(), corrupt);
+        }
+        long size = Files.size(replay);
+        Files.write(replay, valid, StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+        bytes -= size - Files.size(replay);
+        records -= claimedLines - valid.size();
+    }
+
+    /**
+     * A crash in the middle of append leaves the last line unterminated; end it so the next append starts a new line
+     */
+    private static void terminateLastLine(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            if (last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}), size);
+            }
+        }
+    }
+
+    /**
+     * Forget the claimed batch once every event in it has been handed to Kafka
+     */
+    synchronized void completeBatch(int replayed) throws IOException {
+        long size = Files.exists(replay) ? Files.size(replay) : 0;
+        Files.deleteIfExists(replay);
+        bytes -= size;
+        records -= replayed;
+    }
+
+    synchronized boolean isEmpty() {
+        return records == 0;
+    }
+
+    synchronized long pendingRecords() {
+        return records;
+    }
+
+    /**
+     * Unreadable lines moved to the corrupt file since startup
+     */
+    synchronized long quarantinedRecords() {
+        return quarantined;
+    }
+
+    synchronized void close() throws IOException {
+        closeWriter();
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
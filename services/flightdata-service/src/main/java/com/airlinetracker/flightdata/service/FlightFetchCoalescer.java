@@ -0,0 +1,194 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight request coalescing for FlightAware fetches
+ *
+ * Concurrent cache misses on the same ident share ONE upstream call
+ * (and therefore one RateLimiter slot); every waiter gets the same result.
+ *
+ * Modes (flightaware.coalescing.mode):
+ * - local:      in-flight deduplication per node (default)
+ * - redis-lock: additionally takes a short Redis lock so only one replica
+ *               in the cluster fetches; other replicas wait for the value
+ *               to appear in the Redis "flights" cache
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_fetch_coalesced_waiters_total{scope=local}: requests that joined an in-flight fetch
+ * - flight_fetch_coalesced_waiters_total{scope=cluster}: requests served by another replica's fetch
+ */
+@Slf4j
+@Component
+public class FlightFetchCoalescer {
+
+    public enum Mode { LOCAL, REDIS_LOCK }
+
+    static final String LOCK_KEY_PREFIX = "lock:flightaware:fetch:";
+
+    // Release the lock only if we still own it
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ConcurrentMap<String, Mono<FlightData>> inFlight = new ConcurrentHashMap<>();
+
+    private final Mode mode;
+    private final StringRedisTemplate lockTemplate;
+    private final RedisTemplate<String, Object> cacheTemplate;
+    private final Duration lockTtl;
+    private final Duration pollInterval;
+
+    private final Counter localWaiterCounter;
+    private final Counter clusterWaiterCounter;
+
+    @Autowired
+    public FlightFetchCoalescer(
+            @Value("${flightaware.coalescing.mode:local}") String mode,
+            @Value("${flightaware.coalescing.lock-ttl-ms:10000}") long lockTtlMs,
+            @Value("${flightaware.coalescing.poll-interval-ms:100}") long pollIntervalMs,
+            StringRedisTemplate lockTemplate,
+            RedisTemplate<String, Object> cacheTemplate,
+            MeterRegistry meterRegistry) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase().replace('-', '_'));
+        this.lockTemplate = lockTemplate;
+        this.cacheTemplate = cacheTemplate;
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+
+        this.localWaiterCounter = waiterCounter(meterRegistry, "local");
+        this.clusterWaiterCounter = waiterCounter(meterRegistry, "cluster");
+
+        log.info("FlightFetchCoalescer initialized in {} mode", this.mode);
+    }
+
+    /**
+     * Constructor for testing (local mode, no Redis)
+     */
+    public FlightFetchCoalescer(MeterRegistry meterRegistry) {
+        this("local", 10000, 100, null, null, meterRegistry);
+    }
+
+    private static Counter waiterCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("flight_fetch_coalesced_waiters")
+                .description("Number of requests that reused another request's FlightAware fetch")
+                .tag("service", "flightdata-service")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetch flight data, sharing the upstream call with any concurrent request for the same ident.
+     *
+     * @param ident  Flight identifier (coalescing key)
+     * @param loader Upstream fetch (only subscribed once per in-flight window)
+     * @return Mono shared by every concurrent caller for this ident
+     */
+    public Mono<FlightData> fetch(String ident, Supplier<Mono<FlightData>> loader) {
+        boolean[] leader = {false};
+        Mono<FlightData> shared = inFlight.computeIfAbsent(ident, key -> {
+            leader[0] = true;
+            Mono<FlightData> upstream = mode == Mode.REDIS_LOCK
+                    ? Mono.defer(() -> fetchWithClusterLock(key, loader))
+                    : Mono.defer(loader);
+            return upstream
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache();
+        });
+
+        if (!leader[0]) {
+            localWaiterCounter.increment();
+            log.debug("Coalesced request for {} onto in-flight fetch", ident);
+        }
+        return shared;
+    }
+
+    /**
+     * Number of idents currently being fetched (for tests/diagnostics)
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<FlightData> fetchWithClusterLock(String ident, Supplier<Mono<FlightData>> loader) {
+        long deadline = System.nanoTime() + lockTtl.toNanos();
+        return acquireOrWait(ident, loader, deadline, false);
+    }
+
+    private Mono<FlightData> acquireOrWait(String ident, Supplier<Mono<FlightData>> loader,
+                                           long deadline, boolean waited) {
+        return Mono.fromCallable(() -> tryLock(ident))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(token -> {
+                    if (!token.isEmpty()) {
+                        // On success the lock is left to expire: the value lands in the cache
+                        // right after this Mono completes, and peers pick it up from there
+                        return loader.get().doFinally(signal -> {
+                            if (signal != SignalType.ON_COMPLETE) {
+                                releaseLock(ident, token);
+                            }
+                        });
+                    }
+                    if (!waited) {
+                        clusterWaiterCounter.increment();
+                    }
+                    if (System.nanoTime() > deadline) {
+                        log.warn("Timed out waiting for peer fetch of {}, fetching directly", ident);
+                        return loader.get();
+                    }
+                    return Mono.delay(pollInterval)
+                            .then(Mono.fromCallable(() -> readCachedByPeer(ident))
+                                    .subscribeOn(Schedulers.boundedElastic()))
+                            .switchIfEmpty(Mono.defer(() -> acquireOrWait(ident, loader, deadline, true)));
+                });
+    }
+
+    /**
+     * @return lock token if acquired, empty string otherwise
+     */
+    private String tryLock(String ident) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = lockTemplate.opsForValue().setIfAbsent(LOCK_KEY_PREFIX + ident, token, lockTtl);
+            return Boolean.TRUE.equals(acquired) ? token : "";
+        } catch (Exception e) {
+            // Redis unavailable: behave like local mode rather than failing the request
+            log.warn("Fetch lock unavailable for {}, fetching without cluster lock: {}", ident, e.getMessage());
+            return token;
+        }
+    }
+
+    private void releaseLock(String ident, String token) {
+        try {
+            lockTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY_PREFIX + ident), token);
+        } catch (Exception e) {
+            log.warn("Failed to release fetch lock for {} (expires in {}): {}", ident, lockTtl, e.getMessage());
+        }
+    }
+
+    private FlightData readCachedByPeer(String ident) {
+        Object cached = cacheTemplate.opsForValue().get(RedisConfig.FLIGHTS_CACHE_KEY_PREFIX + ident);
+        return cached instanceof FlightData flightData ? flightData : null;
+    }
+}
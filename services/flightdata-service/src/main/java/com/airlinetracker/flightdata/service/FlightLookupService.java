@@ -0,0 +1,194 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.cache.LastKnownGoodFlight;
+import com.airlinetracker.flightdata.cache.LastKnownGoodStore;
+import com.airlinetracker.flightdata.cache.ReactiveFlightCache;
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.exception.FlightNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Flight lookup with stale-while-revalidate and stale-if-error
+ *
+ * Entry point for FlightController. On top of the fresh "flights" cache it
+ * uses the long-lived last known good copy (LastKnownGoodStore):
+ *
+ * 1. Fresh cache hit                         → served as is
+ * 2. Miss, last known good younger than
+ *    stale-while-revalidate-seconds          → served immediately (Age header),
+ *                                              FlightAware re-fetched in the background
+ * 3. Miss otherwise                          → fetched from FlightAware; if that fails
+ *                                              (rate limit, timeout, upstream error) the
+ *                                              last known good copy is served instead
+ *
+ * FlightNotFoundException is never masked by stale data.
+ *
+ * Lookup modes (flightdata.reactive.enabled) pick the cache/fetch path:
+ * blocking Cache + FlightDataService.loadFlight, or ReactiveFlightCache +
+ * FlightDataService.loadFlightReactive.
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_stale_served_total{reason=revalidating|upstream_error}
+ */
+@Slf4j
+@Service
+public class FlightLookupService {
+
+    /**
+     * Outcome of a lookup
+     *
+     * @param flightData Flight to return
+     * @param age        Time since the snapshot was fetched (null when fresh from cache or upstream)
+     * @param warning    HTTP Warning value when stale (null when fresh)
+     */
+    public record Result(FlightData flightData, Duration age, String warning) {
+
+        static Result fresh(FlightData flightData) {
+            return new Result(flightData, null, null);
+        }
+
+        public boolean isStale() {
+            return age != null;
+        }
+    }
+
+    static final String WARNING_STALE = "110 - \"Response is Stale\"";
+    static final String WARNING_REVALIDATION_FAILED = "111 - \"Revalidation Failed\"";
+
+    private final FlightDataService flightDataService;
+    private final ReactiveFlightCache reactiveFlightCache;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final CacheManager cacheManager;
+    private final boolean reactiveEnabled;
+    private final Duration staleWhileRevalidate;
+    private final Clock clock;
+
+    private final Counter staleRevalidatingCounter;
+    private final Counter staleOnErrorCounter;
+
+    @Autowired
+    public FlightLookupService(FlightDataService flightDataService,
+                               ReactiveFlightCache reactiveFlightCache,
+                               LastKnownGoodStore lastKnownGoodStore,
+                               CacheManager cacheManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${flightdata.reactive.enabled:false}") boolean reactiveEnabled,
+                               @Value("${cache.last-known-good.stale-while-revalidate-seconds:300}")
+                               long staleWhileRevalidateSeconds) {
+        this(flightDataService, reactiveFlightCache, lastKnownGoodStore, cacheManager, meterRegistry,
+                reactiveEnabled, Duration.ofSeconds(staleWhileRevalidateSeconds), Clock.systemUTC());
+    }
+
+    FlightLookupService(FlightDataService flightDataService,
+                        ReactiveFlightCache reactiveFlightCache,
+                        LastKnownGoodStore lastKnownGoodStore,
+                        CacheManager cacheManager,
+                        MeterRegistry meterRegistry,
+                        boolean reactiveEnabled,
+                        Duration staleWhileRevalidate,
+                        Clock clock) {
+        this.flightDataService = flightDataService;
+        this.reactiveFlightCache = reactiveFlightCache;
+        this.lastKnownGoodStore = lastKnownGoodStore;
+        this.cacheManager = cacheManager;
+        this.reactiveEnabled = reactiveEnabled;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.clock = clock;
+
+        this.staleRevalidatingCounter = staleCounter(meterRegistry, "revalidating");
+        this.staleOnErrorCounter = staleCounter(meterRegistry, "upstream_error");
+
+        log.info("FlightLookupService initialized in {} mode (stale-while-revalidate: {})",
+                reactiveEnabled ? "reactive" : "servlet", staleWhileRevalidate);
+    }
+
+    private static Counter staleCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("flight_stale_served")
+                .description("Responses served from the last known good copy")
+                .tag("service", "flightdata-service")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Look up a flight, falling back to the last known good copy where allowed
+     *
+     * @param ident Flight identifier (e.g., "UAL123")
+     * @return fresh or stale flight
+     */
+    public Mono<Result> lookup(String ident) {
+        return cached(ident)
+                .map(Result::fresh)
+                .switchIfEmpty(Mono.defer(() -> onMiss(ident)));
+    }
+
+    private Mono<Result> onMiss(String ident) {
+        Mono<LastKnownGoodFlight> lastKnownGood = lastKnownGoodStore.get(ident).cache();
+
+        return lastKnownGood
+                .filter(stale -> ageOf(stale).compareTo(staleWhileRevalidate) <= 0)
+                .map(stale -> {
+                    revalidateInBackground(ident);
+                    staleRevalidatingCounter.increment();
+                    log.info("Serving {} stale ({} old) while revalidating", ident, ageOf(stale));
+                    return new Result(stale.getFlightData(), ageOf(stale), WARNING_STALE);
+                })
+                .switchIfEmpty(Mono.defer(() -> load(ident)
+                        .map(Result::fresh)
+                        .onErrorResume(e -> !(e instanceof FlightNotFoundException), e -> lastKnownGood
+                                .map(stale -> {
+                                    staleOnErrorCounter.increment();
+                                    log.warn("FlightAware lookup for {} failed ({}), serving last known good ({} old)",
+                                            ident, e.getMessage(), ageOf(stale));
+                                    return new Result(stale.getFlightData(), ageOf(stale),
+                                            WARNING_REVALIDATION_FAILED);
+                                })
+                                .switchIfEmpty(Mono.error(e)))));
+    }
+
+    private Mono<FlightData> cached(String ident) {
+        if (reactiveEnabled) {
+            return reactiveFlightCache.get(ident);
+        }
+        return Mono.fromCallable(() -> {
+            Cache cache = cacheManager.getCache(RedisConfig.FLIGHTS_CACHE);
+            Cache.ValueWrapper hit = cache != null ? cache.get(ident) : null;
+            return hit != null && hit.get() instanceof FlightData flightData ? flightData : null;
+        });
+    }
+
+    private Mono<FlightData> load(String ident) {
+        if (reactiveEnabled) {
+            return flightDataService.loadFlightReactive(ident);
+        }
+        // Never block the Redis client thread that delivered the last known good lookup
+        return Mono.fromCallable(() -> flightDataService.loadFlight(ident))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void revalidateInBackground(String ident) {
+        // Concurrent revalidations of one ident share a single fetch (FlightFetchCoalescer)
+        load(ident)
+                .subscribe(
+                        fresh -> log.debug("Revalidated {}", ident),
+                        e -> log.warn("Background revalidation of {} failed: {}", ident, e.getMessage()));
+    }
+
+    private Duration ageOf(LastKnownGoodFlight stale) {
+        return stale.ageAt(Instant.now(clock));
+    }
+}
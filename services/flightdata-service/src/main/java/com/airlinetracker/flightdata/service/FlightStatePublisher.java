@@ -0,0 +1,218 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publisher of the compacted flight-state topic
+ *
+ * flight-state holds the latest full FlightData per fa_flight_id (key), so a
+ * new replica can build a complete in-memory view by reading the topic from
+ * the beginning instead of calling FlightDataService or replaying every
+ * flight-data-events record. The topic is created with cleanup.policy
+ * compact,delete (see KafkaTopicConfig): Kafka keeps one record per flight
+ * and drops flights not updated within the retention period.
+ *
+ * Only the latest state matters, so updates are conflated: update() just
+ * replaces the pending state of a flight (never blocks on Kafka), and a
+ * flusher thread sends whatever is pending every flush-interval-ms. Every
+ * update gets a sequence number; a failed send puts the state back only if
+ * no newer state of the flight is pending or has been sent since, so a
+ * stale state never overwrites a newer one on the topic.
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_state_pending: flights with an unsent state
+ * - flight_state_publish_total{outcome=published|failed}
+ */
+@Slf4j
+@Component
+public class FlightStatePublisher implements SmartLifecycle {
+
+    /**
+     * State of a flight waiting to be sent, with its update sequence number
+     */
+    private record State(FlightData flightData, long sequence) {
+    }
+
+    private final KafkaTemplate<String, FlightData> kafkaTemplate;
+    private final boolean enabled;
+    private final String topic;
+    private final long flushIntervalMs;
+    private final Map<String, State> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * Sequence of the last state handed to Kafka per fa_flight_id
+     */
+    private final Cache<String, Long> lastSent;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public FlightStatePublisher(KafkaTemplate<String, FlightData> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${kafka.flight-state.enabled:true}") boolean enabled,
+                                @Value("${kafka.topic.flight-state:flight-state}") String topic,
+                                @Value("${kafka.flight-state.flush-interval-ms:200}") long flushIntervalMs,
+                                @Value("${kafka.change-detection.max-flights:100000}") long maxFlights) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.topic = topic;
+        this.flushIntervalMs = flushIntervalMs;
+        this.lastSent = Caffeine.newBuilder().maximumSize(maxFlights).build();
+
+        Gauge.builder("flight_state_pending", pending, Map::size)
+                .description("Flights whose latest state is not yet sent to flight-state")
+                .tag("service", "flightdata-service")
+                .register(meterRegistry);
+        this.publishedCounter = outcomeCounter(meterRegistry, "published");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flight_state_publish")
+                .description("flight-state records by send outcome")
+                .tag("service", "flightdata-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the latest full state of a flight (sent on the next flush)
+     *
+     * @param flightData Complete flight, never a delta
+     */
+    public void update(FlightData flightData) {
+        if (enabled && flightData.getFaFlightId() != null) {
+            pending.put(flightData.getFaFlightId(), new State(flightData, sequence.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Send every pending state
+     *
+     * @return number of records handed to Kafka
+     */
+    int flush() {
+        int sent = 0;
+        for (String faFlightId : pending.keySet()) {
+            State state = take(faFlightId);
+            if (state == null) {
+                continue;
+            }
+            try {
+                kafkaTemplate.send(topic, faFlightId, state.flightData())
+                        .whenComplete((result, e) -> {
+                            if (e == null) {
+                                publishedCounter.increment();
+                            } else {
+                                onSendFailed(faFlightId, state, e);
+                            }
+                        });
+                sent++;
+            } catch (RuntimeException e) {
+                onSendFailed(faFlightId, state, e);
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Remove a flight's pending state and record it as sent (atomically with onSendFailed for the flight)
+     */
+    private State take(String faFlightId) {
+        State[] taken = new State[1];
+        lastSent.asMap().compute(faFlightId, (id, sentSequence) -> {
+            taken[0] = pending.remove(id);
+            return taken[0] != null ? Long.valueOf(taken[0].sequence()) : sentSequence;
+        });
+        return taken[0];
+    }
+
+    private void onSendFailed(String faFlightId, State failed, Throwable e) {
+        failedCounter.increment();
+        boolean[] requeued = new boolean[1];
+        lastSent.asMap().compute(faFlightId, (id, sentSequence) -> {
+            // A newer state of the flight, sent or pending, supersedes the failed one
+            if (sentSequence == null || sentSequence <= failed.sequence()) {
+                State current = pending.merge(id, failed,
+                        (queued, retry) -> queued.sequence() > retry.sequence() ? queued : retry);
+                requeued[0] = current == failed;
+            }
+            return sentSequence;
+        });
+        log.warn("Failed to publish flight-state for {}{}: {}", failed.flightData().getIdent(),
+                requeued[0] ? ", retrying on next flush" : " (superseded by a newer state)", e.getMessage());
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "flight-state-publisher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Flight state publisher started (topic: {}, flush interval: {} ms)", topic, flushIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        int sent = flush();
+        kafkaTemplate.flush();
+        log.info("Flight state publisher stopped ({} pending states flushed)", sent);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Same phase as FlightEventOutbox: after the web server, before the Kafka producer
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMs);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Flight state publisher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
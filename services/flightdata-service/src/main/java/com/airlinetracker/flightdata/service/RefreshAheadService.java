@@ -0,0 +1,239 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.cache.FlightCacheTtlPolicy;
+import com.airlinetracker.flightdata.config.RateLimitConfig;
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refresh-ahead for hot "flights" cache entries
+ *
+ * A heavily watched flight otherwise expires at the end of its TTL and the
+ * next request pays the full FlightAware round trip. This service:
+ * - counts accesses per ident (halved every cycle, so old popularity fades)
+ *   and remembers the TTL the cached snapshot was written with
+ *   (FlightCacheTtlPolicy, evaluated when a new snapshot is first served or
+ *   refreshed: a scheduled flight's TTL shrinks as departure nears, so
+ *   re-evaluating it on later accesses would understate the entry's TTL)
+ * - every interval, looks at the hottest idents' remaining Redis TTL; an
+ *   entry with more time left than the remembered TTL was rewritten (e.g.
+ *   by another replica), so its TTL is at least the remaining time
+ * - once refresh-fraction of that entry's TTL has elapsed, re-fetches the
+ *   flight in the background (FlightDataService.refreshFlight, @CachePut)
+ *
+ * Requests keep being served from the still-valid entry meanwhile.
+ *
+ * Budget: refreshes go through the same RateLimiter as user misses, and a
+ * cycle is skipped while any window is above max-budget-fraction, so
+ * refresh-ahead never takes the last calls away from real misses.
+ *
+ * Custom Metrics (PRD NFR-4: Observability):
+ * - flight_cache_refresh_ahead_total{outcome}: refreshed | failed | rate_limited | budget_skipped
+ * - flight_cache_refresh_ahead_tracked: idents currently tracked
+ */
+@Slf4j
+@Component
+public class RefreshAheadService {
+
+    private final FlightDataService flightDataService;
+    private final RateLimitConfig.RateLimiter rateLimiter;
+    private final StringRedisTemplate redisTemplate;
+    private final FlightCacheTtlPolicy ttlPolicy;
+
+    private final boolean enabled;
+    private final double refreshFraction;
+    private final long minAccesses;
+    private final int maxPerCycle;
+    private final double maxBudgetFraction;
+
+    private final Cache<String, Tracked> accessCounts;
+
+    private final Counter refreshedCounter;
+    private final Counter failedCounter;
+    private final Counter rateLimitedCounter;
+    private final Counter budgetSkippedCounter;
+
+    public RefreshAheadService(
+            FlightDataService flightDataService,
+            RateLimitConfig.RateLimiter rateLimiter,
+            StringRedisTemplate redisTemplate,
+            FlightCacheTtlPolicy ttlPolicy,
+            MeterRegistry meterRegistry,
+            @Value("${cache.refresh-ahead.enabled:true}") boolean enabled,
+            @Value("${cache.refresh-ahead.refresh-fraction:0.8}") double refreshFraction,
+            @Value("${cache.refresh-ahead.min-accesses:3}") long minAccesses,
+            @Value("${cache.refresh-ahead.max-per-cycle:5}") int maxPerCycle,
+            @Value("${cache.refresh-ahead.max-budget-fraction:0.5}") double maxBudgetFraction,
+            @Value("${cache.refresh-ahead.max-tracked:10000}") long maxTracked) {
+        this.flightDataService = flightDataService;
+        this.rateLimiter = rateLimiter;
+        this.redisTemplate = redisTemplate;
+        this.ttlPolicy = ttlPolicy;
+        this.enabled = enabled;
+        this.refreshFraction = refreshFraction;
+        this.minAccesses = minAccesses;
+        this.maxPerCycle = maxPerCycle;
+        this.maxBudgetFraction = maxBudgetFraction;
+
+        // Idents nobody asked for within two default TTLs are not worth refreshing
+        this.accessCounts = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(RedisConfig.FLIGHTS_CACHE_TTL.multipliedBy(2))
+                .build();
+
+        this.refreshedCounter = outcomeCounter(meterRegistry, "refreshed");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.rateLimitedCounter = outcomeCounter(meterRegistry, "rate_limited");
+        this.budgetSkippedCounter = outcomeCounter(meterRegistry, "budget_skipped");
+        Gauge.builder("flight_cache_refresh_ahead_tracked", accessCounts, Cache::estimatedSize)
+                .description("Number of idents tracked for refresh-ahead")
+                .tag("service", "flightdata-service")
+                .register(meterRegistry);
+
+        log.info("RefreshAheadService initialized (enabled: {}, refresh after {}% of TTL, min accesses: {})",
+                enabled, (int) (refreshFraction * 100), minAccesses);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flight_cache_refresh_ahead")
+                .description("Refresh-ahead decisions for hot flights cache entries")
+                .tag("service", "flightdata-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record one lookup of an ident (cache hit or miss)
+     *
+     * @param served Snapshot returned to the caller (decides the entry's TTL)
+     */
+    public void recordAccess(String ident, FlightData served) {
+        if (enabled) {
+            Tracked tracked = accessCounts.get(ident, key -> new Tracked());
+            Written written = tracked.written;
+            if (written == null || !written.snapshot().equals(served)) {
+                tracked.written = written(served);
+            }
+            tracked.accesses.incrementAndGet();
+        }
+    }
+
+    /**
+     * Refresh hot entries that are close to expiry
+     */
+    @Scheduled(fixedDelayString = "${cache.refresh-ahead.interval-ms:15000}",
+            initialDelayString = "${cache.refresh-ahead.interval-ms:15000}")
+    public void refreshHotEntries() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Map.Entry<String, Tracked>> hottest = snapshotAndDecay();
+        if (hottest.isEmpty()) {
+            return;
+        }
+        if (!withinRefreshBudget()) {
+            budgetSkippedCounter.increment();
+            log.debug("Skipping refresh-ahead cycle: FlightAware budget reserved for cache misses");
+            return;
+        }
+
+        int refreshed = 0;
+        for (Map.Entry<String, Tracked> entry : hottest) {
+            if (refreshed >= maxPerCycle) {
+                break;
+            }
+            String ident = entry.getKey();
+            Long remainingMs = redisTemplate.getExpire(RedisConfig.FLIGHTS_CACHE_KEY_PREFIX + ident,
+                    TimeUnit.MILLISECONDS);
+            // -2: not cached (next request loads it normally), -1: no TTL
+            if (remainingMs == null || remainingMs < 0) {
+                continue;
+            }
+            Written written = entry.getValue().written;
+            long ttlMs = Math.max(written != null ? written.ttlMs() : 0, remainingMs);
+            if (ttlMs - remainingMs < ttlMs * refreshFraction) {
+                continue;
+            }
+
+            try {
+                FlightData snapshot = flightDataService.refreshFlight(ident);
+                if (snapshot != null) {
+                    entry.getValue().written = written(snapshot);
+                }
+                refreshedCounter.increment();
+                refreshed++;
+                log.debug("Refreshed {} ahead of expiry ({} of {} left)",
+                        ident, Duration.ofMillis(remainingMs), Duration.ofMillis(ttlMs));
+            } catch (RateLimitExceededException e) {
+                rateLimitedCounter.increment();
+                log.debug("Refresh-ahead stopped for this cycle: {}", e.getMessage());
+                return;
+            } catch (Exception e) {
+                failedCounter.increment();
+                log.warn("Refresh-ahead failed for {}: {}", ident, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hot idents (>= min-accesses), hottest first; halves every count for the next cycle
+     */
+    private List<Map.Entry<String, Tracked>> snapshotAndDecay() {
+        List<Map.Entry<String, Tracked>> hot = new ArrayList<>();
+        accessCounts.asMap().forEach((ident, tracked) -> {
+            tracked.lastCycleAccesses = tracked.accesses.getAndUpdate(c -> c / 2);
+            if (tracked.lastCycleAccesses >= minAccesses) {
+                hot.add(Map.entry(ident, tracked));
+            }
+        });
+        hot.sort(Comparator.comparingLong(
+                (Map.Entry<String, Tracked> entry) -> entry.getValue().lastCycleAccesses).reversed());
+        return hot;
+    }
+
+    private Written written(FlightData snapshot) {
+        return new Written(snapshot, ttlPolicy.ttlFor(snapshot).toMillis());
+    }
+
+    private boolean withinRefreshBudget() {
+        RateLimitConfig.UsageStats usage = rateLimiter.getUsageStats();
+        return usage.minuteUsed < usage.minuteLimit * maxBudgetFraction
+                && usage.hourUsed < usage.hourLimit * maxBudgetFraction
+                && usage.dayUsed < usage.dayLimit * maxBudgetFraction;
+    }
+
+    /**
+     * Cached snapshot of an ident and the TTL it was written with
+     */
+    private record Written(FlightData snapshot, long ttlMs) {
+    }
+
+    /**
+     * Decayed access count and last written snapshot for one ident
+     */
+    private static final class Tracked {
+        final AtomicLong accesses = new AtomicLong();
+        volatile Written written;
+        long lastCycleAccesses; // only touched by the scheduler thread
+    }
+}
@@ -0,0 +1,89 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test FlightCacheTtlPolicy (flight-phase-aware cache TTLs)
+ *
+ * Test Requirements (from PRD FR-2):
+ * - Landed and cancelled flights cached for hours
+ * - En-route flights refreshed often
+ * - Scheduled flights cached longer the further away departure is
+ * - Unknown flights keep the 5 minute default
+ */
+class FlightCacheTtlPolicyTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-15T12:00:00Z");
+
+    private final FlightCacheTtlPolicy policy = new FlightCacheTtlPolicy(
+            Duration.ofMinutes(5),
+            Duration.ofMinutes(2),
+            Duration.ofHours(1),
+            Duration.ofHours(6),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldCacheLandedAndCancelledFlights_ForHours() {
+        FlightData landed = FlightData.builder()
+                .status("Arrived / Gate Arrival")
+                .actualOut(NOW.minusSeconds(14_400))
+                .actualIn(NOW.minusSeconds(600))
+                .build();
+        FlightData cancelled = FlightData.builder().status("Cancelled").build();
+
+        assertThat(policy.ttlFor(landed)).isEqualTo(Duration.ofHours(6));
+        assertThat(policy.ttlFor(cancelled)).isEqualTo(Duration.ofHours(6));
+    }
+
+    @Test
+    void shouldCacheLandedFlight_ForHours_WhenNotYetAtGate() {
+        FlightData landed = FlightData.builder()
+                .status("Landed / Taxiing")
+                .actualOut(NOW.minusSeconds(14_400))
+                .build();
+
+        assertThat(policy.ttlFor(landed)).isEqualTo(Duration.ofHours(6));
+    }
+
+    @Test
+    void shouldUseShortTtl_WhenEnRoute() {
+        FlightData enRoute = FlightData.builder()
+                .status("En Route / On Time")
+                .actualOut(NOW.minusSeconds(3_600))
+                .latitude(39.8)
+                .build();
+
+        assertThat(policy.ttlFor(enRoute)).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    void shouldScaleTtl_WithTimeToDeparture() {
+        FlightData sixHoursOut = scheduled(NOW.plus(Duration.ofHours(6)));
+        FlightData twoHoursOut = scheduled(NOW.plus(Duration.ofHours(2)));
+        FlightData boarding = scheduled(NOW.plus(Duration.ofMinutes(5)));
+        FlightData delayed = scheduled(NOW.minus(Duration.ofMinutes(20)));
+
+        assertThat(policy.ttlFor(sixHoursOut)).isEqualTo(Duration.ofHours(1));
+        assertThat(policy.ttlFor(twoHoursOut)).isEqualTo(Duration.ofMinutes(30));
+        assertThat(policy.ttlFor(boarding)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(policy.ttlFor(delayed)).isEqualTo(Duration.ofMinutes(2));
+    }
+
+    @Test
+    void shouldUseDefaultTtl_WhenPhaseUnknown() {
+        assertThat(policy.ttlFor(FlightData.builder().ident("UAL123").build())).isEqualTo(Duration.ofMinutes(5));
+        assertThat(policy.getTimeToLive("UAL123", "not a flight")).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private static FlightData scheduled(Instant scheduledOut) {
+        return FlightData.builder().status("Scheduled").scheduledOut(scheduledOut).build();
+    }
+}
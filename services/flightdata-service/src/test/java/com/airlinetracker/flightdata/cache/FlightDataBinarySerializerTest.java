@@ -0,0 +1,117 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.config.RedisConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test FlightDataBinarySerializer (compact "flights" cache value format)
+ *
+ * Test Requirements (from PRD FR-2):
+ * - FlightData and last known good copies round-trip, including null fields
+ * - Binary entries are much smaller than the JSON ones
+ * - JSON entries written before the switch remain readable
+ * - Other value types still go through JSON
+ * - Corrupt or newer-version values fail with SerializationException
+ */
+class FlightDataBinarySerializerTest {
+
+    private final RedisSerializer<Object> json = RedisConfig.jsonValueSerializer();
+    private final FlightDataBinarySerializer serializer = new FlightDataBinarySerializer(json);
+
+    private final FlightData flight = FlightData.builder()
+            .faFlightId("UAL123-1678886400-airline-0123")
+            .ident("UAL123")
+            .status("En Route / On Time")
+            .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+            .actualOut(Instant.parse("2024-03-15T14:35:12.345Z"))
+            .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+            .origin("KSFO")
+            .destination("KJFK")
+            .aircraftType("B738")
+            .latitude(-39.8561)
+            .longitude(-104.6737)
+            .altitude(-120)
+            .groundspeed(450)
+            .build();
+
+    @Test
+    void shouldRoundTripFlightData() {
+        byte[] bytes = serializer.serialize(flight);
+
+        assertThat(bytes[0]).isEqualTo(FlightDataBinarySerializer.MAGIC);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(flight);
+        assertThat(serializer.deserialize(serializer.serialize(new FlightData()))).isEqualTo(new FlightData());
+    }
+
+    @Test
+    void shouldRoundTripLastKnownGood() {
+        LastKnownGoodFlight lastKnownGood = new LastKnownGoodFlight(flight, Instant.parse("2024-03-15T15:00:00Z"));
+
+        assertThat(serializer.deserialize(serializer.serialize(lastKnownGood))).isEqualTo(lastKnownGood);
+    }
+
+    @Test
+    void shouldBeMuchSmallerThanJson() {
+        assertThat(serializer.serialize(flight).length).isLessThan(json.serialize(flight).length / 3);
+    }
+
+    @Test
+    void shouldReadJsonEntries_WrittenBeforeTheSwitch() {
+        LastKnownGoodFlight lastKnownGood = new LastKnownGoodFlight(flight, Instant.parse("2024-03-15T15:00:00Z"));
+
+        assertThat(serializer.deserialize(json.serialize(flight))).isEqualTo(flight);
+        assertThat(serializer.deserialize(json.serialize(lastKnownGood))).isEqualTo(lastKnownGood);
+        assertThat(serializer.deserialize(null)).isNull();
+    }
+
+    @Test
+    void shouldKeepWritingJson_WhenBinaryDisabled() {
+        FlightDataBinarySerializer jsonWriter = new FlightDataBinarySerializer(json, false);
+
+        assertThat(jsonWriter.serialize(flight)).isEqualTo(json.serialize(flight));
+        assertThat(jsonWriter.deserialize(serializer.serialize(flight))).isEqualTo(flight);
+    }
+
+    @Test
+    void shouldDelegateOtherValueTypes() {
+        Map<String, String> other = new HashMap<>(Map.of("key", "value"));
+
+        assertThat(serializer.serialize(other)).isEqualTo(json.serialize(other));
+        assertThat(serializer.deserialize(serializer.serialize(other))).isEqualTo(other);
+    }
+
+    @Test
+    void shouldSkipUnknownFields() {
+        byte[] bytes = serializer.serialize(FlightData.builder().ident("UAL123").build());
+        // Field 15 (varint 300) appended by a newer writer, before the end marker
+        byte[] withUnknown = Arrays.copyOf(bytes, bytes.length + 3);
+        withUnknown[bytes.length - 1] = (byte) (15 << 3);
+        withUnknown[bytes.length] = (byte) 0xAC;
+        withUnknown[bytes.length + 1] = 0x02;
+        withUnknown[bytes.length + 2] = 0;
+
+        assertThat(serializer.deserialize(withUnknown)).isEqualTo(FlightData.builder().ident("UAL123").build());
+    }
+
+    @Test
+    void shouldRejectCorruptOrNewerValues() {
+        byte[] bytes = serializer.serialize(flight);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+        byte[] newer = bytes.clone();
+        newer[1] = FlightDataBinarySerializer.VERSION + 1;
+
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.deserialize(newer)).isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.airlinetracker.flightdata.cache;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for TwoTierCache / TwoTierCacheManager
+ *
+ * Uses a ConcurrentMapCache as a stand-in for the Redis L2 tier.
+ *
+ * Verifies:
+ * - L1 serves repeated reads without touching L2
+ * - L2 hits populate L1
+ * - Per-tier hit/miss metrics
+ * - Peer invalidations drop only the local L1 copy
+ */
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheTest {
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private MeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager l2CacheManager;
+    private TwoTierCacheManager cacheManager;
+
+    private final FlightData flight = FlightData.builder()
+            .faFlightId("UAL123-1234567890")
+            .ident("UAL123")
+            .status("En-Route")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        l2CacheManager = new ConcurrentMapCacheManager("flights");
+        cacheManager = new TwoTierCacheManager(
+                l2CacheManager, invalidationPublisher, meterRegistry, 100, Duration.ofSeconds(30));
+        lenient().when(invalidationPublisher.getInstanceId()).thenReturn("self");
+    }
+
+    @Test
+    void shouldServeFromL1_AfterFirstL2Hit() {
+        // Arrange: value only exists in L2 (written by another replica)
+        l2CacheManager.getCache("flights").put("UAL123", flight);
+        Cache cache = cacheManager.getCache("flights");
+
+        // Act
+        Cache.ValueWrapper first = cache.get("UAL123");
+        l2CacheManager.getCache("flights").evict("UAL123");
+        Cache.ValueWrapper second = cache.get("UAL123");
+
+        // Assert: second read served from L1 even though L2 no longer has it
+        assertThat(first.get()).isEqualTo(flight);
+        assertThat(second.get()).isEqualTo(flight);
+        assertThat(tierCount("flight_cache_tier_hits", "l2")).isEqualTo(1);
+        assertThat(tierCount("flight_cache_tier_hits", "l1")).isEqualTo(1);
+        assertThat(meterRegistry.counter("flight_cache_hits", "service", "flightdata-service").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordMissOnBothTiers_WhenKeyAbsent() {
+        Cache cache = cacheManager.getCache("flights");
+
+        assertThat(cache.get("DAL456")).isNull();
+
+        assertThat(tierCount("flight_cache_tier_misses", "l1")).isEqualTo(1);
+        assertThat(tierCount("flight_cache_tier_misses", "l2")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldWriteThroughAndBroadcast_OnPut() {
+        Cache cache = cacheManager.getCache("flights");
+
+        cache.put("UAL123", flight);
+
+        assertThat(l2CacheManager.getCache("flights").get("UAL123").get()).isEqualTo(flight);
+        verify(invalidationPublisher).publishEvict("flights", "UAL123");
+    }
+
+    @Test
+    void shouldDropLocalCopy_WhenPeerInvalidates() {
+        Cache cache = cacheManager.getCache("flights");
+        cache.put("UAL123", flight);
+        ((ConcurrentMapCache) l2CacheManager.getCache("flights")).clear();
+
+        cacheManager.onMessage(message("peer\nflights\nUAL123"), null);
+
+        assertThat(cache.get("UAL123")).isNull();
+    }
+
+    @Test
+    void shouldIgnoreOwnBroadcasts() {
+        Cache cache = cacheManager.getCache("flights");
+        cache.put("UAL123", flight);
+        ((ConcurrentMapCache) l2CacheManager.getCache("flights")).clear();
+
+        cacheManager.onMessage(message("self\nflights\nUAL123"), null);
+
+        assertThat(cache.get("UAL123").get()).isEqualTo(flight);
+    }
+
+    private double tierCount(String metric, String tier) {
+        return meterRegistry.get(metric).tag("tier", tier).counter().count();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+                CacheInvalidationPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,7 @@
 package com.airlinetracker.flightdata.client;
 
 import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.exception.FlightAwareApiException;
 import com.airlinetracker.flightdata.exception.FlightNotFoundException;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
@@ -142,13 +143,33 @@ class FlightAwareClientTest {
                         .withStatus(500)
                         .withBody("{\"error\": \"Internal server error\"}")));
 
-        // Act & Assert
+        // Act & Assert: an upstream failure, not a missing flight
         assertThatThrownBy(() -> flightAwareClient.getFlightByIdent(TEST_IDENT).block())
-                .isInstanceOf(RuntimeException.class);
+                .isInstanceOf(FlightAwareApiException.class)
+                .isNotInstanceOf(FlightNotFoundException.class)
+                .hasMessageContaining("500");
 
         verify(getRequestedFor(urlEqualTo("/flights/" + TEST_IDENT)));
     }
 
+    /**
+     * Test: Upstream throttling (429) is not reported as flight not found
+     */
+    @Test
+    void shouldThrowFlightAwareApiException_When429() {
+        // Arrange
+        stubFor(get(urlEqualTo("/flights/" + TEST_IDENT))
+                .withHeader("x-apikey", equalTo(API_KEY))
+                .willReturn(aResponse()
+                        .withStatus(429)
+                        .withBody("{\"error\": \"Too many requests\"}")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> flightAwareClient.getFlightByIdent(TEST_IDENT).block())
+                .isInstanceOf(FlightAwareApiException.class)
+                .satisfies(e -> assertThat(((FlightAwareApiException) e).getStatusCode()).isEqualTo(429));
+    }
+
     /**
      * Test: API key is included in request header
      */
@@ -0,0 +1,119 @@
+package com.airlinetracker.flightdata.client;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test FlightAwareResponseParser (streaming first-flight extraction)
+ *
+ * Test Requirements (from PRD FR-1):
+ * - Extract flights[0] from the AeroAPI /flights/{ident} wrapper
+ * - Nested airport objects map to ICAO codes
+ * - Empty or missing "flights" yields no flight
+ * - Works when the body arrives in arbitrary chunks
+ * - Stops reading once flights[0] is complete
+ */
+class FlightAwareResponseParserTest {
+
+    private static final String RESPONSE = """
+            {
+              "links": {"next": null},
+              "flights": [
+                {
+                  "ident": "UAL123",
+                  "fa_flight_id": "UAL123-1678886400-airline-0123",
+                  "status": "En-Route / In Flight",
+                  "scheduled_out": "2023-03-15T12:00:00Z",
+                  "actual_out": "2023-03-15T12:05:00Z",
+                  "origin": {"code": "KORD", "code_iata": "ORD", "name": "Chicago O'Hare Intl"},
+                  "destination": {"code": "KLAX", "code_iata": "LAX", "name": "Los Angeles Intl"},
+                  "aircraft_type": "B738",
+                  "codeshares": ["DLH7600", "ACA3911"],
+                  "latitude": 39.8,
+                  "longitude": -98.6,
+                  "altitude": 35000,
+                  "groundspeed": 450
+                },
+                {
+                  "ident": "UAL123",
+                  "fa_flight_id": "UAL123-1678800000-airline-0456",
+                  "status": "Arrived / Gate Arrival"
+                }
+              ],
+              "num_pages": 1
+            }
+            """;
+
+    private final FlightAwareResponseParser parser = new FlightAwareResponseParser();
+
+    @Test
+    void shouldParseFirstFlight_FromWrappedResponse() {
+        FlightData flight = parser.parseFirstFlight(RESPONSE.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(flight).isNotNull();
+        assertThat(flight.getFaFlightId()).isEqualTo("UAL123-1678886400-airline-0123");
+        assertThat(flight.getStatus()).isEqualTo("En-Route / In Flight");
+        assertThat(flight.getScheduledOut()).isEqualTo(Instant.parse("2023-03-15T12:00:00Z"));
+        assertThat(flight.getOrigin()).isEqualTo("KORD");
+        assertThat(flight.getDestination()).isEqualTo("KLAX");
+        assertThat(flight.getAltitude()).isEqualTo(35000);
+    }
+
+    @Test
+    void shouldReturnNull_WhenFlightsEmptyOrMissing() {
+        assertThat(parser.parseFirstFlight("{\"flights\": [], \"num_pages\": 1}".getBytes(StandardCharsets.UTF_8)))
+                .isNull();
+        assertThat(parser.parseFirstFlight("{\"error\": \"Flight not found\"}".getBytes(StandardCharsets.UTF_8)))
+                .isNull();
+    }
+
+    @Test
+    void shouldIgnoreNestedFlightsFields_OutsideRoot() {
+        String body = "{\"links\": {\"flights\": [{\"ident\": \"WRONG\"}]}, \"flights\": [{\"ident\": \"RIGHT\"}]}";
+
+        FlightData flight = parser.parseFirstFlight(body.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(flight.getIdent()).isEqualTo("RIGHT");
+    }
+
+    @Test
+    void shouldParseFirstFlight_WhenBodyArrivesInSmallChunks() {
+        FlightData flight = parser.parseFirstFlight(chunked(RESPONSE, 7)).block();
+
+        assertThat(flight).isNotNull();
+        assertThat(flight.getIdent()).isEqualTo("UAL123");
+        assertThat(flight.getDestination()).isEqualTo("KLAX");
+    }
+
+    @Test
+    void shouldStopReading_OnceFirstFlightIsComplete() {
+        // Everything after flights[0] is garbage: a full-document parse would fail
+        String body = "{\"flights\": [{\"ident\": \"UAL123\", \"status\": \"Scheduled\"}, ###not json###";
+
+        FlightData flight = parser.parseFirstFlight(chunked(body, 16)).block();
+
+        assertThat(flight.getIdent()).isEqualTo("UAL123");
+    }
+
+    private static Flux<DataBuffer> chunked(String body, int chunkSize) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(length);
+            buffer.write(bytes, offset, length);
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,108 @@
+package com.airlinetracker.flightdata.config;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit Test for FlightDataSchemas (flight-data-events Avro schema registry)
+ *
+ * Test Requirements:
+ * - Every schema version in /schemas is fully compatible with every other (build-time check)
+ * - The latest schema has exactly the FlightData JSON properties
+ * - Snapshots and sparse deltas round-trip; deltas encode smaller than JSON
+ * - Avro payloads are distinguishable from JSON
+ */
+class FlightDataSchemasTest {
+
+    private final FlightDataSchemas schemas = FlightDataSchemas.load();
+
+    @Test
+    void shouldLoadCompatibleSchemaVersions() {
+        assertThat(schemas.versions()).isNotEmpty();
+        FlightDataSchemas.checkCompatibility(schemas.versions());
+    }
+
+    @Test
+    void shouldRejectIncompatibleVersion() {
+        // A required field without default cannot read data written by older versions
+        Schema incompatible = new Schema.Parser().parse("""
+                {"type": "record", "name": "FlightData", "namespace": "com.airlinetracker.events",
+                 "fields": [{"name": "fa_flight_id", "type": "string"}, {"name": "gate", "type": "string"}]}
+                """);
+
+        assertThatThrownBy(() -> FlightDataSchemas.checkCompatibility(List.of(schemas.latest(), incompatible)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cannot read");
+    }
+
+    @Test
+    void shouldMatchFlightDataJsonProperties() {
+        ObjectMapper mapper = new ObjectMapper();
+        JavaType type = mapper.constructType(FlightData.class);
+        List<String> properties = mapper.getSerializationConfig().introspect(type).findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .toList();
+
+        assertThat(schemas.latest().getFields()).extracting(Schema.Field::name)
+                .containsExactlyInAnyOrderElementsOf(properties);
+    }
+
+    @Test
+    void shouldRoundTripSnapshot() {
+        FlightData flightData = FlightData.builder()
+                .faFlightId("UAL123-1710489600-airline-0123")
+                .ident("UAL123")
+                .status("En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(39.8561)
+                .longitude(-104.6737)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+
+        byte[] encoded = schemas.encode(flightData);
+
+        assertThat(FlightDataSchemas.isAvro(encoded)).isTrue();
+        assertThat(schemas.decode(encoded)).isEqualTo(flightData);
+    }
+
+    @Test
+    void shouldRoundTripSparseDelta() throws Exception {
+        FlightData delta = FlightData.builder()
+                .faFlightId("UAL123-1710489600-airline-0123")
+                .ident("UAL123")
+                .latitude(40.1)
+                .longitude(-100.2)
+                .build();
+
+        byte[] encoded = schemas.encode(delta);
+
+        assertThat(schemas.decode(encoded)).isEqualTo(delta);
+        byte[] json = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writeValueAsBytes(delta);
+        assertThat(encoded.length).isLessThan(json.length);
+    }
+
+    @Test
+    void shouldNotMistakeJsonForAvro() {
+        assertThat(FlightDataSchemas.isAvro("{\"ident\":\"UAL123\"}".getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(FlightDataSchemas.isAvro(null)).isFalse();
+    }
+}
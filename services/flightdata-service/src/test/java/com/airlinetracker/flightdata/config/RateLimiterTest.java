@@ -0,0 +1,222 @@
+package com.airlinetracker.flightdata.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test RateLimitConfig.RateLimiter against embedded Redis
+ *
+ * Test Requirements (from PRD NFR: FlightAware free tier protection):
+ * - Minute, hour and day windows checked and consumed atomically
+ * - A rejected call consumes nothing in any window
+ * - Usage stats returned with the decision
+ * - No over-admission under concurrent callers
+ * - Leased calls served locally, unused calls returned, global limit still enforced
+ * - Leased calls count until a full window after their latest possible use
+ * - Fail closed when Redis is unreachable
+ */
+class RateLimiterTest {
+
+    private static final int REDIS_PORT = 6371;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", REDIS_PORT));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void clearCallLog() {
+        redisTemplate.delete(RateLimitConfig.RateLimiter.CALL_LOG_KEY);
+    }
+
+    @Test
+    void shouldAllowUpToMinuteLimit_AndReturnUsage() {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(redisTemplate, 3, 10, 20, true);
+
+        RateLimitConfig.Decision first = limiter.tryAcquire();
+        limiter.tryAcquire();
+        RateLimitConfig.Decision third = limiter.tryAcquire();
+        RateLimitConfig.Decision fourth = limiter.tryAcquire();
+
+        assertThat(first.allowed).isTrue();
+        assertThat(first.usage.minuteUsed).isEqualTo(1);
+        assertThat(third.allowed).isTrue();
+        assertThat(third.usage.dayUsed).isEqualTo(3);
+        assertThat(fourth.allowed).isFalse();
+        assertThat(fourth.exceededWindow).isEqualTo("minute");
+        assertThat(fourth.usage.minuteUsed).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotConsumeShorterWindows_WhenLongerWindowRejects() {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(redisTemplate, 10, 10, 2, true);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        RateLimitConfig.Decision rejected = limiter.tryAcquire();
+
+        assertThat(rejected.allowed).isFalse();
+        assertThat(rejected.exceededWindow).isEqualTo("day");
+
+        RateLimitConfig.UsageStats stats = limiter.getUsageStats();
+        assertThat(stats.minuteUsed).isEqualTo(2);
+        assertThat(stats.hourUsed).isEqualTo(2);
+        assertThat(stats.dayUsed).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNeverOverAdmit_UnderConcurrentCallers() throws Exception {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(redisTemplate, 25, 100, 100, true);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Boolean>> calls = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                calls.add(limiter::allowRequest);
+            }
+            int allowed = 0;
+            for (Future<Boolean> result : pool.invokeAll(calls)) {
+                if (result.get()) {
+                    allowed++;
+                }
+            }
+
+            assertThat(allowed).isEqualTo(25);
+            assertThat(limiter.getUsageStats().dayUsed).isEqualTo(25);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldAllowEverything_WhenDisabled() {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(null, 0, 0, 0, false);
+
+        assertThat(limiter.allowRequest()).isTrue();
+        assertThat(limiter.tryAcquire().allowed).isTrue();
+    }
+
+    @Test
+    void shouldServeLeasedCallsLocally_AndReturnUnusedOnClose() {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(
+                redisTemplate, 10, 100, 100, true, 5, Duration.ofSeconds(30));
+
+        assertThat(limiter.allowRequest()).isTrue();
+        assertThat(callLogSize()).isEqualTo(5);
+
+        // Served from the lease: Redis untouched
+        redisTemplate.delete(RateLimitConfig.RateLimiter.CALL_LOG_KEY);
+        assertThat(limiter.allowRequest()).isTrue();
+        assertThat(limiter.allowRequest()).isTrue();
+        assertThat(callLogSize()).isZero();
+
+        clearCallLog();
+        RateLimitConfig.RateLimiter other = new RateLimitConfig.RateLimiter(
+                redisTemplate, 10, 100, 100, true, 5, Duration.ofSeconds(30));
+        other.allowRequest();
+        other.allowRequest();
+        other.close();
+
+        // 2 used, 3 returned
+        assertThat(callLogSize()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEnforceGlobalLimit_AcrossInstancesHoldingLeases() {
+        RateLimitConfig.RateLimiter first = new RateLimitConfig.RateLimiter(
+                redisTemplate, 4, 100, 100, true, 3, Duration.ofSeconds(30));
+        RateLimitConfig.RateLimiter second = new RateLimitConfig.RateLimiter(
+                redisTemplate, 4, 100, 100, true, 3, Duration.ofSeconds(30));
+
+        assertThat(first.allowRequest()).isTrue();   // leases 3
+        assertThat(second.allowRequest()).isTrue();  // only 1 left in the minute window
+        assertThat(second.allowRequest()).isFalse();
+        assertThat(first.allowRequest()).isTrue();
+        assertThat(first.allowRequest()).isTrue();
+        assertThat(first.allowRequest()).isFalse();
+    }
+
+    @Test
+    void shouldLogLeasedCalls_AtLeaseExpiry() {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(
+                redisTemplate, 10, 100, 100, true, 3, Duration.ofSeconds(5));
+        long before = redisTime();
+
+        limiter.allowRequest();
+
+        // A call may be made up to 5s after leasing; it must still count a full window after that
+        assertThat(redisTemplate.opsForZSet().rangeWithScores(RateLimitConfig.RateLimiter.CALL_LOG_KEY, 0, -1))
+                .hasSize(3)
+                .allSatisfy(call -> assertThat(call.getScore()).isGreaterThanOrEqualTo(before + 5_000));
+        assertThat(limiter.getUsageStats().minuteUsed).isEqualTo(3);
+    }
+
+    @Test
+    void shouldReturnExpiredLease_BeforeLeasingAgain() throws InterruptedException {
+        RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(
+                redisTemplate, 10, 100, 100, true, 4, Duration.ofMillis(50));
+
+        limiter.allowRequest();
+        Thread.sleep(100);
+        limiter.allowRequest();
+
+        // 1 used from the expired lease + a fresh block of 4
+        assertThat(callLogSize()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldFailClosed_WhenRedisUnavailable() {
+        LettuceConnectionFactory unreachable = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", 1));
+        unreachable.afterPropertiesSet();
+        try {
+            RateLimitConfig.RateLimiter limiter = new RateLimitConfig.RateLimiter(
+                    new StringRedisTemplate(unreachable), 1, 1, 1, true);
+
+            assertThat(limiter.allowRequest()).isFalse();
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private static long redisTime() {
+        return redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().time());
+    }
+
+    private long callLogSize() {
+        Long size = redisTemplate.opsForZSet().zCard(RateLimitConfig.RateLimiter.CALL_LOG_KEY);
+        return size != null ? size : 0;
+    }
+}
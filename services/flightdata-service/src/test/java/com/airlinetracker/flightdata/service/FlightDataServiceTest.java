@@ -1,5 +1,7 @@
 package com.airlinetracker.flightdata.service;
 
+import com.airlinetracker.flightdata.cache.LastKnownGoodStore;
+import com.airlinetracker.flightdata.cache.ReactiveFlightCache;
 import com.airlinetracker.flightdata.client.FlightAwareClient;
 import com.airlinetracker.flightdata.dto.FlightData;
 import io.micrometer.core.instrument.Counter;
@@ -11,10 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,7 +45,16 @@ class FlightDataServiceTest {
     private FlightAwareClient flightAwareClient;
 
     @Mock
-    private KafkaTemplate<String, FlightData> kafkaTemplate;
+    private FlightEventOutbox flightEventOutbox;
+
+    @Mock
+    private FlightStatePublisher flightStatePublisher;
+
+    @Mock
+    private ReactiveFlightCache reactiveFlightCache;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGoodStore;
 
     private MeterRegistry meterRegistry;
     private FlightDataService flightDataService;
@@ -53,9 +67,16 @@ class FlightDataServiceTest {
         // Create service with mocked dependencies and real MeterRegistry
         flightDataService = new FlightDataService(
             flightAwareClient,
-            kafkaTemplate,
+            flightEventOutbox,
+            new FlightEventChangeDetector(meterRegistry, true, 5.0, 1000, 24),
+            new FlightDeltaEncoder(meterRegistry, true, 10, 600, 1000),
+            flightStatePublisher,
+            new FlightFetchCoalescer(meterRegistry),
+            reactiveFlightCache,
+            lastKnownGoodStore,
             meterRegistry
         );
+        lenient().when(lastKnownGoodStore.save(anyString(), any())).thenReturn(Mono.empty());
     }
 
     /**
@@ -66,7 +87,7 @@ class FlightDataServiceTest {
      * - Incremented when: Cache miss occurs (API called)
      * 
      * Scenario:
-     * - Call getFlightByIdent() which results in cache miss
+     * - Call getFlightByIdentUncached() which results in cache miss
      * - Counter should increment by 1
      */
     @Test
@@ -84,8 +105,6 @@ class FlightDataServiceTest {
 
         when(flightAwareClient.getFlightByIdent(ident))
                 .thenReturn(Mono.just(mockFlightData));
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-                .thenReturn(null);
 
         // Get initial count (note: Micrometer adds _total suffix for Prometheus export)
         Counter cacheMissCounter = meterRegistry.counter("flight_cache_misses", "service", "flightdata-service");
@@ -150,8 +169,6 @@ class FlightDataServiceTest {
 
         when(flightAwareClient.getFlightByIdent(ident))
                 .thenReturn(Mono.just(mockFlightData));
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-                .thenReturn(null);
 
         // Get timer before call
         Timer apiTimer = meterRegistry.timer("flightaware_api_duration", "service", "flightdata-service");
@@ -165,7 +182,7 @@ class FlightDataServiceTest {
         assertThat(finalCount).isEqualTo(initialCount + 1);
         
         // Assert: Duration was recorded (should be > 0)
-        assertThat(apiTimer.totalTime(java.util.concurrent.TimeUnit.NANOSECONDS)).isGreaterThan(0);
+        assertThat(apiTimer.totalTime(TimeUnit.NANOSECONDS)).isGreaterThan(0);
     }
 
     /**
@@ -184,8 +201,6 @@ class FlightDataServiceTest {
 
         when(flightAwareClient.getFlightByIdent(anyString()))
                 .thenReturn(Mono.just(mockFlightData));
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-                .thenReturn(null);
 
         Counter cacheMissCounter = meterRegistry.counter("flight_cache_misses", "service", "flightdata-service");
         double initialCount = cacheMissCounter.count();
@@ -219,8 +234,6 @@ class FlightDataServiceTest {
                 .build();
         when(flightAwareClient.getFlightByIdent(anyString()))
                 .thenReturn(Mono.just(mockFlightData));
-        when(kafkaTemplate.send(anyString(), anyString(), any()))
-                .thenReturn(null);
         flightDataService.getFlightByIdentUncached("METRIC123");
 
         // Assert: Metrics exist with correct names (base names, Micrometer adds _total suffix for Prometheus)
@@ -228,5 +241,97 @@ class FlightDataServiceTest {
         assertThat(meterRegistry.find("flight_cache_misses").counter()).isNotNull();
         assertThat(meterRegistry.find("flightaware_api_duration").timer()).isNotNull();
     }
-}
 
+    /**
+     * TEST 6: Single-flight coalescing of concurrent cache misses
+     * 
+     * Scenario:
+     * - Two requests for the same ident arrive while the first fetch is in flight
+     * - FlightAware is called once, both callers get the same result
+     * - flight_fetch_coalesced_waiters{scope=local} counts the waiter
+     */
+    @Test
+    void shouldCallFlightAwareOnce_WhenConcurrentMissesForSameIdent() throws Exception {
+        // Arrange: slow upstream so the second request overlaps the first
+        FlightData mockFlightData = FlightData.builder()
+                .faFlightId("UAL123-1234567890")
+                .ident("UAL123")
+                .status("En-Route")
+                .build();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        when(flightAwareClient.getFlightByIdent("UAL123"))
+                .thenReturn(Mono.defer(() -> {
+                    upstreamCalls.incrementAndGet();
+                    return Mono.just(mockFlightData).delayElement(Duration.ofMillis(300));
+                }));
+
+        // Act
+        CompletableFuture<FlightData> first =
+                CompletableFuture.supplyAsync(() -> flightDataService.getFlightByIdentUncached("UAL123"));
+        Thread.sleep(50);
+        FlightData second = flightDataService.getFlightByIdentUncached("UAL123");
+
+        // Assert
+        assertThat(first.get()).isSameAs(second);
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        verify(flightEventOutbox, times(1)).enqueue(any());
+        verify(flightStatePublisher, times(1)).update(any());
+        assertThat(meterRegistry.get("flight_fetch_coalesced_waiters").tag("scope", "local").counter().count())
+                .isEqualTo(1);
+    }
+
+    /**
+     * TEST 7: Unchanged re-fetch
+     * 
+     * Scenario:
+     * - The same flight is fetched twice without changing
+     * - flight-data-events gets one event (change detection)
+     * - flight-state gets both fetches (not gated by change detection)
+     */
+    @Test
+    void shouldUpdateFlightState_WhenEventSuppressedByChangeDetection() {
+        // Arrange
+        FlightData mockFlightData = FlightData.builder()
+                .faFlightId("UAL123-1234567890")
+                .ident("UAL123")
+                .status("En-Route")
+                .build();
+        when(flightAwareClient.getFlightByIdent("UAL123")).thenReturn(Mono.just(mockFlightData));
+
+        // Act
+        flightDataService.getFlightByIdentUncached("UAL123");
+        flightDataService.getFlightByIdentUncached("UAL123");
+
+        // Assert
+        verify(flightEventOutbox, times(1)).enqueue(any());
+        verify(flightStatePublisher, times(2)).update(mockFlightData);
+    }
+
+    /**
+     * TEST 8: Reactive lookup path
+     * 
+     * Scenario:
+     * - Reactive cache miss (checked by FlightLookupService) → FlightAware called without .block()
+     * - Result written back through the reactive cache
+     */
+    @Test
+    void shouldFetchAndCacheWithoutBlocking_WhenReactiveCacheMiss() {
+        // Arrange
+        FlightData mockFlightData = FlightData.builder()
+                .faFlightId("AAL100-1234567890")
+                .ident("AAL100")
+                .status("Scheduled")
+                .build();
+        when(reactiveFlightCache.put("AAL100", mockFlightData)).thenReturn(Mono.empty());
+        when(flightAwareClient.getFlightByIdent("AAL100")).thenReturn(Mono.just(mockFlightData));
+
+        // Act
+        FlightData result = flightDataService.loadFlightReactive("AAL100").block();
+
+        // Assert
+        assertThat(result).isEqualTo(mockFlightData);
+        verify(reactiveFlightCache).put("AAL100", mockFlightData);
+        assertThat(meterRegistry.counter("flight_cache_misses", "service", "flightdata-service").count())
+                .isEqualTo(1);
+    }
+}
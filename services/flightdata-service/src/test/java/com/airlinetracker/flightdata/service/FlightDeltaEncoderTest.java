@@ -0,0 +1,166 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.dto.FlightDataEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit Test for FlightDeltaEncoder (snapshot / delta flight-data-events)
+ *
+ * Test Requirements:
+ * - First event of a flight is a full snapshot
+ * - Later events carry only fields changed since the snapshot, plus cleared fields
+ * - A new snapshot is sent after snapshot-every deltas or snapshot-interval
+ * - A status change is always sent as a snapshot
+ * - Deltas are much smaller on the wire than snapshots
+ */
+class FlightDeltaEncoderTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-15T16:00:00Z");
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(NOW);
+    private MeterRegistry meterRegistry;
+    private FlightDeltaEncoder encoder;
+
+    private final FlightData enRoute = FlightData.builder()
+            .faFlightId("UAL123-1678886400-airline-0123")
+            .ident("UAL123")
+            .status("En Route / On Time")
+            .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+            .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+            .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+            .origin("KSFO")
+            .destination("KJFK")
+            .aircraftType("B738")
+            .latitude(39.8561)
+            .longitude(-104.6737)
+            .altitude(35000)
+            .groundspeed(450)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        encoder = new FlightDeltaEncoder(meterRegistry, true, 3, Duration.ofMinutes(10), 1000, clock);
+    }
+
+    @Test
+    void shouldSendSnapshotFirst_ThenOnlyChangedFields() {
+        FlightDataEvent snapshot = encoder.encode(enRoute);
+        FlightDataEvent delta = encoder.encode(enRoute.toBuilder().latitude(40.1).altitude(36000).build());
+
+        assertThat(snapshot.type()).isEqualTo(FlightDataEvent.Type.SNAPSHOT);
+        assertThat(snapshot.flightData()).isEqualTo(enRoute);
+        assertThat(delta.type()).isEqualTo(FlightDataEvent.Type.DELTA);
+        assertThat(delta.snapshotVersion()).isEqualTo(snapshot.snapshotVersion());
+        assertThat(delta.flightData()).isEqualTo(FlightData.builder()
+                .faFlightId(enRoute.getFaFlightId())
+                .ident("UAL123")
+                .latitude(40.1)
+                .altitude(36000)
+                .build());
+        assertThat(delta.clearedFields()).isEmpty();
+    }
+
+    @Test
+    void shouldDiffAgainstSnapshot_NotPreviousDelta() {
+        encoder.encode(enRoute);
+        encoder.encode(enRoute.toBuilder().altitude(36000).build());
+
+        FlightDataEvent delta = encoder.encode(enRoute.toBuilder().latitude(40.1).build());
+
+        assertThat(delta.flightData().getAltitude()).isNull();
+        assertThat(delta.flightData().getLatitude()).isEqualTo(40.1);
+    }
+
+    @Test
+    void shouldListFieldsThatBecameNull() {
+        encoder.encode(enRoute);
+
+        FlightDataEvent delta = encoder.encode(enRoute.toBuilder()
+                .actualIn(Instant.parse("2024-03-15T18:40:00Z"))
+                .latitude(null).longitude(null).altitude(null).groundspeed(null)
+                .build());
+
+        assertThat(delta.type()).isEqualTo(FlightDataEvent.Type.DELTA);
+        assertThat(delta.flightData().getActualIn()).isEqualTo(Instant.parse("2024-03-15T18:40:00Z"));
+        assertThat(delta.clearedFields()).containsExactly("latitude", "longitude", "altitude", "groundspeed");
+    }
+
+    @Test
+    void shouldSendSnapshot_WhenStatusChanges() {
+        FlightDataEvent first = encoder.encode(enRoute);
+
+        FlightDataEvent landed = encoder.encode(enRoute.toBuilder().status("Arrived / Gate Arrival").build());
+
+        assertThat(landed.type()).isEqualTo(FlightDataEvent.Type.SNAPSHOT);
+        assertThat(landed.flightData().getStatus()).isEqualTo("Arrived / Gate Arrival");
+        assertThat(landed.flightData().getOrigin()).isEqualTo("KSFO");
+        assertThat(landed.snapshotVersion()).isGreaterThan(first.snapshotVersion());
+        assertThat(encoder.encode(enRoute.toBuilder().status("Arrived / Gate Arrival").altitude(0).build()).type())
+                .isEqualTo(FlightDataEvent.Type.DELTA);
+    }
+
+    @Test
+    void shouldResendSnapshot_AfterSnapshotEveryOrInterval() {
+        FlightDataEvent first = encoder.encode(enRoute);
+        encoder.encode(enRoute);
+        encoder.encode(enRoute);
+        encoder.encode(enRoute);
+
+        FlightDataEvent afterThreeDeltas = encoder.encode(enRoute);
+        now.set(NOW.plus(Duration.ofMinutes(11)));
+        FlightDataEvent afterInterval = encoder.encode(enRoute);
+
+        assertThat(afterThreeDeltas.type()).isEqualTo(FlightDataEvent.Type.SNAPSHOT);
+        assertThat(afterThreeDeltas.snapshotVersion()).isGreaterThan(first.snapshotVersion());
+        assertThat(afterInterval.type()).isEqualTo(FlightDataEvent.Type.SNAPSHOT);
+        assertThat(meterRegistry.find("flight_events_encoded").tag("type", "delta").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void shouldCutRecordBytes_ForPositionUpdates() throws Exception {
+        ObjectMapper mapper = JacksonUtils.enhancedObjectMapper()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        FlightDataEvent snapshot = encoder.encode(enRoute);
+        FlightDataEvent delta = encoder.encode(enRoute.toBuilder()
+                .latitude(40.2).longitude(-100.1).altitude(36000).groundspeed(470).build());
+
+        int snapshotBytes = mapper.writeValueAsBytes(snapshot.flightData()).length;
+        int deltaBytes = mapper.writeValueAsBytes(delta.flightData()).length;
+
+        assertThat(deltaBytes).isLessThan(snapshotBytes / 2);
+    }
+}
@@ -0,0 +1,87 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit Test for FlightEventChangeDetector
+ *
+ * Test Requirements:
+ * - First event per flight is published, unchanged re-fetches are suppressed
+ * - New status or actual times are published
+ * - Position changes are published only beyond the threshold
+ * - Suppressed events are counted
+ */
+class FlightEventChangeDetectorTest {
+
+    private MeterRegistry meterRegistry;
+    private FlightEventChangeDetector detector;
+
+    private final FlightData enRoute = FlightData.builder()
+            .faFlightId("UAL123-1678886400-airline-0123")
+            .ident("UAL123")
+            .status("En Route / On Time")
+            .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+            .latitude(39.8561)
+            .longitude(-104.6737)
+            .altitude(35000)
+            .groundspeed(450)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new FlightEventChangeDetector(meterRegistry, true, 5.0, 1000, 24);
+    }
+
+    @Test
+    void shouldSuppressUnchangedFlight() {
+        assertThat(detector.shouldPublish(enRoute)).isTrue();
+        assertThat(detector.shouldPublish(enRoute.toBuilder().altitude(35100).groundspeed(455).build())).isFalse();
+        assertThat(decisions("published")).isEqualTo(1);
+        assertThat(decisions("suppressed")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPublish_WhenStatusOrActualTimesChange() {
+        detector.shouldPublish(enRoute);
+
+        assertThat(detector.shouldPublish(enRoute.toBuilder().status("En Route / Delayed").build())).isTrue();
+        assertThat(detector.shouldPublish(enRoute.toBuilder().status("En Route / Delayed")
+                .actualIn(Instant.parse("2024-03-15T18:40:00Z")).build())).isTrue();
+    }
+
+    @Test
+    void shouldPublishPositionChanges_OnlyBeyondThreshold() {
+        detector.shouldPublish(enRoute);
+
+        // ~1 km north: below the 5 km threshold
+        assertThat(detector.shouldPublish(enRoute.toBuilder().latitude(39.8651).build())).isFalse();
+        // ~55 km north
+        assertThat(detector.shouldPublish(enRoute.toBuilder().latitude(40.35).build())).isTrue();
+        // Position lost (e.g. landed)
+        assertThat(detector.shouldPublish(enRoute.toBuilder().latitude(null).longitude(null).build())).isTrue();
+    }
+
+    @Test
+    void shouldAlwaysPublish_WhenDisabledOrWithoutFlightId() {
+        FlightEventChangeDetector disabled = new FlightEventChangeDetector(meterRegistry, false, 5.0, 1000, 24);
+        FlightData withoutId = enRoute.toBuilder().faFlightId(null).build();
+
+        assertThat(disabled.shouldPublish(enRoute)).isTrue();
+        assertThat(disabled.shouldPublish(enRoute)).isTrue();
+        assertThat(detector.shouldPublish(withoutId)).isTrue();
+        assertThat(detector.shouldPublish(withoutId)).isTrue();
+    }
+
+    private double decisions(String decision) {
+        return meterRegistry.find("flight_events_change_detection").tag("decision", decision).counter().count();
+    }
+}
@@ -0,0 +1,84 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for FlightEventLoadGenerator
+ *
+ * Test Requirements:
+ * - Publishes rate x duration synthetic events to the load test topic
+ * - Cycles through the configured number of flights (keys)
+ * - Records send latency and counts failed sends
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightEventLoadGeneratorTest {
+
+    @Mock
+    private KafkaTemplate<String, FlightData> kafkaTemplate;
+
+    private MeterRegistry meterRegistry;
+    private FlightEventLoadGenerator loadGenerator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loadGenerator = new FlightEventLoadGenerator(kafkaTemplate, meterRegistry,
+                "flight-data-events-loadtest", false, 1000, 60, 10);
+    }
+
+    @Test
+    void shouldPublishSyntheticFlights_AtConfiguredRate() {
+        when(kafkaTemplate.send(anyString(), anyString(), any(FlightData.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        FlightEventLoadGenerator.Report report = loadGenerator.run(500, Duration.ofMillis(200));
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, times(100)).send(eq("flight-data-events-loadtest"), keys.capture(), any(FlightData.class));
+        verify(kafkaTemplate).flush();
+        assertThat(new HashSet<>(keys.getAllValues())).hasSize(10);
+        assertThat(report.sent()).isEqualTo(100);
+        assertThat(report.failed()).isZero();
+        assertThat(report.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(190));
+        assertThat(meterRegistry.find("flight_events_loadgen_send_latency").timer().count()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldCountFailedSends() {
+        when(kafkaTemplate.send(anyString(), anyString(), any(FlightData.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")))
+                .thenThrow(new RuntimeException("buffer exhausted"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        FlightEventLoadGenerator.Report report = loadGenerator.run(100, Duration.ofMillis(50));
+
+        assertThat(report.failed()).isEqualTo(2);
+        assertThat(report.sent()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotRun_WhenDisabled() {
+        loadGenerator.runOnStartup();
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+}
@@ -0,0 +1,266 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.dto.FlightDataEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for FlightEventOutbox (non-blocking flight-data-events publishing)
+ *
+ * Test Requirements:
+ * - Events are published asynchronously and every acknowledgement is tracked
+ * - The dispatcher, not the caller, spills when max-in-flight is reached,
+ *   and keeps spilling while older events are spilled
+ * - Failed sends are spilled and replayed, in order, once the broker recovers
+ * - A failed event is not replayed behind a newer event of the same flight
+ * - Spilled events survive a restart
+ * - An unreadable spilled line is quarantined and does not block the events behind it
+ * - Events that cannot be spilled are dropped and counted
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightEventOutboxTest {
+
+    private static final String TOPIC = "flight-data-events";
+
+    @Mock
+    private KafkaTemplate<String, FlightData> kafkaTemplate;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, FlightData>> records;
+
+    @TempDir
+    Path spillDir;
+
+    private MeterRegistry meterRegistry;
+    private FlightEventOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (outbox != null && outbox.isRunning()) {
+            outbox.stop();
+        }
+    }
+
+    @Test
+    void shouldPublishAsynchronously_AndTrackAcknowledgements() throws Exception {
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+        outbox = startOutbox(100, 10, Long.MAX_VALUE);
+
+        outbox.enqueue(event("UAL1"));
+        outbox.enqueue(event("UAL2"));
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("published") == 2);
+        assertThat(sentKeys()).containsExactly("UAL1-id", "UAL2-id");
+        assertThat(meterRegistry.find("flight_events_outbox_publish_lag").timer().count()).isEqualTo(2);
+        assertThat(depth("memory")).isZero();
+    }
+
+    @Test
+    void shouldSpillWhenInFlightLimitReached_AndReplayOnceDrained() throws Exception {
+        CompletableFuture<SendResult<String, FlightData>> stalled = new CompletableFuture<>();
+        AtomicBoolean recovered = new AtomicBoolean();
+        // Answer instead of re-stubbing: the dispatcher may call send() while the test switches the broker state
+        when(kafkaTemplate.send(anyRecord())).thenAnswer(invocation -> recovered.get() ? acked() : stalled);
+        outbox = startOutbox(10, 1, Long.MAX_VALUE);
+
+        outbox.enqueue(event("UAL1"));                      // in flight
+        await().atMost(Duration.ofSeconds(2)).until(() -> inFlight() == 1);
+        outbox.enqueue(event("UAL2"));                      // no permit → spilled by the dispatcher
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("spilled") == 1);
+        outbox.enqueue(event("UAL3"));                      // behind a spilled event → spilled too
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> depth("spill") == 2);
+        assertThat(depth("memory")).isZero();
+
+        recovered.set(true);
+        stalled.complete(null);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("published") == 3);
+        assertThat(depth("spill")).isZero();
+        assertThat(sentKeys()).containsExactly("UAL1-id", "UAL2-id", "UAL3-id");
+    }
+
+    @Test
+    void shouldSpillFailedSends_AndReplayAfterBrokerRecovers() throws Exception {
+        AtomicBoolean recovered = new AtomicBoolean();
+        when(kafkaTemplate.send(anyRecord())).thenAnswer(invocation -> recovered.get()
+                ? acked() : CompletableFuture.failedFuture(new RuntimeException("delivery timeout")));
+        outbox = startOutbox(100, 10, Long.MAX_VALUE);
+
+        outbox.enqueue(event("UAL1"));
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("send_failed") >= 1);
+        outbox.enqueue(event("UAL2"));                      // behind a spilled event → spilled too
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> depth("spill") == 2);
+        assertThat(outcome("published")).isZero();
+
+        recovered.set(true);
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> outcome("published") == 2);
+        assertThat(depth("spill")).isZero();
+    }
+
+    @Test
+    void shouldDropSupersededEvents_OnReplay() throws Exception {
+        CompletableFuture<SendResult<String, FlightData>> failing = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyRecord())).thenReturn(failing).thenReturn(acked());
+        outbox = startOutbox(100, 10, Long.MAX_VALUE);
+
+        outbox.enqueue(event("UAL1"));                      // fails after the newer event was sent
+        outbox.enqueue(FlightDataEvent.snapshot(flight("UAL1").toBuilder().status("Landed").build(), 2L));
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("published") == 1);
+        failing.completeExceptionally(new RuntimeException("delivery timeout"));
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> outcome("superseded") == 1);
+        assertThat(depth("spill")).isZero();
+        assertThat(sentRecords()).hasSize(2)
+                .extracting(record -> record.value().getStatus())
+                .containsExactly("En Route", "Landed");
+    }
+
+    @Test
+    void shouldReplaySpilledEvents_AfterRestart() throws Exception {
+        outbox = newOutbox(100, 10, Long.MAX_VALUE);
+        outbox.enqueue(event("UAL1"));                      // not started yet → spilled
+        outbox.stop();
+
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = startOutbox(100, 10, Long.MAX_VALUE);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("published") == 1);
+        assertThat(sentKeys()).containsExactly("UAL1-id");
+    }
+
+    @Test
+    void shouldQuarantineTornLine_AndKeepReplaying() throws Exception {
+        outbox = newOutbox(100, 10, Long.MAX_VALUE);
+        outbox.enqueue(event("UAL1"));                      // not started yet → spilled
+        outbox.stop();
+        // Crash in the middle of append: a truncated line without its newline
+        Files.writeString(spillDir.resolve("outbox.jsonl"), "{\"enqueuedAt\":\"2024-03-15T16:0",
+                StandardOpenOption.APPEND);
+
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+        meterRegistry = new SimpleMeterRegistry();
+        outbox = startOutbox(100, 10, Long.MAX_VALUE);
+        outbox.enqueue(event("UAL2"));
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> outcome("published") == 2);
+        assertThat(sentKeys()).containsExactly("UAL1-id", "UAL2-id");
+        assertThat(meterRegistry.find("flight_events_outbox").tag("outcome", "corrupt").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(depth("spill")).isZero();
+        assertThat(Files.readAllLines(spillDir.resolve("outbox.corrupt.jsonl"))).hasSize(1);
+    }
+
+    @Test
+    void shouldDropAndCount_WhenSpillFileFull() throws Exception {
+        outbox = newOutbox(100, 10, 10);
+
+        outbox.enqueue(event("UAL1"));
+
+        assertThat(outcome("dropped")).isEqualTo(1);
+        assertThat(depth("spill")).isZero();
+    }
+
+    private FlightEventOutbox startOutbox(int capacity, int maxInFlight, long spillMaxBytes) throws Exception {
+        FlightEventOutbox started = newOutbox(capacity, maxInFlight, spillMaxBytes);
+        started.start();
+        return started;
+    }
+
+    private FlightEventOutbox newOutbox(int capacity, int maxInFlight, long spillMaxBytes) throws Exception {
+        return new FlightEventOutbox(kafkaTemplate, meterRegistry, TOPIC, capacity, maxInFlight,
+                new FlightEventSpillFile(spillDir, spillMaxBytes), Duration.ofMillis(50), 1000, Clock.systemUTC());
+    }
+
+    @Test
+    void shouldSendEventTypeAndSnapshotVersion_AsHeaders() throws Exception {
+        when(kafkaTemplate.send(anyRecord())).thenReturn(acked());
+        outbox = startOutbox(100, 10, Long.MAX_VALUE);
+
+        outbox.enqueue(FlightDataEvent.delta(flight("UAL1"), 42L, List.of("latitude", "longitude")));
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> outcome("published") == 1);
+        ProducerRecord<String, FlightData> record = sentRecords().get(0);
+        assertThat(record.topic()).isEqualTo(TOPIC);
+        assertThat(header(record, FlightDataEvent.HEADER_TYPE)).isEqualTo("DELTA");
+        assertThat(header(record, FlightDataEvent.HEADER_SNAPSHOT_VERSION)).isEqualTo("42");
+        assertThat(header(record, FlightDataEvent.HEADER_CLEARED_FIELDS)).isEqualTo("latitude,longitude");
+    }
+
+    private static ProducerRecord<String, FlightData> anyRecord() {
+        return any();
+    }
+
+    private List<ProducerRecord<String, FlightData>> sentRecords() {
+        verify(kafkaTemplate, atLeastOnce()).send(records.capture());
+        return records.getAllValues();
+    }
+
+    private List<String> sentKeys() {
+        return sentRecords().stream().map(ProducerRecord::key).toList();
+    }
+
+    private static String header(ProducerRecord<String, FlightData> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private static FlightDataEvent event(String ident) {
+        return FlightDataEvent.snapshot(flight(ident), 1L);
+    }
+
+    private static CompletableFuture<SendResult<String, FlightData>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static FlightData flight(String ident) {
+        return FlightData.builder().faFlightId(ident + "-id").ident(ident).status("En Route").build();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.find("flight_events_outbox").tag("outcome", outcome).counter().count();
+    }
+
+    private double depth(String where) {
+        return meterRegistry.find("flight_events_outbox_depth").tag("where", where).gauge().value();
+    }
+
+    private double inFlight() {
+        return meterRegistry.find("flight_events_outbox_in_flight").gauge().value();
+    }
+}
@@ -0,0 +1,178 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.cache.LastKnownGoodFlight;
+import com.airlinetracker.flightdata.cache.LastKnownGoodStore;
+import com.airlinetracker.flightdata.cache.ReactiveFlightCache;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.exception.FlightAwareApiException;
+import com.airlinetracker.flightdata.exception.FlightNotFoundException;
+import com.airlinetracker.flightdata.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for FlightLookupService (stale-while-revalidate / stale-if-error)
+ *
+ * Test Requirements:
+ * - Fresh cache hits are served without touching the last known good copy
+ * - Recent last known good copy is served immediately and revalidated in the background
+ * - Older copies are served only when FlightAware fails (rate limit, timeout, non-2xx errors)
+ * - FlightNotFoundException is never masked
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightLookupServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-15T12:00:00Z");
+
+    @Mock
+    private FlightDataService flightDataService;
+
+    @Mock
+    private ReactiveFlightCache reactiveFlightCache;
+
+    @Mock
+    private LastKnownGoodStore lastKnownGoodStore;
+
+    private MeterRegistry meterRegistry;
+    private CacheManager cacheManager;
+    private FlightLookupService servletLookup;
+    private FlightLookupService reactiveLookup;
+
+    private final FlightData flight = FlightData.builder()
+            .faFlightId("UAL123-1678886400-airline-0123")
+            .ident("UAL123")
+            .status("En-Route / In Flight")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager("flights");
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        servletLookup = new FlightLookupService(flightDataService, reactiveFlightCache, lastKnownGoodStore,
+                cacheManager, meterRegistry, false, Duration.ofMinutes(5), clock);
+        reactiveLookup = new FlightLookupService(flightDataService, reactiveFlightCache, lastKnownGoodStore,
+                cacheManager, meterRegistry, true, Duration.ofMinutes(5), clock);
+    }
+
+    @Test
+    void shouldServeFreshCacheHit_WithoutLastKnownGood() {
+        cacheManager.getCache("flights").put("UAL123", flight);
+
+        FlightLookupService.Result result = servletLookup.lookup("UAL123").block();
+
+        assertThat(result.flightData()).isEqualTo(flight);
+        assertThat(result.isStale()).isFalse();
+        verifyNoInteractions(lastKnownGoodStore, flightDataService);
+    }
+
+    @Test
+    void shouldNotCallFlightAware_WhenReactiveCacheHit() {
+        when(reactiveFlightCache.get("UAL123")).thenReturn(Mono.just(flight));
+
+        FlightLookupService.Result result = reactiveLookup.lookup("UAL123").block();
+
+        assertThat(result.flightData()).isEqualTo(flight);
+        assertThat(result.isStale()).isFalse();
+        verifyNoInteractions(lastKnownGoodStore, flightDataService);
+    }
+
+    @Test
+    void shouldServeRecentCopyImmediately_AndRevalidateInBackground() {
+        when(reactiveFlightCache.get("UAL123")).thenReturn(Mono.empty());
+        when(lastKnownGoodStore.get("UAL123")).thenReturn(Mono.just(lastKnownGood(Duration.ofMinutes(2))));
+        when(flightDataService.loadFlightReactive("UAL123")).thenReturn(Mono.just(flight));
+
+        FlightLookupService.Result result = reactiveLookup.lookup("UAL123").block();
+
+        assertThat(result.isStale()).isTrue();
+        assertThat(result.age()).isEqualTo(Duration.ofMinutes(2));
+        assertThat(result.warning()).isEqualTo(FlightLookupService.WARNING_STALE);
+        verify(flightDataService, timeout(1000)).loadFlightReactive("UAL123");
+        assertThat(staleServed("revalidating")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldFetch_WhenCopyTooOldForStaleWhileRevalidate() {
+        when(lastKnownGoodStore.get("UAL123")).thenReturn(Mono.just(lastKnownGood(Duration.ofHours(1))));
+        when(flightDataService.loadFlight("UAL123")).thenReturn(flight);
+
+        FlightLookupService.Result result = servletLookup.lookup("UAL123").block();
+
+        assertThat(result.isStale()).isFalse();
+        assertThat(result.flightData()).isEqualTo(flight);
+    }
+
+    @Test
+    void shouldServeLastKnownGood_WhenRateLimited() {
+        when(lastKnownGoodStore.get("UAL123")).thenReturn(Mono.just(lastKnownGood(Duration.ofHours(3))));
+        when(flightDataService.loadFlight("UAL123")).thenThrow(new RateLimitExceededException("limit"));
+
+        FlightLookupService.Result result = servletLookup.lookup("UAL123").block();
+
+        assertThat(result.isStale()).isTrue();
+        assertThat(result.age()).isEqualTo(Duration.ofHours(3));
+        assertThat(result.warning()).isEqualTo(FlightLookupService.WARNING_REVALIDATION_FAILED);
+        assertThat(staleServed("upstream_error")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldServeLastKnownGood_WhenFlightAwareReturnsServerError() {
+        when(reactiveFlightCache.get("UAL123")).thenReturn(Mono.empty());
+        when(lastKnownGoodStore.get("UAL123")).thenReturn(Mono.just(lastKnownGood(Duration.ofHours(3))));
+        when(flightDataService.loadFlightReactive("UAL123"))
+                .thenReturn(Mono.error(new FlightAwareApiException("UAL123", 500)));
+
+        FlightLookupService.Result result = reactiveLookup.lookup("UAL123").block();
+
+        assertThat(result.flightData()).isEqualTo(flight);
+        assertThat(result.isStale()).isTrue();
+        assertThat(result.warning()).isEqualTo(FlightLookupService.WARNING_REVALIDATION_FAILED);
+        assertThat(staleServed("upstream_error")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPropagateError_WhenNoLastKnownGood() {
+        when(reactiveFlightCache.get("UAL123")).thenReturn(Mono.empty());
+        when(lastKnownGoodStore.get("UAL123")).thenReturn(Mono.empty());
+        when(flightDataService.loadFlightReactive("UAL123"))
+                .thenReturn(Mono.error(new RuntimeException("timeout")));
+
+        assertThatThrownBy(() -> reactiveLookup.lookup("UAL123").block())
+                .hasMessageContaining("timeout");
+    }
+
+    @Test
+    void shouldNotMaskFlightNotFound() {
+        when(lastKnownGoodStore.get("UAL123")).thenReturn(Mono.just(lastKnownGood(Duration.ofHours(3))));
+        when(flightDataService.loadFlight("UAL123")).thenThrow(new FlightNotFoundException("UAL123"));
+
+        assertThatThrownBy(() -> servletLookup.lookup("UAL123").block())
+                .isInstanceOf(FlightNotFoundException.class);
+    }
+
+    private LastKnownGoodFlight lastKnownGood(Duration age) {
+        return new LastKnownGoodFlight(flight, NOW.minus(age));
+    }
+
+    private double staleServed(String reason) {
+        return meterRegistry.find("flight_stale_served").tag("reason", reason).counter().count();
+    }
+}
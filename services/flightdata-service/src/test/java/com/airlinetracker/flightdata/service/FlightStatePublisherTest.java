@@ -0,0 +1,137 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.dto.FlightData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for FlightStatePublisher (compacted flight-state topic)
+ *
+ * Test Requirements:
+ * - Records are keyed by fa_flight_id and carry the full flight
+ * - Updates between flushes are conflated to the latest state per flight
+ * - A failed send is retried on the next flush unless a newer state arrived
+ * - A failed send is never retried after a newer state was sent
+ * - Nothing is published when disabled
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightStatePublisherTest {
+
+    private static final String TOPIC = "flight-state";
+
+    @Mock
+    private KafkaTemplate<String, FlightData> kafkaTemplate;
+
+    private MeterRegistry meterRegistry;
+    private FlightStatePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new FlightStatePublisher(kafkaTemplate, meterRegistry, true, TOPIC, 200, 1000);
+    }
+
+    @Test
+    void shouldConflateUpdates_ToLatestStatePerFlight() {
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(acked());
+        FlightData latest = flight("UAL1", 35000);
+
+        publisher.update(flight("UAL1", 10000));
+        publisher.update(flight("UAL1", 20000));
+        publisher.update(latest);
+        publisher.update(flight("UAL2", 30000));
+
+        assertThat(publisher.flush()).isEqualTo(2);
+        verify(kafkaTemplate).send(TOPIC, "UAL1-id", latest);
+        verify(kafkaTemplate).send(eq(TOPIC), eq("UAL2-id"), any());
+        assertThat(outcome("published")).isEqualTo(2);
+        assertThat(publisher.flush()).isZero();
+    }
+
+    @Test
+    void shouldRetryFailedSend_UnlessNewerStateArrived() {
+        FlightData failed = flight("UAL1", 10000);
+        when(kafkaTemplate.send(TOPIC, "UAL1-id", failed)).thenReturn(failedSend());
+        publisher.update(failed);
+
+        publisher.flush();
+
+        assertThat(outcome("failed")).isEqualTo(1);
+        assertThat(meterRegistry.get("flight_state_pending").gauge().value()).isEqualTo(1);
+
+        // A newer state replaces the failed one
+        FlightData newer = flight("UAL1", 20000);
+        when(kafkaTemplate.send(TOPIC, "UAL1-id", newer)).thenReturn(acked());
+        publisher.update(newer);
+        publisher.flush();
+
+        verify(kafkaTemplate).send(TOPIC, "UAL1-id", newer);
+        verify(kafkaTemplate, times(1)).send(TOPIC, "UAL1-id", failed);
+        assertThat(outcome("published")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotRetryFailedSend_AfterNewerStateWasSent() {
+        FlightData stale = flight("UAL1", 10000);
+        CompletableFuture<SendResult<String, FlightData>> staleSend = new CompletableFuture<>();
+        when(kafkaTemplate.send(TOPIC, "UAL1-id", stale)).thenReturn(staleSend);
+        publisher.update(stale);
+        publisher.flush();
+
+        FlightData newer = flight("UAL1", 20000);
+        when(kafkaTemplate.send(TOPIC, "UAL1-id", newer)).thenReturn(acked());
+        publisher.update(newer);
+        publisher.flush();
+        staleSend.completeExceptionally(new RuntimeException("Delivery timeout"));
+
+        assertThat(outcome("failed")).isEqualTo(1);
+        assertThat(publisher.flush()).isZero();
+        verify(kafkaTemplate, times(1)).send(TOPIC, "UAL1-id", stale);
+    }
+
+    @Test
+    void shouldIgnoreUpdates_WhenDisabled() {
+        publisher = new FlightStatePublisher(kafkaTemplate, new SimpleMeterRegistry(), false, TOPIC, 200, 1000);
+
+        publisher.update(flight("UAL1", 10000));
+
+        assertThat(publisher.flush()).isZero();
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("flight_state_publish").tag("outcome", outcome).counter().count();
+    }
+
+    private static CompletableFuture<SendResult<String, FlightData>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static CompletableFuture<SendResult<String, FlightData>> failedSend() {
+        return CompletableFuture.failedFuture(new RuntimeException("Broker unavailable"));
+    }
+
+    private static FlightData flight(String ident, int altitude) {
+        return FlightData.builder()
+                .ident(ident)
+                .faFlightId(ident + "-id")
+                .status("En Route")
+                .altitude(altitude)
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.airlinetracker.flightdata.service;
+
+import com.airlinetracker.flightdata.cache.FlightCacheTtlPolicy;
+import com.airlinetracker.flightdata.config.RateLimitConfig;
+import com.airlinetracker.flightdata.dto.FlightData;
+import com.airlinetracker.flightdata.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test for RefreshAheadService
+ *
+ * Test Requirements:
+ * - Hot entries past the refresh fraction of their TTL are re-fetched
+ * - The TTL is the one the entry was written with, not re-evaluated on later accesses
+ * - Cold or fresh entries are left alone
+ * - Refreshes stay within the rate limit budget
+ * - Decisions are recorded as flight_cache_refresh_ahead_total{outcome}
+ */
+@ExtendWith(MockitoExtension.class)
+class RefreshAheadServiceTest {
+
+    @Mock
+    private FlightDataService flightDataService;
+
+    @Mock
+    private RateLimitConfig.RateLimiter rateLimiter;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private MeterRegistry meterRegistry;
+    private RefreshAheadService refreshAheadService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Every snapshot gets 5 minutes: refresh once 60s or less are left, hot at 3 accesses
+        Duration fiveMinutes = Duration.ofMinutes(5);
+        FlightCacheTtlPolicy ttlPolicy = new FlightCacheTtlPolicy(fiveMinutes, fiveMinutes, fiveMinutes, fiveMinutes);
+        refreshAheadService = new RefreshAheadService(
+                flightDataService, rateLimiter, redisTemplate, ttlPolicy, meterRegistry,
+                true, 0.8, 3, 5, 0.5, 1000);
+    }
+
+    @Test
+    void shouldRefreshHotEntry_WhenPastRefreshFraction() {
+        access("UAL123", 5);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire("flights::UAL123", TimeUnit.MILLISECONDS)).thenReturn(30_000L);
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService).refreshFlight("UAL123");
+        assertThat(outcome("refreshed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotRefresh_WhenEntryStillFresh() {
+        access("UAL123", 5);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire("flights::UAL123", TimeUnit.MILLISECONDS)).thenReturn(200_000L);
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService, never()).refreshFlight(anyString());
+    }
+
+    @Test
+    void shouldNotRefresh_ColdOrUncachedEntries() {
+        access("COLD1", 1);
+        access("GONE1", 5);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire("flights::GONE1", TimeUnit.MILLISECONDS)).thenReturn(-2L);
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService, never()).refreshFlight(anyString());
+        verify(redisTemplate, never()).getExpire(eq("flights::COLD1"), any(TimeUnit.class));
+    }
+
+    @Test
+    void shouldSkipCycle_WhenRateLimitBudgetMostlyUsed() {
+        access("UAL123", 5);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(6, 0, 0));
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService, never()).refreshFlight(anyString());
+        assertThat(outcome("budget_skipped")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldStopCycle_WhenRateLimited() {
+        access("UAL123", 6);
+        access("DAL456", 5);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire(anyString(), eq(TimeUnit.MILLISECONDS))).thenReturn(10_000L);
+        when(flightDataService.refreshFlight("UAL123")).thenThrow(new RateLimitExceededException("limit"));
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService, never()).refreshFlight("DAL456");
+        assertThat(outcome("rate_limited")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDecayAccessCounts_BetweenCycles() {
+        access("UAL123", 4);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire("flights::UAL123", TimeUnit.MILLISECONDS)).thenReturn(200_000L);
+
+        refreshAheadService.refreshHotEntries(); // 4 -> 2
+        refreshAheadService.refreshHotEntries(); // 2 is below min-accesses
+
+        verify(redisTemplate, times(1)).getExpire(anyString(), any(TimeUnit.class));
+    }
+
+    @Test
+    void shouldUseTtlFromWhenSnapshotWasWritten() {
+        // Scheduled 4h out: written with a 1h TTL (a quarter of the time to departure)
+        Instant writtenAt = Instant.parse("2024-03-15T12:00:00Z");
+        AtomicReference<Instant> now = new AtomicReference<>(writtenAt);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        Duration twoMinutes = Duration.ofMinutes(2);
+        refreshAheadService = new RefreshAheadService(flightDataService, rateLimiter, redisTemplate,
+                new FlightCacheTtlPolicy(twoMinutes, twoMinutes, Duration.ofHours(2), Duration.ofHours(6), clock),
+                meterRegistry, true, 0.8, 3, 5, 0.5, 1000);
+        FlightData scheduled = FlightData.builder()
+                .ident("UAL123")
+                .status("Scheduled")
+                .scheduledOut(writtenAt.plus(Duration.ofHours(4)))
+                .build();
+        refreshAheadService.recordAccess("UAL123", scheduled);
+
+        // 50 of 60 minutes elapsed; re-evaluated now the TTL would be 47.5 minutes (79% elapsed)
+        now.set(writtenAt.plus(Duration.ofMinutes(50)));
+        refreshAheadService.recordAccess("UAL123", scheduled);
+        refreshAheadService.recordAccess("UAL123", scheduled);
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire("flights::UAL123", TimeUnit.MILLISECONDS))
+                .thenReturn(Duration.ofMinutes(10).toMillis());
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService).refreshFlight("UAL123");
+    }
+
+    @Test
+    void shouldNotRefresh_WhenEntryWasRewrittenWithLongerTtl() {
+        access("UAL123", 5);                                // served snapshot: 5 minute TTL
+        when(rateLimiter.getUsageStats()).thenReturn(usage(0, 0, 0));
+        when(redisTemplate.getExpire("flights::UAL123", TimeUnit.MILLISECONDS))
+                .thenReturn(Duration.ofMinutes(10).toMillis());
+
+        refreshAheadService.refreshHotEntries();
+
+        verify(flightDataService, never()).refreshFlight(anyString());
+    }
+
+    private void access(String ident, int times) {
+        for (int i = 0; i < times; i++) {
+            refreshAheadService.recordAccess(ident, FlightData.builder().ident(ident).build());
+        }
+    }
+
+    private static RateLimitConfig.UsageStats usage(int minute, int hour, int day) {
+        return new RateLimitConfig.UsageStats(minute, 10, hour, 200, day, 300);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.find("flight_cache_refresh_ahead").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,259 @@
+package com.airlinetracker.llmsummary.benchmark;
+
+import com.airlinetracker.llmsummary.config.FlightDataSchemas;
+import com.airlinetracker.llmsummary.config.KafkaConsumerConfig;
+import com.airlinetracker.llmsummary.consumer.DownstreamBackpressure;
+import com.airlinetracker.llmsummary.consumer.FlightDataBatchConsumer;
+import com.airlinetracker.llmsummary.consumer.FlightDataConsumer;
+import com.airlinetracker.llmsummary.consumer.FlightDataParallelConsumer;
+import com.airlinetracker.llmsummary.consumer.FlightStateAssembler;
+import com.airlinetracker.llmsummary.consumer.FlightStateView;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.service.SummaryEngine;
+import com.airlinetracker.llmsummary.service.SummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.BatchConsumerAwareMessageListener;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Draining a replayed flight-data-events backlog: record vs batch vs parallel listener
+ *
+ * An embedded Kafka broker (KRaft) holds a backlog of updates-per-flight
+ * events for each flight (Avro, 6 partitions). Each measured operation starts
+ * a listener container from KafkaConsumerConfig with a new consumer group and
+ * times until the final update of every flight has been summarised.
+ *
+ * SummaryService is replaced by a stub costing summary-micros per call
+ * (0 = Kafka and consumer overhead only).
+ *
+ * Per run, the container prints "[drain] mode: events/s, summaries, commits"
+ * (commits from the consumer's commit-total metric).
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="FlightDataConsumerModeBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FlightDataConsumerModeBenchmark {
+
+    private static final String TOPIC = "flight-data-events";
+    private static final int PARTITIONS = 6;
+    private static final String FINAL_STATUS = "Landed";
+
+    @Param({"record", "batch", "parallel"})
+    private String mode;
+
+    @Param({"1000"})
+    private int flights;
+
+    @Param({"10"})
+    private int updatesPerFlight;
+
+    @Param({"0", "200"})
+    private long summaryMicros;
+
+    private EmbeddedKafkaKraftBroker broker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        FlightDataSchemas schemas = FlightDataSchemas.load();
+        try (Producer<String, FlightData> producer = new KafkaProducer<>(config,
+                new StringSerializer(), (topic, flightData) -> schemas.encode(flightData))) {
+            for (int update = 0; update < updatesPerFlight; update++) {
+                boolean last = update == updatesPerFlight - 1;
+                for (int i = 0; i < flights; i++) {
+                    FlightData flightData = flight(i, update, last);
+                    producer.send(new ProducerRecord<>(TOPIC, flightData.getFaFlightId(), flightData));
+                }
+            }
+            producer.flush();
+        }
+        System.out.printf("%n[backlog] %d events, %d flights on %d partitions%n",
+                flights * updatesPerFlight, flights, PARTITIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.destroy();
+    }
+
+    @Benchmark
+    public long drain() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountingSummaryService summaryService = new CountingSummaryService(summaryMicros);
+        FlightStateAssembler assembler = new FlightStateAssembler(meterRegistry,
+                new FlightStateView(meterRegistry, "flight-state", false, () -> null), flights * 2);
+        DownstreamBackpressure backpressure = new DownstreamBackpressure(meterRegistry, () -> { }, () -> { },
+                false, 8000, 0.5, 30000, 10);
+
+        KafkaConsumerConfig kafkaConfig = new KafkaConsumerConfig();
+        ReflectionTestUtils.setField(kafkaConfig, "bootstrapServers", broker.getBrokersAsString());
+        ReflectionTestUtils.setField(kafkaConfig, "groupId", "benchmark-" + UUID.randomUUID());
+        ReflectionTestUtils.setField(kafkaConfig, "batchMaxPollRecords", 500);
+        ReflectionTestUtils.setField(kafkaConfig, "batchFetchMinBytes", 65536);
+        ReflectionTestUtils.setField(kafkaConfig, "batchFetchMaxWaitMs", 200);
+        ReflectionTestUtils.setField(kafkaConfig, "parallelCommitIntervalMs", 1000L);
+        ConsumerFactory<String, FlightData> consumerFactory = kafkaConfig.consumerFactory(meterRegistry);
+
+        ConcurrentMessageListenerContainer<String, FlightData> container;
+        FlightDataParallelConsumer parallelConsumer = null;
+        if ("parallel".equals(mode)) {
+            parallelConsumer = new FlightDataParallelConsumer(summaryService, assembler, backpressure, meterRegistry,
+                    32, 500, 1000, 5000);
+            FlightDataParallelConsumer consumer = parallelConsumer;
+            ConcurrentKafkaListenerContainerFactory<String, FlightData> factory =
+                    kafkaConfig.parallelKafkaListenerContainerFactory(consumerFactory, consumer);
+            container = factory.createContainer(TOPIC);
+            container.setupMessageListener(
+                    (BatchConsumerAwareMessageListener<String, FlightData>) consumer::consumeFlightData);
+            // No application context here: deliver idle events (commit, resume after a pause) directly
+            container.setApplicationEventPublisher(event -> {
+                if (event instanceof ListenerContainerIdleEvent idle) {
+                    consumer.onIdle(idle);
+                }
+            });
+        } else if ("batch".equals(mode)) {
+            FlightDataBatchConsumer consumer = new FlightDataBatchConsumer(
+                    new InlineSummaryEngine(summaryService, meterRegistry), assembler, backpressure, meterRegistry);
+            ConcurrentKafkaListenerContainerFactory<String, FlightData> factory =
+                    kafkaConfig.batchKafkaListenerContainerFactory(consumerFactory);
+            container = factory.createContainer(TOPIC);
+            container.setupMessageListener((BatchMessageListener<String, FlightData>) consumer::consumeFlightData);
+        } else {
+            FlightDataConsumer consumer = new FlightDataConsumer(summaryService, assembler, backpressure, meterRegistry);
+            ConcurrentKafkaListenerContainerFactory<String, FlightData> factory =
+                    kafkaConfig.kafkaListenerContainerFactory(consumerFactory);
+            container = factory.createContainer(TOPIC);
+            container.setupMessageListener((MessageListener<String, FlightData>) consumer::consumeFlightData);
+        }
+
+        long start = System.nanoTime();
+        container.start();
+        try {
+            while (summaryService.landed.size() < flights) {
+                Thread.sleep(1);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%n[drain] %s: %.0f events/s, %d summaries, %.0f commits%n",
+                    mode, flights * updatesPerFlight / seconds, summaryService.calls.get(), commits(container));
+            return summaryService.calls.get();
+        } finally {
+            container.stop();
+            if (parallelConsumer != null) {
+                parallelConsumer.shutdown();
+            }
+        }
+    }
+
+    private static double commits(ConcurrentMessageListenerContainer<String, FlightData> container) {
+        double commits = 0;
+        for (Map<MetricName, ? extends Metric> metrics : container.metrics().values()) {
+            for (Map.Entry<MetricName, ? extends Metric> metric : metrics.entrySet()) {
+                if ("commit-total".equals(metric.getKey().name())
+                        && "consumer-coordinator-metrics".equals(metric.getKey().group())) {
+                    commits += ((Number) metric.getValue().metricValue()).doubleValue();
+                }
+            }
+        }
+        return commits;
+    }
+
+    private static FlightData flight(int i, int update, boolean last) {
+        String ident = "UAL" + i;
+        return FlightData.builder()
+                .faFlightId(ident + "-1710489600-airline-" + i)
+                .ident(ident)
+                .status(last ? FINAL_STATUS : "En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(39.8561 + update / 10.0)
+                .longitude(-104.6737 + update / 10.0)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+
+    /**
+     * Runs the stub on the calling thread, so batch mode costs summary-micros per flight like the other modes
+     */
+    private static final class InlineSummaryEngine extends SummaryEngine {
+
+        private final SummaryService summaryService;
+
+        InlineSummaryEngine(SummaryService summaryService, SimpleMeterRegistry meterRegistry) {
+            super(null, summaryService, meterRegistry, 1, 1, 1, 0);
+            this.summaryService = summaryService;
+        }
+
+        @Override
+        public CompletableFuture<Void> submit(FlightData flightData) {
+            summaryService.processFlightData(flightData);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Stands in for OpenAI + Postgres: counts calls, parks for summaryMicros
+     */
+    private static final class CountingSummaryService extends SummaryService {
+
+        private final long summaryNanos;
+        private final AtomicLong calls = new AtomicLong();
+        private final Set<String> landed = ConcurrentHashMap.newKeySet();
+
+        CountingSummaryService(long summaryMicros) {
+            super(null, null, null, null, null, new SimpleMeterRegistry());
+            this.summaryNanos = TimeUnit.MICROSECONDS.toNanos(summaryMicros);
+        }
+
+        @Override
+        public void processFlightData(FlightData flightData) {
+            calls.incrementAndGet();
+            if (summaryNanos > 0) {
+                LockSupport.parkNanos(summaryNanos);
+            }
+            if (FINAL_STATUS.equals(flightData.getStatus())) {
+                landed.add(flightData.getFaFlightId());
+            }
+        }
+    }
+}
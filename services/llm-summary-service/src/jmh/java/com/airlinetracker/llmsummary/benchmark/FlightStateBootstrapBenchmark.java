@@ -0,0 +1,104 @@
+package com.airlinetracker.llmsummary.benchmark;
+
+import com.airlinetracker.llmsummary.config.FlightDataSchemas;
+import com.airlinetracker.llmsummary.consumer.FlightStateView;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for a new replica to bootstrap FlightStateView from flight-state
+ *
+ * An embedded Kafka broker (KRaft) holds a fully compacted flight-state
+ * topic: one full FlightData record (Avro) per flight, spread over 6 partitions
+ * (the flightdata-service default). Each measured operation creates a new
+ * view and consumer and reads the topic from the beginning to the end
+ * offsets, as FlightStateView does on startup.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="FlightStateBootstrapBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FlightStateBootstrapBenchmark {
+
+    private static final String TOPIC = "flight-state";
+    private static final int PARTITIONS = 6;
+
+    @Param({"100000"})
+    private int flights;
+
+    private EmbeddedKafkaKraftBroker broker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.BATCH_SIZE_CONFIG, 65536,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        FlightDataSchemas schemas = FlightDataSchemas.load();
+        try (Producer<String, FlightData> producer = new KafkaProducer<>(config,
+                new StringSerializer(), (topic, flightData) -> schemas.encode(flightData))) {
+            for (int i = 0; i < flights; i++) {
+                FlightData flightData = flight(i);
+                producer.send(new ProducerRecord<>(TOPIC, flightData.getFaFlightId(), flightData));
+            }
+            producer.flush();
+        }
+        System.out.printf("%n[flight-state] %d flights on %d partitions%n", flights, PARTITIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.destroy();
+    }
+
+    @Benchmark
+    public int bootstrap() {
+        FlightStateView view = new FlightStateView(new SimpleMeterRegistry(), TOPIC, false, () -> null);
+        try (Consumer<String, FlightData> consumer = FlightStateView.createConsumer(broker.getBrokersAsString())) {
+            view.bootstrap(consumer);
+        }
+        if (view.size() != flights) {
+            throw new IllegalStateException("Loaded " + view.size() + " of " + flights + " flights");
+        }
+        return view.size();
+    }
+
+    private static FlightData flight(int i) {
+        String ident = "UAL" + i;
+        return FlightData.builder()
+                .faFlightId(ident + "-1710489600-airline-" + i)
+                .ident(ident)
+                .status("En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(39.8561 + (i % 100) / 100.0)
+                .longitude(-104.6737 + (i % 100) / 100.0)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.airlinetracker.llmsummary.benchmark;
+
+import com.airlinetracker.llmsummary.client.FlightPromptEncoder;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt size and encoding time of a corpus of FlightData events per encoding
+ *
+ * - jackson: the previous prompt, FlightData as Jackson JSON (JavaTimeModule defaults, nulls kept)
+ * - compact: FlightPromptEncoder
+ *
+ * Corpus: flight-data-corpus.json (48 events across scheduled, delayed, en route,
+ * landed, cancelled and diverted states). At setup, each encoding prints
+ * "[tokens] encoding: avg/event, total" using FlightPromptEncoder.estimateTokens.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="PromptEncodingBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PromptEncodingBenchmark {
+
+    @Param({"jackson", "compact"})
+    private String encoding;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final FlightPromptEncoder encoder = new FlightPromptEncoder();
+    private List<FlightData> corpus;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/flight-data-corpus.json")) {
+            corpus = objectMapper.readValue(in, new TypeReference<>() { });
+        }
+        long tokens = 0;
+        for (FlightData flightData : corpus) {
+            tokens += FlightPromptEncoder.estimateTokens(prompt(flightData));
+        }
+        System.out.printf("[tokens] %s: %.1f/event, %d total over %d events%n",
+                encoding, (double) tokens / corpus.size(), tokens, corpus.size());
+    }
+
+    @Benchmark
+    public void encodeCorpus(Blackhole blackhole) throws IOException {
+        for (FlightData flightData : corpus) {
+            blackhole.consume(prompt(flightData));
+        }
+    }
+
+    private String prompt(FlightData flightData) throws IOException {
+        return "Summarize this flight data:\n\n" + ("compact".equals(encoding)
+                ? encoder.encode(flightData)
+                : objectMapper.writeValueAsString(flightData));
+    }
+}
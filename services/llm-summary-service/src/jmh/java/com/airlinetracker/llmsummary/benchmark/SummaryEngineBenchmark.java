@@ -0,0 +1,137 @@
+package com.airlinetracker.llmsummary.benchmark;
+
+import com.airlinetracker.llmsummary.cache.SummaryCache;
+import com.airlinetracker.llmsummary.client.OpenAIClient;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.repository.FlightSummaryRepository;
+import com.airlinetracker.llmsummary.service.SummaryEngine;
+import com.airlinetracker.llmsummary.service.SummaryService;
+import com.airlinetracker.llmsummary.service.TemplateSummaryGenerator;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Sustained summaries/second against a WireMock stand-in for OpenAI with latency-ms per response
+ *
+ * - blocking: concurrency threads each calling SummaryService.processFlightData
+ *   (concurrency = 1 is record mode; more threads is parallel mode's workers)
+ * - engine: one thread submitting to SummaryEngine with concurrency permits
+ *   (batch mode), waiting for every summary of the operation
+ *
+ * The repository is a no-op mock; WireMock answers asynchronously so its
+ * own threads do not cap the number of requests in flight.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec -Djmh.args="SummaryEngineBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SummaryEngineBenchmark {
+
+    private static final int FLIGHTS = 64;
+
+    @Param({"blocking", "engine"})
+    private String mode;
+
+    @Param({"1", "8", "32"})
+    private int concurrency;
+
+    @Param({"100"})
+    private int latencyMs;
+
+    private WireMockServer wireMock;
+    private SummaryService summaryService;
+    private SummaryEngine engine;
+    private ExecutorService threads;
+    private List<FlightData> flights;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wireMock = new WireMockServer(wireMockConfig().dynamicPort()
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(8)
+                .containerThreads(64));
+        wireMock.start();
+        wireMock.stubFor(post(urlEqualTo("/chat/completions"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(latencyMs)
+                        .withBody("""
+                                {"choices": [{"message": {"role": "assistant",
+                                  "content": "United Flight 123 is en route from Chicago to Los Angeles."}}]}
+                                """)));
+
+        // Every operation summarises the same flights: cache and templates disabled so each one reaches OpenAI
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OpenAIClient openAIClient = new OpenAIClient(wireMock.baseUrl(), "benchmark", "gpt-3.5-turbo", 150, 0.7,
+                concurrency, meterRegistry);
+        summaryService = new SummaryService(openAIClient, Mockito.mock(FlightSummaryRepository.class),
+                TransactionOperations.withoutTransaction(), new SummaryCache(meterRegistry, null, false, 1, 1),
+                new TemplateSummaryGenerator(false, "", "", ""), meterRegistry);
+        engine = new SummaryEngine(openAIClient, summaryService, meterRegistry, concurrency, 4, 1, 0);
+        threads = Executors.newFixedThreadPool(concurrency);
+
+        flights = new ArrayList<>();
+        for (int i = 0; i < FLIGHTS; i++) {
+            flights.add(flight(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        threads.shutdownNow();
+        engine.shutdown();
+        wireMock.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLIGHTS)
+    public void summarise() {
+        List<CompletableFuture<Void>> summaries = new ArrayList<>(FLIGHTS);
+        for (FlightData flightData : flights) {
+            summaries.add("engine".equals(mode)
+                    ? engine.submit(flightData)
+                    : CompletableFuture.runAsync(() -> summaryService.processFlightData(flightData), threads));
+        }
+        CompletableFuture.allOf(summaries.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static FlightData flight(int i) {
+        String ident = "UAL" + i;
+        return FlightData.builder()
+                .faFlightId(ident + "-1710489600-airline-" + i)
+                .ident(ident)
+                .status("En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .scheduledIn(Instant.parse("2024-03-15T18:45:00Z"))
+                .origin("KSFO")
+                .destination("KJFK")
+                .aircraftType("B738")
+                .latitude(39.8561)
+                .longitude(-104.6737)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+}
@@ -0,0 +1,205 @@
+package com.airlinetracker.llmsummary.cache;
+
+import com.airlinetracker.llmsummary.entity.SummaryCacheEntry;
+import com.airlinetracker.llmsummary.repository.SummaryCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Content-addressed cache of generated summaries: identical prompt input, one OpenAI call.
+ *
+ * Keys come from OpenAIClient.cacheKey (hash of model, temperature, max
+ * tokens, system prompt and the flight data sent in the prompt), so a prompt
+ * or model change never serves an old summary. Replayed or repeated events
+ * reuse the summary already generated.
+ *
+ * Read path:
+ * 1. L1 hit  → in-process Caffeine, no I/O
+ * 2. L1 miss → L2 (summary_cache table, shared by all replicas), populate L1 on hit
+ * 3. L2 miss → caller generates the summary and put()s it
+ *
+ * Eviction: L1 is bounded by summary.cache.l1.max-size (LRU-like); an entry
+ * filled from L2 only lives for what is left of the row's TTL (createdAt +
+ * ttl), so L1 never outlives L2. L2 rows older than summary.cache.ttl-hours
+ * are ignored on read and deleted every summary.cache.purge-interval-ms.
+ * L2 errors are logged and treated as a miss: the cache never fails a summary.
+ *
+ * Metrics:
+ * - summary_cache_hits_total / summary_cache_misses_total: per lookup (hit rate)
+ * - summary_cache_tier_hits_total{tier=l1|l2}, summary_cache_tier_misses_total{tier=l1|l2}
+ * - summary_cache_l1_size: entries held in-process
+ */
+@Component
+@Slf4j
+public class SummaryCache {
+
+    /**
+     * L1 value with the time its L2 row expires
+     */
+    private record LocalEntry(String summaryText, Instant expiresAt) {
+    }
+
+    private final SummaryCacheRepository repository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<String, LocalEntry> l1;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter l1HitCounter;
+    private final Counter l1MissCounter;
+    private final Counter l2HitCounter;
+    private final Counter l2MissCounter;
+
+    @Autowired
+    public SummaryCache(MeterRegistry meterRegistry, SummaryCacheRepository repository,
+                        @Value("${summary.cache.enabled:true}") boolean enabled,
+                        @Value("${summary.cache.l1.max-size:10000}") long l1MaxSize,
+                        @Value("${summary.cache.ttl-hours:168}") long ttlHours) {
+        this(meterRegistry, repository, enabled, l1MaxSize, ttlHours, Ticker.systemTicker());
+    }
+
+    SummaryCache(MeterRegistry meterRegistry, SummaryCacheRepository repository,
+                 boolean enabled, long l1MaxSize, long ttlHours, Ticker ticker) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfter(new Expiry<String, LocalEntry>() {
+                    @Override
+                    public long expireAfterCreate(String key, LocalEntry entry, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, LocalEntry entry, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, LocalEntry entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+
+        this.hitCounter = lookupCounter(meterRegistry, "summary_cache_hits", "hits");
+        this.missCounter = lookupCounter(meterRegistry, "summary_cache_misses", "misses");
+        this.l1HitCounter = tierCounter(meterRegistry, "summary_cache_tier_hits", "l1", "hits");
+        this.l1MissCounter = tierCounter(meterRegistry, "summary_cache_tier_misses", "l1", "misses");
+        this.l2HitCounter = tierCounter(meterRegistry, "summary_cache_tier_hits", "l2", "hits");
+        this.l2MissCounter = tierCounter(meterRegistry, "summary_cache_tier_misses", "l2", "misses");
+        Gauge.builder("summary_cache_l1_size", l1, Cache::estimatedSize)
+                .description("Summaries held in the in-process cache tier")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String metric, String unit) {
+        return Counter.builder(metric)
+                .description("Summary cache lookups (" + unit + ")")
+                .tag("service", "llm-summary-service")
+                .baseUnit(unit)
+                .register(meterRegistry);
+    }
+
+    private static Counter tierCounter(MeterRegistry meterRegistry, String metric, String tier, String unit) {
+        return Counter.builder(metric)
+                .description("Summary cache " + unit + " per cache tier")
+                .tag("service", "llm-summary-service")
+                .tag("tier", tier)
+                .baseUnit(unit)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key Prompt hash (OpenAIClient.cacheKey)
+     * @return Summary generated earlier for the same prompt input
+     */
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        LocalEntry local = l1.getIfPresent(key);
+        if (local != null) {
+            l1HitCounter.increment();
+            hitCounter.increment();
+            return Optional.of(local.summaryText());
+        }
+        l1MissCounter.increment();
+
+        Optional<SummaryCacheEntry> shared = Optional.empty();
+        try {
+            Instant oldest = Instant.now().minus(ttl);
+            shared = repository.findById(key)
+                    .filter(entry -> entry.getCreatedAt().isAfter(oldest));
+        } catch (RuntimeException e) {
+            log.warn("Summary cache lookup failed, treating as miss: {}", e.getMessage());
+        }
+        if (shared.isPresent()) {
+            l2HitCounter.increment();
+            hitCounter.increment();
+            SummaryCacheEntry entry = shared.get();
+            l1.put(key, new LocalEntry(entry.getSummaryText(), entry.getCreatedAt().plus(ttl)));
+            return Optional.of(entry.getSummaryText());
+        }
+        l2MissCounter.increment();
+        missCounter.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a newly generated summary in both tiers
+     */
+    public void put(String key, String summaryText) {
+        if (!enabled || summaryText == null) {
+            return;
+        }
+        l1.put(key, new LocalEntry(summaryText, Instant.now().plus(ttl)));
+        try {
+            repository.save(SummaryCacheEntry.builder()
+                    .cacheKey(key)
+                    .summaryText(summaryText)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Another replica stored the same prompt first; its summary is as good as ours
+            log.debug("Summary cache entry {} already stored", key);
+        } catch (RuntimeException e) {
+            log.warn("Summary cache store failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete shared entries older than the TTL
+     */
+    @Scheduled(fixedDelayString = "${summary.cache.purge-interval-ms:3600000}",
+            initialDelayString = "${summary.cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        int purged = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired summary cache entries", purged);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.airlinetracker.llmsummary.client;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compact, token-cheap rendering of FlightData for OpenAI prompts.
+ *
+ * Jackson's output spends most of its tokens on structure: quoted snake_case
+ * keys, every null field and Instants as epoch decimals ("1762765200.000000000").
+ * This encoder writes one short "key: value" line per field present, with
+ * minute-precision UTC times and their date given once:
+ *
+ *   flight: UAL123
+ *   route: KORD to KLAX
+ *   aircraft: B738
+ *   status: En-Route / In Flight
+ *   date: 2025-11-10 (UTC)
+ *   departure: scheduled 09:00, actual 10:00
+ *   arrival: scheduled 14:00
+ *   position: 39.83,-98.58, 35000 ft, 450 kt
+ *
+ * Times on another day than the first one carry a day offset ("01:10 +1d").
+ */
+public final class FlightPromptEncoder {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Letter runs, digit groups of up to three and single symbols, roughly how GPT tokenizers split text
+     */
+    private static final Pattern TOKEN_PIECE = Pattern.compile("\\p{L}+|\\p{N}{1,3}|[^\\s\\p{L}\\p{N}]");
+    private static final int LETTERS_PER_TOKEN = 5;
+
+    /**
+     * @param flightData Flight to encode
+     * @return Prompt text without the fa_flight_id (see encodeWithId)
+     */
+    public String encode(FlightData flightData) {
+        StringBuilder prompt = new StringBuilder(160);
+        line(prompt, "flight", flightData.getIdent());
+        line(prompt, "route", route(flightData.getOrigin(), flightData.getDestination()));
+        line(prompt, "aircraft", flightData.getAircraftType());
+        line(prompt, "status", flightData.getStatus());
+
+        Instant first = firstTime(flightData);
+        if (first != null) {
+            long date = epochDay(first);
+            line(prompt, "date", LocalDate.ofEpochDay(date) + " (UTC)");
+            line(prompt, "departure", times(date, flightData.getScheduledOut(), flightData.getActualOut()));
+            line(prompt, "arrival", times(date, flightData.getScheduledIn(), flightData.getActualIn()));
+        }
+        line(prompt, "position", position(flightData));
+        return prompt.toString().stripTrailing();
+    }
+
+    /**
+     * Encoding for batched prompts, where the reply must name each flight's fa_flight_id
+     */
+    public String encodeWithId(FlightData flightData) {
+        return "fa_flight_id: " + flightData.getFaFlightId() + "\n" + encode(flightData);
+    }
+
+    /**
+     * Approximate token count of prompt text (no tokenizer dependency): a letter run
+     * costs one token per five letters, digits go in groups of three and every other
+     * symbol is one token; whitespace is free. Good for comparing encodings; the
+     * billed count is in the OpenAI response (openai_tokens_per_summary).
+     *
+     * @param text Prompt text
+     * @return Estimated tokens
+     */
+    public static int estimateTokens(String text) {
+        int tokens = 0;
+        Matcher matcher = TOKEN_PIECE.matcher(text);
+        while (matcher.find()) {
+            int length = matcher.end() - matcher.start();
+            tokens += Character.isLetter(text.charAt(matcher.start()))
+                    ? (length + LETTERS_PER_TOKEN - 1) / LETTERS_PER_TOKEN
+                    : 1;
+        }
+        return tokens;
+    }
+
+    private static void line(StringBuilder prompt, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            prompt.append(key).append(": ").append(value).append('\n');
+        }
+    }
+
+    private static String route(String origin, String destination) {
+        if (origin == null && destination == null) {
+            return null;
+        }
+        if (destination == null) {
+            return "from " + origin;
+        }
+        return origin == null ? "to " + destination : origin + " to " + destination;
+    }
+
+    private static Instant firstTime(FlightData flightData) {
+        if (flightData.getScheduledOut() != null) {
+            return flightData.getScheduledOut();
+        }
+        if (flightData.getActualOut() != null) {
+            return flightData.getActualOut();
+        }
+        return flightData.getScheduledIn() != null ? flightData.getScheduledIn() : flightData.getActualIn();
+    }
+
+    private static long epochDay(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY);
+    }
+
+    private static String times(long date, Instant scheduled, Instant actual) {
+        if (scheduled == null && actual == null) {
+            return null;
+        }
+        if (actual == null) {
+            return "scheduled " + time(date, scheduled);
+        }
+        return scheduled == null
+                ? "actual " + time(date, actual)
+                : "scheduled " + time(date, scheduled) + ", actual " + time(date, actual);
+    }
+
+    private static String time(long date, Instant instant) {
+        int minuteOfDay = (int) (Math.floorMod(instant.getEpochSecond(), SECONDS_PER_DAY) / 60);
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        StringBuilder time = new StringBuilder(10)
+                .append(hour < 10 ? "0" : "").append(hour)
+                .append(minute < 10 ? ":0" : ":").append(minute);
+        long days = epochDay(instant) - date;
+        if (days != 0) {
+            time.append(days > 0 ? " +" : " ").append(days).append('d');
+        }
+        return time.toString();
+    }
+
+    private static String position(FlightData flightData) {
+        StringBuilder position = new StringBuilder();
+        if (flightData.getLatitude() != null && flightData.getLongitude() != null) {
+            // Two decimals (~1 km) is all a summary needs
+            position.append(Math.round(flightData.getLatitude() * 100) / 100.0)
+                    .append(',').append(Math.round(flightData.getLongitude() * 100) / 100.0);
+        }
+        if (flightData.getAltitude() != null) {
+            position.append(position.isEmpty() ? "" : ", ").append(flightData.getAltitude()).append(" ft");
+        }
+        if (flightData.getGroundspeed() != null) {
+            position.append(position.isEmpty() ? "" : ", ").append(flightData.getGroundspeed()).append(" kt");
+        }
+        return position.isEmpty() ? null : position.toString();
+    }
+}
@@ -2,26 +2,50 @@ package com.airlinetracker.llmsummary.client;
 
 import com.airlinetracker.llmsummary.dto.FlightData;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Client for OpenAI API to generate flight summaries.
  * Uses GPT-3.5-turbo to convert flight data JSON into human-readable summaries.
  * 
  * Implements prompt template from docs/LLM-PROMPT-TEMPLATE.md
+ *
+ * generateSummariesAsync asks for several flights' summaries in one completion,
+ * so the system prompt is paid once per batch instead of once per flight.
+ * Flight data is rendered by FlightPromptEncoder (no nulls, short keys, HH:mm times)
+ * rather than as Jackson JSON.
+ *
+ * Metrics (request=single|batch):
+ * - openai_summaries_per_request: summaries returned per completion
+ * - openai_tokens_per_summary: total tokens (prompt + completion) per summary returned
+ * - openai_flight_prompt_tokens: estimated prompt tokens per flight's encoded data (no tag)
  */
 @Component
 @Slf4j
@@ -33,16 +57,32 @@ public class OpenAIClient {
     private final int maxTokens;
     private final double temperature;
     private final ObjectMapper objectMapper;
+    private final FlightPromptEncoder promptEncoder = new FlightPromptEncoder();
+
+    private final DistributionSummary flightPromptTokens;
+    private final DistributionSummary singleSummariesPerRequest;
+    private final DistributionSummary batchSummariesPerRequest;
+    private final DistributionSummary singleTokensPerSummary;
+    private final DistributionSummary batchTokensPerSummary;
 
     private static final int TIMEOUT_SECONDS = 10;
+    private static final int BATCH_TIMEOUT_SECONDS = 30;
+    private static final int DEFAULT_MAX_CONNECTIONS = 32;
     private static final String SYSTEM_PROMPT = """
-            You are an expert aviation assistant. Your sole purpose is to summarize raw flight data JSON into a clear, human-readable status update.
+            You are an expert aviation assistant. Your sole purpose is to summarize raw flight data into a clear, human-readable status update.
             
             **Rules:**
             1. Concise: Maximum 2-3 sentences.
             2. Content: Include flight number, origin, destination, and current status.
             3. Tone: Informative and professional.
             """;
+    private static final String BATCH_SYSTEM_PROMPT = SYSTEM_PROMPT + """
+            
+            You will receive several flights separated by blank lines, each starting with its fa_flight_id.
+            Summarize each flight separately, following the rules above.
+            Respond with only this JSON object, one entry per flight, and no other text:
+            {"summaries": [{"fa_flight_id": "<fa_flight_id of the flight>", "summary": "<summary>"}]}
+            """;
 
     @Autowired
     public OpenAIClient(
@@ -50,89 +90,251 @@ public class OpenAIClient {
             @Value("${openai.api-key}") String apiKey,
             @Value("${openai.model:gpt-3.5-turbo}") String model,
             @Value("${openai.max-tokens:150}") int maxTokens,
-            @Value("${openai.temperature:0.7}") double temperature) {
+            @Value("${openai.temperature:0.7}") double temperature,
+            @Value("${openai.max-concurrent-requests:32}") int maxConnections,
+            MeterRegistry meterRegistry) {
+        // One pooled connection per request in flight; Reactor Netty's default pool is sized by CPU count
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .build();
         this.webClient = WebClient.builder()
                 .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
                 .build();
         this.apiKey = apiKey;
         this.model = model;
         this.maxTokens = maxTokens;
         this.temperature = temperature;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule()); // Enable Java 8 date/time support
+        this.objectMapper = new ObjectMapper(); // Batched responses only; prompts use promptEncoder
+
+        this.flightPromptTokens = DistributionSummary.builder("openai_flight_prompt_tokens")
+                .description("Estimated prompt tokens per flight's encoded data")
+                .tag("service", "llm-summary-service")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.singleSummariesPerRequest = distribution(meterRegistry, "openai_summaries_per_request",
+                "Summaries returned per OpenAI completion", "single", "summaries");
+        this.batchSummariesPerRequest = distribution(meterRegistry, "openai_summaries_per_request",
+                "Summaries returned per OpenAI completion", "batch", "summaries");
+        this.singleTokensPerSummary = distribution(meterRegistry, "openai_tokens_per_summary",
+                "OpenAI tokens (prompt + completion) per summary returned", "single", "tokens");
+        this.batchTokensPerSummary = distribution(meterRegistry, "openai_tokens_per_summary",
+                "OpenAI tokens (prompt + completion) per summary returned", "batch", "tokens");
         log.info("=== OPENAI CLIENT INITIALIZED ===");
         log.info("Base URL: {}", baseUrl);
         log.info("Model: {}", model);
-        log.info("Max Tokens: {}, Temperature: {}", maxTokens, temperature);
+        log.info("Max Tokens: {}, Temperature: {}, Max Connections: {}", maxTokens, temperature, maxConnections);
+    }
+
+    public OpenAIClient(String baseUrl, String apiKey, String model, int maxTokens, double temperature) {
+        this(baseUrl, apiKey, model, maxTokens, temperature, DEFAULT_MAX_CONNECTIONS, new SimpleMeterRegistry());
+    }
+
+    private static DistributionSummary distribution(MeterRegistry meterRegistry, String metric, String description,
+                                                    String request, String unit) {
+        return DistributionSummary.builder(metric)
+                .description(description)
+                .tag("service", "llm-summary-service")
+                .tag("request", request)
+                .baseUnit(unit)
+                .register(meterRegistry);
     }
 
     /**
      * Generate a human-readable summary from flight data.
+     * Blocks the calling thread for up to TIMEOUT_SECONDS; see generateSummaryAsync.
      * 
      * @param flightData Flight data to summarize
      * @return Human-readable summary string
      * @throws RuntimeException if API call fails
      */
     public String generateSummary(FlightData flightData) {
+        return generateSummaryAsync(flightData).block();
+    }
+
+    /**
+     * Generate a summary without blocking: the request runs on the WebClient's event loop.
+     *
+     * @param flightData Flight data to summarize
+     * @return Emits the summary text, or a RuntimeException if the API call fails (never empty)
+     */
+    public Mono<String> generateSummaryAsync(FlightData flightData) {
         log.debug("Generating summary for flight: {}", flightData.getIdent());
 
-        try {
-            // Convert flight data to JSON string
-            String flightDataJson = objectMapper.writeValueAsString(flightData);
-
-            // Create user prompt with flight data
-            String userPrompt = "Summarize this flight data:\n\n" + flightDataJson;
-
-            // Build OpenAI API request
-            OpenAIRequest request = new OpenAIRequest(
-                    model,
-                    List.of(
-                            new Message("system", SYSTEM_PROMPT),
-                            new Message("user", userPrompt)
-                    ),
-                    maxTokens,
-                    temperature
-            );
-
-            // Call OpenAI API
-            log.info("Calling OpenAI API: {}/chat/completions", webClient.toString().contains("baseUrl") ? "configured" : "http://wiremock:8080/v1");
-            OpenAIResponse response = webClient.post()
-                    .uri("/chat/completions")
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(request)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError(), clientResponse -> {
-                        log.error("OpenAI API 4xx error: {}", clientResponse.statusCode());
-                        return clientResponse.bodyToMono(String.class)
-                                .flatMap(body -> Mono.error(new RuntimeException(
-                                        "OpenAI API client error: " + clientResponse.statusCode() + " - " + body)));
-                    })
-                    .onStatus(status -> status.is5xxServerError(), serverResponse -> {
-                        log.error("OpenAI API 5xx error: {}", serverResponse.statusCode());
-                        return Mono.error(new RuntimeException(
-                                "OpenAI API server error: " + serverResponse.statusCode()));
-                    })
-                    .bodyToMono(OpenAIResponse.class)
-                    .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                    .block();
-
-            // Extract summary from response
-            if (response != null && response.getChoices() != null && !response.getChoices().isEmpty()) {
-                String summary = response.getChoices().get(0).getMessage().getContent();
-                log.info("Generated summary for flight {}: {}", flightData.getIdent(), summary);
-                return summary;
-            } else {
-                log.error("Empty response from OpenAI API");
-                throw new RuntimeException("OpenAI API returned empty response");
+        return Mono.fromCallable(() -> {
+                    // Build OpenAI API request
+                    return new OpenAIRequest(
+                            model,
+                            List.of(
+                                    new Message("system", SYSTEM_PROMPT),
+                                    new Message("user", userPrompt(flightData, true))
+                            ),
+                            maxTokens,
+                            temperature
+                    );
+                })
+                .flatMap(request -> complete(request, TIMEOUT_SECONDS))
+                // Extract summary from response
+                .<String>handle((response, sink) -> {
+                    if (response.getChoices() != null && !response.getChoices().isEmpty()) {
+                        recordUsage(response, 1, singleSummariesPerRequest, singleTokensPerSummary);
+                        sink.next(response.getChoices().get(0).getMessage().getContent());
+                    } else {
+                        sink.error(new RuntimeException("OpenAI API returned empty response"));
+                    }
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("OpenAI API returned empty response")))
+                .doOnNext(summary -> log.info("Generated summary for flight {}: {}", flightData.getIdent(), summary))
+                .onErrorMap(e -> {
+                    log.error("Failed to generate summary for flight {}: {}", flightData.getIdent(), e.getMessage(), e);
+                    return new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
+                });
+    }
+
+    /**
+     * Generate several flights' summaries in one completion (one system prompt for all of them).
+     * Summaries the response lacks, or that cannot be matched to a requested
+     * fa_flight_id, are left out; the caller requests those flights singly.
+     *
+     * @param flights Flights to summarize, distinct fa_flight_ids
+     * @return Emits summary text by fa_flight_id (possibly incomplete), or a RuntimeException
+     *         if the API call fails or the response is not the requested JSON
+     */
+    public Mono<Map<String, String>> generateSummariesAsync(List<FlightData> flights) {
+        log.debug("Generating batched summary for {} flights", flights.size());
+
+        return Mono.fromCallable(() -> new OpenAIRequest(
+                        model,
+                        List.of(
+                                new Message("system", BATCH_SYSTEM_PROMPT),
+                                new Message("user", batchUserPrompt(flights))
+                        ),
+                        maxTokens * flights.size(),
+                        temperature
+                ))
+                .flatMap(request -> complete(request, BATCH_TIMEOUT_SECONDS))
+                .<Map<String, String>>handle((response, sink) -> {
+                    if (response.getChoices() == null || response.getChoices().isEmpty()) {
+                        sink.error(new RuntimeException("OpenAI API returned empty response"));
+                        return;
+                    }
+                    try {
+                        Map<String, String> summaries = parseSummaries(
+                                response.getChoices().get(0).getMessage().getContent(), flights);
+                        recordUsage(response, summaries.size(), batchSummariesPerRequest, batchTokensPerSummary);
+                        sink.next(summaries);
+                    } catch (JsonProcessingException | RuntimeException e) {
+                        sink.error(new RuntimeException("OpenAI API returned an unparseable batched response", e));
+                    }
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("OpenAI API returned empty response")))
+                .doOnNext(summaries -> log.info("Generated {} of {} batched summaries", summaries.size(), flights.size()))
+                .onErrorMap(e -> {
+                    log.error("Failed to generate batched summary for {} flights: {}", flights.size(), e.getMessage());
+                    return new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
+                });
+    }
+
+    private Mono<OpenAIResponse> complete(OpenAIRequest request, int timeoutSeconds) {
+        return webClient.post()
+                .uri("/chat/completions")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError(), clientResponse -> {
+                    log.error("OpenAI API 4xx error: {}", clientResponse.statusCode());
+                    return clientResponse.bodyToMono(String.class)
+                            .flatMap(body -> Mono.error(new RuntimeException(
+                                    "OpenAI API client error: " + clientResponse.statusCode() + " - " + body)));
+                })
+                .onStatus(status -> status.is5xxServerError(), serverResponse -> {
+                    log.error("OpenAI API 5xx error: {}", serverResponse.statusCode());
+                    return Mono.error(new RuntimeException(
+                            "OpenAI API server error: " + serverResponse.statusCode()));
+                })
+                .bodyToMono(OpenAIResponse.class)
+                .timeout(Duration.ofSeconds(timeoutSeconds));
+    }
+
+    /**
+     * Split a batched completion ({"summaries": [{"fa_flight_id", "summary"}]},
+     * optionally inside a Markdown code fence) into summary text by fa_flight_id.
+     */
+    private Map<String, String> parseSummaries(String content, List<FlightData> flights)
+            throws JsonProcessingException {
+        String json = content.strip();
+        if (json.startsWith("```")) {
+            int start = json.indexOf('\n') + 1;
+            int end = json.lastIndexOf("```");
+            json = start > 0 && end >= start ? json.substring(start, end) : json;
+        }
+        JsonNode entries = objectMapper.readTree(json).path("summaries");
+        if (!entries.isArray()) {
+            throw new IllegalStateException("No summaries array in batched response");
+        }
+
+        Set<String> requested = flights.stream().map(FlightData::getFaFlightId).collect(Collectors.toSet());
+        Map<String, String> summaries = new HashMap<>();
+        for (JsonNode entry : entries) {
+            String faFlightId = entry.path("fa_flight_id").asText("");
+            String summary = entry.path("summary").asText("").strip();
+            if (requested.contains(faFlightId) && !summary.isEmpty()) {
+                summaries.putIfAbsent(faFlightId, summary);
             }
+        }
+        return summaries;
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate summary for flight {}: {}", flightData.getIdent(), e.getMessage(), e);
-            throw new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
+    private static void recordUsage(OpenAIResponse response, int summaries,
+                                    DistributionSummary summariesPerRequest, DistributionSummary tokensPerSummary) {
+        summariesPerRequest.record(summaries);
+        if (response.getUsage() != null && summaries > 0) {
+            double tokens = (double) response.getUsage().getTotalTokens() / summaries;
+            for (int i = 0; i < summaries; i++) {
+                tokensPerSummary.record(tokens);
+            }
         }
     }
 
+    /**
+     * Key for SummaryCache: SHA-256 (hex) of everything that determines the completion.
+     * Model, temperature, max tokens, the system prompt text (so editing the prompt
+     * invalidates old entries) and the user prompt with the flight data.
+     *
+     * @param flightData Flight data to summarize
+     * @return 64-character hex digest
+     */
+    public String cacheKey(FlightData flightData) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String input = String.join("\n", model, String.valueOf(temperature), String.valueOf(maxTokens),
+                    SYSTEM_PROMPT, userPrompt(flightData, false));
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot compute summary cache key for " + flightData.getIdent(), e);
+        }
+    }
+
+    private String userPrompt(FlightData flightData, boolean sent) {
+        String encoded = promptEncoder.encode(flightData);
+        if (sent) {
+            flightPromptTokens.record(FlightPromptEncoder.estimateTokens(encoded));
+        }
+        return "Summarize this flight data:\n\n" + encoded;
+    }
+
+    private String batchUserPrompt(List<FlightData> flights) {
+        StringBuilder prompt = new StringBuilder("Summarize each of these flights:");
+        for (FlightData flightData : flights) {
+            String encoded = promptEncoder.encodeWithId(flightData);
+            flightPromptTokens.record(FlightPromptEncoder.estimateTokens(encoded));
+            prompt.append("\n\n").append(encoded);
+        }
+        return prompt.toString();
+    }
+
     /**
      * OpenAI API request structure.
      */
@@ -160,6 +362,16 @@ public class OpenAIClient {
     @Data
     private static class OpenAIResponse {
         private List<Choice> choices;
+        private Usage usage;
+    }
+
+    /**
+     * Token usage in OpenAI response.
+     */
+    @Data
+    private static class Usage {
+        @JsonProperty("total_tokens")
+        private int totalTokens;
     }
 
     /**
@@ -0,0 +1,24 @@
+package com.airlinetracker.llmsummary.config;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing FlightData as Avro single-object encoding
+ *
+ * Used to forward failed flight-data-events records to the retry topics and
+ * the dead-letter topic, in the same format flightdata-service produces.
+ */
+public class FlightDataAvroSerializer implements Serializer<FlightData> {
+
+    private final FlightDataSchemas schemas;
+
+    public FlightDataAvroSerializer(FlightDataSchemas schemas) {
+        this.schemas = schemas;
+    }
+
+    @Override
+    public byte[] serialize(String topic, FlightData flightData) {
+        return flightData != null ? schemas.encode(flightData) : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.airlinetracker.llmsummary.config;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Kafka value deserializer for flight-data-events and flight-state.
+ *
+ * Accepts both formats while producers migrate:
+ * - Avro single-object encoding (starts with C3 01), see FlightDataSchemas
+ * - JSON (previous format, records already on the topic)
+ */
+public class FlightDataEventDeserializer implements Deserializer<FlightData> {
+
+    private final FlightDataSchemas schemas;
+    private final JsonDeserializer<FlightData> jsonDeserializer;
+
+    public FlightDataEventDeserializer(FlightDataSchemas schemas) {
+        this.schemas = schemas;
+        this.jsonDeserializer = new JsonDeserializer<>(FlightData.class, false);
+    }
+
+    @Override
+    public FlightData deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public FlightData deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (FlightDataSchemas.isAvro(data)) {
+            return schemas.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
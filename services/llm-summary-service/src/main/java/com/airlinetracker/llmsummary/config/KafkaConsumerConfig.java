@@ -1,25 +1,40 @@
 package com.airlinetracker.llmsummary.config;
 
+import com.airlinetracker.llmsummary.consumer.FlightDataParallelConsumer;
 import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.core.MicrometerConsumerListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * Kafka Consumer Configuration for llm-summary-service.
- * Configures JSON deserialization for FlightData objects.
+ * Configures FlightData deserialization: Avro (schemas in /schemas) or JSON.
+ *
+ * Listener modes (kafka.consumer.mode):
+ * - record (default): FlightDataConsumer, one record per call, offset committed per record
+ * - batch: FlightDataBatchConsumer, up to kafka.consumer.batch.max-poll-records
+ *   per call, offsets committed once per batch
+ * - parallel: FlightDataParallelConsumer, records fanned out to workers by
+ *   fa_flight_id, offsets committed up to the lowest record still in progress
+ *
+ * Metrics: kafka_consumer_* client metrics (commit rate, fetch size, records lag).
  */
 @Configuration
 @EnableKafka
@@ -31,38 +46,93 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.consumer.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${kafka.consumer.batch.fetch-min-bytes:65536}")
+    private int batchFetchMinBytes;
+
+    @Value("${kafka.consumer.batch.fetch-max-wait-ms:200}")
+    private int batchFetchMaxWaitMs;
+
+    @Value("${kafka.consumer.parallel.commit-interval-ms:1000}")
+    private long parallelCommitIntervalMs;
+
     @Bean
-    public ConsumerFactory<String, FlightData> consumerFactory() {
+    public ConsumerFactory<String, FlightData> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> config = new HashMap<>();
-        
+
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Manual commit for reliability
         config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
-        
-        // JSON Deserializer configuration
-        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, FlightData.class.getName());
-        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        
-        return new DefaultKafkaConsumerFactory<>(
+
+        DefaultKafkaConsumerFactory<String, FlightData> consumerFactory = new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
-                new JsonDeserializer<>(FlightData.class, false)
+                new FlightDataEventDeserializer(FlightDataSchemas.load())
         );
+        // Export the Kafka client metrics (commit rate, fetch size, lag)
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry,
+                List.of(Tag.of("service", "llm-summary-service"))));
+        return consumerFactory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, FlightData> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, FlightData> factory = 
+    public ConcurrentKafkaListenerContainerFactory<String, FlightData> kafkaListenerContainerFactory(
+            ConsumerFactory<String, FlightData> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, FlightData> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
         factory.setCommonErrorHandler(new DefaultErrorHandler()); // Retry on error
         return factory;
     }
-}
 
+    /**
+     * Batch listener: larger polls (waiting up to fetch-max-wait-ms for fetch-min-bytes),
+     * one offset commit per batch
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, FlightData> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, FlightData> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, FlightData> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setKafkaConsumerProperties(batchConsumerProperties());
+        // Retries from the record named by BatchListenerFailedException; earlier records are committed
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        return factory;
+    }
+
+    /**
+     * Parallel listener: FlightDataParallelConsumer commits offsets itself (MANUAL, never acknowledged),
+     * after each poll and on idle events while no records arrive
+     */
+    @Bean
+    @ConditionalOnProperty(name = "kafka.consumer.mode", havingValue = "parallel")
+    public ConcurrentKafkaListenerContainerFactory<String, FlightData> parallelKafkaListenerContainerFactory(
+            ConsumerFactory<String, FlightData> consumerFactory, FlightDataParallelConsumer parallelConsumer) {
+        ConcurrentKafkaListenerContainerFactory<String, FlightData> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setConsumerRebalanceListener(parallelConsumer);
+        factory.getContainerProperties().setIdleEventInterval(parallelCommitIntervalMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        return factory;
+    }
+
+    private Properties batchConsumerProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        properties.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchFetchMinBytes);
+        properties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchFetchMaxWaitMs);
+        return properties;
+    }
+}
@@ -0,0 +1,85 @@
+package com.airlinetracker.llmsummary.config;
+
+import com.airlinetracker.llmsummary.consumer.FlightDataConsumer;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.EndpointHandlerMethod;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking retries for flight-data-events (kafka.consumer.mode=record).
+ *
+ * A record whose summary fails (e.g. OpenAI outage or rate limit) is
+ * forwarded to the next retry topic and the partition moves on. Each retry
+ * topic holds records until its delay has passed, then the last one hands
+ * over to the dead-letter topic:
+ *   flight-data-events -> -retry-0 (10s) -> -retry-1 (1m) -> -retry-2 (10m) -> -dlt
+ * Deserialization and other non-retryable errors go straight to the DLT.
+ * DLT records can be re-driven with DeadLetterReplayer.
+ *
+ * Retry topics are created with kafka.retry.partitions, which must be at least
+ * the partition count of flight-data-events (records keep their partition).
+ * Batch and parallel modes keep retrying inside the listener.
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
+public class KafkaRetryTopicConfig {
+
+    public static final String RETRY_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${kafka.topics.flight-data-events:flight-data-events}")
+    private String topic;
+
+    @Value("${kafka.retry.delays-ms:10000,60000,600000}")
+    private List<Long> delaysMs;
+
+    @Value("${kafka.retry.partitions:6}")
+    private int partitions;
+
+    @Value("${kafka.retry.replicas:1}")
+    private short replicas;
+
+    /**
+     * Forwards failed records (value re-encoded as Avro, original headers kept)
+     */
+    @Bean
+    public KafkaTemplate<String, FlightData> retryKafkaTemplate() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config,
+                new StringSerializer(), new FlightDataAvroSerializer(FlightDataSchemas.load())));
+    }
+
+    @Bean
+    public RetryTopicConfiguration flightDataRetryTopics(KafkaTemplate<String, FlightData> retryKafkaTemplate) {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .includeTopic(topic)
+                .maxAttempts(delaysMs.size() + 1)
+                .customBackoff(new TieredBackOffPolicy(delaysMs))
+                .retryTopicSuffix(RETRY_SUFFIX)
+                .dltSuffix(DLT_SUFFIX)
+                .suffixTopicsWithIndexValues()
+                .autoCreateTopicsWith(partitions, replicas)
+                .listenerFactory("kafkaListenerContainerFactory")
+                .dltHandlerMethod(new EndpointHandlerMethod(FlightDataConsumer.class, "handleDeadLetter"))
+                .create(retryKafkaTemplate);
+    }
+}
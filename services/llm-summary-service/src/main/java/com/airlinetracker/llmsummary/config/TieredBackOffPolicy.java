@@ -0,0 +1,65 @@
+package com.airlinetracker.llmsummary.config;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.SleepingBackOffPolicy;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+
+import java.util.List;
+
+/**
+ * Back-off with an explicit delay per retry tier (e.g. 10s, 1m, 10m)
+ *
+ * Spring Kafka turns each delay into its own retry topic. The built-in
+ * policies only produce fixed, random or geometric sequences; here the
+ * operator lists the tiers. Attempts past the last tier reuse its delay.
+ */
+public class TieredBackOffPolicy implements SleepingBackOffPolicy<TieredBackOffPolicy> {
+
+    private final List<Long> delaysMs;
+    private final Sleeper sleeper;
+
+    public TieredBackOffPolicy(List<Long> delaysMs) {
+        this(delaysMs, new ThreadWaitSleeper());
+    }
+
+    private TieredBackOffPolicy(List<Long> delaysMs, Sleeper sleeper) {
+        if (delaysMs.isEmpty()) {
+            throw new IllegalArgumentException("At least one retry delay is required");
+        }
+        this.delaysMs = List.copyOf(delaysMs);
+        this.sleeper = sleeper;
+    }
+
+    public List<Long> delaysMs() {
+        return delaysMs;
+    }
+
+    @Override
+    public TieredBackOffPolicy withSleeper(Sleeper sleeper) {
+        return new TieredBackOffPolicy(delaysMs, sleeper);
+    }
+
+    @Override
+    public BackOffContext start(RetryContext context) {
+        return new TierContext();
+    }
+
+    @Override
+    public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+        TierContext context = (TierContext) backOffContext;
+        long delayMs = delaysMs.get(Math.min(context.tier++, delaysMs.size() - 1));
+        try {
+            sleeper.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackOffInterruptedException("Thread interrupted while sleeping", e);
+        }
+    }
+
+    private static final class TierContext implements BackOffContext {
+        private int tier;
+    }
+}
@@ -0,0 +1,243 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.config.KafkaRetryTopicConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Consumer lag of llm-summary-service, as autoscaling signals.
+ *
+ * Every kafka.lag.interval-ms this compares the group's committed offsets
+ * with the end offsets of flight-data-events and its retry and dead-letter
+ * topics. It reads offsets only (never joins the group or fetches records),
+ * so it works the same in record, batch and parallel mode, and an autoscaler
+ * can read the result from /actuator/prometheus without querying Kafka itself.
+ *
+ * The consume rate is how fast the committed offsets of flight-data-events
+ * advance (moving average). Time to drain is the lag on flight-data-events
+ * divided by that rate: +Inf when there is lag but nothing is being committed,
+ * e.g. while DownstreamBackpressure has the listeners paused. Retry and
+ * dead-letter lag are reported per partition but left out of the drain time,
+ * since those records are delayed on purpose.
+ *
+ * Metrics:
+ * - flight_events_consumer_lag{topic,partition}: end offset - committed offset
+ * - flight_events_consume_rate: records/s committed on flight-data-events
+ * - flight_events_time_to_drain_seconds: flight-data-events lag / consume rate
+ */
+@Component
+@Slf4j
+public class ConsumerLagMonitor implements SmartLifecycle {
+
+    private static final double RATE_ALPHA = 0.3;
+
+    private final Supplier<Consumer<byte[], byte[]>> consumerFactory;
+    private final String topic;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final MultiGauge lagGauge;
+
+    private volatile double consumeRate;
+    private volatile double timeToDrainSeconds;
+    private long lastCommitted = -1;
+    private long lastSampleNanos;
+
+    private volatile boolean running;
+    private volatile Consumer<byte[], byte[]> consumer;
+    private Thread sampler;
+
+    @Autowired
+    public ConsumerLagMonitor(MeterRegistry meterRegistry,
+                              @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                              @Value("${kafka.topics.flight-data-events:flight-data-events}") String topic,
+                              @Value("${spring.kafka.consumer.group-id:llm-summary-service}") String groupId,
+                              @Value("${kafka.lag.enabled:true}") boolean enabled,
+                              @Value("${kafka.lag.interval-ms:10000}") long intervalMs) {
+        this(meterRegistry, topic, enabled, intervalMs, () -> createConsumer(bootstrapServers, groupId));
+    }
+
+    /**
+     * @param consumerFactory Creates an unsubscribed consumer with the service's group.id (offsets only)
+     */
+    public ConsumerLagMonitor(MeterRegistry meterRegistry, String topic, boolean enabled, long intervalMs,
+                              Supplier<Consumer<byte[], byte[]>> consumerFactory) {
+        this.consumerFactory = consumerFactory;
+        this.topic = topic;
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+
+        this.lagGauge = MultiGauge.builder("flight_events_consumer_lag")
+                .description("Records not yet committed by the consumer group")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        Gauge.builder("flight_events_consume_rate", this, monitor -> monitor.consumeRate)
+                .description("Records per second committed on flight-data-events")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        Gauge.builder("flight_events_time_to_drain_seconds", this, monitor -> monitor.timeToDrainSeconds)
+                .description("Estimated time to consume the flight-data-events lag at the current rate")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+    }
+
+    private static Consumer<byte[], byte[]> createConsumer(String bootstrapServers, String groupId) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        return new KafkaConsumer<>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    public double getConsumeRate() {
+        return consumeRate;
+    }
+
+    public double getTimeToDrainSeconds() {
+        return timeToDrainSeconds;
+    }
+
+    /**
+     * Read committed and end offsets once and update the gauges
+     *
+     * @return lag per partition
+     */
+    Map<TopicPartition, Long> sample(Consumer<byte[], byte[]> consumer) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        consumer.listTopics().forEach((name, infos) -> {
+            if (isMonitored(name)) {
+                infos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+            }
+        });
+        if (partitions.isEmpty()) {
+            return Map.of();
+        }
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(partitions);
+        Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+
+        Map<TopicPartition, Long> lag = new HashMap<>();
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        long mainLag = 0;
+        long mainCommitted = 0;
+        for (TopicPartition tp : partitions) {
+            OffsetAndMetadata offset = committed.get(tp);
+            // Nothing committed yet: the group starts from the beginning (auto-offset-reset: earliest)
+            long position = offset != null ? offset.offset() : beginningOffsets.getOrDefault(tp, 0L);
+            long partitionLag = Math.max(0, endOffsets.getOrDefault(tp, 0L) - position);
+            lag.put(tp, partitionLag);
+            rows.add(MultiGauge.Row.of(Tags.of("topic", tp.topic(), "partition", String.valueOf(tp.partition())),
+                    partitionLag));
+            if (tp.topic().equals(topic)) {
+                mainLag += partitionLag;
+                mainCommitted += position;
+            }
+        }
+        lagGauge.register(rows, true);
+        updateRate(mainCommitted, mainLag);
+        return lag;
+    }
+
+    private boolean isMonitored(String name) {
+        return name.equals(topic)
+                || name.startsWith(topic + KafkaRetryTopicConfig.RETRY_SUFFIX)
+                || name.equals(topic + KafkaRetryTopicConfig.DLT_SUFFIX);
+    }
+
+    private void updateRate(long committed, long lag) {
+        long now = System.nanoTime();
+        if (lastCommitted >= 0 && now > lastSampleNanos) {
+            double rate = Math.max(0, committed - lastCommitted) / ((now - lastSampleNanos) / 1e9);
+            consumeRate = consumeRate + RATE_ALPHA * (rate - consumeRate);
+        }
+        lastCommitted = committed;
+        lastSampleNanos = now;
+
+        if (lag == 0) {
+            timeToDrainSeconds = 0;
+        } else if (consumeRate > 0) {
+            timeToDrainSeconds = lag / consumeRate;
+        } else {
+            timeToDrainSeconds = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        sampler = new Thread(this::sampleLoop, "flight-data-lag-monitor");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Consumer<byte[], byte[]> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (sampler != null) {
+            sampler.interrupt();
+            try {
+                sampler.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try (Consumer<byte[], byte[]> current = consumerFactory.get()) {
+                consumer = current;
+                while (running) {
+                    sample(current);
+                    Thread.sleep(intervalMs);
+                }
+            } catch (WakeupException | InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Consumer lag sampling failed, retrying in {} ms: {}", intervalMs, e.getMessage());
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            } finally {
+                consumer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.config.KafkaRetryTopicConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-drives records from the flight-data-events dead-letter topic.
+ *
+ * Records are copied byte for byte (key, value, headers) back to
+ * flight-data-events at a fixed rate, so a backlog of failures left by an
+ * OpenAI outage does not hit the API all at once. The retry_topic-* headers
+ * are dropped so a replayed record gets the full set of retry tiers again.
+ * The kafka_original-* headers stay: FlightStateAssembler does not let replayed
+ * snapshots replace newer ones.
+ *
+ * A run can take hours at a low rate, so it is started as a Job on a
+ * background thread and polled for progress. Progress is committed per record
+ * under the group "{spring.kafka.consumer.group-id}-dlt-replay". A run stops
+ * at the end offsets seen when it started, or after maxRecords. Only one run
+ * at a time; the last job stays queryable until the next one starts.
+ *
+ * Metrics:
+ * - flight_events_dlt_replayed_total: records copied back to flight-data-events
+ */
+@Component
+@Slf4j
+public class DeadLetterReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+
+    /**
+     * Outcome of one replay run
+     *
+     * @param replayed  Records copied back to flight-data-events
+     * @param remaining Records left in the DLT (up to the end offsets seen at the start)
+     * @param elapsed   Duration of the run
+     */
+    public record Report(int replayed, long remaining, Duration elapsed) {
+    }
+
+    /**
+     * One replay run, started by start() and updated while it runs
+     */
+    public static final class Job {
+
+        public enum Status { RUNNING, COMPLETED, FAILED }
+
+        private final String id = UUID.randomUUID().toString();
+        private final double ratePerSecond;
+        private final int maxRecords;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger replayed = new AtomicInteger();
+        private volatile Status status = Status.RUNNING;
+        private volatile Report report;
+        private volatile String error;
+
+        public Job(double ratePerSecond, int maxRecords) {
+            this.ratePerSecond = ratePerSecond;
+            this.maxRecords = maxRecords;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public int getMaxRecords() {
+            return maxRecords;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return Records copied back so far
+         */
+        public int getReplayed() {
+            return replayed.get();
+        }
+
+        /**
+         * @return Final report, or null while running or after a failure
+         */
+        public Report getReport() {
+            return report;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public Duration getElapsed() {
+            return report != null ? report.elapsed() : Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+
+        public boolean isRunning() {
+            return status == Status.RUNNING;
+        }
+
+        void completed(Report report) {
+            this.report = report;
+            this.status = Status.COMPLETED;
+        }
+
+        void failed(String error) {
+            this.error = error;
+            this.status = Status.FAILED;
+        }
+    }
+
+    private final String bootstrapServers;
+    private final String topic;
+    private final String deadLetterTopic;
+    private final String groupId;
+    private final Counter replayedCounter;
+    private final ExecutorService runner;
+    private final AtomicReference<Job> lastJob = new AtomicReference<>();
+
+    public DeadLetterReplayer(MeterRegistry meterRegistry,
+                              @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                              @Value("${kafka.topics.flight-data-events:flight-data-events}") String topic,
+                              @Value("${spring.kafka.consumer.group-id:llm-summary-service}") String groupId) {
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+        this.deadLetterTopic = topic + KafkaRetryTopicConfig.DLT_SUFFIX;
+        this.groupId = groupId + "-dlt-replay";
+        this.replayedCounter = Counter.builder("flight_events_dlt_replayed")
+                .description("Dead-lettered flight-data-events records copied back to the main topic")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dlt-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start copying up to maxRecords DLT records back to flight-data-events in the background
+     *
+     * @param ratePerSecond Maximum records sent per second
+     * @param maxRecords    Maximum records in this run
+     * @return The new job, or empty if a run is already in progress (see lastJob())
+     */
+    public Optional<Job> start(double ratePerSecond, int maxRecords) {
+        Job job = new Job(ratePerSecond, maxRecords);
+        Job previous = lastJob.getAndUpdate(last -> last != null && last.isRunning() ? last : job);
+        if (previous != null && previous.isRunning()) {
+            return Optional.empty();
+        }
+        runner.execute(() -> {
+            try {
+                job.completed(replay(job));
+            } catch (RuntimeException e) {
+                log.error("DLT replay {} failed after {} records: {}", job.getId(), job.getReplayed(),
+                        e.getMessage(), e);
+                job.failed(e.getMessage());
+            }
+        });
+        return Optional.of(job);
+    }
+
+    /**
+     * @return The running job, or the last one that finished
+     */
+    public Optional<Job> lastJob() {
+        return Optional.ofNullable(lastJob.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private Report replay(Job job) {
+        long start = System.nanoTime();
+        long intervalNanos = (long) (1_000_000_000L / job.getRatePerSecond());
+        int maxRecords = job.getMaxRecords();
+        int replayed = 0;
+
+        try (Consumer<byte[], byte[]> consumer = createConsumer();
+             Producer<byte[], byte[]> producer = createProducer()) {
+            List<TopicPartition> partitions = partitions(consumer);
+            if (partitions.isEmpty()) {
+                return new Report(0, 0, Duration.ofNanos(System.nanoTime() - start));
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long nextSend = System.nanoTime();
+            while (replayed < maxRecords && remaining(consumer, endOffsets) > 0
+                    && !Thread.currentThread().isInterrupted()) {
+                for (ConsumerRecord<byte[], byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+                    if (replayed >= maxRecords || record.offset() >= endOffsets.get(tp)) {
+                        consumer.seek(tp, record.offset());
+                        continue;
+                    }
+                    LockSupport.parkNanos(nextSend - System.nanoTime());
+                    nextSend = Math.max(nextSend, System.nanoTime()) + intervalNanos;
+
+                    producer.send(toMainTopic(record)).get();
+                    consumer.commitSync(Map.of(tp, new OffsetAndMetadata(record.offset() + 1)));
+                    replayed++;
+                    job.replayed.incrementAndGet();
+                    replayedCounter.increment();
+                }
+            }
+            long remaining = remaining(consumer, endOffsets);
+            log.info("Replayed {} records from {} to {} ({} remaining)", replayed, deadLetterTopic, topic, remaining);
+            return new Report(replayed, remaining, Duration.ofNanos(System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("DLT replay interrupted after " + replayed + " records", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("DLT replay failed after " + replayed + " records", e.getCause());
+        }
+    }
+
+    private ProducerRecord<byte[], byte[]> toMainTopic(ConsumerRecord<byte[], byte[]> record) {
+        ProducerRecord<byte[], byte[]> replay = new ProducerRecord<>(topic, record.key(), record.value());
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(RETRY_HEADER_PREFIX)) {
+                replay.headers().add(header);
+            }
+        }
+        return replay;
+    }
+
+    private List<TopicPartition> partitions(Consumer<byte[], byte[]> consumer) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        List<PartitionInfo> infos = consumer.partitionsFor(deadLetterTopic);
+        if (infos != null) {
+            infos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+        }
+        return partitions;
+    }
+
+    private static long remaining(Consumer<byte[], byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        long remaining = 0;
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            remaining += Math.max(0, end.getValue() - consumer.position(end.getKey()));
+        }
+        return remaining;
+    }
+
+    private Consumer<byte[], byte[]> createConsumer() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        config.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        return new KafkaConsumer<>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private Producer<byte[], byte[]> createProducer() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new KafkaProducer<>(config, new ByteArraySerializer(), new ByteArraySerializer());
+    }
+}
@@ -0,0 +1,189 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pauses the Kafka listeners while OpenAI or the database is saturated.
+ *
+ * Every listener mode runs SummaryService.processFlightData through run()
+ * (batch mode: SummaryEngine.submit through track()), which times it and
+ * keeps moving averages of latency and failure ratio.
+ * When either crosses its limit (kafka.backpressure.max-latency-ms, default
+ * just under the 10s OpenAI timeout; max-failure-ratio), all listener
+ * containers, including the retry tiers, are paused for
+ * kafka.backpressure.pause-ms. While paused, records stay in Kafka instead of
+ * timing out, filling the retry topics and adding load to a struggling API.
+ * After the pause the averages restart, so the next min-samples calls decide
+ * whether to pause again.
+ *
+ * Metrics:
+ * - flight_events_processing_seconds{outcome=success|failure}: summary time (histogram)
+ * - flight_events_consumer_paused: 1 while the listeners are paused
+ * - flight_events_backpressure_pauses_total
+ */
+@Component
+@Slf4j
+public class DownstreamBackpressure {
+
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final double FAILURE_ALPHA = 0.1;
+
+    private final Runnable pauseListeners;
+    private final Runnable resumeListeners;
+    private final boolean enabled;
+    private final long maxLatencyMs;
+    private final double maxFailureRatio;
+    private final long pauseMs;
+    private final int minSamples;
+    private final ScheduledExecutorService resumer;
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Counter pauseCounter;
+
+    private double latencyMs;
+    private double failureRatio;
+    private int samples;
+    private volatile boolean paused;
+
+    @Autowired
+    public DownstreamBackpressure(MeterRegistry meterRegistry, KafkaListenerEndpointRegistry registry,
+                                  @Value("${kafka.backpressure.enabled:true}") boolean enabled,
+                                  @Value("${kafka.backpressure.max-latency-ms:8000}") long maxLatencyMs,
+                                  @Value("${kafka.backpressure.max-failure-ratio:0.5}") double maxFailureRatio,
+                                  @Value("${kafka.backpressure.pause-ms:30000}") long pauseMs,
+                                  @Value("${kafka.backpressure.min-samples:10}") int minSamples) {
+        this(meterRegistry, () -> registry.getAllListenerContainers().forEach(container -> container.pause()),
+                () -> registry.getAllListenerContainers().forEach(container -> container.resume()),
+                enabled, maxLatencyMs, maxFailureRatio, pauseMs, minSamples);
+    }
+
+    /**
+     * @param pauseListeners  Stops fetching on every listener container
+     * @param resumeListeners Restarts fetching
+     */
+    public DownstreamBackpressure(MeterRegistry meterRegistry, Runnable pauseListeners, Runnable resumeListeners,
+                                  boolean enabled, long maxLatencyMs, double maxFailureRatio, long pauseMs,
+                                  int minSamples) {
+        this.pauseListeners = pauseListeners;
+        this.resumeListeners = resumeListeners;
+        this.enabled = enabled;
+        this.maxLatencyMs = maxLatencyMs;
+        this.maxFailureRatio = maxFailureRatio;
+        this.pauseMs = pauseMs;
+        this.minSamples = minSamples;
+        this.resumer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-data-backpressure");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.successTimer = processingTimer(meterRegistry, "success");
+        this.failureTimer = processingTimer(meterRegistry, "failure");
+        Gauge.builder("flight_events_consumer_paused", this, backpressure -> backpressure.paused ? 1 : 0)
+                .description("1 while the flight-data-events listeners are paused by backpressure")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        this.pauseCounter = Counter.builder("flight_events_backpressure_pauses")
+                .description("Listener pauses because OpenAI or the database was saturated")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+    }
+
+    private static Timer processingTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("flight_events_processing")
+                .description("Time to summarise and store one flight (OpenAI + database)")
+                .tag("service", "llm-summary-service")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run one summary, record its latency and outcome, and pause the listeners if saturated.
+     * Exceptions are rethrown unchanged.
+     */
+    public void run(Runnable summary) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            summary.run();
+            failed = false;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Asynchronous variant of run(): timed from when summary returns its future until that future completes.
+     */
+    public <T> CompletableFuture<T> track(Supplier<CompletableFuture<T>> summary) {
+        CompletableFuture<T> future = summary.get();
+        long start = System.nanoTime();
+        return future.whenComplete((result, error) -> record(System.nanoTime() - start, error != null));
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    private void record(long elapsedNanos, boolean failed) {
+        (failed ? failureTimer : successTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!enabled) {
+            return;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        String reason;
+        synchronized (this) {
+            latencyMs = samples == 0 ? elapsedMs : latencyMs + LATENCY_ALPHA * (elapsedMs - latencyMs);
+            failureRatio = failureRatio + FAILURE_ALPHA * ((failed ? 1 : 0) - failureRatio);
+            samples++;
+            if (paused || samples < minSamples) {
+                return;
+            }
+            if (latencyMs > maxLatencyMs) {
+                reason = String.format("latency %.0fms > %dms", latencyMs, maxLatencyMs);
+            } else if (failureRatio > maxFailureRatio) {
+                reason = String.format("failure ratio %.2f > %.2f", failureRatio, maxFailureRatio);
+            } else {
+                return;
+            }
+            paused = true;
+        }
+        log.warn("Pausing flight-data-events listeners for {}ms: {}", pauseMs, reason);
+        pauseCounter.increment();
+        pauseListeners.run();
+        resumer.schedule(this::resume, pauseMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void resume() {
+        synchronized (this) {
+            latencyMs = 0;
+            failureRatio = 0;
+            samples = 0;
+            paused = false;
+        }
+        log.info("Resuming flight-data-events listeners");
+        resumeListeners.run();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resumer.shutdownNow();
+    }
+}
@@ -0,0 +1,124 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.service.SummaryEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Batch Kafka consumer for flight-data-events (kafka.consumer.mode=batch).
+ *
+ * Each poll delivers up to kafka.consumer.batch.max-poll-records records.
+ * Every record goes through FlightStateAssembler in offset order, then only
+ * the latest state per fa_flight_id is summarised: a flight updated five
+ * times in a backlog costs one OpenAI call and one upsert instead of five.
+ * Offsets are committed once per batch (AckMode.BATCH).
+ *
+ * All flights of a batch are handed to SummaryEngine at once, so up to
+ * openai.max-concurrent-requests summaries run concurrently, and the listener
+ * waits for the whole batch. If any fail, BatchListenerFailedException names
+ * the earliest failing flight's latest record: everything before it is
+ * committed and the rest of the batch is redelivered and retried (flights
+ * after it that did succeed are summarised again).
+ *
+ * Metrics:
+ * - flight_events_batch_size: records per batch
+ * - flight_events_batch_collapsed_total: records superseded by a later one in the same batch
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.consumer.mode", havingValue = "batch")
+@Slf4j
+public class FlightDataBatchConsumer {
+
+    /**
+     * Latest state of a flight in the batch and the index of the record it came from
+     */
+    private record Latest(FlightData flightData, int index) {
+    }
+
+    private final SummaryEngine summaryEngine;
+    private final FlightStateAssembler assembler;
+    private final DownstreamBackpressure backpressure;
+
+    private final DistributionSummary batchSize;
+    private final Counter collapsedCounter;
+
+    public FlightDataBatchConsumer(SummaryEngine summaryEngine, FlightStateAssembler assembler,
+                                   DownstreamBackpressure backpressure, MeterRegistry meterRegistry) {
+        this.summaryEngine = summaryEngine;
+        this.assembler = assembler;
+        this.backpressure = backpressure;
+        this.batchSize = DistributionSummary.builder("flight_events_batch_size")
+                .description("flight-data-events records per batch")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        this.collapsedCounter = Counter.builder("flight_events_batch_collapsed")
+                .description("Records skipped because a later record for the same flight was in the batch")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        log.info("=== KAFKA BATCH CONSUMER INITIALIZED ===");
+    }
+
+    @KafkaListener(
+            topics = "${kafka.topics.flight-data-events:flight-data-events}",
+            groupId = "${spring.kafka.consumer.group-id:llm-summary-service}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumeFlightData(List<ConsumerRecord<String, FlightData>> records) {
+        batchSize.record(records.size());
+
+        Map<String, Latest> latest = new LinkedHashMap<>();
+        int assembled = 0;
+        for (int i = 0; i < records.size(); i++) {
+            FlightData flightData = assembler.assemble(records.get(i)).orElse(null);
+            if (flightData != null) {
+                latest.put(key(flightData, i), new Latest(flightData, i));
+                assembled++;
+            }
+        }
+        collapsedCounter.increment(assembled - latest.size());
+
+        List<Latest> flights = new ArrayList<>(latest.values());
+        flights.sort(Comparator.comparingInt(Latest::index));
+        List<CompletableFuture<Void>> summaries = new ArrayList<>(flights.size());
+        for (Latest flight : flights) {
+            summaries.add(backpressure.track(() -> summaryEngine.submit(flight.flightData())));
+        }
+
+        // Wait for the whole batch, then report the earliest failure
+        CompletableFuture.allOf(summaries.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        for (int i = 0; i < flights.size(); i++) {
+            Latest flight = flights.get(i);
+            try {
+                summaries.get(i).join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Failed to process flight data event for {}: {}",
+                        flight.flightData().getIdent(), cause.getMessage(), cause);
+                throw new BatchListenerFailedException("Summary failed for " + flight.flightData().getIdent(),
+                        cause, flight.index());
+            }
+        }
+        log.info("Processed batch of {} records ({} flights)", records.size(), flights.size());
+    }
+
+    private static String key(FlightData flightData, int index) {
+        // Flights without fa_flight_id cannot be collapsed safely
+        return flightData.getFaFlightId() != null ? flightData.getFaFlightId() : "#" + index;
+    }
+}
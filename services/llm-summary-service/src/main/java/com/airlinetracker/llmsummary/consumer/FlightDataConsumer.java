@@ -2,26 +2,64 @@ package com.airlinetracker.llmsummary.consumer;
 
 import com.airlinetracker.llmsummary.dto.FlightData;
 import com.airlinetracker.llmsummary.service.SummaryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Kafka consumer for flight-data-events.
  * Listens to Kafka topic and triggers summary generation.
+ * Snapshots and deltas are assembled into full flights by FlightStateAssembler.
+ * Active in kafka.consumer.mode=record (default); see FlightDataBatchConsumer for batch mode.
+ * Failed records move through the retry topics to the DLT (KafkaRetryTopicConfig);
+ * the same listener processes the retry topics.
+ * Summaries run through DownstreamBackpressure, which pauses the listeners
+ * while OpenAI or the database is saturated.
  * 
  * Source: PRD.md Section 3.2 - Kafka Event Schema
+ *
+ * Metrics:
+ * - flight_events_retry_lag_seconds{topic}: time a retry record was processed after it became due
+ * - flight_events_dead_lettered_total: records that reached the dead-letter topic
  */
 @Component
+@ConditionalOnProperty(name = "kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
 @Slf4j
 public class FlightDataConsumer {
 
     private final SummaryService summaryService;
+    private final FlightStateAssembler assembler;
+    private final DownstreamBackpressure backpressure;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> retryLagTimers = new ConcurrentHashMap<>();
+    private final Counter deadLetterCounter;
 
     @Autowired
-    public FlightDataConsumer(SummaryService summaryService) {
+    public FlightDataConsumer(SummaryService summaryService, FlightStateAssembler assembler,
+                              DownstreamBackpressure backpressure, MeterRegistry meterRegistry) {
         this.summaryService = summaryService;
+        this.assembler = assembler;
+        this.backpressure = backpressure;
+        this.meterRegistry = meterRegistry;
+        this.deadLetterCounter = Counter.builder("flight_events_dead_lettered")
+                .description("flight-data-events records moved to the dead-letter topic")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
         log.info("=== KAFKA CONSUMER INITIALIZED ===");
         log.info("Ready to consume from topic: flight-data-events");
     }
@@ -30,21 +68,26 @@ public class FlightDataConsumer {
      * Consume flight data events from Kafka.
      * Topic: flight-data-events (PRD.md line 290)
      * 
-     * @param flightData Deserialized flight data from Kafka event
+     * @param record Kafka event: full snapshot or delta (see FlightStateAssembler)
      */
     @KafkaListener(
             topics = "${kafka.topics.flight-data-events:flight-data-events}",
             groupId = "${spring.kafka.consumer.group-id:llm-summary-service}",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumeFlightData(FlightData flightData) {
+    public void consumeFlightData(ConsumerRecord<String, FlightData> record) {
         log.info("=== KAFKA EVENT RECEIVED ===");
+        recordRetryLag(record);
+        FlightData flightData = assembler.assemble(record).orElse(null);
+        if (flightData == null) {
+            return;
+        }
         log.info("Flight Ident: {}", flightData.getIdent());
         log.info("FA Flight ID: {}", flightData.getFaFlightId());
 
         try {
             // Delegate to service layer for processing
-            summaryService.processFlightData(flightData);
+            backpressure.run(() -> summaryService.processFlightData(flightData));
             log.info("=== SUMMARY SAVED SUCCESSFULLY ===");
             log.info("Flight: {}", flightData.getIdent());
 
@@ -55,5 +98,29 @@ public class FlightDataConsumer {
             throw e;
         }
     }
-}
 
+    /**
+     * Final stop after the last retry tier: the record stays in the DLT for DeadLetterReplayer.
+     */
+    public void handleDeadLetter(ConsumerRecord<String, FlightData> record) {
+        deadLetterCounter.increment();
+        Header exception = record.headers().lastHeader(KafkaHeaders.EXCEPTION_MESSAGE);
+        log.error("Flight data event dead-lettered: {} ({}-{}@{}): {}",
+                record.key(), record.topic(), record.partition(), record.offset(),
+                exception != null ? new String(exception.value(), StandardCharsets.UTF_8) : "unknown error");
+    }
+
+    private void recordRetryLag(ConsumerRecord<String, FlightData> record) {
+        Header dueAt = record.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP);
+        if (dueAt == null) {
+            return;
+        }
+        long lagMs = System.currentTimeMillis() - new BigInteger(dueAt.value()).longValue();
+        retryLagTimers.computeIfAbsent(record.topic(), topic -> Timer.builder("flight_events_retry_lag")
+                        .description("Delay between a retry record becoming due and being processed")
+                        .tag("service", "llm-summary-service")
+                        .tag("topic", topic)
+                        .register(meterRegistry))
+                .record(Math.max(lagMs, 0), TimeUnit.MILLISECONDS);
+    }
+}
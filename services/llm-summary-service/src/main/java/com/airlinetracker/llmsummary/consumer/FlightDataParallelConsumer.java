@@ -0,0 +1,311 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.service.SummaryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key-ordered parallel Kafka consumer for flight-data-events (kafka.consumer.mode=parallel).
+ *
+ * Summaries spend most of their time waiting on OpenAI, so one thread per
+ * partition leaves the service idle. Records are assembled in offset order
+ * on the consumer thread and handed to one of kafka.consumer.parallel.workers
+ * single-threaded lanes chosen by fa_flight_id: events of one flight stay in
+ * order, different flights run concurrently, even within a single partition.
+ *
+ * Offsets are committed by this class (AckMode.MANUAL, never acknowledged):
+ * per partition, up to the lowest record still being processed (see
+ * PartitionOffsets). Commits run on the consumer thread, after each poll and
+ * on container idle events. At most kafka.consumer.parallel.max-in-flight
+ * records are queued or running. When that limit is reached the listener
+ * never blocks the consumer thread: it seeks every partition back to its
+ * first undispatched record, pauses the assignment and returns; an idle
+ * event resumes it once in-flight records drop to half the limit.
+ *
+ * Failed summaries are retried in their lane (10 attempts, exponential
+ * backoff from kafka.consumer.parallel.retry-backoff-ms up to
+ * retry-max-backoff-ms), then logged and skipped. On rebalance, revoked
+ * partitions are drained (up to 15s) and committed before they are handed over.
+ *
+ * Metrics:
+ * - flight_events_in_flight: records queued or running on the workers
+ * - flight_events_parallel_processed_total{outcome=success|failed}
+ * - flight_events_parallel_pauses_total: pauses because max-in-flight was reached
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.consumer.mode", havingValue = "parallel")
+@Slf4j
+public class FlightDataParallelConsumer implements ConsumerAwareRebalanceListener {
+
+    static final String LISTENER_ID = "flight-data-parallel";
+
+    private static final int RETRY_ATTEMPTS = 9;
+    private static final long REVOKE_DRAIN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(15);
+
+    private final SummaryService summaryService;
+    private final FlightStateAssembler assembler;
+    private final DownstreamBackpressure backpressure;
+    private final ExecutorService[] lanes;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final BackOff retryBackOff;
+    private final Map<TopicPartition, PartitionOffsets> offsets = new ConcurrentHashMap<>();
+    /**
+     * Partitions paused because max-in-flight was reached (consumer thread only)
+     */
+    private final Set<TopicPartition> paused = ConcurrentHashMap.newKeySet();
+
+    private final Counter successCounter;
+    private final Counter failedCounter;
+    private final Counter pauseCounter;
+
+    public FlightDataParallelConsumer(SummaryService summaryService, FlightStateAssembler assembler,
+                                      DownstreamBackpressure backpressure, MeterRegistry meterRegistry,
+                                      @Value("${kafka.consumer.parallel.workers:32}") int workers,
+                                      @Value("${kafka.consumer.parallel.max-in-flight:500}") int maxInFlight,
+                                      @Value("${kafka.consumer.parallel.retry-backoff-ms:1000}") long retryBackoffMs,
+                                      @Value("${kafka.consumer.parallel.retry-max-backoff-ms:5000}")
+                                      long retryMaxBackoffMs) {
+        this.summaryService = summaryService;
+        this.assembler = assembler;
+        this.backpressure = backpressure;
+        this.lanes = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            String name = "flight-data-worker-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        ExponentialBackOffWithMaxRetries retryBackOff = new ExponentialBackOffWithMaxRetries(RETRY_ATTEMPTS);
+        retryBackOff.setInitialInterval(retryBackoffMs);
+        retryBackOff.setMaxInterval(retryMaxBackoffMs);
+        this.retryBackOff = retryBackOff;
+
+        Gauge.builder("flight_events_in_flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .description("flight-data-events records queued or running on the parallel workers")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        this.successCounter = outcomeCounter(meterRegistry, "success");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.pauseCounter = Counter.builder("flight_events_parallel_pauses")
+                .description("Partition pauses because kafka.consumer.parallel.max-in-flight was reached")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        log.info("=== KAFKA PARALLEL CONSUMER INITIALIZED ({} workers, {} max in flight) ===",
+                workers, maxInFlight);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flight_events_parallel_processed")
+                .description("flight-data-events records processed by the parallel workers")
+                .tag("service", "llm-summary-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${kafka.topics.flight-data-events:flight-data-events}",
+            groupId = "${spring.kafka.consumer.group-id:llm-summary-service}",
+            containerFactory = "parallelKafkaListenerContainerFactory"
+    )
+    public void consumeFlightData(List<ConsumerRecord<String, FlightData>> records, Consumer<?, ?> consumer) {
+        // First record per partition that could not be dispatched; everything from there is fetched again
+        Map<TopicPartition, Long> rewind = new HashMap<>();
+        for (ConsumerRecord<String, FlightData> record : records) {
+            TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+            // Checked before assembling: a record handed back to Kafka must not touch the delta base
+            if (!rewind.isEmpty() || !inFlight.tryAcquire()) {
+                rewind.putIfAbsent(tp, record.offset());
+                continue;
+            }
+            PartitionOffsets partition = offsets.computeIfAbsent(tp, key -> new PartitionOffsets());
+            partition.dispatched(record.offset());
+
+            FlightData flightData = assembler.assemble(record).orElse(null);
+            if (flightData == null) {
+                partition.completed(record.offset());
+                inFlight.release();
+                continue;
+            }
+            lanes[lane(key(flightData, record), lanes.length)].execute(() -> {
+                try {
+                    process(flightData);
+                } finally {
+                    partition.completed(record.offset());
+                    inFlight.release();
+                }
+            });
+        }
+        if (!rewind.isEmpty()) {
+            pause(consumer, rewind);
+        }
+        commit(consumer);
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        resumeIfDrained(event.getConsumer());
+        commit(event.getConsumer());
+    }
+
+    /**
+     * Hand undispatched records back to Kafka and stop fetching (consumer thread only)
+     */
+    private void pause(Consumer<?, ?> consumer, Map<TopicPartition, Long> rewind) {
+        rewind.forEach(consumer::seek);
+        paused.addAll(consumer.assignment());
+        consumer.pause(paused);
+        pauseCounter.increment();
+        log.warn("{} records in flight (max {}), pausing {} until the workers catch up",
+                maxInFlight - inFlight.availablePermits(), maxInFlight, paused);
+    }
+
+    /**
+     * Resume fetching once in-flight records dropped to half of max-in-flight (consumer thread only)
+     */
+    void resumeIfDrained(Consumer<?, ?> consumer) {
+        if (paused.isEmpty() || maxInFlight - inFlight.availablePermits() > maxInFlight / 2) {
+            return;
+        }
+        Set<TopicPartition> assigned = new HashSet<>(paused);
+        assigned.retainAll(consumer.assignment());
+        consumer.resume(assigned);
+        paused.clear();
+        log.info("Workers caught up, resuming {}", assigned);
+    }
+
+    /**
+     * Commit every partition whose lowest pending offset moved (consumer thread only)
+     */
+    void commit(Consumer<?, ?> consumer) {
+        commit(consumer, offsets.keySet());
+    }
+
+    private void commit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        for (TopicPartition tp : partitions) {
+            PartitionOffsets partition = offsets.get(tp);
+            long offset = partition != null ? partition.commitOffset() : -1;
+            if (offset >= 0) {
+                commits.put(tp, new OffsetAndMetadata(offset));
+            }
+        }
+        if (commits.isEmpty()) {
+            return;
+        }
+        consumer.commitSync(commits);
+        commits.forEach((tp, offset) -> offsets.get(tp).committed(offset.offset()));
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (TopicPartition tp : partitions) {
+            PartitionOffsets partition = offsets.get(tp);
+            try {
+                if (partition != null && !partition.awaitCompletion(REVOKE_DRAIN_TIMEOUT_MS)) {
+                    log.warn("{} records of {} still running after {}ms; they will be redelivered",
+                            partition.pending(), tp, REVOKE_DRAIN_TIMEOUT_MS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        commit(consumer, partitions);
+        partitions.forEach(offsets::remove);
+        paused.removeAll(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        partitions.forEach(offsets::remove);
+        paused.removeAll(partitions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void process(FlightData flightData) {
+        BackOffExecution backOff = retryBackOff.start();
+        while (true) {
+            try {
+                backpressure.run(() -> summaryService.processFlightData(flightData));
+                successCounter.increment();
+                return;
+            } catch (Exception e) {
+                long waitMs = backOff.nextBackOff();
+                if (waitMs == BackOffExecution.STOP) {
+                    failedCounter.increment();
+                    log.error("Failed to process flight data event for {}, skipping: {}",
+                            flightData.getIdent(), e.getMessage(), e);
+                    return;
+                }
+                log.warn("Retrying flight data event for {} in {}ms: {}", flightData.getIdent(), waitMs,
+                        e.getMessage());
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    failedCounter.increment();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Same hash as Kafka's default partitioner: String.hashCode() leaves fa_flight_ids
+     * ("UAL123-1710489600-airline-0123") clustered in a few lanes
+     */
+    static int lane(String key, int lanes) {
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % lanes;
+    }
+
+    private static String key(FlightData flightData, ConsumerRecord<String, FlightData> record) {
+        if (flightData.getFaFlightId() != null) {
+            return flightData.getFaFlightId();
+        }
+        return record.key() != null ? record.key() : String.valueOf(record.offset());
+    }
+}
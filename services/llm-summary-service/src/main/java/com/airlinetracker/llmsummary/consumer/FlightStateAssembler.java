@@ -0,0 +1,214 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rebuilds full flight state from flight-data-events snapshots and deltas.
+ *
+ * flightdata-service sends a full snapshot for a flight first, then deltas
+ * that carry only the fields changed since that snapshot; every other field
+ * is null (Avro single-object encoding by default, JSON with null fields
+ * omitted when the producer runs with kafka.producer.value-format=json; see
+ * FlightDataEventDeserializer). Record headers:
+ * - flight-event-type: SNAPSHOT | DELTA (absent: SNAPSHOT, older producers)
+ * - flight-event-snapshot-version: snapshot version the record is or applies to
+ * - flight-event-cleared-fields: comma-separated fields that became null (delta only)
+ *
+ * The latest snapshot per fa_flight_id is kept in memory (LRU-bounded).
+ * A delta whose snapshot is unknown (consumer restarted or was assigned the
+ * partition in a rebalance) is merged onto the flight's state in
+ * FlightStateView (compacted flight-state topic) instead. Only when the view
+ * does not know the flight either is the delta skipped; status changes are
+ * always sent as snapshots, so such a delta only carries position or time
+ * updates, and the producer re-sends a snapshot periodically.
+ * Records coming back from a retry topic or the DLT (kafka_original-topic
+ * header) are assembled but never replace the stored snapshot: they are
+ * older than what the main topic has delivered since. A snapshot older than
+ * the stored one is skipped.
+ *
+ * Metrics:
+ * - flight_events_assembled_total{type=snapshot|delta|delta_from_view|delta_without_base|stale_snapshot}
+ */
+@Component
+@Slf4j
+public class FlightStateAssembler {
+
+    static final String HEADER_TYPE = "flight-event-type";
+    static final String HEADER_SNAPSHOT_VERSION = "flight-event-snapshot-version";
+    static final String HEADER_CLEARED_FIELDS = "flight-event-cleared-fields";
+
+    private static final String TYPE_DELTA = "DELTA";
+
+    private record Snapshot(FlightData flightData, long version) {
+    }
+
+    private final Map<String, Snapshot> snapshots;
+    private final FlightStateView flightStateView;
+
+    private final Counter snapshotCounter;
+    private final Counter deltaCounter;
+    private final Counter deltaFromViewCounter;
+    private final Counter deltaWithoutBaseCounter;
+    private final Counter staleSnapshotCounter;
+
+    public FlightStateAssembler(MeterRegistry meterRegistry, FlightStateView flightStateView,
+                                @Value("${kafka.flight-state.max-flights:100000}") int maxFlights) {
+        this.flightStateView = flightStateView;
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxFlights;
+            }
+        });
+
+        this.snapshotCounter = typeCounter(meterRegistry, "snapshot");
+        this.deltaCounter = typeCounter(meterRegistry, "delta");
+        this.deltaFromViewCounter = typeCounter(meterRegistry, "delta_from_view");
+        this.deltaWithoutBaseCounter = typeCounter(meterRegistry, "delta_without_base");
+        this.staleSnapshotCounter = typeCounter(meterRegistry, "stale_snapshot");
+    }
+
+    private static Counter typeCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("flight_events_assembled")
+                .description("flight-data-events records by type")
+                .tag("service", "llm-summary-service")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Full flight state after applying a record.
+     *
+     * @param record flight-data-events record (snapshot or delta)
+     * @return full FlightData, or empty if the delta has no base (snapshot or flight-state view)
+     *         or the snapshot is stale
+     */
+    public Optional<FlightData> assemble(ConsumerRecord<String, FlightData> record) {
+        FlightData payload = record.value();
+        String key = record.key() != null ? record.key() : payload.getFaFlightId();
+        long version = parseVersion(header(record, HEADER_SNAPSHOT_VERSION));
+
+        if (!TYPE_DELTA.equals(header(record, HEADER_TYPE))) {
+            if (key != null && record.headers().lastHeader(KafkaHeaders.ORIGINAL_TOPIC) == null
+                    && !storeSnapshot(key, payload, version)) {
+                staleSnapshotCounter.increment();
+                log.info("Skipping out-of-order snapshot {} for {} (a newer snapshot was already seen)",
+                        version, payload.getIdent());
+                return Optional.empty();
+            }
+            snapshotCounter.increment();
+            return Optional.of(payload);
+        }
+
+        String clearedFields = header(record, HEADER_CLEARED_FIELDS);
+        Snapshot base = key != null ? snapshots.get(key) : null;
+        if (base != null && base.version() == version) {
+            deltaCounter.increment();
+            return Optional.of(merge(base.flightData(), payload, clearedFields));
+        }
+
+        Optional<FlightData> state = key != null ? flightStateView.get(key) : Optional.empty();
+        if (state.isPresent()) {
+            deltaFromViewCounter.increment();
+            log.debug("Snapshot {} for {} not seen, applying delta to the flight-state view", version, payload.getIdent());
+            return Optional.of(merge(state.get(), payload, clearedFields));
+        }
+        deltaWithoutBaseCounter.increment();
+        log.warn("Skipping delta for {} (snapshot {} not seen and flight not in the flight-state view)",
+                payload.getIdent(), version);
+        return Optional.empty();
+    }
+
+    /**
+     * Store a snapshot unless a newer one is already stored (records can arrive out of order,
+     * e.g. two replicas publishing the same flight)
+     *
+     * @return false if the stored snapshot is newer
+     */
+    private boolean storeSnapshot(String key, FlightData payload, long version) {
+        boolean[] stored = new boolean[1];
+        snapshots.compute(key, (id, current) -> {
+            stored[0] = current == null || version >= current.version();
+            return stored[0] ? new Snapshot(payload, version) : current;
+        });
+        return stored[0];
+    }
+
+    /**
+     * Snapshot with the delta's non-null fields applied and cleared fields removed.
+     */
+    static FlightData merge(FlightData snapshot, FlightData delta, String clearedFields) {
+        FlightData merged = FlightData.builder()
+                .faFlightId(firstNonNull(delta.getFaFlightId(), snapshot.getFaFlightId()))
+                .ident(firstNonNull(delta.getIdent(), snapshot.getIdent()))
+                .status(firstNonNull(delta.getStatus(), snapshot.getStatus()))
+                .scheduledOut(firstNonNull(delta.getScheduledOut(), snapshot.getScheduledOut()))
+                .actualOut(firstNonNull(delta.getActualOut(), snapshot.getActualOut()))
+                .scheduledIn(firstNonNull(delta.getScheduledIn(), snapshot.getScheduledIn()))
+                .actualIn(firstNonNull(delta.getActualIn(), snapshot.getActualIn()))
+                .origin(firstNonNull(delta.getOrigin(), snapshot.getOrigin()))
+                .destination(firstNonNull(delta.getDestination(), snapshot.getDestination()))
+                .aircraftType(firstNonNull(delta.getAircraftType(), snapshot.getAircraftType()))
+                .latitude(firstNonNull(delta.getLatitude(), snapshot.getLatitude()))
+                .longitude(firstNonNull(delta.getLongitude(), snapshot.getLongitude()))
+                .altitude(firstNonNull(delta.getAltitude(), snapshot.getAltitude()))
+                .groundspeed(firstNonNull(delta.getGroundspeed(), snapshot.getGroundspeed()))
+                .build();
+
+        if (clearedFields != null) {
+            for (String field : clearedFields.split(",")) {
+                clear(merged, field.trim());
+            }
+        }
+        return merged;
+    }
+
+    private static void clear(FlightData flightData, String field) {
+        switch (field) {
+            case "status" -> flightData.setStatus(null);
+            case "scheduled_out" -> flightData.setScheduledOut(null);
+            case "actual_out" -> flightData.setActualOut(null);
+            case "scheduled_in" -> flightData.setScheduledIn(null);
+            case "actual_in" -> flightData.setActualIn(null);
+            case "origin" -> flightData.setOrigin(null);
+            case "destination" -> flightData.setDestination(null);
+            case "aircraft_type" -> flightData.setAircraftType(null);
+            case "latitude" -> flightData.setLatitude(null);
+            case "longitude" -> flightData.setLongitude(null);
+            case "altitude" -> flightData.setAltitude(null);
+            case "groundspeed" -> flightData.setGroundspeed(null);
+            default -> log.warn("Ignoring unknown cleared field: {}", field);
+        }
+    }
+
+    private static <T> T firstNonNull(T preferred, T fallback) {
+        return preferred != null ? preferred : fallback;
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static long parseVersion(String version) {
+        try {
+            return version != null ? Long.parseLong(version) : 0L;
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.config.FlightDataEventDeserializer;
+import com.airlinetracker.llmsummary.config.FlightDataSchemas;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * In-memory view of the compacted flight-state topic.
+ *
+ * flightdata-service keeps the latest full FlightData per fa_flight_id on
+ * flight-state. On startup this reads every partition from the beginning up
+ * to the end offsets seen at that moment (bootstrap), then keeps tailing the
+ * topic so the view stays current. No consumer group is used: every replica
+ * reads all partitions and commits nothing.
+ *
+ * A record with a null value (tombstone) removes the flight. Partitions added
+ * to the topic after startup are picked up on the next restart.
+ *
+ * Metrics:
+ * - flight_state_view_flights: flights in the view
+ * - flight_state_view_bootstrap_seconds: duration of the last bootstrap
+ * - flight_state_view_records_total{type=update|tombstone|invalid}
+ */
+@Component
+@Slf4j
+public class FlightStateView implements SmartLifecycle {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private final Supplier<Consumer<String, FlightData>> consumerFactory;
+    private final String topic;
+    private final boolean enabled;
+    private final Map<String, FlightData> flights = new ConcurrentHashMap<>();
+
+    private final Counter updateCounter;
+    private final Counter tombstoneCounter;
+    private final Counter invalidCounter;
+
+    private volatile boolean running;
+    private volatile boolean ready;
+    private volatile double bootstrapSeconds;
+    private volatile Consumer<String, FlightData> consumer;
+    private Thread reader;
+
+    @Autowired
+    public FlightStateView(MeterRegistry meterRegistry,
+                           @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                           @Value("${kafka.topics.flight-state:flight-state}") String topic,
+                           @Value("${kafka.flight-state.view.enabled:false}") boolean enabled) {
+        this(meterRegistry, topic, enabled, () -> createConsumer(bootstrapServers));
+    }
+
+    /**
+     * @param consumerFactory Creates the (unsubscribed) consumer used to read the topic
+     */
+    public FlightStateView(MeterRegistry meterRegistry, String topic, boolean enabled,
+                           Supplier<Consumer<String, FlightData>> consumerFactory) {
+        this.consumerFactory = consumerFactory;
+        this.topic = topic;
+        this.enabled = enabled;
+
+        Gauge.builder("flight_state_view_flights", flights, Map::size)
+                .description("Flights in the flight-state view")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        Gauge.builder("flight_state_view_bootstrap_seconds", this, view -> view.bootstrapSeconds)
+                .description("Time to load flight-state from the beginning to the end offsets")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        this.updateCounter = typeCounter(meterRegistry, "update");
+        this.tombstoneCounter = typeCounter(meterRegistry, "tombstone");
+        this.invalidCounter = typeCounter(meterRegistry, "invalid");
+    }
+
+    private static Counter typeCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("flight_state_view_records")
+                .description("flight-state records applied to the view")
+                .tag("service", "llm-summary-service")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consumer tuned for reading a whole topic quickly (large fetches, no group)
+     */
+    public static Consumer<String, FlightData> createConsumer(String bootstrapServers) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5000);
+        config.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, 50 * 1024 * 1024);
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 10 * 1024 * 1024);
+
+        // A malformed record must not stop the reader: it arrives with a null value and an exception header
+        ErrorHandlingDeserializer<FlightData> valueDeserializer =
+                new ErrorHandlingDeserializer<>(new FlightDataEventDeserializer(FlightDataSchemas.load()));
+        return new KafkaConsumer<>(config, new StringDeserializer(), valueDeserializer);
+    }
+
+    /**
+     * Latest known state of a flight
+     */
+    public Optional<FlightData> get(String faFlightId) {
+        return Optional.ofNullable(flights.get(faFlightId));
+    }
+
+    public int size() {
+        return flights.size();
+    }
+
+    /**
+     * @return true once the topic has been read up to the end offsets seen at startup
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Load the topic from the beginning up to its current end offsets.
+     * The consumer stays assigned, so polling it afterwards tails the topic.
+     *
+     * @return time taken
+     */
+    public Duration bootstrap(Consumer<String, FlightData> consumer) {
+        long start = System.nanoTime();
+        List<TopicPartition> partitions = consumer.partitionsFor(topic).stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+        if (partitions.isEmpty()) {
+            throw new IllegalStateException("Topic " + topic + " does not exist yet");
+        }
+        consumer.assign(partitions);
+        consumer.seekToBeginning(partitions);
+        Map<TopicPartition, Long> endOffsets = new HashMap<>(consumer.endOffsets(partitions));
+
+        long records = 0;
+        while (!endOffsets.isEmpty()) {
+            for (ConsumerRecord<String, FlightData> record : consumer.poll(POLL_TIMEOUT)) {
+                apply(record);
+                records++;
+            }
+            endOffsets.entrySet().removeIf(end -> consumer.position(end.getKey()) >= end.getValue());
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        bootstrapSeconds = elapsed.toNanos() / 1e9;
+        ready = true;
+        log.info("Flight state view loaded {} flights from {} records of {} ({} partitions) in {} ms",
+                flights.size(), records, topic, partitions.size(), elapsed.toMillis());
+        return elapsed;
+    }
+
+    void apply(ConsumerRecord<String, FlightData> record) {
+        if (record.key() == null) {
+            invalidCounter.increment();
+        } else if (record.value() != null) {
+            flights.put(record.key(), record.value());
+            updateCounter.increment();
+        } else if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+            invalidCounter.increment();
+            log.warn("Skipping unreadable flight-state record for {}", record.key());
+        } else {
+            flights.remove(record.key());
+            tombstoneCounter.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        reader = new Thread(this::readLoop, "flight-state-view");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Consumer<String, FlightData> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        if (reader != null) {
+            try {
+                reader.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void readLoop() {
+        while (running) {
+            try (Consumer<String, FlightData> current = consumerFactory.get()) {
+                consumer = current;
+                bootstrap(current);
+                while (running) {
+                    current.poll(POLL_TIMEOUT).forEach(this::apply);
+                }
+            } catch (WakeupException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Flight state view reader failed, retrying in {} s: {}",
+                        RETRY_BACKOFF.toSeconds(), e.getMessage());
+                sleep(RETRY_BACKOFF);
+            } finally {
+                consumer = null;
+            }
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
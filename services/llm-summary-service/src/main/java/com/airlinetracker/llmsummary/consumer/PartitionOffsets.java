@@ -0,0 +1,63 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import java.util.TreeSet;
+
+/**
+ * Offsets of one partition handed to FlightDataParallelConsumer workers.
+ *
+ * Records complete out of order (different flights run on different
+ * workers), so the committable position is the lowest offset still being
+ * processed, or the offset after the highest dispatched one when nothing is
+ * pending. Everything below it is done; nothing at or above it is committed.
+ */
+final class PartitionOffsets {
+
+    private final TreeSet<Long> pending = new TreeSet<>();
+    private long next = -1;
+    private long committed = -1;
+
+    synchronized void dispatched(long offset) {
+        pending.add(offset);
+        next = Math.max(next, offset + 1);
+    }
+
+    synchronized void completed(long offset) {
+        pending.remove(offset);
+        if (pending.isEmpty()) {
+            notifyAll();
+        }
+    }
+
+    synchronized int pending() {
+        return pending.size();
+    }
+
+    /**
+     * @return offset to commit, or -1 if it has not moved since the last commit
+     */
+    synchronized long commitOffset() {
+        long offset = pending.isEmpty() ? next : pending.first();
+        return offset > committed ? offset : -1;
+    }
+
+    synchronized void committed(long offset) {
+        committed = Math.max(committed, offset);
+    }
+
+    /**
+     * Wait until every dispatched record has completed
+     *
+     * @return true if nothing is pending
+     */
+    synchronized boolean awaitCompletion(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!pending.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package com.airlinetracker.llmsummary.controller;
+
+import com.airlinetracker.llmsummary.consumer.DeadLetterReplayer;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Operations endpoint for the flight-data-events dead-letter topic.
+ * Exposes POST /api/v1/admin/dead-letters/replay?rate=5&max=100
+ * and GET /api/v1/admin/dead-letters/replay/{id}
+ *
+ * A replay can run for hours at a low rate, so POST only starts it (202 with
+ * the job and its Location); poll the job for progress. Start another run to
+ * continue after it completes (progress is committed). 409 while a run is
+ * in progress.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/dead-letters")
+@Validated
+@Slf4j
+public class DeadLetterController {
+
+    private final DeadLetterReplayer replayer;
+
+    @Autowired
+    public DeadLetterController(DeadLetterReplayer replayer) {
+        this.replayer = replayer;
+    }
+
+    /**
+     * Start copying dead-lettered records back to flight-data-events.
+     *
+     * @param rate Records per second
+     * @param max  Records in this run
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @RequestParam(defaultValue = "5") @DecimalMin("0.1") @DecimalMax("1000") double rate,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(10000) int max) {
+
+        Optional<DeadLetterReplayer.Job> started = replayer.start(rate, max);
+        if (started.isEmpty()) {
+            log.warn("DLT replay requested while another run is in progress");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(replayer.lastJob().map(DeadLetterController::toResponse).orElseGet(HashMap::new));
+        }
+        DeadLetterReplayer.Job job = started.get();
+        log.info("Replaying up to {} dead-lettered records at {}/s (job {})", max, rate, job.getId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/admin/dead-letters/replay/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    /**
+     * Progress of a replay run (only the running or last run is kept).
+     *
+     * @param id Job id returned by POST /replay
+     */
+    @GetMapping("/replay/{id}")
+    public ResponseEntity<Map<String, Object>> replayStatus(@PathVariable String id) {
+        return replayer.lastJob()
+                .filter(job -> job.getId().equals(id))
+                .map(job -> ResponseEntity.ok(toResponse(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static Map<String, Object> toResponse(DeadLetterReplayer.Job job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", job.getId());
+        response.put("status", job.getStatus());
+        response.put("rate", job.getRatePerSecond());
+        response.put("max", job.getMaxRecords());
+        response.put("replayed", job.getReplayed());
+        response.put("elapsedMs", job.getElapsed().toMillis());
+        if (job.getReport() != null) {
+            response.put("remaining", job.getReport().remaining());
+        }
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        return response;
+    }
+
+    @ExceptionHandler(jakarta.validation.ConstraintViolationException.class)
+    public ResponseEntity<Map<String, String>> handleValidationException(
+            jakarta.validation.ConstraintViolationException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid replay parameters");
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(400).body(error);
+    }
+}
@@ -0,0 +1,47 @@
+package com.airlinetracker.llmsummary.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * JPA Entity for summary_cache table.
+ * Shared tier of SummaryCache: generated summary text by prompt hash, so any replica can reuse it.
+ */
+@Entity
+@Table(name = "summary_cache", indexes = {
+        @Index(name = "idx_summary_cache_created_at", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryCacheEntry {
+
+    /**
+     * SHA-256 (hex) of the prompt input, see OpenAIClient.cacheKey
+     */
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "summary_text", nullable = false, columnDefinition = "TEXT")
+    private String summaryText;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * Set timestamp before persisting.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+}
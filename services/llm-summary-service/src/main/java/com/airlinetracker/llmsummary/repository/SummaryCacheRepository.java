@@ -0,0 +1,28 @@
+package com.airlinetracker.llmsummary.repository;
+
+import com.airlinetracker.llmsummary.entity.SummaryCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository for SummaryCacheEntry entity (shared tier of SummaryCache).
+ */
+@Repository
+public interface SummaryCacheRepository extends JpaRepository<SummaryCacheEntry, String> {
+
+    /**
+     * Delete entries created before the cutoff.
+     * @param cutoff Oldest creation time to keep
+     * @return Number of deleted entries
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from SummaryCacheEntry e where e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,263 @@
+package com.airlinetracker.llmsummary.service;
+
+import com.airlinetracker.llmsummary.client.OpenAIClient;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipelined summary generation: many OpenAI requests in flight, no thread waiting on each.
+ *
+ * submit() takes one of openai.max-concurrent-requests permits (blocking the
+ * caller while all are taken) and starts OpenAIClient.generateSummaryAsync.
+ * When the text arrives, the permit is released and the summary is cached and
+ * saved by one of summary.engine.writer-threads through SummaryService.
+ * Template and cached summaries (SummaryService.findReadySummary) skip OpenAI and the permit.
+ * The DB transaction (and connection) is only opened at that point, instead
+ * of for the whole OpenAI round trip.
+ *
+ * With summary.batch.max-size > 1, flights waiting for OpenAI are gathered for
+ * up to summary.batch.window-ms (or until max-size are pending) and summarised
+ * in one completion (OpenAIClient.generateSummariesAsync) per permit. Flights
+ * the batched response does not cover, or all of them if it fails or cannot
+ * be parsed, are then requested one by one under the same permit.
+ *
+ * Metrics:
+ * - openai_requests_in_flight: OpenAI requests started and not yet answered
+ * - summary_batch_fallbacks_total: flights re-requested singly after a batched completion
+ */
+@Component
+@Slf4j
+public class SummaryEngine {
+
+    private final OpenAIClient openAIClient;
+    private final SummaryService summaryService;
+    private final Semaphore permits;
+    private final ExecutorService writers;
+    private final int batchMaxSize;
+    private final long batchWindowMs;
+    private final ScheduledExecutorService batchTimer;
+    private final Counter batchFallbackCounter;
+
+    private final List<PendingSummary> pending = new ArrayList<>(); // guarded by itself
+    private long batchGeneration;                                   // guarded by pending
+
+    public SummaryEngine(OpenAIClient openAIClient, SummaryService summaryService, MeterRegistry meterRegistry,
+                         @Value("${openai.max-concurrent-requests:32}") int maxConcurrentRequests,
+                         @Value("${summary.engine.writer-threads:4}") int writerThreads,
+                         @Value("${summary.batch.max-size:1}") int batchMaxSize,
+                         @Value("${summary.batch.window-ms:50}") long batchWindowMs) {
+        this.openAIClient = openAIClient;
+        this.summaryService = summaryService;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "summary-writer-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchMaxSize = Math.max(1, batchMaxSize);
+        this.batchWindowMs = batchWindowMs;
+        this.batchTimer = this.batchMaxSize > 1
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "summary-batch-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+
+        this.batchFallbackCounter = Counter.builder("summary_batch_fallbacks")
+                .description("Flights re-requested singly after a batched OpenAI completion")
+                .tag("service", "llm-summary-service")
+                .baseUnit("flights")
+                .register(meterRegistry);
+
+        Gauge.builder("openai_requests_in_flight", permits,
+                        available -> maxConcurrentRequests - available.availablePermits())
+                .description("OpenAI requests started and not yet answered")
+                .tag("service", "llm-summary-service")
+                .register(meterRegistry);
+        log.info("=== SUMMARY ENGINE INITIALIZED ({} concurrent requests, {} writers, batches of {} within {} ms) ===",
+                maxConcurrentRequests, writerThreads, this.batchMaxSize, batchWindowMs);
+    }
+
+    /**
+     * Start summarising a flight; blocks only while max-concurrent-requests are in flight.
+     * With batching, the flight may first wait up to window-ms for others to join its request.
+     *
+     * @param flightData Flight to summarise
+     * @return Completes once the summary is saved, or exceptionally if OpenAI or the save failed
+     */
+    public CompletableFuture<Void> submit(FlightData flightData) {
+        CompletableFuture<Void> saved = new CompletableFuture<>();
+        Optional<String> ready = summaryService.findReadySummary(flightData);
+        if (ready.isPresent()) {
+            write(flightData, ready.get(), false, saved);
+            return saved;
+        }
+        PendingSummary summary = new PendingSummary(flightData, saved);
+        if (batchMaxSize == 1) {
+            request(List.of(summary));
+            return saved;
+        }
+
+        List<PendingSummary> full = null;
+        synchronized (pending) {
+            pending.add(summary);
+            if (pending.size() >= batchMaxSize) {
+                full = drainPending();
+            } else if (pending.size() == 1) {
+                long generation = batchGeneration;
+                batchTimer.schedule(() -> flush(generation), batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            request(full);
+        }
+        return saved;
+    }
+
+    private List<PendingSummary> drainPending() {
+        List<PendingSummary> batch = new ArrayList<>(pending);
+        pending.clear();
+        batchGeneration++;
+        return batch;
+    }
+
+    /**
+     * Window elapsed: request whatever joined the batch, unless it already filled up and left
+     */
+    private void flush(long generation) {
+        List<PendingSummary> batch;
+        synchronized (pending) {
+            if (generation != batchGeneration || pending.isEmpty()) {
+                return;
+            }
+            batch = drainPending();
+        }
+        request(batch);
+    }
+
+    private void request(List<PendingSummary> batch) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.forEach(summary -> summary.saved().completeExceptionally(e));
+            return;
+        }
+
+        if (batch.size() == 1) {
+            PendingSummary only = batch.get(0);
+            Mono.defer(() -> openAIClient.generateSummaryAsync(only.flightData())).subscribe(
+                    summaryText -> {
+                        permits.release();
+                        write(only.flightData(), summaryText, true, only.saved());
+                    },
+                    error -> {
+                        permits.release();
+                        only.saved().completeExceptionally(error);
+                    });
+            return;
+        }
+
+        openAIClient.generateSummariesAsync(batch.stream().map(PendingSummary::flightData).toList())
+                .onErrorResume(error -> {
+                    log.warn("Batched summary request for {} flights failed, requesting them singly: {}",
+                            batch.size(), error.getMessage());
+                    return Mono.just(new HashMap<>());
+                })
+                .subscribe(summaries -> {
+                    List<PendingSummary> missing = new ArrayList<>();
+                    int matched = 0;
+                    try {
+                        for (PendingSummary summary : batch) {
+                            // No fa_flight_id: nothing to match in the batched answer, request it singly
+                            String faFlightId = summary.flightData().getFaFlightId();
+                            String summaryText = faFlightId != null ? summaries.get(faFlightId) : null;
+                            if (summaryText != null) {
+                                write(summary.flightData(), summaryText, true, summary.saved());
+                            } else {
+                                missing.add(summary);
+                            }
+                            matched++;
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("Could not apply batched summaries, requesting {} flights singly: {}",
+                                batch.size() - matched, e.getMessage(), e);
+                    } finally {
+                        // Whatever could not be matched is still requested singly, so every future
+                        // completes and the permit is released by the fallback below
+                        missing.addAll(batch.subList(matched, batch.size()));
+                        batchFallbackCounter.increment(missing.size());
+                        fallBackToSingleRequests(missing);
+                    }
+                });
+    }
+
+    /**
+     * Request flights one at a time, still under the batch's permit, and release it when done
+     */
+    private void fallBackToSingleRequests(List<PendingSummary> missing) {
+        Flux.fromIterable(missing)
+                .concatMap(summary -> Mono.defer(() -> openAIClient.generateSummaryAsync(summary.flightData()))
+                        .doOnNext(summaryText -> write(summary.flightData(), summaryText, true, summary.saved()))
+                        .onErrorResume(error -> {
+                            summary.saved().completeExceptionally(error);
+                            return Mono.empty();
+                        }))
+                .doFinally(signal -> permits.release())
+                .subscribe();
+    }
+
+    private void write(FlightData flightData, String summaryText, boolean generated, CompletableFuture<Void> saved) {
+        try {
+            writers.execute(() -> save(flightData, summaryText, generated, saved));
+        } catch (RuntimeException e) {
+            saved.completeExceptionally(e);
+        }
+    }
+
+    private void save(FlightData flightData, String summaryText, boolean generated, CompletableFuture<Void> saved) {
+        try {
+            if (generated) {
+                summaryService.cacheSummary(flightData, summaryText);
+            }
+            summaryService.saveSummary(flightData, summaryText);
+            saved.complete(null);
+        } catch (RuntimeException e) {
+            log.error("Failed to save summary for {}: {}", flightData.getIdent(), e.getMessage(), e);
+            saved.completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (batchTimer != null) {
+            batchTimer.shutdownNow();
+        }
+        writers.shutdown();
+    }
+
+    private record PendingSummary(FlightData flightData, CompletableFuture<Void> saved) {
+    }
+}
@@ -1,19 +1,28 @@
 package com.airlinetracker.llmsummary.service;
 
+import com.airlinetracker.llmsummary.cache.SummaryCache;
 import com.airlinetracker.llmsummary.client.OpenAIClient;
 import com.airlinetracker.llmsummary.dto.FlightData;
 import com.airlinetracker.llmsummary.entity.FlightSummary;
 import com.airlinetracker.llmsummary.repository.FlightSummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.Optional;
 
 /**
  * Service for processing flight data and managing summaries.
  * Orchestrates between OpenAI Client and PostgreSQL repository.
+ *
+ * Each summary is routed to the cheapest source that can produce it:
+ * template (TemplateSummaryGenerator) → cache (SummaryCache) → LLM (OpenAIClient).
+ *
+ * Metrics:
+ * - summary_routes_total{route=template|cache|llm}: where each summary came from
  */
 @Service
 @Slf4j
@@ -21,28 +30,108 @@ public class SummaryService {
 
     private final OpenAIClient openAIClient;
     private final FlightSummaryRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final SummaryCache summaryCache;
+    private final TemplateSummaryGenerator templateSummaryGenerator;
+
+    private final Counter templateRouteCounter;
+    private final Counter cacheRouteCounter;
+    private final Counter llmRouteCounter;
 
     @Autowired
-    public SummaryService(OpenAIClient openAIClient, FlightSummaryRepository repository) {
+    public SummaryService(OpenAIClient openAIClient, FlightSummaryRepository repository,
+                          TransactionOperations transactionOperations, SummaryCache summaryCache,
+                          TemplateSummaryGenerator templateSummaryGenerator, MeterRegistry meterRegistry) {
         this.openAIClient = openAIClient;
         this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.summaryCache = summaryCache;
+        this.templateSummaryGenerator = templateSummaryGenerator;
+
+        this.templateRouteCounter = routeCounter(meterRegistry, "template");
+        this.cacheRouteCounter = routeCounter(meterRegistry, "cache");
+        this.llmRouteCounter = routeCounter(meterRegistry, "llm");
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("summary_routes")
+                .description("Summaries per source (template, cache or LLM)")
+                .tag("service", "llm-summary-service")
+                .tag("route", route)
+                .baseUnit("summaries")
+                .register(meterRegistry);
     }
 
     /**
      * Process flight data from Kafka: generate summary and save to database.
      * If summary already exists for this fa_flight_id, update it instead.
+     * The OpenAI call runs outside the transaction, so no DB connection is held while waiting for it.
+     * Routine states are templated and identical prompt input is summarised once.
      * 
      * @param flightData Flight data from Kafka event
      */
-    @Transactional
     public void processFlightData(FlightData flightData) {
         log.debug("Processing flight data for: {} ({})", flightData.getIdent(), flightData.getFaFlightId());
 
         try {
-            // Generate summary using OpenAI
-            String summaryText = openAIClient.generateSummary(flightData);
-            log.info("Generated summary for flight {}: {}", flightData.getIdent(), summaryText);
+            String summaryText = findReadySummary(flightData).orElse(null);
+            if (summaryText == null) {
+                // Generate summary using OpenAI
+                summaryText = openAIClient.generateSummary(flightData);
+                log.info("Generated summary for flight {}: {}", flightData.getIdent(), summaryText);
+                cacheSummary(flightData, summaryText);
+            }
+
+            saveSummary(flightData, summaryText);
 
+        } catch (Exception e) {
+            log.error("Failed to process flight data for {}: {}", flightData.getIdent(), e.getMessage(), e);
+            throw e; // Propagate to trigger Kafka retry if needed
+        }
+    }
+
+    /**
+     * Summary available without OpenAI: a template for routine states, else one
+     * generated earlier for identical prompt input. Empty routes the flight to the LLM.
+     *
+     * @param flightData Flight data to summarize
+     * @return Template or cached summary text
+     */
+    public Optional<String> findReadySummary(FlightData flightData) {
+        Optional<String> templated = templateSummaryGenerator.generate(flightData);
+        if (templated.isPresent()) {
+            templateRouteCounter.increment();
+            log.debug("Templated summary for flight {} ({})", flightData.getIdent(), flightData.getStatus());
+            return templated;
+        }
+        Optional<String> cached = summaryCache.get(openAIClient.cacheKey(flightData));
+        if (cached.isPresent()) {
+            cacheRouteCounter.increment();
+            log.debug("Reusing cached summary for flight {}", flightData.getIdent());
+            return cached;
+        }
+        llmRouteCounter.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Remember a newly generated summary for identical prompt input.
+     *
+     * @param flightData  Flight data the summary was generated from
+     * @param summaryText Generated summary
+     */
+    public void cacheSummary(FlightData flightData, String summaryText) {
+        summaryCache.put(openAIClient.cacheKey(flightData), summaryText);
+    }
+
+    /**
+     * Create or update the summary for a flight in one short transaction.
+     *
+     * @param flightData  Flight the summary belongs to
+     * @param summaryText Generated summary
+     */
+    public void saveSummary(FlightData flightData, String summaryText) {
+        transactionOperations.executeWithoutResult(status -> {
             // Check if summary already exists for this fa_flight_id
             Optional<FlightSummary> existingSummary = repository.findByFaFlightId(flightData.getFaFlightId());
 
@@ -65,12 +154,8 @@ public class SummaryService {
             // Save to database (timestamps handled by @PrePersist/@PreUpdate)
             // Use saveAndFlush to ensure immediate DB commit for E2E test visibility
             repository.saveAndFlush(flightSummary);
-            log.info("Successfully saved summary for flight {}", flightData.getIdent());
-
-        } catch (Exception e) {
-            log.error("Failed to process flight data for {}: {}", flightData.getIdent(), e.getMessage(), e);
-            throw e; // Propagate to trigger Kafka retry if needed
-        }
+        });
+        log.info("Successfully saved summary for flight {}", flightData.getIdent());
     }
 
     /**
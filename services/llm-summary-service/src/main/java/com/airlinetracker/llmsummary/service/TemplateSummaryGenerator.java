@@ -0,0 +1,111 @@
+package com.airlinetracker.llmsummary.service;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic summaries for routine flight states, without an OpenAI round trip.
+ *
+ * A scheduled, landed or cancelled flight's summary is fully determined by
+ * ident, origin, destination, status and times, so it is rendered in-process
+ * (microseconds) and the LLM is reserved for states that need it (en route,
+ * diverted, delayed, ...).
+ *
+ * Each template is selected by a case-insensitive status pattern
+ * (summary.templates.scheduled / landed / cancelled, blank = always LLM).
+ * Flights missing ident, origin or destination always go to the LLM.
+ */
+@Component
+@Slf4j
+public class TemplateSummaryGenerator {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm 'UTC on' d MMM yyyy", Locale.ENGLISH)
+            .withZone(ZoneOffset.UTC);
+
+    private final boolean enabled;
+    private final Pattern scheduled;
+    private final Pattern landed;
+    private final Pattern cancelled;
+
+    public TemplateSummaryGenerator(
+            @Value("${summary.templates.enabled:true}") boolean enabled,
+            @Value("${summary.templates.scheduled:Scheduled}") String scheduledStatuses,
+            @Value("${summary.templates.landed:(Landed|Arrived)\\b.*}") String landedStatuses,
+            @Value("${summary.templates.cancelled:Cancell?ed\\b.*}") String cancelledStatuses) {
+        this.enabled = enabled;
+        this.scheduled = compile(scheduledStatuses);
+        this.landed = compile(landedStatuses);
+        this.cancelled = compile(cancelledStatuses);
+        log.info("Template summaries {} (scheduled: '{}', landed: '{}', cancelled: '{}')",
+                enabled ? "enabled" : "disabled", scheduledStatuses, landedStatuses, cancelledStatuses);
+    }
+
+    private static Pattern compile(String statuses) {
+        return statuses == null || statuses.isBlank() ? null : Pattern.compile(statuses, Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * @param flightData Flight to summarize
+     * @return Template summary, or empty when the flight's state needs the LLM
+     */
+    public Optional<String> generate(FlightData flightData) {
+        if (!enabled || isBlank(flightData.getIdent()) || isBlank(flightData.getOrigin())
+                || isBlank(flightData.getDestination()) || flightData.getStatus() == null) {
+            return Optional.empty();
+        }
+        String status = flightData.getStatus().trim();
+        String route = "Flight " + flightData.getIdent() + " from " + flightData.getOrigin()
+                + " to " + flightData.getDestination();
+
+        if (matches(cancelled, status)) {
+            return Optional.of(route + " has been cancelled. " + (flightData.getScheduledOut() != null
+                    ? "It was scheduled to depart at " + TIME.format(flightData.getScheduledOut()) + "."
+                    : "No replacement departure time is available."));
+        }
+        if (matches(landed, status)) {
+            return Optional.of(route + " has landed at " + flightData.getDestination() + ". "
+                    + (flightData.getActualIn() != null
+                    ? "It arrived at " + TIME.format(flightData.getActualIn())
+                    + punctuality(flightData.getScheduledIn(), flightData.getActualIn()) + "."
+                    : "The arrival time has not been reported yet."));
+        }
+        if (matches(scheduled, status)) {
+            return Optional.of(route + " is scheduled and has not departed yet. " + (flightData.getScheduledOut() != null
+                    ? "It is due to depart at " + TIME.format(flightData.getScheduledOut())
+                    + (flightData.getScheduledIn() != null
+                    ? " and arrive at " + TIME.format(flightData.getScheduledIn()) : "") + "."
+                    : "The departure time has not been published yet."));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean matches(Pattern pattern, String status) {
+        return pattern != null && pattern.matcher(status).matches();
+    }
+
+    private static String punctuality(Instant scheduled, Instant actual) {
+        if (scheduled == null) {
+            return "";
+        }
+        long minutes = Duration.between(scheduled, actual).toMinutes();
+        if (minutes == 0) {
+            return ", on time";
+        }
+        long magnitude = Math.abs(minutes);
+        return ", " + magnitude + (magnitude == 1 ? " minute " : " minutes ") + (minutes > 0 ? "late" : "early");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
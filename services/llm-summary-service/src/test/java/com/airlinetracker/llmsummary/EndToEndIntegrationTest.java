@@ -102,6 +102,9 @@ class EndToEndIntegrationTest {
         registry.add("openai.model", () -> "gpt-3.5-turbo");
         registry.add("openai.max-tokens", () -> "150");
         registry.add("openai.temperature", () -> "0.7");
+
+        // Every event goes through OpenAI (these tests use routine statuses)
+        registry.add("summary.templates.enabled", () -> "false");
     }
 
     // ========== Spring Components ==========
@@ -0,0 +1,152 @@
+package com.airlinetracker.llmsummary.cache;
+
+import com.airlinetracker.llmsummary.entity.SummaryCacheEntry;
+import com.airlinetracker.llmsummary.repository.SummaryCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SummaryCache.
+ *
+ * Test Requirements:
+ * - put() stores in both tiers; later lookups hit L1 without touching the repository
+ * - An L2 hit populates L1 for the rest of the row's TTL only; L2 entries older than the TTL are misses
+ * - Repository failures are treated as misses and never thrown
+ * - Hits and misses are counted overall and per tier
+ * - A disabled cache never hits and never stores
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SummaryCache Tests")
+class SummaryCacheTest {
+
+    private static final long TTL_HOURS = 24;
+
+    @Mock
+    private SummaryCacheRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SummaryCache(meterRegistry, repository, true, 100, TTL_HOURS);
+    }
+
+    @Test
+    @DisplayName("Should store in both tiers and serve later lookups from L1")
+    void shouldServeStoredSummaryFromL1() {
+        cache.put("key", "UAL123 is en route.");
+
+        assertThat(cache.get("key")).contains("UAL123 is en route.");
+
+        ArgumentCaptor<SummaryCacheEntry> captor = ArgumentCaptor.forClass(SummaryCacheEntry.class);
+        verify(repository).save(captor.capture());
+        assertThat(captor.getValue().getCacheKey()).isEqualTo("key");
+        assertThat(captor.getValue().getSummaryText()).isEqualTo("UAL123 is en route.");
+        verify(repository, never()).findById(any());
+        assertThat(count("summary_cache_hits")).isEqualTo(1);
+        assertThat(tierCount("summary_cache_tier_hits", "l1")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should populate L1 from an L2 hit")
+    void shouldPopulateL1FromL2() {
+        when(repository.findById("key")).thenReturn(Optional.of(entry(Instant.now().minusSeconds(60))));
+
+        assertThat(cache.get("key")).contains("Cached summary");
+        assertThat(cache.get("key")).contains("Cached summary");
+
+        verify(repository, times(1)).findById("key");
+        assertThat(tierCount("summary_cache_tier_misses", "l1")).isEqualTo(1);
+        assertThat(tierCount("summary_cache_tier_hits", "l2")).isEqualTo(1);
+        assertThat(tierCount("summary_cache_tier_hits", "l1")).isEqualTo(1);
+        assertThat(count("summary_cache_hits")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should expire an L1 entry filled from L2 when the L2 row expires")
+    void shouldKeepL2RemainingLifetimeInL1() {
+        AtomicLong nanos = new AtomicLong();
+        SummaryCache cache = new SummaryCache(meterRegistry, repository, true, 100, TTL_HOURS, nanos::get);
+        when(repository.findById("key"))
+                .thenReturn(Optional.of(entry(Instant.now().minus(Duration.ofHours(TTL_HOURS - 1)))));
+
+        assertThat(cache.get("key")).contains("Cached summary");
+        nanos.addAndGet(Duration.ofMinutes(59).toNanos());
+        assertThat(cache.get("key")).contains("Cached summary");
+        verify(repository, times(1)).findById("key");
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        cache.get("key");
+        verify(repository, times(2)).findById("key");
+    }
+
+    @Test
+    @DisplayName("Should treat L2 entries older than the TTL as misses")
+    void shouldIgnoreExpiredL2Entries() {
+        Instant expired = Instant.now().minus(Duration.ofHours(TTL_HOURS + 1));
+        when(repository.findById("key")).thenReturn(Optional.of(entry(expired)));
+
+        assertThat(cache.get("key")).isEmpty();
+
+        assertThat(tierCount("summary_cache_tier_misses", "l2")).isEqualTo(1);
+        assertThat(count("summary_cache_misses")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should treat repository failures as misses")
+    void shouldTreatRepositoryFailuresAsMisses() {
+        when(repository.findById("key")).thenThrow(new DataAccessResourceFailureException("database down"));
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThat(cache.get("key")).isEmpty();
+        assertThatCode(() -> cache.put("key", "Summary")).doesNotThrowAnyException();
+        assertThat(count("summary_cache_misses")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should neither hit nor store when disabled")
+    void shouldDoNothingWhenDisabled() {
+        SummaryCache disabled = new SummaryCache(new SimpleMeterRegistry(), repository, false, 100, TTL_HOURS);
+
+        disabled.put("key", "Summary");
+
+        assertThat(disabled.get("key")).isEmpty();
+        verifyNoInteractions(repository);
+    }
+
+    private double count(String metric) {
+        return meterRegistry.get(metric).counter().count();
+    }
+
+    private double tierCount(String metric, String tier) {
+        return meterRegistry.get(metric).tag("tier", tier).counter().count();
+    }
+
+    private static SummaryCacheEntry entry(Instant createdAt) {
+        return SummaryCacheEntry.builder()
+                .cacheKey("key")
+                .summaryText("Cached summary")
+                .createdAt(createdAt)
+                .build();
+    }
+}
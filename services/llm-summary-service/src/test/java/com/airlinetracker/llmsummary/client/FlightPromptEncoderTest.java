@@ -0,0 +1,97 @@
+package com.airlinetracker.llmsummary.client;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FlightPromptEncoder.
+ *
+ * Test Requirements:
+ * - One short line per field present, nulls dropped, times as HH:mm UTC with the date once
+ * - Times on another day carry a day offset
+ * - The batched encoding starts with the fa_flight_id
+ * - The encoding is estimated at well under the tokens of the Jackson JSON it replaces
+ */
+@DisplayName("FlightPromptEncoder Tests")
+class FlightPromptEncoderTest {
+
+    private final FlightPromptEncoder encoder = new FlightPromptEncoder();
+
+    @Test
+    @DisplayName("Should encode an en-route flight as compact lines")
+    void shouldEncodeEnRouteFlight() {
+        assertThat(encoder.encode(enRouteFlight())).isEqualTo("""
+                flight: UAL123
+                route: KORD to KLAX
+                aircraft: B738
+                status: En-Route / In Flight
+                date: 2025-11-10 (UTC)
+                departure: scheduled 09:00, actual 10:00
+                arrival: scheduled 14:00
+                position: 39.83,-98.58, 35000 ft, 450 kt""");
+    }
+
+    @Test
+    @DisplayName("Should drop absent fields and mark times on the following day")
+    void shouldDropNullsAndMarkNextDay() {
+        FlightData overnight = FlightData.builder()
+                .ident("DAL456")
+                .faFlightId("DAL456-1-0")
+                .status("Scheduled")
+                .scheduledOut(Instant.parse("2025-11-10T22:30:00Z"))
+                .scheduledIn(Instant.parse("2025-11-11T06:15:00Z"))
+                .origin("KSEA")
+                .build();
+
+        assertThat(encoder.encode(overnight)).isEqualTo("""
+                flight: DAL456
+                route: from KSEA
+                status: Scheduled
+                date: 2025-11-10 (UTC)
+                departure: scheduled 22:30
+                arrival: scheduled 06:15 +1d""");
+    }
+
+    @Test
+    @DisplayName("Should lead the batched encoding with the fa_flight_id")
+    void shouldEncodeWithId() {
+        assertThat(encoder.encodeWithId(enRouteFlight()))
+                .startsWith("fa_flight_id: UAL123-1234567890-1-0\nflight: UAL123\n");
+    }
+
+    @Test
+    @DisplayName("Should estimate far fewer tokens than the Jackson JSON encoding")
+    void shouldEstimateFewerTokensThanJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        int json = FlightPromptEncoder.estimateTokens(objectMapper.writeValueAsString(enRouteFlight()));
+        int compact = FlightPromptEncoder.estimateTokens(encoder.encode(enRouteFlight()));
+
+        assertThat(FlightPromptEncoder.estimateTokens("flight: UAL123")).isEqualTo(5);
+        assertThat(compact).isPositive().isLessThan(json / 2);
+    }
+
+    private static FlightData enRouteFlight() {
+        return FlightData.builder()
+                .ident("UAL123")
+                .faFlightId("UAL123-1234567890-1-0")
+                .status("En-Route / In Flight")
+                .scheduledOut(Instant.parse("2025-11-10T09:00:00Z"))
+                .actualOut(Instant.parse("2025-11-10T10:00:00Z"))
+                .scheduledIn(Instant.parse("2025-11-10T14:00:00Z"))
+                .origin("KORD")
+                .destination("KLAX")
+                .aircraftType("B738")
+                .latitude(39.8283)
+                .longitude(-98.5795)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+}
@@ -1,8 +1,11 @@
 package com.airlinetracker.llmsummary.client;
 
 import com.airlinetracker.llmsummary.dto.FlightData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -212,13 +217,94 @@ class OpenAIClientTest {
                 .withRequestBody(containing("temperature")));
     }
 
+    @Test
+    @DisplayName("Should derive the same cache key from identical prompt input")
+    void testCacheKey_Stable() {
+        String key = openAIClient.cacheKey(createTestFlightData());
+
+        assertThat(key).hasSize(64).matches("[0-9a-f]+");
+        assertThat(openAIClient.cacheKey(createTestFlightData())).isEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Should derive a different cache key when flight data or model settings change")
+    void testCacheKey_SensitiveToPromptInput() {
+        String key = openAIClient.cacheKey(createTestFlightData());
+
+        FlightData moved = createTestFlightData();
+        moved.setAltitude(36000);
+        OpenAIClient otherModel = new OpenAIClient("http://localhost:8089", TEST_API_KEY, "gpt-4o-mini", 150, 0.7);
+
+        assertThat(openAIClient.cacheKey(moved)).isNotEqualTo(key);
+        assertThat(otherModel.cacheKey(createTestFlightData())).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Should split a batched completion into summaries by fa_flight_id")
+    void testGenerateSummaries_Batch() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OpenAIClient client = new OpenAIClient("http://localhost:8089", TEST_API_KEY, "gpt-3.5-turbo", 150, 0.7,
+                4, meterRegistry);
+        stubFor(post(urlEqualTo("/chat/completions"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(batchResponse("""
+                                ```json
+                                {"summaries": [
+                                  {"fa_flight_id": "UAL123-1234567890-1-0", "summary": "UAL123 is en route."},
+                                  {"fa_flight_id": "DAL456-1234567890-1-0", "summary": "DAL456 has landed."},
+                                  {"fa_flight_id": "not-requested", "summary": "Ignored."}
+                                ]}
+                                ```""", 300))));
+
+        Map<String, String> summaries = client.generateSummariesAsync(
+                List.of(createTestFlightData(), createTestFlightData("DAL456"))).block();
+
+        assertThat(summaries).containsOnly(
+                Map.entry("UAL123-1234567890-1-0", "UAL123 is en route."),
+                Map.entry("DAL456-1234567890-1-0", "DAL456 has landed."));
+        verify(postRequestedFor(urlEqualTo("/chat/completions"))
+                .withRequestBody(containing("\"max_tokens\":300"))
+                .withRequestBody(containing("DAL456-1234567890-1-0")));
+        assertThat(meterRegistry.get("openai_summaries_per_request").tag("request", "batch").summary().mean())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("openai_tokens_per_summary").tag("request", "batch").summary().mean())
+                .isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("Should fail a batched completion that is not the requested JSON")
+    void testGenerateSummaries_Unparseable() throws Exception {
+        stubFor(post(urlEqualTo("/chat/completions"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(batchResponse("UAL123 is en route. DAL456 has landed.", 100))));
+
+        assertThatThrownBy(() -> openAIClient.generateSummariesAsync(
+                List.of(createTestFlightData(), createTestFlightData("DAL456"))).block())
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("unparseable batched response");
+    }
+
+    private static String batchResponse(String content, int totalTokens) throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsString(Map.of(
+                "choices", List.of(Map.of("message", Map.of("role", "assistant", "content", content))),
+                "usage", Map.of("total_tokens", totalTokens)));
+    }
+
     /**
      * Helper method to create test flight data.
      */
     private FlightData createTestFlightData() {
+        return createTestFlightData("UAL123");
+    }
+
+    private FlightData createTestFlightData(String ident) {
         return FlightData.builder()
-                .ident("UAL123")
-                .faFlightId("UAL123-1234567890-1-0")
+                .ident(ident)
+                .faFlightId(ident + "-1234567890-1-0")
                 .status("En-Route / In Flight")
                 .scheduledOut(Instant.parse("2025-11-10T09:00:00Z"))
                 .actualOut(Instant.parse("2025-11-10T10:00:00Z"))
@@ -0,0 +1,66 @@
+package com.airlinetracker.llmsummary.config;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FlightDataEventDeserializer.
+ *
+ * Test Requirements:
+ * - Avro single-object records are decoded with the shared schema
+ * - JSON records (previous format) are still accepted
+ * - Null values (tombstones) stay null
+ */
+@DisplayName("FlightDataEventDeserializer Tests")
+class FlightDataEventDeserializerTest {
+
+    private static final String TOPIC = "flight-data-events";
+
+    private final FlightDataSchemas schemas = FlightDataSchemas.load();
+    private final FlightDataEventDeserializer deserializer = new FlightDataEventDeserializer(schemas);
+
+    @Test
+    @DisplayName("Should decode Avro records")
+    void shouldDecodeAvro() {
+        FlightData flightData = flight();
+
+        assertThat(deserializer.deserialize(TOPIC, schemas.encode(flightData))).isEqualTo(flightData);
+    }
+
+    @Test
+    @DisplayName("Should still decode JSON records")
+    void shouldDecodeJson() throws Exception {
+        FlightData flightData = flight();
+        byte[] json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsBytes(flightData);
+
+        assertThat(deserializer.deserialize(TOPIC, json)).isEqualTo(flightData);
+    }
+
+    @Test
+    @DisplayName("Should return null for tombstones")
+    void shouldKeepTombstonesNull() {
+        assertThat(deserializer.deserialize(TOPIC, null)).isNull();
+    }
+
+    private static FlightData flight() {
+        return FlightData.builder()
+                .faFlightId("UAL123-1710489600-airline-0123")
+                .ident("UAL123")
+                .status("En Route / On Time")
+                .scheduledOut(Instant.parse("2024-03-15T14:30:00Z"))
+                .actualOut(Instant.parse("2024-03-15T14:35:00Z"))
+                .origin("KSFO")
+                .destination("KJFK")
+                .latitude(39.8561)
+                .longitude(-104.6737)
+                .altitude(35000)
+                .build();
+    }
+}
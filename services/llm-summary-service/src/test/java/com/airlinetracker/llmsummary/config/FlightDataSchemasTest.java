@@ -0,0 +1,47 @@
+package com.airlinetracker.llmsummary.config;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FlightDataSchemas.
+ *
+ * Test Requirements:
+ * - Every schema version in /schemas is fully compatible with every other (build-time check)
+ * - The latest schema has exactly the FlightData JSON properties, so this
+ *   DTO cannot drift from flightdata-service's FlightData unnoticed
+ */
+@DisplayName("FlightDataSchemas Tests")
+class FlightDataSchemasTest {
+
+    private final FlightDataSchemas schemas = FlightDataSchemas.load();
+
+    @Test
+    @DisplayName("Should load mutually compatible schema versions")
+    void shouldLoadCompatibleSchemaVersions() {
+        assertThat(schemas.versions()).isNotEmpty();
+        FlightDataSchemas.checkCompatibility(schemas.versions());
+    }
+
+    @Test
+    @DisplayName("Should have a schema field for every FlightData property")
+    void shouldMatchFlightDataJsonProperties() {
+        ObjectMapper mapper = new ObjectMapper();
+        JavaType type = mapper.constructType(FlightData.class);
+        List<String> properties = mapper.getSerializationConfig().introspect(type).findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .toList();
+
+        assertThat(schemas.latest().getFields()).extracting(Schema.Field::name)
+                .containsExactlyInAnyOrderElementsOf(properties);
+    }
+}
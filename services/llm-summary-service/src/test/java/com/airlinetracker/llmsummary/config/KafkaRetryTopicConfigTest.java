@@ -0,0 +1,115 @@
+package com.airlinetracker.llmsummary.config;
+
+import com.airlinetracker.llmsummary.consumer.DeadLetterReplayer;
+import com.airlinetracker.llmsummary.consumer.DownstreamBackpressure;
+import com.airlinetracker.llmsummary.consumer.FlightDataConsumer;
+import com.airlinetracker.llmsummary.consumer.FlightStateAssembler;
+import com.airlinetracker.llmsummary.consumer.FlightStateView;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.service.SummaryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration test for non-blocking retries and the dead-letter topic (Embedded Kafka).
+ *
+ * Test Requirements:
+ * - A record that keeps failing goes through every retry tier, then to the DLT
+ * - DeadLetterReplayer re-drives DLT records to flight-data-events once (in a background job)
+ * - Retry records are processed after their tier's delay (retry lag metric per tier)
+ */
+@SpringBootTest(classes = KafkaRetryTopicConfigTest.RetryTestConfig.class)
+@EmbeddedKafka(partitions = 1, topics = {"flight-data-events"})
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=llm-summary-retry-test",
+        "kafka.retry.delays-ms=200,400",
+        "kafka.retry.partitions=1",
+        "kafka.flight-state.view.enabled=false"
+})
+@DisplayName("KafkaRetryTopicConfig Tests")
+class KafkaRetryTopicConfigTest {
+
+    @Configuration
+    @Import({KafkaConsumerConfig.class, KafkaRetryTopicConfig.class, FlightDataConsumer.class,
+            FlightStateAssembler.class, FlightStateView.class, DownstreamBackpressure.class, DeadLetterReplayer.class})
+    static class RetryTestConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        KafkaAdmin kafkaAdmin(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+            return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        }
+    }
+
+    @MockBean
+    private SummaryService summaryService;
+
+    @Autowired
+    private KafkaTemplate<String, FlightData> retryKafkaTemplate;
+
+    @Autowired
+    private DeadLetterReplayer replayer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should move a failing record through the retry tiers to the DLT, then replay it")
+    void shouldDeadLetterAndReplay() throws Exception {
+        doThrow(new RuntimeException("OpenAI unavailable")).when(summaryService).processFlightData(any());
+
+        FlightData flightData = FlightData.builder().ident("UAL123").faFlightId("UAL123-1").status("Scheduled").build();
+        retryKafkaTemplate.send("flight-data-events", flightData.getFaFlightId(), flightData).get(10, TimeUnit.SECONDS);
+
+        await().atMost(30, TimeUnit.SECONDS).until(() -> count("flight_events_dead_lettered") == 1.0);
+        verify(summaryService, times(3)).processFlightData(any());
+        assertThat(meterRegistry.get("flight_events_retry_lag").tag("topic", "flight-data-events-retry-0").timer()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("flight_events_retry_lag").tag("topic", "flight-data-events-retry-1").timer()
+                .count()).isEqualTo(1);
+
+        reset(summaryService);
+        DeadLetterReplayer.Job job = replayer.start(100, 10).orElseThrow();
+        await().atMost(30, TimeUnit.SECONDS).until(() -> !job.isRunning());
+
+        assertThat(job.getStatus()).isEqualTo(DeadLetterReplayer.Job.Status.COMPLETED);
+        assertThat(job.getReport().replayed()).isEqualTo(1);
+        assertThat(job.getReport().remaining()).isZero();
+        verify(summaryService, timeout(10000)).processFlightData(any());
+
+        DeadLetterReplayer.Job again = replayer.start(100, 10).orElseThrow();
+        await().atMost(30, TimeUnit.SECONDS).until(() -> !again.isRunning());
+        assertThat(again.getReport().replayed()).isZero();
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+}
@@ -0,0 +1,109 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ConsumerLagMonitor.
+ *
+ * Test Requirements:
+ * - Lag per partition is end offset - committed offset (beginning offset if nothing committed)
+ * - Retry and dead-letter topics are reported, unrelated topics are not
+ * - Time to drain is the main topic lag divided by the consume rate (+Inf while nothing is committed)
+ */
+@DisplayName("ConsumerLagMonitor Tests")
+class ConsumerLagMonitorTest {
+
+    private static final String TOPIC = "flight-data-events";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+    private static final TopicPartition RETRY = new TopicPartition(TOPIC + "-retry-0", 0);
+    private static final TopicPartition DLT = new TopicPartition(TOPIC + "-dlt", 0);
+    private static final TopicPartition OTHER = new TopicPartition("flight-state", 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockConsumer<byte[], byte[]> consumer;
+    private ConsumerLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        monitor = new ConsumerLagMonitor(meterRegistry, TOPIC, true, 1000, () -> consumer);
+        consumer.updatePartitions(TOPIC, List.of(partitionInfo(P0), partitionInfo(P1)));
+        for (TopicPartition tp : List.of(RETRY, DLT, OTHER)) {
+            consumer.updatePartitions(tp.topic(), List.of(partitionInfo(tp)));
+        }
+        consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 20L, RETRY, 0L, DLT, 0L, OTHER, 0L));
+    }
+
+    @Test
+    @DisplayName("Should report lag per partition of the main, retry and dead-letter topics")
+    void shouldReportLagPerPartition() {
+        consumer.updateEndOffsets(Map.of(P0, 100L, P1, 50L, RETRY, 7L, DLT, 2L, OTHER, 1000L));
+        commit(Map.of(P0, 60L, RETRY, 5L, DLT, 2L));
+
+        Map<TopicPartition, Long> lag = monitor.sample(consumer);
+
+        assertThat(lag).containsOnly(
+                Map.entry(P0, 40L),
+                Map.entry(P1, 30L),
+                Map.entry(RETRY, 2L),
+                Map.entry(DLT, 0L));
+        assertThat(meterRegistry.get("flight_events_consumer_lag")
+                .tag("topic", TOPIC).tag("partition", "0").gauge().value()).isEqualTo(40);
+        assertThat(meterRegistry.get("flight_events_consumer_lag")
+                .tag("topic", RETRY.topic()).tag("partition", "0").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.find("flight_events_consumer_lag").tag("topic", OTHER.topic()).gauge()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should estimate time to drain from the rate at which offsets are committed")
+    void shouldEstimateTimeToDrain() throws Exception {
+        consumer.updateEndOffsets(Map.of(P0, 1000L, P1, 20L, RETRY, 0L, DLT, 0L, OTHER, 0L));
+        commit(Map.of(P0, 0L, P1, 20L));
+        monitor.sample(consumer);
+
+        // Lag but no commits since the last sample yet
+        assertThat(gauge("flight_events_time_to_drain_seconds")).isEqualTo(Double.POSITIVE_INFINITY);
+
+        Thread.sleep(100);
+        commit(Map.of(P0, 500L));
+        monitor.sample(consumer);
+
+        assertThat(monitor.getConsumeRate()).isPositive();
+        assertThat(gauge("flight_events_consume_rate")).isEqualTo(monitor.getConsumeRate());
+        assertThat(gauge("flight_events_time_to_drain_seconds")).isEqualTo(500 / monitor.getConsumeRate());
+
+        commit(Map.of(P0, 1000L));
+        monitor.sample(consumer);
+
+        assertThat(gauge("flight_events_time_to_drain_seconds")).isZero();
+    }
+
+    private void commit(Map<TopicPartition, Long> offsets) {
+        consumer.assign(List.of(P0, P1, RETRY, DLT));
+        offsets.forEach((tp, offset) -> consumer.commitSync(Map.of(tp, new OffsetAndMetadata(offset))));
+    }
+
+    private static PartitionInfo partitionInfo(TopicPartition tp) {
+        return new PartitionInfo(tp.topic(), tp.partition(), Node.noNode(), new Node[0], new Node[0]);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,125 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit tests for DownstreamBackpressure.
+ *
+ * Test Requirements:
+ * - Summary time is recorded per outcome and exceptions are rethrown
+ * - The listeners are paused once the failure ratio or latency crosses its limit
+ * - They are resumed after pause-ms
+ */
+@DisplayName("DownstreamBackpressure Tests")
+class DownstreamBackpressureTest {
+
+    private static final int MIN_SAMPLES = 5;
+
+    private final AtomicInteger pauses = new AtomicInteger();
+    private final AtomicInteger resumes = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private DownstreamBackpressure backpressure;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backpressure = new DownstreamBackpressure(meterRegistry, pauses::incrementAndGet, resumes::incrementAndGet,
+                true, 50, 0.5, 200, MIN_SAMPLES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backpressure.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should record summary time per outcome and rethrow failures")
+    void shouldRecordProcessingTime() {
+        backpressure.run(() -> { });
+        assertThatThrownBy(() -> backpressure.run(() -> {
+            throw new IllegalStateException("OpenAI unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("flight_events_processing").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("flight_events_processing").tag("outcome", "failure").timer().count())
+                .isEqualTo(1);
+        assertThat(pauses).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Should pause while summaries keep failing, then resume")
+    void shouldPauseOnFailures() {
+        for (int i = 0; i < 20 && !backpressure.isPaused(); i++) {
+            fail();
+        }
+
+        assertThat(backpressure.isPaused()).isTrue();
+        assertThat(pauses).hasValue(1);
+        assertThat(meterRegistry.get("flight_events_consumer_paused").gauge().value()).isEqualTo(1);
+
+        // Records already fetched before the pause do not pause again
+        fail();
+        assertThat(pauses).hasValue(1);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !backpressure.isPaused());
+        assertThat(resumes).hasValue(1);
+        assertThat(meterRegistry.get("flight_events_backpressure_pauses").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("flight_events_consumer_paused").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should pause when summaries are slower than max-latency-ms, after min-samples")
+    void shouldPauseOnLatency() {
+        for (int i = 0; i < MIN_SAMPLES - 1; i++) {
+            backpressure.run(() -> sleep(60));
+        }
+        assertThat(backpressure.isPaused()).isFalse();
+
+        backpressure.run(() -> sleep(60));
+        assertThat(backpressure.isPaused()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not pause for occasional failures")
+    void shouldTolerateOccasionalFailures() {
+        for (int i = 0; i < 50; i++) {
+            if (i % 5 == 0) {
+                fail();
+            } else {
+                backpressure.run(() -> { });
+            }
+        }
+
+        assertThat(backpressure.isPaused()).isFalse();
+    }
+
+    private void fail() {
+        try {
+            backpressure.run(() -> {
+                throw new IllegalStateException("OpenAI unavailable");
+            });
+        } catch (IllegalStateException expected) {
+            // counted by backpressure
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.service.SummaryEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FlightDataBatchConsumer.
+ *
+ * Test Requirements:
+ * - Only the latest state per fa_flight_id in a batch is summarised
+ * - Flights are submitted in the order of their latest record
+ * - A failure names the earliest failing flight's record so earlier ones are committed
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FlightDataBatchConsumer Tests")
+class FlightDataBatchConsumerTest {
+
+    @Mock
+    private SummaryEngine summaryEngine;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlightDataBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new FlightDataBatchConsumer(summaryEngine, new FlightStateAssembler(meterRegistry,
+                new FlightStateView(meterRegistry, "flight-state", false, () -> null), 100),
+                new DownstreamBackpressure(meterRegistry, () -> { }, () -> { }, false, 8000, 0.5, 30000, 10),
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should summarise only the latest event of each flight")
+    void shouldCollapseEventsPerFlight() {
+        when(summaryEngine.submit(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        consumer.consumeFlightData(List.of(
+                record(0, flight("UAL1", "Scheduled")),
+                record(1, flight("DAL2", "Scheduled")),
+                record(2, flight("UAL1", "En Route")),
+                record(3, flight("UAL1", "Landed"))));
+
+        ArgumentCaptor<FlightData> processed = ArgumentCaptor.forClass(FlightData.class);
+        verify(summaryEngine, times(2)).submit(processed.capture());
+        assertThat(processed.getAllValues()).extracting(FlightData::getIdent, FlightData::getStatus)
+                .containsExactly(
+                        tuple("DAL2", "Scheduled"),
+                        tuple("UAL1", "Landed"));
+        assertThat(meterRegistry.get("flight_events_batch_collapsed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("flight_events_batch_size").summary().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should report the earliest failing flight's record to the error handler")
+    void shouldNameFailingRecord() {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        when(summaryEngine.submit(any())).thenAnswer(invocation -> switch (invocation.<FlightData>getArgument(0)
+                .getIdent()) {
+            case "UAL1" -> CompletableFuture.failedFuture(new RuntimeException("OpenAI unavailable"));
+            case "AAL3" -> pending;
+            default -> CompletableFuture.completedFuture(null);
+        });
+        // The batch is only reported once every summary has finished
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)
+                .execute(() -> pending.completeExceptionally(new RuntimeException("OpenAI timeout")));
+
+        assertThatThrownBy(() -> consumer.consumeFlightData(List.of(
+                record(0, flight("UAL1", "Scheduled")),
+                record(1, flight("DAL2", "Scheduled")),
+                record(2, flight("UAL1", "En Route")),
+                record(3, flight("AAL3", "Scheduled")))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(2));
+
+        assertThat(pending).isDone();
+        verify(summaryEngine, times(3)).submit(any());
+    }
+
+    private static ConsumerRecord<String, FlightData> record(long offset, FlightData flightData) {
+        return new ConsumerRecord<>("flight-data-events", 0, offset, flightData.getFaFlightId(), flightData);
+    }
+
+    private static FlightData flight(String ident, String status) {
+        return FlightData.builder()
+                .ident(ident)
+                .faFlightId(ident + "-id")
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import com.airlinetracker.llmsummary.service.SummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FlightDataParallelConsumer.
+ *
+ * Test Requirements:
+ * - Events of one flight are processed in offset order
+ * - Different flights run concurrently within one partition
+ * - Offsets are committed only up to the lowest record still in progress
+ * - A failing record is retried with backoff, then skipped so the offset can advance
+ * - Reaching max-in-flight pauses the partition instead of blocking the consumer thread
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FlightDataParallelConsumer Tests")
+class FlightDataParallelConsumerTest {
+
+    private static final String TOPIC = "flight-data-events";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+    private static final int WORKERS = 4;
+
+    @Mock
+    private SummaryService summaryService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlightDataParallelConsumer consumer;
+    private MockConsumer<String, FlightData> kafkaConsumer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = newConsumer(100, 1);
+        kafkaConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        kafkaConsumer.assign(List.of(PARTITION));
+    }
+
+    private FlightDataParallelConsumer newConsumer(int maxInFlight, long retryBackoffMs) {
+        return new FlightDataParallelConsumer(summaryService, new FlightStateAssembler(meterRegistry,
+                new FlightStateView(meterRegistry, "flight-state", false, () -> null), 100),
+                new DownstreamBackpressure(meterRegistry, () -> { }, () -> { }, false, 8000, 0.5, 30000, 10),
+                meterRegistry, WORKERS, maxInFlight, retryBackoffMs, retryBackoffMs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should process events of one flight in offset order")
+    void shouldKeepPerFlightOrder() throws Exception {
+        List<String> statuses = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> statuses.add(invocation.<FlightData>getArgument(0).getStatus()))
+                .when(summaryService).processFlightData(any());
+
+        List<ConsumerRecord<String, FlightData>> records = IntStream.range(0, 50)
+                .mapToObj(i -> record(i, flight("UAL1", "status-" + i)))
+                .toList();
+        consumer.consumeFlightData(records, kafkaConsumer);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> statuses.size() == 50);
+        assertThat(statuses).containsExactlyElementsOf(
+                IntStream.range(0, 50).mapToObj(i -> "status-" + i).toList());
+        consumer.commit(kafkaConsumer);
+        assertThat(committed()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should run other flights while one is slow and commit only below it")
+    void shouldCommitUpToLowestInProgress() throws Exception {
+        String slow = "UAL1";
+        String fast = IntStream.range(2, 100).mapToObj(i -> "DAL" + i)
+                .filter(ident -> lane(ident) != lane(slow))
+                .findFirst().orElseThrow();
+        CountDownLatch release = new CountDownLatch(1);
+        lenient().doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(summaryService).processFlightData(argThat(flightData -> slow.equals(flightData.getIdent())));
+
+        consumer.consumeFlightData(List.of(
+                record(0, flight(fast, "Scheduled")),
+                record(1, flight(slow, "Scheduled")),
+                record(2, flight(fast, "En Route"))), kafkaConsumer);
+
+        verify(summaryService, timeout(5000).times(2))
+                .processFlightData(argThat(flightData -> fast.equals(flightData.getIdent())));
+        consumer.commit(kafkaConsumer);
+        assertThat(committed()).isEqualTo(1);
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            consumer.commit(kafkaConsumer);
+            assertThat(committed()).isEqualTo(3);
+        });
+        assertThat(meterRegistry.get("flight_events_parallel_processed").tag("outcome", "success")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should retry a failing record, then skip it")
+    void shouldSkipAfterRetries() throws Exception {
+        doThrow(new RuntimeException("OpenAI unavailable")).when(summaryService).processFlightData(any());
+
+        consumer.consumeFlightData(List.of(record(0, flight("UAL1", "Scheduled"))), kafkaConsumer);
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            consumer.commit(kafkaConsumer);
+            assertThat(committed()).isEqualTo(1);
+        });
+        verify(summaryService, times(10)).processFlightData(any());
+        assertThat(meterRegistry.get("flight_events_parallel_processed").tag("outcome", "failed")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should back off between retries of a failing record")
+    void shouldBackOffBetweenRetries() throws Exception {
+        consumer.shutdown();
+        consumer = newConsumer(100, 100);
+        List<Long> attempts = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            attempts.add(System.nanoTime());
+            throw new RuntimeException("OpenAI unavailable");
+        }).when(summaryService).processFlightData(any());
+
+        consumer.consumeFlightData(List.of(record(0, flight("UAL1", "Scheduled"))), kafkaConsumer);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> attempts.size() >= 3);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(attempts.get(1) - attempts.get(0))).isGreaterThanOrEqualTo(90);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(attempts.get(2) - attempts.get(1))).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    @DisplayName("Should pause and rewind instead of blocking when max in flight is reached")
+    void shouldPauseWhenMaxInFlightReached() throws Exception {
+        consumer.shutdown();
+        consumer = newConsumer(2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(summaryService).processFlightData(any());
+
+        consumer.consumeFlightData(IntStream.range(0, 5)
+                .mapToObj(i -> record(i, flight("UAL" + i, "Scheduled")))
+                .toList(), kafkaConsumer);
+
+        assertThat(kafkaConsumer.paused()).containsExactly(PARTITION);
+        assertThat(kafkaConsumer.position(PARTITION)).isEqualTo(2);
+        assertThat(meterRegistry.get("flight_events_parallel_pauses").counter().count()).isEqualTo(1);
+
+        consumer.resumeIfDrained(kafkaConsumer);
+        assertThat(kafkaConsumer.paused()).containsExactly(PARTITION);
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            consumer.resumeIfDrained(kafkaConsumer);
+            assertThat(kafkaConsumer.paused()).isEmpty();
+        });
+        consumer.commit(kafkaConsumer);
+        assertThat(committed()).isEqualTo(2);
+        verify(summaryService, times(2)).processFlightData(any());
+    }
+
+    @Test
+    @DisplayName("Should drain and commit revoked partitions")
+    void shouldCommitOnRevoke() throws Exception {
+        consumer.consumeFlightData(List.of(
+                record(0, flight("UAL1", "Scheduled")),
+                record(1, flight("DAL2", "Scheduled"))), kafkaConsumer);
+
+        consumer.onPartitionsRevokedBeforeCommit(kafkaConsumer, List.of(PARTITION));
+
+        assertThat(committed()).isEqualTo(2);
+        verify(summaryService, times(2)).processFlightData(any());
+    }
+
+    private long committed() {
+        Map<TopicPartition, OffsetAndMetadata> committed = kafkaConsumer.committed(Set.of(PARTITION));
+        OffsetAndMetadata offset = committed.get(PARTITION);
+        return offset != null ? offset.offset() : -1;
+    }
+
+    private static int lane(String ident) {
+        return FlightDataParallelConsumer.lane(ident + "-id", WORKERS);
+    }
+
+    private static ConsumerRecord<String, FlightData> record(long offset, FlightData flightData) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, flightData.getFaFlightId(), flightData);
+    }
+
+    private static FlightData flight(String ident, String status) {
+        return FlightData.builder()
+                .ident(ident)
+                .faFlightId(ident + "-id")
+                .status(status)
+                .build();
+    }
+}
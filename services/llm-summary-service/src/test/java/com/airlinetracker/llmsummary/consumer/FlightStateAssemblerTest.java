@@ -0,0 +1,183 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FlightStateAssembler.
+ *
+ * Test Requirements:
+ * - Records without headers are treated as snapshots (older producers)
+ * - Deltas are merged onto the snapshot they refer to, including cleared fields
+ * - Deltas for an unknown or superseded snapshot are merged onto the flight-state view
+ * - Deltas are skipped only when the flight-state view does not know the flight either
+ * - Retried or replayed snapshots do not replace the stored snapshot
+ * - Out-of-order snapshots are skipped and do not replace a newer snapshot
+ */
+@DisplayName("FlightStateAssembler Tests")
+class FlightStateAssemblerTest {
+
+    private static final String FA_FLIGHT_ID = "UAL123-1234567890-1-0";
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlightStateView flightStateView;
+    private FlightStateAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        flightStateView = new FlightStateView(meterRegistry, "flight-state", false, () -> null);
+        assembler = new FlightStateAssembler(meterRegistry, flightStateView, 100);
+    }
+
+    @Test
+    @DisplayName("Should pass through records without headers as snapshots")
+    void shouldTreatRecordWithoutHeadersAsSnapshot() {
+        FlightData snapshot = snapshot();
+
+        Optional<FlightData> result = assembler.assemble(new ConsumerRecord<>("flight-data-events", 0, 0, FA_FLIGHT_ID, snapshot));
+
+        assertThat(result).containsSame(snapshot);
+        assertThat(count("snapshot")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should merge delta onto its snapshot")
+    void shouldMergeDeltaOntoSnapshot() {
+        assembler.assemble(record(snapshot(), "SNAPSHOT", 1000L, null));
+        FlightData delta = FlightData.builder()
+                .faFlightId(FA_FLIGHT_ID)
+                .ident("UAL123")
+                .latitude(40.5)
+                .longitude(-100.25)
+                .altitude(36000)
+                .build();
+
+        FlightData merged = assembler.assemble(record(delta, "DELTA", 1000L, "groundspeed")).orElseThrow();
+
+        assertThat(merged.getLatitude()).isEqualTo(40.5);
+        assertThat(merged.getLongitude()).isEqualTo(-100.25);
+        assertThat(merged.getAltitude()).isEqualTo(36000);
+        assertThat(merged.getGroundspeed()).isNull();
+        assertThat(merged.getStatus()).isEqualTo("En-Route / In Flight");
+        assertThat(merged.getOrigin()).isEqualTo("KORD");
+        assertThat(merged.getActualOut()).isEqualTo(Instant.parse("2025-11-10T10:00:00Z"));
+        assertThat(count("delta")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should apply every delta to the snapshot, not to the previous delta")
+    void shouldApplyDeltasRelativeToSnapshot() {
+        assembler.assemble(record(snapshot(), "SNAPSHOT", 1000L, null));
+        assembler.assemble(record(FlightData.builder().faFlightId(FA_FLIGHT_ID).status("Landed").build(),
+                "DELTA", 1000L, null));
+
+        FlightData merged = assembler.assemble(record(FlightData.builder().faFlightId(FA_FLIGHT_ID).altitude(1000).build(),
+                "DELTA", 1000L, null)).orElseThrow();
+
+        assertThat(merged.getStatus()).isEqualTo("En-Route / In Flight");
+        assertThat(merged.getAltitude()).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Should skip delta when neither its snapshot nor the flight-state view knows the flight")
+    void shouldSkipDeltaWithoutBase() {
+        FlightData delta = FlightData.builder().faFlightId(FA_FLIGHT_ID).altitude(1000).build();
+
+        assertThat(assembler.assemble(record(delta, "DELTA", 1000L, null))).isEmpty();
+
+        assembler.assemble(record(snapshot(), "SNAPSHOT", 2000L, null));
+        assertThat(assembler.assemble(record(delta, "DELTA", 1000L, null))).isEmpty();
+        assertThat(count("delta_without_base")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should merge delta onto the flight-state view when its snapshot has not been seen")
+    void shouldFallBackToFlightStateView() {
+        FlightData state = snapshot();
+        state.setStatus("Landed");
+        flightStateView.apply(new ConsumerRecord<>("flight-state", 0, 0, FA_FLIGHT_ID, state));
+        FlightData delta = FlightData.builder().faFlightId(FA_FLIGHT_ID).ident("UAL123").altitude(0).build();
+
+        FlightData merged = assembler.assemble(record(delta, "DELTA", 1000L, "latitude,longitude")).orElseThrow();
+
+        assertThat(merged.getStatus()).isEqualTo("Landed");
+        assertThat(merged.getAltitude()).isZero();
+        assertThat(merged.getLatitude()).isNull();
+        assertThat(merged.getDestination()).isEqualTo("KLAX");
+        assertThat(count("delta_from_view")).isEqualTo(1.0);
+        assertThat(count("delta_without_base")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not let a retried snapshot replace the current one")
+    void shouldKeepSnapshotWhenRetriedSnapshotArrives() {
+        assembler.assemble(record(snapshot(), "SNAPSHOT", 2000L, null));
+        ConsumerRecord<String, FlightData> retried = record(snapshot(), "SNAPSHOT", 1000L, null);
+        retried.headers().add(KafkaHeaders.ORIGINAL_TOPIC, "flight-data-events".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(assembler.assemble(retried)).isPresent();
+        FlightData delta = FlightData.builder().faFlightId(FA_FLIGHT_ID).altitude(1000).build();
+        assertThat(assembler.assemble(record(delta, "DELTA", 2000L, null))).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should skip a snapshot older than the stored one")
+    void shouldSkipOutOfOrderSnapshot() {
+        assembler.assemble(record(snapshot(), "SNAPSHOT", 2000L, null));
+        FlightData older = snapshot();
+        older.setStatus("Scheduled");
+
+        assertThat(assembler.assemble(record(older, "SNAPSHOT", 1000L, null))).isEmpty();
+
+        FlightData delta = FlightData.builder().faFlightId(FA_FLIGHT_ID).altitude(1000).build();
+        assertThat(assembler.assemble(record(delta, "DELTA", 2000L, null))).get()
+                .extracting(FlightData::getStatus).isEqualTo("En-Route / In Flight");
+        assertThat(assembler.assemble(record(delta, "DELTA", 1000L, null))).isEmpty();
+        assertThat(count("stale_snapshot")).isEqualTo(1.0);
+    }
+
+    private ConsumerRecord<String, FlightData> record(FlightData value, String type, long version, String cleared) {
+        ConsumerRecord<String, FlightData> record = new ConsumerRecord<>("flight-data-events", 0, 0, FA_FLIGHT_ID, value);
+        record.headers().add(FlightStateAssembler.HEADER_TYPE, type.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(FlightStateAssembler.HEADER_SNAPSHOT_VERSION,
+                Long.toString(version).getBytes(StandardCharsets.UTF_8));
+        if (cleared != null) {
+            record.headers().add(FlightStateAssembler.HEADER_CLEARED_FIELDS, cleared.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    private double count(String type) {
+        return meterRegistry.get("flight_events_assembled").tag("type", type).counter().count();
+    }
+
+    private static FlightData snapshot() {
+        return FlightData.builder()
+                .ident("UAL123")
+                .faFlightId(FA_FLIGHT_ID)
+                .status("En-Route / In Flight")
+                .scheduledOut(Instant.parse("2025-11-10T09:00:00Z"))
+                .actualOut(Instant.parse("2025-11-10T10:00:00Z"))
+                .scheduledIn(Instant.parse("2025-11-10T14:00:00Z"))
+                .origin("KORD")
+                .destination("KLAX")
+                .aircraftType("B738")
+                .latitude(39.8283)
+                .longitude(-98.5795)
+                .altitude(35000)
+                .groundspeed(450)
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.airlinetracker.llmsummary.consumer;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FlightStateView.
+ *
+ * Test Requirements:
+ * - Bootstrap reads every partition from the beginning up to the end offsets
+ * - Later records for a flight replace earlier ones; tombstones remove the flight
+ * - Unreadable records are skipped and counted
+ */
+@DisplayName("FlightStateView Tests")
+class FlightStateViewTest {
+
+    private static final String TOPIC = "flight-state";
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockConsumer<String, FlightData> consumer;
+    private FlightStateView view;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        view = new FlightStateView(meterRegistry, TOPIC, true, () -> consumer);
+    }
+
+    @Test
+    @DisplayName("Should load the latest state of every flight across partitions")
+    void shouldBootstrapLatestStatePerFlight() {
+        givenPartitions(Map.of(P0, 2L, P1, 1L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(P0, 0, "UAL1-id", flight("UAL1", "Scheduled")));
+            consumer.addRecord(record(P0, 1, "UAL1-id", flight("UAL1", "En Route")));
+            consumer.addRecord(record(P1, 0, "DAL2-id", flight("DAL2", "Landed")));
+        });
+
+        view.bootstrap(consumer);
+
+        assertThat(view.isReady()).isTrue();
+        assertThat(view.size()).isEqualTo(2);
+        assertThat(view.get("UAL1-id")).get().extracting(FlightData::getStatus).isEqualTo("En Route");
+        assertThat(view.get("DAL2-id")).isPresent();
+        assertThat(meterRegistry.get("flight_state_view_flights").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should remove flights on tombstones and skip unreadable records")
+    void shouldApplyTombstonesAndSkipInvalidRecords() {
+        givenPartitions(Map.of(P0, 3L, P1, 0L));
+        ConsumerRecord<String, FlightData> unreadable = record(P0, 2, "BAD-id", null);
+        unreadable.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[0]);
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(record(P0, 0, "UAL1-id", flight("UAL1", "En Route")));
+            consumer.addRecord(record(P0, 1, "UAL1-id", null));
+            consumer.addRecord(unreadable);
+        });
+
+        view.bootstrap(consumer);
+
+        assertThat(view.size()).isZero();
+        assertThat(count("tombstone")).isEqualTo(1);
+        assertThat(count("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should complete immediately for an empty topic")
+    void shouldBootstrapEmptyTopic() {
+        givenPartitions(Map.of(P0, 0L, P1, 0L));
+
+        view.bootstrap(consumer);
+
+        assertThat(view.isReady()).isTrue();
+        assertThat(view.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail bootstrap while the topic does not exist")
+    void shouldFailWhenTopicMissing() {
+        assertThatThrownBy(() -> view.bootstrap(consumer)).isInstanceOf(IllegalStateException.class);
+        assertThat(view.isReady()).isFalse();
+    }
+
+    private void givenPartitions(Map<TopicPartition, Long> endOffsets) {
+        Node node = new Node(0, "localhost", 9092);
+        consumer.updatePartitions(TOPIC, endOffsets.keySet().stream()
+                .map(tp -> new PartitionInfo(TOPIC, tp.partition(), node, new Node[]{node}, new Node[]{node}))
+                .toList());
+        consumer.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+        consumer.updateEndOffsets(endOffsets);
+    }
+
+    private double count(String type) {
+        return meterRegistry.get("flight_state_view_records").tag("type", type).counter().count();
+    }
+
+    private static ConsumerRecord<String, FlightData> record(TopicPartition tp, long offset, String key,
+                                                             FlightData value) {
+        return new ConsumerRecord<>(tp.topic(), tp.partition(), offset, key, value);
+    }
+
+    private static FlightData flight(String ident, String status) {
+        return FlightData.builder()
+                .ident(ident)
+                .faFlightId(ident + "-id")
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.airlinetracker.llmsummary.controller;
+
+import com.airlinetracker.llmsummary.consumer.DeadLetterReplayer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for DeadLetterController.
+ *
+ * Test Requirements:
+ * - POST /api/v1/admin/dead-letters/replay starts a run with rate and max and returns 202
+ * - A second run is refused with 409 while one is in progress
+ * - GET /api/v1/admin/dead-letters/replay/{id} reports progress, 404 for unknown jobs
+ * - Out-of-range parameters are rejected with 400
+ */
+@WebMvcTest(DeadLetterController.class)
+@DisplayName("DeadLetterController Tests")
+class DeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeadLetterReplayer replayer;
+
+    @Test
+    @DisplayName("Should start a replay with the requested rate and limit and return 202")
+    void shouldStartReplay() throws Exception {
+        DeadLetterReplayer.Job job = new DeadLetterReplayer.Job(2.0, 50);
+        when(replayer.start(2.0, 50)).thenReturn(Optional.of(job));
+
+        mockMvc.perform(post("/api/v1/admin/dead-letters/replay").param("rate", "2").param("max", "50"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/admin/dead-letters/replay/" + job.getId()))
+                .andExpect(jsonPath("$.id").value(job.getId()))
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.replayed").value(0));
+    }
+
+    @Test
+    @DisplayName("Should return 409 with the running job when a replay is in progress")
+    void shouldRejectConcurrentReplay() throws Exception {
+        DeadLetterReplayer.Job running = new DeadLetterReplayer.Job(5.0, 100);
+        when(replayer.start(anyDouble(), anyInt())).thenReturn(Optional.empty());
+        when(replayer.lastJob()).thenReturn(Optional.of(running));
+
+        mockMvc.perform(post("/api/v1/admin/dead-letters/replay"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.id").value(running.getId()));
+    }
+
+    @Test
+    @DisplayName("Should report job progress, and 404 for an unknown job")
+    void shouldReportProgress() throws Exception {
+        DeadLetterReplayer.Job job = new DeadLetterReplayer.Job(5.0, 100);
+        when(replayer.lastJob()).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/v1/admin/dead-letters/replay/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.max").value(100));
+        mockMvc.perform(get("/api/v1/admin/dead-letters/replay/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return 400 when max is out of range")
+    void shouldRejectInvalidMax() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/dead-letters/replay").param("max", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid replay parameters"));
+
+        verify(replayer, never()).start(anyDouble(), anyInt());
+    }
+}
@@ -0,0 +1,240 @@
+package com.airlinetracker.llmsummary.service;
+
+import com.airlinetracker.llmsummary.client.OpenAIClient;
+import com.airlinetracker.llmsummary.dto.FlightData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SummaryEngine.
+ *
+ * Test Requirements:
+ * - At most max-concurrent-requests OpenAI requests are in flight; submit blocks beyond that
+ * - The summary is saved once OpenAI answers, and the future completes after the save
+ * - An OpenAI failure completes the future exceptionally without saving
+ * - Generated summaries are cached; template and cached summaries are saved without calling OpenAI
+ * - Batching: max-size flights go out at once, fewer after window-ms, in one completion per permit
+ * - Flights missing from a batched completion (or without fa_flight_id), or all after a failed one,
+ *   are requested singly and the permit is released
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SummaryEngine Tests")
+class SummaryEngineTest {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
+
+    @Mock
+    private OpenAIClient openAIClient;
+
+    @Mock
+    private SummaryService summaryService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SummaryEngine engine;
+    private final Map<String, Sinks.One<String>> responses = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new SummaryEngine(openAIClient, summaryService, meterRegistry, MAX_CONCURRENT_REQUESTS, 1, 1, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep at most max-concurrent-requests in flight and save each answer")
+    void shouldBoundRequestsInFlight() {
+        givenPendingResponses();
+
+        CompletableFuture<Void> first = engine.submit(flight("UAL1"));
+        CompletableFuture<Void> second = engine.submit(flight("DAL2"));
+        assertThat(inFlight()).isEqualTo(2);
+
+        CompletableFuture<CompletableFuture<Void>> third = CompletableFuture.supplyAsync(
+                () -> engine.submit(flight("AAL3")));
+        await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> !third.isDone());
+
+        responses.get("UAL1").tryEmitValue("UAL1 is en route.");
+        first.join();
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        CompletableFuture<Void> thirdSaved = third.join();
+        assertThat(second).isNotDone();
+
+        responses.get("DAL2").tryEmitValue("DAL2 has landed.");
+        responses.get("AAL3").tryEmitValue("AAL3 is scheduled.");
+        CompletableFuture.allOf(second, thirdSaved).join();
+        verify(summaryService, times(3)).saveSummary(any(), any());
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should fail the summary without saving when OpenAI fails")
+    void shouldFailWithoutSaving() {
+        when(openAIClient.generateSummaryAsync(any()))
+                .thenReturn(Mono.error(new RuntimeException("OpenAI API call failed: 503")));
+
+        CompletableFuture<Void> saved = engine.submit(flight("UAL1"));
+
+        assertThat(saved).isCompletedExceptionally();
+        verify(summaryService, never()).saveSummary(any(), any());
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cache each generated summary before saving it")
+    void shouldCacheGeneratedSummary() {
+        when(openAIClient.generateSummaryAsync(any())).thenReturn(Mono.just("UAL1 is en route."));
+
+        engine.submit(flight("UAL1")).join();
+
+        verify(summaryService).cacheSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+    }
+
+    @Test
+    @DisplayName("Should save a cached summary without an OpenAI request")
+    void shouldSaveCachedSummaryWithoutOpenAI() {
+        when(summaryService.findReadySummary(any())).thenReturn(Optional.of("UAL1 is en route."));
+
+        engine.submit(flight("UAL1")).join();
+
+        verify(openAIClient, never()).generateSummaryAsync(any());
+        verify(summaryService, never()).cacheSummary(any(), any());
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should summarise max-size flights in one batched completion")
+    void shouldBatchUpToMaxSize() {
+        SummaryEngine batching = batchingEngine(2, 60_000);
+        when(openAIClient.generateSummariesAsync(anyList())).thenReturn(Mono.just(Map.of(
+                "UAL1-id", "UAL1 is en route.",
+                "DAL2-id", "DAL2 has landed.")));
+
+        CompletableFuture<Void> first = batching.submit(flight("UAL1"));
+        assertThat(first).isNotDone();
+        CompletableFuture<Void> second = batching.submit(flight("DAL2"));
+        CompletableFuture.allOf(first, second).join();
+
+        verify(openAIClient, times(1)).generateSummariesAsync(argThat(flights -> flights.size() == 2));
+        verify(openAIClient, never()).generateSummaryAsync(any());
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        verify(summaryService).saveSummary(argThatIdent("DAL2"), eq("DAL2 has landed."));
+        batching.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should send a partial batch once the window elapses")
+    void shouldFlushPartialBatchAfterWindow() {
+        SummaryEngine batching = batchingEngine(8, 50);
+        when(openAIClient.generateSummaryAsync(any())).thenReturn(Mono.just("UAL1 is en route."));
+
+        batching.submit(flight("UAL1")).orTimeout(5, TimeUnit.SECONDS).join();
+
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        batching.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should request flights singly when the batched completion misses them or fails")
+    void shouldFallBackToSingleRequests() {
+        SummaryEngine batching = batchingEngine(2, 60_000);
+        when(openAIClient.generateSummariesAsync(anyList()))
+                .thenReturn(Mono.just(Map.of("UAL1-id", "UAL1 is en route.")))
+                .thenReturn(Mono.error(new RuntimeException("OpenAI API returned an unparseable batched response")));
+        when(openAIClient.generateSummaryAsync(any())).thenAnswer(invocation ->
+                Mono.just(invocation.<FlightData>getArgument(0).getIdent() + " (single)"));
+
+        CompletableFuture<Void> partial = CompletableFuture.allOf(
+                batching.submit(flight("UAL1")), batching.submit(flight("DAL2")));
+        CompletableFuture<Void> failed = CompletableFuture.allOf(
+                batching.submit(flight("AAL3")), batching.submit(flight("SWA4")));
+        CompletableFuture.allOf(partial, failed).join();
+
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        verify(summaryService).saveSummary(argThatIdent("DAL2"), eq("DAL2 (single)"));
+        verify(summaryService).saveSummary(argThatIdent("AAL3"), eq("AAL3 (single)"));
+        verify(summaryService).saveSummary(argThatIdent("SWA4"), eq("SWA4 (single)"));
+        assertThat(meterRegistry.get("summary_batch_fallbacks").counter().count()).isEqualTo(3);
+        assertThat(inFlight()).isZero();
+        batching.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should request flights without fa_flight_id singly and release the permit")
+    void shouldFallBackForFlightsWithoutId() {
+        SummaryEngine batching = batchingEngine(2, 60_000);
+        when(openAIClient.generateSummariesAsync(anyList()))
+                .thenReturn(Mono.just(Map.of("UAL1-id", "UAL1 is en route.")))
+                .thenReturn(Mono.error(new RuntimeException("OpenAI timeout")));
+        when(openAIClient.generateSummaryAsync(any())).thenAnswer(invocation ->
+                Mono.just(invocation.<FlightData>getArgument(0).getIdent() + " (single)"));
+        FlightData withoutId = FlightData.builder().ident("N123AB").status("En Route").build();
+        FlightData alsoWithoutId = FlightData.builder().ident("N456CD").status("En Route").build();
+
+        CompletableFuture.allOf(
+                batching.submit(flight("UAL1")), batching.submit(withoutId),
+                batching.submit(flight("DAL2")), batching.submit(alsoWithoutId))
+                .orTimeout(5, TimeUnit.SECONDS).join();
+
+        verify(summaryService).saveSummary(argThatIdent("UAL1"), eq("UAL1 is en route."));
+        verify(summaryService).saveSummary(argThatIdent("N123AB"), eq("N123AB (single)"));
+        verify(summaryService).saveSummary(argThatIdent("DAL2"), eq("DAL2 (single)"));
+        verify(summaryService).saveSummary(argThatIdent("N456CD"), eq("N456CD (single)"));
+        assertThat(inFlight()).isZero();
+        batching.shutdown();
+    }
+
+    private SummaryEngine batchingEngine(int maxSize, long windowMs) {
+        meterRegistry = new SimpleMeterRegistry();
+        return new SummaryEngine(openAIClient, summaryService, meterRegistry, MAX_CONCURRENT_REQUESTS, 1,
+                maxSize, windowMs);
+    }
+
+    private void givenPendingResponses() {
+        when(openAIClient.generateSummaryAsync(any())).thenAnswer(invocation -> {
+            Sinks.One<String> response = Sinks.one();
+            responses.put(invocation.<FlightData>getArgument(0).getIdent(), response);
+            return response.asMono();
+        });
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("openai_requests_in_flight").gauge().value();
+    }
+
+    private static FlightData argThatIdent(String ident) {
+        return argThat(flightData -> ident.equals(flightData.getIdent()));
+    }
+
+    private static FlightData flight(String ident) {
+        return FlightData.builder()
+                .ident(ident)
+                .faFlightId(ident + "-id")
+                .status("En Route")
+                .build();
+    }
+}
@@ -1,17 +1,23 @@
 package com.airlinetracker.llmsummary.service;
 
+import com.airlinetracker.llmsummary.cache.SummaryCache;
 import com.airlinetracker.llmsummary.client.OpenAIClient;
 import com.airlinetracker.llmsummary.dto.FlightData;
 import com.airlinetracker.llmsummary.entity.FlightSummary;
 import com.airlinetracker.llmsummary.repository.FlightSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -37,6 +43,18 @@ class SummaryServiceTest {
     @Mock
     private FlightSummaryRepository repository;
 
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Mock
+    private SummaryCache summaryCache;
+
+    @Mock
+    private TemplateSummaryGenerator templateSummaryGenerator;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private SummaryService summaryService;
 
@@ -179,6 +197,99 @@ class SummaryServiceTest {
 
         // Verify repository was NOT called when OpenAI fails
         verify(repository, never()).save(any());
+        verify(transactionOperations, never()).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should open the transaction only after OpenAI has answered")
+    void testProcessFlightData_TransactionAfterOpenAI() {
+        // Given: Mock responses
+        when(openAIClient.generateSummary(any(FlightData.class))).thenReturn("Summary");
+        when(repository.findByFaFlightId(anyString())).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(FlightSummary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When: Processing flight data
+        summaryService.processFlightData(testFlightData);
+
+        // Then: OpenAI is called first, the lookup and save run inside the transaction
+        InOrder inOrder = inOrder(openAIClient, transactionOperations, repository);
+        inOrder.verify(openAIClient).generateSummary(testFlightData);
+        inOrder.verify(transactionOperations).executeWithoutResult(any());
+        inOrder.verify(repository).findByFaFlightId("UAL123-1234567890-1-0");
+        inOrder.verify(repository).saveAndFlush(any(FlightSummary.class));
+    }
+
+    @Test
+    @DisplayName("Should cache a generated summary under the prompt hash")
+    void testProcessFlightData_CachesGeneratedSummary() {
+        // Given: Cache miss
+        when(openAIClient.cacheKey(testFlightData)).thenReturn("prompt-hash");
+        when(summaryCache.get("prompt-hash")).thenReturn(Optional.empty());
+        when(openAIClient.generateSummary(any(FlightData.class))).thenReturn("Summary");
+        when(repository.saveAndFlush(any(FlightSummary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When: Processing flight data
+        summaryService.processFlightData(testFlightData);
+
+        // Then: The generated summary is cached
+        verify(summaryCache).put("prompt-hash", "Summary");
+    }
+
+    @Test
+    @DisplayName("Should reuse a cached summary without calling OpenAI")
+    void testProcessFlightData_CacheHit() {
+        // Given: Summary already generated for identical prompt input
+        when(openAIClient.cacheKey(testFlightData)).thenReturn("prompt-hash");
+        when(summaryCache.get("prompt-hash")).thenReturn(Optional.of("Cached summary"));
+        when(repository.saveAndFlush(any(FlightSummary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When: Processing flight data
+        summaryService.processFlightData(testFlightData);
+
+        // Then: OpenAI is skipped and the cached text is saved
+        verify(openAIClient, never()).generateSummary(any());
+        verify(summaryCache, never()).put(any(), any());
+        ArgumentCaptor<FlightSummary> captor = ArgumentCaptor.forClass(FlightSummary.class);
+        verify(repository).saveAndFlush(captor.capture());
+        assertThat(captor.getValue().getSummaryText()).isEqualTo("Cached summary");
+    }
+
+    @Test
+    @DisplayName("Should save a template summary without consulting the cache or OpenAI")
+    void testProcessFlightData_TemplateRoute() {
+        // Given: Routine state covered by a template
+        when(templateSummaryGenerator.generate(testFlightData)).thenReturn(Optional.of("Templated summary"));
+        when(repository.saveAndFlush(any(FlightSummary.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When: Processing flight data
+        summaryService.processFlightData(testFlightData);
+
+        // Then: Neither the cache nor OpenAI is used
+        verifyNoInteractions(summaryCache);
+        verify(openAIClient, never()).generateSummary(any());
+        ArgumentCaptor<FlightSummary> captor = ArgumentCaptor.forClass(FlightSummary.class);
+        verify(repository).saveAndFlush(captor.capture());
+        assertThat(captor.getValue().getSummaryText()).isEqualTo("Templated summary");
+        assertThat(routeCount("template")).isEqualTo(1);
+        assertThat(routeCount("llm")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count each summary under the route that produced it")
+    void testFindReadySummary_RoutingMetric() {
+        // Given: One cached flight, one needing the LLM
+        FlightData cachedFlight = FlightData.builder().ident("DAL2").faFlightId("DAL2-1").status("En Route").build();
+        when(openAIClient.cacheKey(cachedFlight)).thenReturn("cached-hash");
+        when(summaryCache.get("cached-hash")).thenReturn(Optional.of("Cached summary"));
+
+        // When: Routing both
+        assertThat(summaryService.findReadySummary(cachedFlight)).contains("Cached summary");
+        assertThat(summaryService.findReadySummary(testFlightData)).isEmpty();
+
+        // Then: One cache route, one LLM route
+        assertThat(routeCount("template")).isZero();
+        assertThat(routeCount("cache")).isEqualTo(1);
+        assertThat(routeCount("llm")).isEqualTo(1);
     }
 
     @Test
@@ -196,4 +307,8 @@ class SummaryServiceTest {
         // Then: Verify correct fa_flight_id was queried
         verify(repository, times(1)).findByFaFlightId("UAL123-1234567890-1-0");
     }
+
+    private double routeCount(String route) {
+        return meterRegistry.get("summary_routes").tag("route", route).counter().count();
+    }
 }
@@ -0,0 +1,87 @@
+package com.airlinetracker.llmsummary.service;
+
+import com.airlinetracker.llmsummary.dto.FlightData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TemplateSummaryGenerator.
+ *
+ * Test Requirements:
+ * - Scheduled, landed and cancelled flights get a two-sentence summary with ident, route and times
+ * - Statuses outside the configured patterns, and flights missing route data, go to the LLM
+ * - Blank patterns or a disabled generator never template
+ */
+@DisplayName("TemplateSummaryGenerator Tests")
+class TemplateSummaryGeneratorTest {
+
+    private final TemplateSummaryGenerator generator = new TemplateSummaryGenerator(true,
+            "Scheduled", "(Landed|Arrived)\\b.*", "Cancell?ed\\b.*");
+
+    @Test
+    @DisplayName("Should template a scheduled flight with its departure and arrival times")
+    void shouldTemplateScheduledFlight() {
+        assertThat(generator.generate(flight("Scheduled")))
+                .contains("Flight UAL123 from KORD to KLAX is scheduled and has not departed yet. "
+                        + "It is due to depart at 09:00 UTC on 10 Nov 2025 and arrive at 14:00 UTC on 10 Nov 2025.");
+    }
+
+    @Test
+    @DisplayName("Should template a landed flight with its arrival time and punctuality")
+    void shouldTemplateLandedFlight() {
+        FlightData flightData = flight("Arrived / Gate Arrival");
+        flightData.setActualIn(Instant.parse("2025-11-10T14:25:00Z"));
+
+        assertThat(generator.generate(flightData))
+                .contains("Flight UAL123 from KORD to KLAX has landed at KLAX. "
+                        + "It arrived at 14:25 UTC on 10 Nov 2025, 25 minutes late.");
+    }
+
+    @Test
+    @DisplayName("Should template a cancelled flight with its scheduled departure")
+    void shouldTemplateCancelledFlight() {
+        assertThat(generator.generate(flight("cancelled")))
+                .contains("Flight UAL123 from KORD to KLAX has been cancelled. "
+                        + "It was scheduled to depart at 09:00 UTC on 10 Nov 2025.");
+    }
+
+    @Test
+    @DisplayName("Should leave non-routine states and incomplete flights to the LLM")
+    void shouldLeaveOtherStatesToLlm() {
+        FlightData noDestination = flight("Scheduled");
+        noDestination.setDestination(null);
+
+        assertThat(generator.generate(flight("En Route / On Time"))).isEmpty();
+        assertThat(generator.generate(flight("Scheduled / Delayed"))).isEmpty();
+        assertThat(generator.generate(noDestination)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should never template when disabled or when a pattern is blank")
+    void shouldNotTemplateWhenDisabled() {
+        TemplateSummaryGenerator disabled = new TemplateSummaryGenerator(false,
+                "Scheduled", "(Landed|Arrived)\\b.*", "Cancell?ed\\b.*");
+        TemplateSummaryGenerator noScheduled = new TemplateSummaryGenerator(true,
+                "", "(Landed|Arrived)\\b.*", "Cancell?ed\\b.*");
+
+        assertThat(disabled.generate(flight("Scheduled"))).isEmpty();
+        assertThat(noScheduled.generate(flight("Scheduled"))).isEmpty();
+        assertThat(noScheduled.generate(flight("Cancelled"))).isPresent();
+    }
+
+    private static FlightData flight(String status) {
+        return FlightData.builder()
+                .ident("UAL123")
+                .faFlightId("UAL123-1234567890-1-0")
+                .status(status)
+                .scheduledOut(Instant.parse("2025-11-10T09:00:00Z"))
+                .scheduledIn(Instant.parse("2025-11-10T14:00:00Z"))
+                .origin("KORD")
+                .destination("KLAX")
+                .build();
+    }
+}